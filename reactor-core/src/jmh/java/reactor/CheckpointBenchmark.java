@@ -18,8 +18,14 @@ package reactor;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
 import reactor.guide.FakeRepository;
 import reactor.guide.FakeUtils1;
 import reactor.guide.FakeUtils2;
@@ -52,4 +58,54 @@ public class CheckpointBenchmark {
 				              t -> {}
 		              );
 	}
+
+	@Benchmark
+	@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+	public void withOperatorStacktrace(OperatorStacktrace hook) {
+		FakeRepository.findAllUserByName(Flux.just("pedro", "simon", "stephane"))
+		              .transform(FakeUtils1.applyFilters)
+		              .transform(FakeUtils2.enrichUser)
+		              .subscribe(System.out::println,
+				              t -> {}
+		              );
+	}
+
+	@Benchmark
+	@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+	public void withOperatorCallSite(OperatorCallSite hook) {
+		FakeRepository.findAllUserByName(Flux.just("pedro", "simon", "stephane"))
+		              .transform(FakeUtils1.applyFilters)
+		              .transform(FakeUtils2.enrichUser)
+		              .subscribe(System.out::println,
+				              t -> {}
+		              );
+	}
+
+	@State(Scope.Benchmark)
+	public static class OperatorStacktrace {
+
+		@Setup(Level.Trial)
+		public void setup() {
+			Hooks.onOperator(Hooks.OperatorHook::operatorStacktrace);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			Hooks.resetOnOperator();
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class OperatorCallSite {
+
+		@Setup(Level.Trial)
+		public void setup() {
+			Hooks.onOperator(Hooks.OperatorHook::operatorCallSite);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			Hooks.resetOnOperator();
+		}
+	}
 }
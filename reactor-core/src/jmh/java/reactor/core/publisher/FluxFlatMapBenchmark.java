@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of {@link FluxFlatMap} and {@link FluxConcatMap} where {@code count}
+ * elements in total are produced by {@code count / innerCount} inner sequences. Inner
+ * sequences of one element are scalar ({@link Flux#just(Object)}) and take the
+ * {@code tryScalarSubscribe} shortcut when fused, larger ones are
+ * {@link Flux#range(int, int)} and are drained through {@link reactor.core.Fuseable#SYNC}
+ * fusion unless {@code fused=false} hides them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FluxFlatMapBenchmark {
+
+	@Param({"1", "1000", "1000000"})
+	public int count;
+
+	@Param({"1", "1000"})
+	public int innerCount;
+
+	@Param({"true", "false"})
+	public boolean fused;
+
+	Flux<Integer> source;
+
+	Flux<Integer> inner;
+
+	@Setup
+	public void setup() {
+		int outerCount = Math.max(1, count / innerCount);
+		Flux<Integer> o = outerCount == 1 ? Flux.just(0) : Flux.range(0, outerCount);
+		Flux<Integer> i = innerCount == 1 ? Flux.just(0) : Flux.range(0, innerCount);
+		source = fused ? o : o.hide();
+		inner = fused ? i : i.hide();
+	}
+
+	@Benchmark
+	public void flatMap(Blackhole bh) {
+		source.flatMap(v -> inner)
+		      .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void concatMap(Blackhole bh) {
+		source.concatMap(v -> inner)
+		      .subscribe(new PerfSubscriber(bh));
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of {@link FluxMap} and {@link FluxFilter} (and their
+ * {@link reactor.core.Fuseable} counterparts) over a scalar or a multi-element
+ * source, with fusion either available ({@code fused=true}, the source is
+ * {@link Flux#range(int, int)} or {@link Flux#just(Object)}) or prevented by
+ * {@link Flux#hide()}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FluxMapFilterBenchmark {
+
+	@Param({"1", "1000", "1000000"})
+	public int count;
+
+	@Param({"true", "false"})
+	public boolean fused;
+
+	Flux<Integer> source;
+
+	@Setup
+	public void setup() {
+		Flux<Integer> f = count == 1 ? Flux.just(0) : Flux.range(0, count);
+		source = fused ? f : f.hide();
+	}
+
+	@Benchmark
+	public void map(Blackhole bh) {
+		source.map(v -> v + 1)
+		      .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void filter(Blackhole bh) {
+		source.filter(v -> (v & 1) == 0)
+		      .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void mapFilter(Blackhole bh) {
+		source.map(v -> v + 1)
+		      .filter(v -> (v & 1) == 0)
+		      .subscribe(new PerfSubscriber(bh));
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Throughput of {@link FluxPublishOn} over a synchronous ({@code immediate}) or an
+ * asynchronous ({@code single}) boundary. The source is consumed through
+ * {@link reactor.core.Fuseable#SYNC} fusion when {@code fused=true}, and
+ * {@link #publishOnAsyncFused} additionally measures a second {@code publishOn}
+ * draining the first one in {@link reactor.core.Fuseable#ASYNC} mode.
+ * {@link #publishOnBatched} measures {@link FluxPublishOnBatched} handing the same
+ * values over in batches of up to 256.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FluxPublishOnBenchmark {
+
+	@Param({"1", "1000", "1000000"})
+	public int count;
+
+	@Param({"true", "false"})
+	public boolean fused;
+
+	@Param({"immediate", "single"})
+	public String boundary;
+
+	Flux<Integer> source;
+
+	Scheduler scheduler;
+
+	@Setup
+	public void setup() {
+		Flux<Integer> f = count == 1 ? Flux.just(0) : Flux.range(0, count);
+		source = fused ? f : f.hide();
+		scheduler = "single".equals(boundary) ? Schedulers.newSingle("bench") :
+				Schedulers.immediate();
+	}
+
+	@TearDown
+	public void teardown() {
+		scheduler.dispose();
+	}
+
+	@Benchmark
+	public void publishOn(Blackhole bh) throws InterruptedException {
+		PerfSubscriber s = new PerfSubscriber(bh);
+		source.publishOn(scheduler)
+		      .subscribe(s);
+		s.await();
+	}
+
+	@Benchmark
+	public void publishOnAsyncFused(Blackhole bh) throws InterruptedException {
+		PerfSubscriber s = new PerfSubscriber(bh);
+		Flux<Integer> f = source.publishOn(scheduler);
+		if (!fused) {
+			f = f.hide();
+		}
+		f.publishOn(Schedulers.immediate())
+		 .subscribe(s);
+		s.await();
+	}
+
+	@Benchmark
+	public void publishOnBatched(Blackhole bh) throws InterruptedException {
+		PerfSubscriber s = new PerfSubscriber(bh);
+		source.publishOnBatched(scheduler, 256)
+		      .subscribe(s);
+		s.await();
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of {@link FluxZip} pairing two scalar or multi-element sources, which
+ * are drained through {@link reactor.core.Fuseable#SYNC} fusion unless
+ * {@code fused=false} hides them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FluxZipBenchmark {
+
+	@Param({"1", "1000", "1000000"})
+	public int count;
+
+	@Param({"true", "false"})
+	public boolean fused;
+
+	Flux<Integer> source1;
+
+	Flux<Integer> source2;
+
+	@Setup
+	public void setup() {
+		Flux<Integer> f = count == 1 ? Flux.just(0) : Flux.range(0, count);
+		source1 = fused ? f : f.hide();
+		source2 = fused ? f : f.hide();
+	}
+
+	@Benchmark
+	public void zip(Blackhole bh) {
+		Flux.zip(source1, source2)
+		    .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void zipWithCombinator(Blackhole bh) {
+		Flux.zip(source1, source2, (a, b) -> a + b)
+		    .subscribe(new PerfSubscriber(bh));
+	}
+}
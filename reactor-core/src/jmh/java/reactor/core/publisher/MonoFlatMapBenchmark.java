@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of {@link MonoFlatMap} and {@link MonoFlatMapMany} with scalar inner
+ * {@link Mono Monos} (fused) or hidden ones.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MonoFlatMapBenchmark {
+
+	@Param({"true", "false"})
+	public boolean fused;
+
+	Mono<Integer> source;
+
+	Mono<Integer> inner;
+
+	Flux<Integer> innerMany;
+
+	@Setup
+	public void setup() {
+		source = fused ? Mono.just(0) : Mono.just(0).hide();
+		inner = fused ? Mono.just(1) : Mono.just(1).hide();
+		innerMany = fused ? Flux.range(0, 16) : Flux.range(0, 16).hide();
+	}
+
+	@Benchmark
+	public void flatMap(Blackhole bh) {
+		source.flatMap(v -> inner)
+		      .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void flatMapMany(Blackhole bh) {
+		source.flatMapMany(v -> innerMany)
+		      .subscribe(new PerfSubscriber(bh));
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput and allocation of {@link MonoReduceNumber} compared to the boxed
+ * {@link Flux#reduce} equivalent. With the gc profiler, {@code gc.alloc.rate.norm} of
+ * the fused range benchmarks doesn't grow with {@code count}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MonoReduceNumberBenchmark {
+
+	@Param({"1000", "1000000"})
+	public int count;
+
+	Flux<Integer> range;
+
+	Flux<Long> rangeLong;
+
+	Flux<Integer> array;
+
+	@Setup
+	public void setup() {
+		range = Flux.range(0, count);
+		rangeLong = Flux.rangeLong(0, count);
+		Integer[] values = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = i;
+		}
+		array = Flux.fromArray(values);
+	}
+
+	@Benchmark
+	public Integer sumIntRange() {
+		return Flux.sumInt(range)
+		           .block();
+	}
+
+	@Benchmark
+	public Integer reduceRange() {
+		return range.reduce(Integer::sum)
+		            .block();
+	}
+
+	@Benchmark
+	public Long sumLongRangeLong() {
+		return Flux.sumLong(rangeLong)
+		           .block();
+	}
+
+	@Benchmark
+	public Long reduceRangeLong() {
+		return rangeLong.reduce(Long::sum)
+		                .block();
+	}
+
+	@Benchmark
+	public Long maxLongRangeLong() {
+		return Flux.maxLong(rangeLong)
+		           .block();
+	}
+
+	@Benchmark
+	public Double averageDoubleRange() {
+		return Flux.averageDouble(range)
+		           .block();
+	}
+
+	@Benchmark
+	public Integer sumIntArray() {
+		return Flux.sumInt(array)
+		           .block();
+	}
+
+	@Benchmark
+	public Integer sumIntHidden() {
+		return Flux.sumInt(range.hide())
+		           .block();
+	}
+}
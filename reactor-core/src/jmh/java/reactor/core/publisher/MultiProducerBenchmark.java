@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.util.concurrent.QueueSupplier;
+
+/**
+ * Emission throughput, in values per second, when {@code producers} threads push
+ * concurrently into a multi-producer entry point. {@link #queueMpsc} and
+ * {@link #queueSynchronized} compare the raw lock-free queue against the
+ * {@code synchronized} SPSC offer that {@link FluxCreate.SerializedSink} used to do,
+ * while {@link #fluxCreate} and {@link #processorSerialize} measure the
+ * {@link Flux#create} sink and {@link FluxProcessor#serialize()} end to end.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MultiProducerBenchmark {
+
+	static final int COUNT = 1 << 17;
+
+	@Param({"1", "4", "16"})
+	public int producers;
+
+	ExecutorService executor;
+
+	@Setup
+	public void setup() {
+		executor = Executors.newFixedThreadPool(producers);
+	}
+
+	@TearDown
+	public void teardown() {
+		executor.shutdownNow();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public void queueMpsc(Blackhole bh) throws InterruptedException {
+		Queue<Integer> q = QueueSupplier.<Integer>mpscUnbounded().get();
+		produce(q::offer);
+		consume(q, bh);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public void queueSynchronized(Blackhole bh) throws InterruptedException {
+		Queue<Integer> q = QueueSupplier.<Integer>unbounded().get();
+		produce(v -> {
+			synchronized (q) {
+				q.offer(v);
+			}
+		});
+		consume(q, bh);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public void fluxCreate(Blackhole bh) throws InterruptedException {
+		PerfSubscriber s = new PerfSubscriber(bh);
+		FluxSink<Integer>[] sink = sink();
+		Flux.<Integer>create(e -> sink[0] = e).subscribe(s);
+
+		produce(sink[0]::next).await();
+		sink[0].complete();
+		s.await();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public void processorSerialize(Blackhole bh) throws InterruptedException {
+		PerfSubscriber s = new PerfSubscriber(bh);
+		FluxProcessor<Integer, Integer> p = DirectProcessor.<Integer>create().serialize();
+		p.subscribe(s);
+
+		produce(p::onNext).await();
+		p.onComplete();
+		s.await();
+	}
+
+	@SuppressWarnings("unchecked")
+	static FluxSink<Integer>[] sink() {
+		return new FluxSink[1];
+	}
+
+	CountDownLatch produce(Consumer<Integer> target) {
+		int n = producers;
+		int perProducer = COUNT / n;
+		CountDownLatch done = new CountDownLatch(n);
+		for (int p = 0; p < n; p++) {
+			executor.execute(() -> {
+				for (int i = 0; i < perProducer; i++) {
+					target.accept(i);
+				}
+				done.countDown();
+			});
+		}
+		return done;
+	}
+
+	static void consume(Queue<Integer> q, Blackhole bh) {
+		int received = 0;
+		while (received < COUNT) {
+			Integer v = q.poll();
+			if (v != null) {
+				bh.consume(v);
+				received++;
+			}
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+
+/**
+ * A terminal {@link CoreSubscriber} for benchmarks that requests an unbounded amount,
+ * feeds every signal into a {@link Blackhole} and lets the benchmark thread wait for
+ * termination when the measured sequence crosses an asynchronous boundary.
+ */
+final class PerfSubscriber implements CoreSubscriber<Object> {
+
+	final Blackhole bh;
+
+	final CountDownLatch latch = new CountDownLatch(1);
+
+	PerfSubscriber(Blackhole bh) {
+		this.bh = bh;
+	}
+
+	@Override
+	public void onSubscribe(Subscription s) {
+		s.request(Long.MAX_VALUE);
+	}
+
+	@Override
+	public void onNext(Object o) {
+		bh.consume(o);
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		bh.consume(t);
+		latch.countDown();
+	}
+
+	@Override
+	public void onComplete() {
+		latch.countDown();
+	}
+
+	void await() throws InterruptedException {
+		if (latch.getCount() != 0L) {
+			latch.await();
+		}
+	}
+}
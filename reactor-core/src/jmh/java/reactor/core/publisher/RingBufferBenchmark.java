@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.EventLoopProcessor.Slot;
+import reactor.util.concurrent.WaitStrategy;
+
+/**
+ * Multi-producer claim and publish throughput of the {@code sun.misc.Unsafe} based
+ * {@link MultiProducerRingBuffer} / {@link UnsafeRingBuffer} pair against the
+ * {@link AtomicMultiProducerRingBuffer} / {@link NotFunRingBuffer} pair used when
+ * Unsafe is not available. A background thread consumes and releases the slots.
+ * The {@code unsafe} variant requires a JVM exposing {@code sun.misc.Unsafe}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RingBufferBenchmark {
+
+	@Param({"unsafe", "atomic"})
+	public String implementation;
+
+	@Param({"1024"})
+	public int bufferSize;
+
+	RingBuffer<Slot<Object>> ringBuffer;
+
+	Thread consumer;
+
+	volatile boolean running;
+
+	@Setup
+	public void setup() {
+		if ("unsafe".equals(implementation)) {
+			if (!RingBuffer.hasUnsafe()) {
+				throw new IllegalStateException("This JVM does not support sun.misc.Unsafe");
+			}
+			ringBuffer = new UnsafeRingBuffer<>(Slot::new,
+					new MultiProducerRingBuffer(bufferSize, WaitStrategy.busySpin(), null));
+		}
+		else {
+			ringBuffer = new NotFunRingBuffer<>(Slot::new,
+					new AtomicMultiProducerRingBuffer(bufferSize, WaitStrategy.busySpin(), null));
+		}
+
+		RingBuffer.Sequence consumed = RingBuffer.newSequence(RingBuffer.INITIAL_CURSOR_VALUE);
+		ringBuffer.addGatingSequence(consumed);
+		RingBuffer.Reader reader = ringBuffer.newReader();
+
+		running = true;
+		consumer = new Thread(() -> {
+			long next = 0L;
+			try {
+				while (running) {
+					long available = reader.waitFor(next, () -> {
+						if (!running) {
+							WaitStrategy.alert();
+						}
+					});
+					for (; next <= available; next++) {
+						ringBuffer.get(next).value = null;
+					}
+					consumed.set(available);
+				}
+			}
+			catch (Throwable e) {
+				if (!WaitStrategy.isAlert(e)) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}, "ring-buffer-benchmark-consumer");
+		consumer.setDaemon(true);
+		consumer.start();
+	}
+
+	@TearDown
+	public void teardown() throws InterruptedException {
+		running = false;
+		consumer.join(1000);
+	}
+
+	@Benchmark
+	public long claimAndPublish() {
+		RingBuffer<Slot<Object>> rb = ringBuffer;
+		long seq = rb.next();
+		rb.get(seq).value = this;
+		rb.publish(seq);
+		return seq;
+	}
+
+	@Benchmark
+	public long claimAndPublishBatch() {
+		RingBuffer<Slot<Object>> rb = ringBuffer;
+		long hi = rb.next(16);
+		long lo = hi - 15;
+		for (long seq = lo; seq <= hi; seq++) {
+			rb.get(seq).value = this;
+		}
+		rb.publish(lo, hi);
+		return hi;
+	}
+}
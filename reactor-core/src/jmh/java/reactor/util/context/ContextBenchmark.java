@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.context;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of {@link Context#put(Object, Object)} and {@link Context#get(Object)} for
+ * contexts of various sizes, covering the {@code Context1}..{@code Context5}
+ * specializations and the trie backed {@link ContextN}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ContextBenchmark {
+
+	@Param({"1", "3", "5", "10", "20", "100"})
+	public int size;
+
+	String[] keys;
+
+	Context context;
+
+	@Setup
+	public void setup() {
+		keys = new String[size];
+		Context c = Context.empty();
+		for (int i = 0; i < size; i++) {
+			keys[i] = "key" + i;
+			c = c.put(keys[i], i);
+		}
+		context = c;
+	}
+
+	/**
+	 * Build a context of {@code size} entries from scratch, as a chain of
+	 * {@code subscriberContext} writes would.
+	 */
+	@Benchmark
+	public Context putFromEmpty() {
+		Context c = Context.empty();
+		for (String key : keys) {
+			c = c.put(key, key);
+		}
+		return c;
+	}
+
+	@Benchmark
+	public Context putNewKey() {
+		return context.put("newKey", "value");
+	}
+
+	@Benchmark
+	public Context putExistingKey() {
+		return context.put(keys[size / 2], "value");
+	}
+
+	@Benchmark
+	public void getAll(Blackhole bh) {
+		Context c = context;
+		for (String key : keys) {
+			bh.consume(c.<Integer>get(key));
+		}
+	}
+
+	@Benchmark
+	public Object getMissing() {
+		return context.get("missing");
+	}
+}
@@ -17,11 +17,15 @@
 package reactor.core;
 
 import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
 import java.util.Spliterators;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
 
+import reactor.util.function.Tuple2;
+
 /**
  * A Scannable component exposes state in a non strictly memory consistent way and
  * results should be understood as best-effort hint of the underlying state. This is
@@ -187,7 +191,16 @@ public interface Scannable {
 		 * query but will return {@link Integer#MIN_VALUE} when actual buffer size is
 		 * oversized for int.
 		 */
-		BUFFERED(0);
+		BUFFERED(0),
+
+		/**
+		 * An {@link Integer} attribute exposing the number of tasks currently executing
+		 * in a {@link reactor.core.scheduler.Scheduler}. Only available when the
+		 * scheduler metrics are enabled, defaults to {@literal null}.
+		 *
+		 * @see reactor.core.scheduler.Schedulers#enableMetrics
+		 */
+		ACTIVE_TASKS(null);
 
 		final Integer defaultValue;
 
@@ -225,7 +238,71 @@ public interface Scannable {
 		 * component. Note that {@link Long#MAX_VALUE} indicates an unbounded (push-style)
 		 * demand as specified in {@link org.reactivestreams.Subscription#request(long)}.
 		 */
-		REQUESTED_FROM_DOWNSTREAM(0L);
+		REQUESTED_FROM_DOWNSTREAM(0L),
+
+		/**
+		 * A {@link Long} attribute exposing the total number of tasks accepted by the
+		 * executors currently backing a {@link reactor.core.scheduler.Scheduler}. Only
+		 * available when the scheduler metrics are enabled, defaults to {@literal null}.
+		 *
+		 * @see reactor.core.scheduler.Schedulers#enableMetrics
+		 */
+		TASKS_SUBMITTED(null),
+
+		/**
+		 * A {@link Long} attribute exposing the total number of task executions that
+		 * finished (normally or not) on the executors currently backing a
+		 * {@link reactor.core.scheduler.Scheduler}. Only available when the scheduler
+		 * metrics are enabled, defaults to {@literal null}.
+		 *
+		 * @see reactor.core.scheduler.Schedulers#enableMetrics
+		 */
+		TASKS_COMPLETED(null),
+
+		/**
+		 * A {@link Long} attribute exposing the number of waits that could not be
+		 * satisfied immediately and went through an adaptive
+		 * {@link reactor.util.concurrent.WaitStrategy}. Defaults to {@literal null}.
+		 *
+		 * @see reactor.util.concurrent.WaitStrategy#adaptive()
+		 */
+		WAITS(null),
+
+		/**
+		 * A {@link Long} attribute exposing the number of waits of an adaptive
+		 * {@link reactor.util.concurrent.WaitStrategy} that were satisfied while
+		 * spinning. Defaults to {@literal null}.
+		 *
+		 * @see reactor.util.concurrent.WaitStrategy#adaptive()
+		 */
+		WAIT_SPIN_HITS(null),
+
+		/**
+		 * A {@link Long} attribute exposing the number of waits of an adaptive
+		 * {@link reactor.util.concurrent.WaitStrategy} that were satisfied while
+		 * yielding. Defaults to {@literal null}.
+		 *
+		 * @see reactor.util.concurrent.WaitStrategy#adaptive()
+		 */
+		WAIT_YIELD_HITS(null),
+
+		/**
+		 * A {@link Long} attribute exposing the number of waits of an adaptive
+		 * {@link reactor.util.concurrent.WaitStrategy} that ended up blocking.
+		 * Defaults to {@literal null}.
+		 *
+		 * @see reactor.util.concurrent.WaitStrategy#adaptive()
+		 */
+		WAIT_PARKS(null),
+
+		/**
+		 * A {@link Long} attribute exposing the moving average, in nanoseconds, of the
+		 * recent waits of an adaptive {@link reactor.util.concurrent.WaitStrategy}.
+		 * Defaults to {@literal null}.
+		 *
+		 * @see reactor.util.concurrent.WaitStrategy#adaptive()
+		 */
+		WAIT_AVERAGE_NANOS(null);
 
 		final Long defaultValue;
 
@@ -240,6 +317,42 @@ public interface Scannable {
 		}
 	}
 
+	/**
+	 * {@link Scannable} attributes associated with a {@link String} value.
+	 */
+	enum StringAttr implements Attr<String> {
+
+		/**
+		 * A {@link String} attribute exposing the name given to a sequence with
+		 * {@code Flux#name(String)}. Operators downstream of the named sequence can
+		 * discover it by walking up the {@link Scannable#parents()} chain, see
+		 * {@link Scannable#name()}.
+		 */
+		NAME(null),
+
+		/**
+		 * A {@link String} attribute exposing the phase an adaptive
+		 * {@link reactor.util.concurrent.WaitStrategy} currently starts its waits in:
+		 * {@literal "spin"}, {@literal "yield"} or {@literal "park"}. Defaults to
+		 * {@literal null}.
+		 *
+		 * @see reactor.util.concurrent.WaitStrategy#adaptive()
+		 */
+		WAIT_PHASE(null);
+
+		final String defaultValue;
+
+		StringAttr(@Nullable String defaultValue) {
+			this.defaultValue = defaultValue;
+		}
+
+		@Override
+		@Nullable
+		public String defaultValue() {
+			return defaultValue;
+		}
+	}
+
 	/**
 	 * {@link Scannable} attributes associated with a {@link Throwable} value.
 	 */
@@ -314,6 +427,14 @@ public interface Scannable {
 	 */
 	final class GenericAttr<T> implements Attr<T> {
 
+		/**
+		 * A {@link Set} of key-value {@link Tuple2} tags given to a sequence with
+		 * {@code Flux#tag(String, String)}. Tags of the whole {@link Scannable#parents()}
+		 * chain can be collected with {@link Scannable#tags()}.
+		 */
+		public static final GenericAttr<Set<Tuple2<String, String>>> TAGS =
+				new GenericAttr<>(null);
+
 		final T defaultValue;
 
 		GenericAttr(@Nullable T defaultValue) {
@@ -376,6 +497,38 @@ public interface Scannable {
 		return true;
 	}
 
+	/**
+	 * Return the name of this component, as set by {@code Flux#name(String)}, or the name
+	 * of the closest named component up the {@link #parents()} chain.
+	 *
+	 * @return the name of the sequence, or null if neither this component nor its
+	 * parents are named
+	 */
+	@Nullable
+	default String name() {
+		String name = scan(StringAttr.NAME);
+		if (name != null) {
+			return name;
+		}
+		return parents().map(s -> s.scan(StringAttr.NAME))
+		                .filter(Objects::nonNull)
+		                .findFirst()
+		                .orElse(null);
+	}
+
+	/**
+	 * Return the tags of this component and of the whole {@link #parents()} chain, as
+	 * set by {@code Flux#tag(String, String)}.
+	 *
+	 * @return a {@link Stream} of key-value tags, possibly empty
+	 */
+	default Stream<Tuple2<String, String>> tags() {
+		return Stream.concat(Stream.of(this), parents())
+		             .map(s -> s.scan(GenericAttr.TAGS))
+		             .filter(Objects::nonNull)
+		             .flatMap(Set::stream);
+	}
+
 	/**
 	 * Return a {@link Stream} navigating the {@link org.reactivestreams.Subscription}
 	 * chain (upward).
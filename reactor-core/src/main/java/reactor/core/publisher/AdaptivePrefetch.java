@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+/**
+ * An adaptive prefetch strategy, usable instead of a fixed prefetch by
+ * {@link Flux#publishOn(reactor.core.scheduler.Scheduler, AdaptivePrefetch) publishOn},
+ * {@link Flux#limitRate(AdaptivePrefetch) limitRate},
+ * {@link Flux#concatMap(java.util.function.Function, AdaptivePrefetch) concatMap} and
+ * the inner sources of
+ * {@link Flux#flatMap(java.util.function.Function, int, AdaptivePrefetch) flatMap}.
+ * <p>
+ * Each subscription starts by requesting {@link #minPrefetch()} elements, then resizes
+ * its request window every time it replenishes, from what it observes of the drain rate:
+ * <ul>
+ *     <li>if the consumer caught up with the producer (the buffer is empty), the window
+ *     is doubled, up to {@link #maxPrefetch()}, so that the producer can run further
+ *     ahead and doesn't starve the consumer.</li>
+ *     <li>if the consumer is lagging behind (at least half of the window is still
+ *     buffered), the window is halved, down to {@link #minPrefetch()}, to avoid holding
+ *     on to buffered elements that won't be consumed anytime soon.</li>
+ * </ul>
+ * Buffers are sized for {@link #maxPrefetch()} elements.
+ */
+public final class AdaptivePrefetch {
+
+	/**
+	 * Create an {@link AdaptivePrefetch} which request window varies between the given
+	 * bounds.
+	 *
+	 * @param minPrefetch the minimum (and initial) request window, strictly positive
+	 * @param maxPrefetch the maximum request window, greater than or equal to minPrefetch
+	 *
+	 * @return a new {@link AdaptivePrefetch}
+	 */
+	public static AdaptivePrefetch between(int minPrefetch, int maxPrefetch) {
+		return new AdaptivePrefetch(minPrefetch, maxPrefetch);
+	}
+
+	final int minPrefetch;
+	final int maxPrefetch;
+
+	AdaptivePrefetch(int minPrefetch, int maxPrefetch) {
+		if (minPrefetch <= 0) {
+			throw new IllegalArgumentException("minPrefetch > 0 required but it was " + minPrefetch);
+		}
+		if (maxPrefetch < minPrefetch) {
+			throw new IllegalArgumentException("maxPrefetch >= minPrefetch required but it was " + maxPrefetch);
+		}
+		this.minPrefetch = minPrefetch;
+		this.maxPrefetch = maxPrefetch;
+	}
+
+	/**
+	 * Return the minimum and initial request window.
+	 *
+	 * @return the minimum and initial request window
+	 */
+	public int minPrefetch() {
+		return minPrefetch;
+	}
+
+	/**
+	 * Return the maximum request window, which is also the capacity of buffers.
+	 *
+	 * @return the maximum request window
+	 */
+	public int maxPrefetch() {
+		return maxPrefetch;
+	}
+
+	Window window() {
+		return new Window(minPrefetch, maxPrefetch);
+	}
+
+	@Override
+	public String toString() {
+		return "AdaptivePrefetch{" + minPrefetch + ".." + maxPrefetch + '}';
+	}
+
+	/**
+	 * The request window state of a single subscription, which is not thread-safe and
+	 * must only be used from the draining loop.
+	 */
+	static final class Window {
+
+		final int min;
+		final int max;
+
+		/**
+		 * The current request window, ie. the number of elements outstanding right after
+		 * a replenish.
+		 */
+		int prefetch;
+
+		/**
+		 * The number of consumed elements after which to replenish.
+		 */
+		int limit;
+
+		Window(int min, int max) {
+			this.min = min;
+			this.max = max;
+			this.prefetch = min;
+			this.limit = min - (min >> 2);
+		}
+
+		/**
+		 * Resize the window and compute the amount to request upstream.
+		 *
+		 * @param consumed the number of elements consumed since the last replenish, at
+		 * least {@link #limit}
+		 * @param buffered the number of elements received but not consumed yet
+		 *
+		 * @return the amount to request, at least 1
+		 */
+		long replenish(long consumed, int buffered) {
+			int p = prefetch;
+			int next = p;
+			if (buffered == 0) {
+				next = (int) Math.min(max, 2L * p);
+			}
+			else if (buffered >= (p >> 1)) {
+				next = Math.max(min, p >> 1);
+			}
+
+			//keep the outstanding amount, p - consumed, growing or shrinking to next
+			long n = consumed + next - p;
+			if (n < 1L) {
+				n = 1L;
+				next = (int) (p - consumed + 1);
+			}
+			prefetch = next;
+			limit = next - (next >> 2);
+			return n;
+		}
+	}
+}
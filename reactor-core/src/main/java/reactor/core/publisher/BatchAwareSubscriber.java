@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import reactor.core.CoreSubscriber;
+
+/**
+ * A {@link CoreSubscriber} that is told when a {@link TopicProcessor} or
+ * {@link WorkQueueProcessor} reaches the end of the values it could read in one go,
+ * for instance to flush a buffered write once per batch rather than per value.
+ *
+ * @param <T> the value type
+ */
+public interface BatchAwareSubscriber<T> extends CoreSubscriber<T> {
+
+	/**
+	 * Invoked after the last {@link #onNext(Object)} of a batch, before the
+	 * subscriber waits for more values to be published.
+	 */
+	void onBatchEnd();
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import org.reactivestreams.Subscriber;
+
+/**
+ * Sink that accumulates values and hands them over to a {@link TopicProcessor} or
+ * {@link WorkQueueProcessor} in batches, claiming and publishing a whole range of
+ * ring buffer slots at once. A batch is emitted once it reaches the configured size,
+ * or on {@link #flush()}, {@link #complete()} and {@link #error(Throwable)}.
+ * <p>
+ * A sink is not thread-safe: use one per producing thread, on a shared processor if
+ * several threads emit concurrently.
+ *
+ * @param <T> the value type
+ *
+ * @see TopicProcessor#batchSink(int)
+ * @see WorkQueueProcessor#batchSink(int)
+ */
+public interface BatchSink<T> {
+
+	/**
+	 * Add a value to the current batch, emitting the batch if it is now full.
+	 *
+	 * @param t the value to emit, not null
+	 *
+	 * @return this sink
+	 */
+	BatchSink<T> next(T t);
+
+	/**
+	 * Emit the values of the current batch, if any.
+	 */
+	void flush();
+
+	/**
+	 * Emit the current batch then terminate the processor.
+	 *
+	 * @see Subscriber#onComplete()
+	 */
+	void complete();
+
+	/**
+	 * Emit the current batch then terminate the processor with an error.
+	 *
+	 * @param e the exception to signal, not null
+	 *
+	 * @see Subscriber#onError(Throwable)
+	 */
+	void error(Throwable e);
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A non-blocking pool of permits bounding the number of concurrently active
+ * subscriptions across any number of sequences, for instance all the calls made to a
+ * shared remote resource.
+ * <p>
+ * Each {@link Flux#withPermit(Bulkhead)} or {@link Mono#withPermit(Bulkhead)}
+ * subscription holds a permit from the time it subscribes to its source until it
+ * terminates or is cancelled. Subscriptions arriving while all permits are taken are
+ * queued and started in arrival order as permits are released, without blocking any
+ * thread.
+ * <pre>
+ * {@code
+ * Bulkhead database = Bulkhead.create(32);
+ *
+ * //at most 32 concurrent queries across all the requests being served
+ * requests.flatMap(r -> Flux.fromIterable(r.ids()).flatMap(repository::find, database));
+ * }
+ * </pre>
+ */
+public final class Bulkhead {
+
+	/**
+	 * Create a {@link Bulkhead} allowing up to {@code maxConcurrency} concurrently
+	 * active subscriptions.
+	 *
+	 * @param maxConcurrency the number of permits, strictly positive
+	 *
+	 * @return a new {@link Bulkhead}
+	 */
+	public static Bulkhead create(int maxConcurrency) {
+		return new Bulkhead(maxConcurrency);
+	}
+
+	final int maxConcurrency;
+
+	/**
+	 * The subscriptions waiting for a permit in arrival order, guarded by this.
+	 */
+	final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+
+	/**
+	 * The number of taken permits, guarded by this.
+	 */
+	int active;
+
+	volatile int wip;
+	static final AtomicIntegerFieldUpdater<Bulkhead> WIP =
+			AtomicIntegerFieldUpdater.newUpdater(Bulkhead.class, "wip");
+
+	Bulkhead(int maxConcurrency) {
+		if (maxConcurrency <= 0) {
+			throw new IllegalArgumentException("maxConcurrency > 0 required but it was " + maxConcurrency);
+		}
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/**
+	 * Return the maximum number of concurrently active subscriptions.
+	 *
+	 * @return the number of permits
+	 */
+	public int maxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/**
+	 * Return the number of subscriptions currently holding a permit.
+	 *
+	 * @return the number of active subscriptions
+	 */
+	public synchronized int activeCount() {
+		return active;
+	}
+
+	/**
+	 * Return the number of subscriptions currently waiting for a permit.
+	 *
+	 * @return the number of waiting subscriptions
+	 */
+	public synchronized int waitingCount() {
+		return waiting.size();
+	}
+
+	/**
+	 * Queue a subscription, to be run once a permit has been taken on its behalf. The
+	 * subscription must eventually {@link #release()} that permit.
+	 *
+	 * @param subscription the waiting subscription
+	 */
+	void acquire(Runnable subscription) {
+		synchronized (this) {
+			waiting.offer(subscription);
+		}
+		drain();
+	}
+
+	/**
+	 * Remove a subscription that has not been run yet.
+	 *
+	 * @param subscription the waiting subscription
+	 *
+	 * @return true if it was still waiting, false if it was or is about to be run
+	 */
+	synchronized boolean remove(Runnable subscription) {
+		return waiting.remove(subscription);
+	}
+
+	/**
+	 * Give back a permit, starting the next waiting subscription if any.
+	 */
+	void release() {
+		synchronized (this) {
+			active--;
+		}
+		drain();
+	}
+
+	/**
+	 * Run the waiting subscriptions while permits are available. Subscriptions
+	 * terminating synchronously release their permit from within this loop, which is
+	 * why it is serialized rather than recursive.
+	 */
+	void drain() {
+		if (WIP.getAndIncrement(this) != 0) {
+			return;
+		}
+		int missed = 1;
+		for (; ; ) {
+			for (; ; ) {
+				Runnable next;
+				synchronized (this) {
+					if (active == maxConcurrency || (next = waiting.poll()) == null) {
+						break;
+					}
+					active++;
+				}
+				next.run();
+			}
+
+			missed = WIP.addAndGet(this, -missed);
+			if (missed == 0) {
+				break;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Bulkhead{maxConcurrency=" + maxConcurrency + "}";
+	}
+}
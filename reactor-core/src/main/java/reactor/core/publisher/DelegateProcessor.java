@@ -79,6 +79,7 @@ final class DelegateProcessor<IN, OUT> extends FluxProcessor<IN, OUT> {
 	@SuppressWarnings("unchecked")
 	public boolean isSerialized() {
 		return upstream instanceof SerializedSubscriber ||
+				upstream instanceof SerializedMpscSubscriber ||
 				(upstream instanceof FluxProcessor &&
 						((FluxProcessor<?, ?>)upstream).isSerialized());
 	}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Bounded-memory {@link java.util.Collection Collections} for {@link FluxDistinct},
+ * which only relies on {@link java.util.Collection#add(Object) add} returning false for
+ * a duplicate and on {@link java.util.Collection#clear() clear}. Each variant forgets
+ * keys in its own way, after which a key is considered new again:
+ * <ul>
+ *     <li>{@link #lru(int)} remembers the last N distinct keys seen,</li>
+ *     <li>{@link #timeWindow(Duration, Scheduler)} remembers keys for a sliding time
+ *     window,</li>
+ *     <li>{@link #bloom(int, double)} remembers keys approximately, with a bounded false
+ *     positive rate.</li>
+ * </ul>
+ * None of these are thread-safe, as each is used by a single subscriber.
+ */
+final class DistinctSets {
+
+	/**
+	 * Return a {@link Supplier} of collections remembering the {@code maxKeys} most
+	 * recently seen distinct keys.
+	 *
+	 * @param maxKeys the number of keys to remember, strictly positive
+	 * @param <K> the key type
+	 *
+	 * @return a {@link Supplier} of bounded collections
+	 */
+	static <K> Supplier<Lru<K>> lru(int maxKeys) {
+		if (maxKeys <= 0) {
+			throw new IllegalArgumentException("maxKeys > 0 required but it was " + maxKeys);
+		}
+		return () -> new Lru<>(maxKeys);
+	}
+
+	/**
+	 * Return a {@link Supplier} of collections remembering keys for at least
+	 * {@code window}, and at most {@code window} plus a quarter of it, as measured by the
+	 * given {@link Scheduler}'s clock.
+	 *
+	 * @param window the minimum retention of a key, at least 1ms
+	 * @param clock the {@link Scheduler} used as a clock
+	 * @param <K> the key type
+	 *
+	 * @return a {@link Supplier} of time-bounded collections
+	 */
+	static <K> Supplier<TimeWindow<K>> timeWindow(Duration window, Scheduler clock) {
+		long windowMillis = window.toMillis();
+		if (windowMillis <= 0L) {
+			throw new IllegalArgumentException("window >= 1ms required but it was " + window);
+		}
+		Objects.requireNonNull(clock, "clock");
+		return () -> new TimeWindow<>(windowMillis, clock);
+	}
+
+	/**
+	 * Return a {@link Supplier} of Bloom filter backed collections sized for
+	 * {@code expectedKeys} distinct keys at the given false positive rate.
+	 *
+	 * @param expectedKeys the number of distinct keys per filter generation
+	 * @param falsePositiveRate the probability to wrongly report a new key as a duplicate,
+	 * strictly between 0 and 1
+	 * @param <K> the key type
+	 *
+	 * @return a {@link Supplier} of approximate collections
+	 */
+	static <K> Supplier<Bloom<K>> bloom(int expectedKeys, double falsePositiveRate) {
+		if (expectedKeys <= 0) {
+			throw new IllegalArgumentException("expectedKeys > 0 required but it was " + expectedKeys);
+		}
+		if (!(falsePositiveRate > 0d && falsePositiveRate < 1d)) {
+			throw new IllegalArgumentException("falsePositiveRate must be in ]0, 1[ but it was " + falsePositiveRate);
+		}
+		return () -> new Bloom<>(expectedKeys, falsePositiveRate);
+	}
+
+	DistinctSets() {
+	}
+
+	/**
+	 * Keeps the last {@code maxKeys} keys in access order: seeing a duplicate refreshes
+	 * it, and adding a key over capacity forgets the least recently seen one.
+	 *
+	 * @param <K> the key type
+	 */
+	static final class Lru<K> extends AbstractCollection<K> {
+
+		final Map<K, Boolean> map;
+
+		Lru(int maxKeys) {
+			this.map = new LinkedHashMap<K, Boolean>(16, 0.75f, true) {
+				/** */
+				private static final long serialVersionUID = -2391751327440016127L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<K, Boolean> eldest) {
+					return size() > maxKeys;
+				}
+			};
+		}
+
+		@Override
+		public boolean add(K k) {
+			if (map.get(k) != null) {
+				return false;
+			}
+			map.put(k, Boolean.TRUE);
+			return true;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return map.containsKey(o);
+		}
+
+		@Override
+		public Iterator<K> iterator() {
+			return map.keySet().iterator();
+		}
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+		@Override
+		public void clear() {
+			map.clear();
+		}
+	}
+
+	/**
+	 * Keeps keys in {@link #BUCKETS} + 1 time buckets spanning a quarter of the window
+	 * each: the oldest bucket is dropped as a whole whenever time moves on to a new
+	 * bucket, so a key is remembered for at least the window.
+	 *
+	 * @param <K> the key type
+	 */
+	static final class TimeWindow<K> extends AbstractCollection<K> {
+
+		static final int BUCKETS = 4;
+
+		final HashSet<K>[] buckets;
+		final long         bucketMillis;
+		final Scheduler    clock;
+
+		int  current;
+		long currentStart;
+
+		@SuppressWarnings("unchecked")
+		TimeWindow(long windowMillis, Scheduler clock) {
+			this.clock = clock;
+			this.bucketMillis = Math.max(1L, (windowMillis + BUCKETS - 1) / BUCKETS);
+			this.buckets = new HashSet[BUCKETS + 1];
+			for (int i = 0; i < buckets.length; i++) {
+				buckets[i] = new HashSet<>();
+			}
+			this.currentStart = clock.now(TimeUnit.MILLISECONDS);
+		}
+
+		void rotate(long now) {
+			long elapsed = (now - currentStart) / bucketMillis;
+			if (elapsed <= 0L) {
+				return;
+			}
+			HashSet<K>[] b = buckets;
+			int n = (int) Math.min(elapsed, b.length);
+			int c = current;
+			for (int i = 0; i < n; i++) {
+				c = c + 1 == b.length ? 0 : c + 1;
+				b[c].clear();
+			}
+			current = c;
+			currentStart += elapsed * bucketMillis;
+		}
+
+		@Override
+		public boolean add(K k) {
+			rotate(clock.now(TimeUnit.MILLISECONDS));
+			for (HashSet<K> bucket : buckets) {
+				if (bucket.contains(k)) {
+					return false;
+				}
+			}
+			return buckets[current].add(k);
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			for (HashSet<K> bucket : buckets) {
+				if (bucket.contains(o)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * @return an iterator over the remembered keys, from the oldest bucket on, which
+		 * may include keys of a bucket due to be dropped on the next {@link #add}
+		 */
+		@Override
+		public Iterator<K> iterator() {
+			HashSet<K>[] b = buckets;
+			int oldest = current + 1 == b.length ? 0 : current + 1;
+			return IntStream.range(0, b.length)
+			                .mapToObj(i -> b[(oldest + i) % b.length])
+			                .flatMap(HashSet::stream)
+			                .iterator();
+		}
+
+		@Override
+		public int size() {
+			int s = 0;
+			for (HashSet<K> bucket : buckets) {
+				s += bucket.size();
+			}
+			return s;
+		}
+
+		@Override
+		public void clear() {
+			for (HashSet<K> bucket : buckets) {
+				bucket.clear();
+			}
+		}
+	}
+
+	/**
+	 * Two generations of a Bloom filter: keys are looked up in both and added to the
+	 * current one, which becomes the previous one once it holds {@code expectedKeys}
+	 * keys. This keeps the false positive rate bounded on unbounded sequences, at the
+	 * cost of forgetting keys that are older than two generations.
+	 * <p>
+	 * As a new key can be a false positive in either generation, each one is sized for
+	 * half the configured rate so that their combined rate stays within it.
+	 * <p>
+	 * Keys aren't stored, so this collection can't be iterated.
+	 *
+	 * @param <K> the key type
+	 */
+	static final class Bloom<K> extends AbstractCollection<K> {
+
+		final int expectedKeys;
+		final int hashes;
+		final int bits;
+
+		long[] current;
+		long[] previous;
+		int    count;
+
+		Bloom(int expectedKeys, double falsePositiveRate) {
+			double ln2 = Math.log(2d);
+			double generationRate = falsePositiveRate / 2d;
+			long m = (long) Math.ceil(-expectedKeys * Math.log(generationRate) / (ln2 * ln2));
+			m = Math.max(64L, Math.min(m, Integer.MAX_VALUE - 63L));
+			this.expectedKeys = expectedKeys;
+			this.bits = (int) ((m + 63L) & ~63L);
+			this.hashes = Math.max(1, (int) Math.round((double) bits / expectedKeys * ln2));
+			this.current = new long[bits >>> 6];
+			this.previous = new long[bits >>> 6];
+		}
+
+		static long mix(long h) {
+			h ^= h >>> 33;
+			h *= 0xff51afd7ed558ccdL;
+			h ^= h >>> 33;
+			h *= 0xc4ceb9fe1a85ec53L;
+			h ^= h >>> 33;
+			return h;
+		}
+
+		boolean mightContain(long[] filter, int h1, int h2) {
+			int m = bits;
+			for (int i = 0; i < hashes; i++) {
+				int index = ((h1 + i * h2) & Integer.MAX_VALUE) % m;
+				if ((filter[index >>> 6] & (1L << index)) == 0L) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public boolean add(K k) {
+			long h = mix(k.hashCode());
+			int h1 = (int) h;
+			int h2 = (int) (h >>> 32) | 1;
+
+			if (mightContain(current, h1, h2) || mightContain(previous, h1, h2)) {
+				return false;
+			}
+
+			long[] filter = current;
+			int m = bits;
+			for (int i = 0; i < hashes; i++) {
+				int index = ((h1 + i * h2) & Integer.MAX_VALUE) % m;
+				filter[index >>> 6] |= 1L << index;
+			}
+
+			if (++count == expectedKeys) {
+				long[] recycled = previous;
+				Arrays.fill(recycled, 0L);
+				previous = filter;
+				current = recycled;
+				count = 0;
+			}
+			return true;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			long h = mix(o.hashCode());
+			int h1 = (int) h;
+			int h2 = (int) (h >>> 32) | 1;
+			return mightContain(current, h1, h2) || mightContain(previous, h1, h2);
+		}
+
+		@Override
+		public Iterator<K> iterator() {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * @return the number of keys added to the current generation
+		 */
+		@Override
+		public int size() {
+			return count;
+		}
+
+		@Override
+		public String toString() {
+			return "Bloom{expectedKeys=" + expectedKeys + ", bits=" + bits +
+					", hashes=" + hashes + ", count=" + count + "}";
+		}
+
+		@Override
+		public void clear() {
+			Arrays.fill(current, 0L);
+			Arrays.fill(previous, 0L);
+			count = 0;
+		}
+	}
+}
@@ -16,6 +16,10 @@
 package reactor.core.publisher;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -448,6 +452,80 @@ abstract class EventLoopProcessor<IN> extends FluxProcessor<IN, IN>
 		ringBuffer.publish(seqId);
 	}
 
+	/**
+	 * Emit all the given values in order, claiming and publishing ring buffer slots a
+	 * range at a time rather than one per value, so that readers are signalled once per
+	 * range. Ranges are capped to half the buffer size to keep readers busy while the
+	 * next range is claimed.
+	 *
+	 * @param values the values to emit, none of them null
+	 */
+	public final void onNextBatch(IN[] values) {
+		Objects.requireNonNull(values, "values");
+		emitBatch(values, values.length);
+	}
+
+	/**
+	 * Emit all the given values in order, claiming and publishing ring buffer slots a
+	 * range at a time rather than one per value.
+	 *
+	 * @param values the values to emit, none of them null
+	 *
+	 * @see #onNextBatch(Object[])
+	 */
+	public final void onNextBatch(Iterable<? extends IN> values) {
+		Objects.requireNonNull(values, "values");
+		Object[] a;
+		if (values instanceof Collection) {
+			a = ((Collection<?>) values).toArray();
+		}
+		else {
+			ArrayList<Object> list = new ArrayList<>();
+			for (IN v : values) {
+				list.add(v);
+			}
+			a = list.toArray();
+		}
+		emitBatch(a, a.length);
+	}
+
+	/**
+	 * Return a {@link BatchSink} emitting into this processor by batches of
+	 * {@code batchSize} values. A sink must only be used by a single thread at a time.
+	 *
+	 * @param batchSize the number of values after which the sink emits its batch
+	 *
+	 * @return a new {@link BatchSink}
+	 */
+	public final BatchSink<IN> batchSink(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batchSize must be strictly positive, " +
+					"was: " + batchSize);
+		}
+		return new EventLoopBatchSink<>(this, batchSize);
+	}
+
+	@SuppressWarnings("unchecked")
+	final void emitBatch(Object[] values, int count) {
+		for (int i = 0; i < count; i++) {
+			if (values[i] == null) {
+				throw Exceptions.argumentIsNullException();
+			}
+		}
+		final RingBuffer<Slot<IN>> ringBuffer = this.ringBuffer;
+		final int maxClaim = Math.max(1, ringBuffer.bufferSize() >> 1);
+		int index = 0;
+		while (index < count) {
+			int n = Math.min(count - index, maxClaim);
+			long hi = ringBuffer.next(n);
+			long lo = hi - n + 1;
+			for (long seqId = lo; seqId <= hi; seqId++) {
+				ringBuffer.get(seqId).value = (IN) values[index++];
+			}
+			ringBuffer.publish(lo, hi);
+		}
+	}
+
 	@Override
 	final public void onSubscribe(final Subscription s) {
 		if (Operators.validate(upstreamSubscription, s)) {
@@ -638,6 +716,53 @@ abstract class EventLoopProcessor<IN> extends FluxProcessor<IN, IN>
 	}
 
 
+	static final class EventLoopBatchSink<T> implements BatchSink<T> {
+
+		final EventLoopProcessor<T> processor;
+		final Object[]              batch;
+
+		int size;
+
+		EventLoopBatchSink(EventLoopProcessor<T> processor, int batchSize) {
+			this.processor = processor;
+			this.batch = new Object[batchSize];
+		}
+
+		@Override
+		public BatchSink<T> next(T t) {
+			if (t == null) {
+				throw Exceptions.argumentIsNullException();
+			}
+			batch[size++] = t;
+			if (size == batch.length) {
+				flush();
+			}
+			return this;
+		}
+
+		@Override
+		public void flush() {
+			int n = size;
+			if (n != 0) {
+				size = 0;
+				processor.emitBatch(batch, n);
+				Arrays.fill(batch, 0, n, null);
+			}
+		}
+
+		@Override
+		public void complete() {
+			flush();
+			processor.onComplete();
+		}
+
+		@Override
+		public void error(Throwable e) {
+			flush();
+			processor.onError(e);
+		}
+	}
+
 	final static class EventLoopFactory
 			implements ThreadFactory, Supplier<String> {
 		/** */
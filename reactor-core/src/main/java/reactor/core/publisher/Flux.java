@@ -16,6 +16,7 @@
 
 package reactor.core.publisher;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -106,6 +107,19 @@ public abstract class Flux<T> implements Publisher<T> {
 //	 Static Generators
 //	 ==============================================================================================================
 
+	/**
+	 * Compute the average of a {@link Publisher} of {@link Number}, as a {@code double}.
+	 * The average is emitted when onComplete is observed, and the resulting {@link Mono}
+	 * is empty if the source is empty.
+	 *
+	 * @param source the {@link Publisher} of {@link Number} to average
+	 *
+	 * @return a new {@link Mono} of the {@link Double} average
+	 */
+	public static Mono<Double> averageDouble(Publisher<? extends Number> source) {
+		return Mono.onAssembly(new MonoReduceNumber<>(from(source), MonoReduceNumber.AVERAGE_DOUBLE));
+	}
+
 	/**
 	 * Build a {@link Flux} whose data are generated by the combination of the most recently published value from each
 	 * of the {@link Publisher} sources.
@@ -1035,6 +1049,19 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxJust<>(data));
 	}
 
+	/**
+	 * Find the maximum of a {@link Publisher} of {@link Number}, compared as {@code long}.
+	 * The maximum is emitted when onComplete is observed, and the resulting {@link Mono}
+	 * is empty if the source is empty.
+	 *
+	 * @param source the {@link Publisher} of {@link Number} to find the maximum of
+	 *
+	 * @return a new {@link Mono} of the {@link Long} maximum
+	 */
+	public static Mono<Long> maxLong(Publisher<? extends Number> source) {
+		return Mono.onAssembly(new MonoReduceNumber<>(from(source), MonoReduceNumber.MAX_LONG));
+	}
+
 	/**
 	 * Merge data from {@link Publisher} sequences emitted by the passed {@link Publisher}
 	 * into an interleaved merged sequence. Unlike {@link #concat(Publisher) concat}, inner
@@ -1376,6 +1403,19 @@ public abstract class Flux<T> implements Publisher<T> {
 		return mergeSequential(sources, true, maxConcurrency, prefetch);
 	}
 
+	/**
+	 * Find the minimum of a {@link Publisher} of {@link Number}, compared as {@code long}.
+	 * The minimum is emitted when onComplete is observed, and the resulting {@link Mono}
+	 * is empty if the source is empty.
+	 *
+	 * @param source the {@link Publisher} of {@link Number} to find the minimum of
+	 *
+	 * @return a new {@link Mono} of the {@link Long} minimum
+	 */
+	public static Mono<Long> minLong(Publisher<? extends Number> source) {
+		return Mono.onAssembly(new MonoReduceNumber<>(from(source), MonoReduceNumber.MIN_LONG));
+	}
+
 	/**
 	 * Create a {@link Flux} that will never signal any data, error or completion signal.
 	 * <p>
@@ -1411,6 +1451,72 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxRange(start, count));
 	}
 
+	/**
+	 * Build a {@link Flux} that will only emit a sequence of {@code count} incrementing
+	 * longs, starting from {@code start}. That is, emit longs between {@code start}
+	 * (included) and {@code start + count} (excluded) then complete.
+	 * <p>
+	 * When aggregated by {@link #sumLong(Publisher)} and similar operators, the values are
+	 * consumed without being boxed.
+	 *
+	 * @param start the first long to be emit
+	 * @param count the total number of incrementing values to emit, including the first value
+	 * @return a ranged {@link Flux}
+	 */
+	public static Flux<Long> rangeLong(long start, long count) {
+		if (count == 1) {
+			return just(start);
+		}
+		if (count == 0) {
+			return empty();
+		}
+		return onAssembly(new FluxRangeLong(start, count));
+	}
+
+	/**
+	 * Sum a {@link Publisher} of {@link Number} as {@code double}. The sum is emitted when
+	 * onComplete is observed, and is 0 if the source is empty.
+	 *
+	 * @param source the {@link Publisher} of {@link Number} to sum
+	 *
+	 * @return a new {@link Mono} of the {@link Double} sum
+	 */
+	public static Mono<Double> sumDouble(Publisher<? extends Number> source) {
+		return Mono.onAssembly(new MonoReduceNumber<>(from(source), MonoReduceNumber.SUM_DOUBLE));
+	}
+
+	/**
+	 * Sum a {@link Publisher} of {@link Number} as {@code int}, overflowing silently like
+	 * {@code int} arithmetic. The sum is emitted when onComplete is observed, and is 0 if
+	 * the source is empty.
+	 * <p>
+	 * The sum is accumulated in a primitive field and, if the source is a
+	 * {@link #range(int, int) range}, its values are consumed without being boxed.
+	 *
+	 * @param source the {@link Publisher} of {@link Number} to sum
+	 *
+	 * @return a new {@link Mono} of the {@link Integer} sum
+	 */
+	public static Mono<Integer> sumInt(Publisher<? extends Number> source) {
+		return Mono.onAssembly(new MonoReduceNumber<>(from(source), MonoReduceNumber.SUM_INT));
+	}
+
+	/**
+	 * Sum a {@link Publisher} of {@link Number} as {@code long}, overflowing silently like
+	 * {@code long} arithmetic. The sum is emitted when onComplete is observed, and is 0 if
+	 * the source is empty.
+	 * <p>
+	 * The sum is accumulated in a primitive field and, if the source is a
+	 * {@link #rangeLong(long, long) range}, its values are consumed without being boxed.
+	 *
+	 * @param source the {@link Publisher} of {@link Number} to sum
+	 *
+	 * @return a new {@link Mono} of the {@link Long} sum
+	 */
+	public static Mono<Long> sumLong(Publisher<? extends Number> source) {
+		return Mono.onAssembly(new MonoReduceNumber<>(from(source), MonoReduceNumber.SUM_LONG));
+	}
+
 	/**
 	 * Creates a {@link Flux} that mirrors the most recently emitted {@link Publisher},
 	 * forwarding its data until a new {@link Publisher} comes in in the source.
@@ -2962,6 +3068,28 @@ public abstract class Flux<T> implements Publisher<T> {
 				FluxConcatMap.ErrorMode.IMMEDIATE));
 	}
 
+	/**
+	 * Transform the elements emitted by this {@link Flux} asynchronously into Publishers,
+	 * then flatten these inner publishers into a single {@link Flux}, sequentially and
+	 * preserving order using concatenation, like {@link #concatMap(Function, int)}.
+	 * <p>
+	 * The number of elements requested from this {@link Flux} ahead of the inner
+	 * {@link Publisher} currently being concatenated varies with the observed drain rate,
+	 * between the bounds of the given {@link AdaptivePrefetch}.
+	 *
+	 * @param mapper the function to transform this sequence of T into concatenated sequences of V
+	 * @param prefetch the adaptive prefetch strategy to apply to this {@link Flux}
+	 * @param <V> the produced concatenated type
+	 *
+	 * @return a concatenated {@link Flux}
+	 */
+	public final <V> Flux<V> concatMap(Function<? super T, ? extends Publisher<? extends V>>
+			mapper, AdaptivePrefetch prefetch) {
+		int max = prefetch.maxPrefetch();
+		return onAssembly(new FluxConcatMap<>(this, mapper, QueueSupplier.get(max), max,
+				FluxConcatMap.ErrorMode.IMMEDIATE, prefetch));
+	}
+
 	/**
 	 * Transform the elements emitted by this {@link Flux} asynchronously into Publishers,
 	 * then flatten these inner publishers into a single {@link Flux}, sequentially and
@@ -3484,6 +3612,116 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxDistinct<>(this, keySelector, distinctCollectionSupplier));
 	}
 
+	/**
+	 * For each {@link Subscriber}, track the {@code maxKeys} most recently seen keys
+	 * extracted from this {@link Flux} through the user provided {@link Function} and
+	 * filter out duplicates. Seeing a duplicate refreshes its key, and once more than
+	 * {@code maxKeys} keys are tracked the least recently seen one is forgotten, so that
+	 * its next occurrence is emitted again.
+	 * <p>
+	 * Memory is bounded by {@code maxKeys}, which makes this suitable for deduplicating
+	 * infinite sequences.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/distinctk.png" alt="">
+	 *
+	 * @param keySelector function to compute comparison key for each element
+	 * @param maxKeys the maximum number of keys to track, strictly positive
+	 * @param <V> the type of the key extracted from each value in this sequence
+	 *
+	 * @return a filtering {@link Flux} only emitting values with keys distinct among the
+	 * most recently seen ones
+	 */
+	public final <V> Flux<T> distinct(Function<? super T, ? extends V> keySelector,
+			int maxKeys) {
+		return distinct(keySelector, DistinctSets.<V>lru(maxKeys));
+	}
+
+	/**
+	 * For each {@link Subscriber}, track the keys extracted from this {@link Flux}
+	 * through the user provided {@link Function} for a sliding time {@code window}, and
+	 * filter out duplicates seen within that window. A key is forgotten at the earliest
+	 * after {@code window} and at the latest after 1.25 times {@code window} since its
+	 * value was emitted, as measured on the {@link Schedulers#parallel() parallel}
+	 * Scheduler.
+	 * <p>
+	 * Memory is bounded by the number of distinct keys seen over a window, which makes
+	 * this suitable for deduplicating infinite sequences.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/distinctk.png" alt="">
+	 *
+	 * @param keySelector function to compute comparison key for each element
+	 * @param window the minimum {@link Duration} during which a key is remembered, at
+	 * least one millisecond
+	 * @param <V> the type of the key extracted from each value in this sequence
+	 *
+	 * @return a filtering {@link Flux} only emitting values with keys distinct within
+	 * the time window
+	 */
+	public final <V> Flux<T> distinct(Function<? super T, ? extends V> keySelector,
+			Duration window) {
+		return distinct(keySelector, window, Schedulers.parallel());
+	}
+
+	/**
+	 * For each {@link Subscriber}, track the keys extracted from this {@link Flux}
+	 * through the user provided {@link Function} for a sliding time {@code window}, and
+	 * filter out duplicates seen within that window. A key is forgotten at the earliest
+	 * after {@code window} and at the latest after 1.25 times {@code window} since its
+	 * value was emitted, as measured on the provided {@link Scheduler}.
+	 * <p>
+	 * Memory is bounded by the number of distinct keys seen over a window, which makes
+	 * this suitable for deduplicating infinite sequences.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/distinctk.png" alt="">
+	 *
+	 * @param keySelector function to compute comparison key for each element
+	 * @param window the minimum {@link Duration} during which a key is remembered, at
+	 * least one millisecond
+	 * @param timer the {@link Scheduler} whose clock measures the window
+	 * @param <V> the type of the key extracted from each value in this sequence
+	 *
+	 * @return a filtering {@link Flux} only emitting values with keys distinct within
+	 * the time window
+	 */
+	public final <V> Flux<T> distinct(Function<? super T, ? extends V> keySelector,
+			Duration window, Scheduler timer) {
+		return distinct(keySelector, DistinctSets.<V>timeWindow(window, timer));
+	}
+
+	/**
+	 * For each {@link Subscriber}, approximately track the keys extracted from this
+	 * {@link Flux} through the user provided {@link Function} using a Bloom filter, and
+	 * filter out duplicates. A new key is wrongly considered a duplicate, and thus
+	 * filtered out, with a probability close to {@code falsePositiveRate}, but a
+	 * duplicate is never emitted as long as it is remembered.
+	 * <p>
+	 * The filter is sized for {@code expectedKeys} distinct keys and keeps two
+	 * generations of that size: once the current one is full, the previous one is
+	 * dropped and a fresh one is started. Memory is thus constant, and keys are
+	 * remembered for at least the last {@code expectedKeys} distinct keys seen. As a key
+	 * is looked up in both generations, each is sized for half of
+	 * {@code falsePositiveRate} so that their combined rate stays within it.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/distinctk.png" alt="">
+	 *
+	 * @param keySelector function to compute comparison key for each element
+	 * @param expectedKeys the number of distinct keys a filter generation is sized for
+	 * @param falsePositiveRate the probability for a new key to be dropped as a
+	 * duplicate, strictly between 0 and 1
+	 * @param <V> the type of the key extracted from each value in this sequence
+	 *
+	 * @return a filtering {@link Flux} only emitting values with keys that were
+	 * probably not seen recently
+	 */
+	public final <V> Flux<T> distinct(Function<? super T, ? extends V> keySelector,
+			int expectedKeys, double falsePositiveRate) {
+		return distinct(keySelector, DistinctSets.<V>bloom(expectedKeys, falsePositiveRate));
+	}
+
 	/**
 	 * Filter out subsequent repetitions of an element (that is, if they arrive right after
 	 * one another).
@@ -3999,6 +4237,65 @@ public abstract class Flux<T> implements Publisher<T> {
 		return flatMap(mapper, false, concurrency, prefetch);
 	}
 
+	/**
+	 * Transform the elements emitted by this {@link Flux} asynchronously into Publishers,
+	 * then flatten these inner publishers into a single {@link Flux} through merging,
+	 * which allow them to interleave, like {@link #flatMap(Function, int, int)}.
+	 * <p>
+	 * The number of in-flight elements requested from each inner {@link Publisher}
+	 * varies with the observed drain rate, between the bounds of the given
+	 * {@link AdaptivePrefetch}: a fast inner that gets drained quickly is requested
+	 * more, while an inner which elements pile up in its buffer is requested less.
+	 *
+	 * @param mapper the {@link Function} to transform input sequence into N sequences {@link Publisher}
+	 * @param concurrency the maximum number of in-flight inner sequences
+	 * @param prefetch the adaptive prefetch strategy to apply to each inner {@link Publisher}
+	 * @param <V> the merged output sequence type
+	 *
+	 * @return a merged {@link Flux}
+	 */
+	public final <V> Flux<V> flatMap(Function<? super T, ? extends Publisher<? extends V>> mapper, int
+			concurrency, AdaptivePrefetch prefetch) {
+		int max = prefetch.maxPrefetch();
+		return onAssembly(new FluxFlatMap<>(
+				this,
+				mapper,
+				false,
+				concurrency,
+				QueueSupplier.get(concurrency),
+				max,
+				QueueSupplier.get(max),
+				prefetch
+		));
+	}
+
+	/**
+	 * Transform the elements emitted by this {@link Flux} asynchronously into Publishers,
+	 * then flatten these inner publishers into a single {@link Flux} through merging,
+	 * which allow them to interleave, like {@link #flatMap(Function)}.
+	 * <p>
+	 * Each inner {@link Publisher} is only subscribed to once it has taken a permit from
+	 * the given {@link Bulkhead}, and gives it back when it terminates or is cancelled.
+	 * Unlike the {@code concurrency} of {@link #flatMap(Function, int)}, which bounds
+	 * the in-flight inner sequences of a single subscription, a {@link Bulkhead} can be
+	 * shared so that the inner sequences of all the sequences using it are bounded
+	 * together. Inner sequences waiting for a permit are started in arrival order,
+	 * without blocking.
+	 *
+	 * @param mapper the {@link Function} to transform input sequence into N sequences {@link Publisher}
+	 * @param bulkhead the {@link Bulkhead} to take a permit from for each inner sequence
+	 * @param <R> the merged output sequence type
+	 *
+	 * @return a merged {@link Flux}
+	 * @see #withPermit(Bulkhead)
+	 */
+	public final <R> Flux<R> flatMap(Function<? super T, ? extends Publisher<? extends R>> mapper,
+			Bulkhead bulkhead) {
+		Objects.requireNonNull(mapper, "mapper");
+		Objects.requireNonNull(bulkhead, "bulkhead");
+		return flatMap(t -> new FluxWithPermit<R>(from(mapper.apply(t)), bulkhead));
+	}
+
 	/**
 	 * Transform the elements emitted by this {@link Flux} asynchronously into Publishers,
 	 * then flatten these inner publishers into a single {@link Flux} through merging,
@@ -4401,6 +4698,92 @@ public abstract class Flux<T> implements Publisher<T> {
 				QueueSupplier.unbounded(prefetch), prefetch));
 	}
 
+	/**
+	 * Divide this sequence into dynamically created {@link Flux} (or groups) for each
+	 * unique key, as produced by the provided keyMapper {@link Function}, keeping the
+	 * number of live groups bounded. Source elements are also mapped to a different
+	 * value using the {@code valueMapper}.
+	 * <p>
+	 * A group is evicted, that is completed and forgotten, once it hasn't received any
+	 * value for {@code maxIdle} (as measured on the {@link Schedulers#parallel() parallel}
+	 * Scheduler), or to make room for a new key when {@code maxGroups} groups are
+	 * already live, in which case the least recently used group is evicted. A value whose
+	 * key belongs to an evicted group opens a new group for that key. The key of each
+	 * evicted group is passed to the {@code onGroupEviction} callback.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/groupby.png" alt="">
+	 *
+	 * <p>
+	 * Eviction lets long-running sequences with a high cardinality of keys run in bounded
+	 * memory, and lets a downstream {@code flatMap} with a {@code maxConcurrency} lower
+	 * than the number of keys make progress, as evicted groups complete.
+	 *
+	 * @param keyMapper the key mapping function that evaluates an incoming data and returns a key.
+	 * @param valueMapper the value mapping function that evaluates which data to extract for re-routing.
+	 * @param maxIdle the {@link Duration} after which a group that didn't receive any value
+	 * is evicted, or {@link Duration#ZERO} to disable idle eviction
+	 * @param maxGroups the maximum number of live groups, or {@link Integer#MAX_VALUE}
+	 * to disable eviction on cardinality
+	 * @param onGroupEviction callback invoked with the key of each evicted group
+	 * @param <K> the key type extracted from each value of this sequence
+	 * @param <V> the value type extracted from each value of this sequence
+	 *
+	 * @return a {@link Flux} of {@link GroupedFlux} grouped sequences, with bounded live groups
+	 */
+	public final <K, V> Flux<GroupedFlux<K, V>> groupBy(Function<? super T, ? extends K> keyMapper,
+			Function<? super T, ? extends V> valueMapper, Duration maxIdle, int maxGroups,
+			Consumer<? super K> onGroupEviction) {
+		return groupBy(keyMapper, valueMapper, maxIdle, maxGroups,
+				GroupEvictionPolicy.LEAST_RECENTLY_USED, onGroupEviction,
+				Schedulers.parallel());
+	}
+
+	/**
+	 * Divide this sequence into dynamically created {@link Flux} (or groups) for each
+	 * unique key, as produced by the provided keyMapper {@link Function}, keeping the
+	 * number of live groups bounded. Source elements are also mapped to a different
+	 * value using the {@code valueMapper}.
+	 * <p>
+	 * A group is evicted, that is completed and forgotten, once it hasn't received any
+	 * value for {@code maxIdle} (as measured on the provided {@link Scheduler}), or to
+	 * make room for a new key when {@code maxGroups} groups are already live, in which
+	 * case the group to evict is selected by the {@link GroupEvictionPolicy}. A value
+	 * whose key belongs to an evicted group opens a new group for that key. The key of
+	 * each evicted group is passed to the {@code onGroupEviction} callback.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/groupby.png" alt="">
+	 *
+	 * @param keyMapper the key mapping function that evaluates an incoming data and returns a key.
+	 * @param valueMapper the value mapping function that evaluates which data to extract for re-routing.
+	 * @param maxIdle the {@link Duration} after which a group that didn't receive any value
+	 * is evicted, or {@link Duration#ZERO} to disable idle eviction
+	 * @param maxGroups the maximum number of live groups, or {@link Integer#MAX_VALUE}
+	 * to disable eviction on cardinality
+	 * @param evictionPolicy the {@link GroupEvictionPolicy} selecting which group to evict
+	 * when {@code maxGroups} is reached
+	 * @param onGroupEviction callback invoked with the key of each evicted group
+	 * @param scheduler the {@link Scheduler} on which to run the idle check
+	 * @param <K> the key type extracted from each value of this sequence
+	 * @param <V> the value type extracted from each value of this sequence
+	 *
+	 * @return a {@link Flux} of {@link GroupedFlux} grouped sequences, with bounded live groups
+	 */
+	public final <K, V> Flux<GroupedFlux<K, V>> groupBy(Function<? super T, ? extends K> keyMapper,
+			Function<? super T, ? extends V> valueMapper, Duration maxIdle, int maxGroups,
+			GroupEvictionPolicy evictionPolicy, Consumer<? super K> onGroupEviction,
+			Scheduler scheduler) {
+		Objects.requireNonNull(maxIdle, "maxIdle");
+		Objects.requireNonNull(onGroupEviction, "onGroupEviction");
+		Objects.requireNonNull(scheduler, "scheduler");
+		return onAssembly(new FluxGroupBy<>(this, keyMapper, valueMapper,
+				QueueSupplier.unbounded(QueueSupplier.SMALL_BUFFER_SIZE),
+				QueueSupplier.unbounded(QueueSupplier.SMALL_BUFFER_SIZE),
+				QueueSupplier.SMALL_BUFFER_SIZE, maxIdle.toMillis(), maxGroups,
+				evictionPolicy, onGroupEviction, scheduler));
+	}
+
 	/**
 	 * Map values from two Publishers into time windows and emit combination of values
 	 * in case their windows overlap. The emitted elements are obtained by passing the
@@ -4633,6 +5016,25 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(this.publishOn(Schedulers.immediate(), prefetchRate));
 	}
 
+	/**
+	 * Ensure that backpressure signals from downstream subscribers are capped when
+	 * propagated upstream, effectively rate limiting the upstream {@link Publisher}, like
+	 * {@link #limitRate(int)}.
+	 * <p>
+	 * Rather than a fixed rate, the size of the requests made upstream varies with the
+	 * observed drain rate, between the bounds of the given {@link AdaptivePrefetch}.
+	 * <p>
+	 * Equivalent to {@code flux.publishOn(Schedulers.immediate(), prefetch).subscribe() }
+	 *
+	 * @param prefetch the adaptive prefetch strategy to apply to downstream's backpressure
+	 *
+	 * @return a {@link Flux} limiting downstream's backpressure
+	 * @see #publishOn(Scheduler, AdaptivePrefetch)
+	 */
+	public final Flux<T> limitRate(AdaptivePrefetch prefetch) {
+		return onAssembly(this.publishOn(Schedulers.immediate(), prefetch));
+	}
+
 	/**
 	 * Observe all Reactive Streams signals and trace them using {@link Logger} support.
 	 * Default will use {@link Level#INFO} and {@code java.util.logging}.
@@ -4785,6 +5187,35 @@ public abstract class Flux<T> implements Publisher<T> {
 		return merge(this, other);
 	}
 
+	/**
+	 * Activate metrics for this sequence, provided a {@link SequenceMetricsRecorder}
+	 * has been installed via {@link Hooks#onMetrics(SequenceMetricsRecorder)}: the
+	 * subscriptions, requests, elements, time to first element and time to termination
+	 * are reported to the recorder, under the name and tags given to this sequence by
+	 * upstream {@link #name(String)} and {@link #tag(String, String)} operators
+	 * (defaulting to "reactor" and no tags). Without a recorder, the operator is
+	 * pass-through.
+	 *
+	 * @return an instrumented {@link Flux}
+	 */
+	public final Flux<T> metrics() {
+		return onAssembly(new FluxMetrics<>(this));
+	}
+
+	/**
+	 * Give a name to this sequence, which can be retrieved using
+	 * {@link reactor.core.Scannable#name()} as long as this is the first reachable
+	 * {@link reactor.core.Scannable#parents()}. It is used by {@link #metrics()} to
+	 * label the recorded measurements.
+	 *
+	 * @param name a name for the sequence
+	 *
+	 * @return the same sequence, but bearing a name
+	 */
+	public final Flux<T> name(String name) {
+		return FluxName.createOrAppend(this, name);
+	}
+
 	/**
 	 * Emit only the first item emitted by this {@link Flux}, into a new {@link Mono}.
 	 * <p>
@@ -4978,6 +5409,47 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxOnBackpressureBufferTimeout<>(this, ttl, scheduler, maxSize, onBufferEviction));
 	}
 
+	/**
+	 * Request an unbounded demand and push to the returned {@link Flux}, or park the
+	 * observed elements if not enough demand is requested downstream. Up to
+	 * {@code maxHeapElements} parked elements are kept on the heap, further ones are
+	 * serialized into segment files created in {@code directory} and read back in
+	 * order as demand arrives. Segment files are truncated once read and reused for
+	 * later spills, then deleted when the sequence terminates or is cancelled.
+	 * <p>
+	 * An overflow error is propagated, after the already parked elements, if an
+	 * element would take the spilled files beyond {@code maxDiskBytes}. This limit
+	 * counts the serialized bytes of the elements currently spilled, each with a 4 bytes
+	 * length prefix. Errors are otherwise also delayed until the parked elements have
+	 * been emitted.
+	 * <p>
+	 * Spilled elements are serialized and written to disk on the thread delivering the
+	 * source elements, and read back on the thread that drains them downstream. This
+	 * is blocking I/O: use {@link #publishOn(Scheduler)} or {@link #subscribeOn(Scheduler)}
+	 * with a {@link Schedulers#elastic()} scheduler rather than spilling from a
+	 * non-blocking thread.
+	 *
+	 * @param serializer the {@link Function} turning a spilled element into bytes
+	 * @param deserializer the {@link Function} turning spilled bytes back into an element
+	 * @param directory the directory in which to create the segment files
+	 * @param maxHeapElements maximum number of parked elements kept on the heap
+	 * @param maxDiskBytes maximum number of bytes the segment files can occupy
+	 *
+	 * @return a backpressured {@link Flux} that buffers on the heap then spills to disk
+	 */
+	public final Flux<T> onBackpressureSpill(Function<? super T, byte[]> serializer,
+			Function<byte[], ? extends T> deserializer,
+			Path directory,
+			int maxHeapElements,
+			long maxDiskBytes) {
+		return onAssembly(new FluxOnBackpressureSpill<>(this,
+				serializer,
+				deserializer,
+				directory,
+				maxHeapElements,
+				maxDiskBytes));
+	}
+
 	/**
 	 * Request an unbounded demand and push to the returned {@link Flux}, or drop
 	 * the observed elements if not enough demand is requested downstream.
@@ -5418,6 +5890,125 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxPublishOn<>(this, scheduler, delayError, prefetch, QueueSupplier.get(prefetch)));
 	}
 
+	/**
+	 * Run onNext, onComplete and onError on a supplied {@link Scheduler}
+	 * {@link Worker}, like {@link #publishOn(Scheduler, int)}.
+	 * <p>
+	 * The number of elements requested ahead of the consumer varies with the observed
+	 * drain rate, between the bounds of the given {@link AdaptivePrefetch}: the window
+	 * grows while the consumer keeps up and shrinks when elements pile up in the buffer.
+	 *
+	 * @param scheduler a {@link Scheduler} providing the {@link Worker} where to publish
+	 * @param prefetch the adaptive prefetch strategy of the asynchronous boundary
+	 *
+	 * @return a {@link Flux} producing asynchronously
+	 */
+	public final Flux<T> publishOn(Scheduler scheduler, AdaptivePrefetch prefetch) {
+		int max = prefetch.maxPrefetch();
+		return onAssembly(new FluxPublishOn<>(this, scheduler, true, max,
+				QueueSupplier.get(max), prefetch));
+	}
+
+	/**
+	 * Run onNext, onComplete and onError on a supplied {@link Scheduler}
+	 * {@link Worker Worker}, handing values to the downstream in batches: each time the
+	 * worker runs, up to {@code maxBatch} values that have been queued since the previous
+	 * batch are emitted as a single {@link List}.
+	 * <p>
+	 * Compared to {@link #publishOn(Scheduler)} followed by a {@link #buffer(int)}, no
+	 * value waits for a batch to fill: a batch is emitted as soon as the downstream
+	 * requested it and at least one value is available. Each downstream request unit is
+	 * one batch, so a slow consumer (eg. a database or socket writer) naturally receives
+	 * bigger batches.
+	 *
+	 * @param scheduler a {@link Scheduler} providing the {@link Worker} where to publish
+	 * @param maxBatch the maximum number of values in an emitted {@link List}
+	 *
+	 * @return a {@link Flux} producing batches asynchronously on a given {@link Scheduler}
+	 */
+	public final Flux<List<T>> publishOnBatched(Scheduler scheduler, int maxBatch) {
+		return publishOnBatched(scheduler, maxBatch, Math.max(maxBatch, QueueSupplier.SMALL_BUFFER_SIZE));
+	}
+
+	/**
+	 * Run onNext, onComplete and onError on a supplied {@link Scheduler}
+	 * {@link Worker Worker}, handing values to the downstream in batches: each time the
+	 * worker runs, up to {@code maxBatch} values that have been queued since the previous
+	 * batch are emitted as a single {@link List}.
+	 * <p>
+	 * Compared to {@link #publishOn(Scheduler)} followed by a {@link #buffer(int)}, no
+	 * value waits for a batch to fill: a batch is emitted as soon as the downstream
+	 * requested it and at least one value is available. Each downstream request unit is
+	 * one batch, so a slow consumer (eg. a database or socket writer) naturally receives
+	 * bigger batches.
+	 *
+	 * @param scheduler a {@link Scheduler} providing the {@link Worker} where to publish
+	 * @param maxBatch the maximum number of values in an emitted {@link List}
+	 * @param prefetch the asynchronous boundary capacity, in number of values
+	 *
+	 * @return a {@link Flux} producing batches asynchronously on a given {@link Scheduler}
+	 */
+	public final Flux<List<T>> publishOnBatched(Scheduler scheduler, int maxBatch, int prefetch) {
+		return onAssembly(new FluxPublishOnBatched<>(this, scheduler, true, maxBatch, prefetch, QueueSupplier.get(prefetch)));
+	}
+
+	/**
+	 * Pace the requests made to this {@link Flux} to at most {@code permits} elements per
+	 * {@code period}, allowing an initial burst of {@code permits} elements. Downstream
+	 * demand, even unbounded, is only propagated upstream as permits become available,
+	 * so the source is never asked for more than the rate allows.
+	 * <p>
+	 * Each subscription gets its own {@link RateLimiter}, timed on
+	 * {@link Schedulers#parallel()}. Use {@link #rateLimit(RateLimiter)} to share a
+	 * rate between several sequences.
+	 *
+	 * @param permits the number of elements allowed per period
+	 * @param period the period over which {@code permits} elements are allowed
+	 *
+	 * @return a rate-limited {@link Flux}
+	 * @see #limitRate(int)
+	 */
+	public final Flux<T> rateLimit(int permits, Duration period) {
+		return rateLimit(permits, period, Schedulers.parallel());
+	}
+
+	/**
+	 * Pace the requests made to this {@link Flux} to at most {@code permits} elements per
+	 * {@code period}, allowing an initial burst of {@code permits} elements. Downstream
+	 * demand, even unbounded, is only propagated upstream as permits become available,
+	 * so the source is never asked for more than the rate allows.
+	 * <p>
+	 * Each subscription gets its own {@link RateLimiter}, timed on the given
+	 * {@link Scheduler}.
+	 *
+	 * @param permits the number of elements allowed per period
+	 * @param period the period over which {@code permits} elements are allowed
+	 * @param timer the {@link Scheduler} providing the clock and the refill timer
+	 *
+	 * @return a rate-limited {@link Flux}
+	 */
+	public final Flux<T> rateLimit(int permits, Duration period, Scheduler timer) {
+		RateLimiter.checkPeriod(permits, period, permits);
+		Objects.requireNonNull(timer, "timer");
+		return onAssembly(new FluxRateLimit<>(this,
+				() -> RateLimiter.create(permits, period, permits, timer)));
+	}
+
+	/**
+	 * Pace the requests made to this {@link Flux} with the permits of the given
+	 * {@link RateLimiter}, which can be shared with other sequences so that their
+	 * combined rate stays within its limit. Downstream demand, even unbounded, is only
+	 * propagated upstream as permits become available.
+	 *
+	 * @param limiter the {@link RateLimiter} to acquire a permit from for each element
+	 *
+	 * @return a rate-limited {@link Flux}
+	 */
+	public final Flux<T> rateLimit(RateLimiter limiter) {
+		Objects.requireNonNull(limiter, "limiter");
+		return onAssembly(new FluxRateLimit<>(this, () -> limiter));
+	}
+
 	/**
 	 * Reduce the values from this {@link Flux} sequence into an single object of the same
 	 * type than the emitted items. Reduction is performed using a {@link BiFunction} that
@@ -5564,6 +6155,54 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxRepeatWhen<>(this, repeatFactory));
 	}
 
+	/**
+	 * Repeatedly subscribe to this {@link Flux} as long as the current subscription
+	 * completes without emitting any value, up to {@code maxRepeat} times, using an exponential backoff between
+	 * subscriptions. The jitter factor is {@code 50%} but the effective delay stays
+	 * between {@code firstBackoff} and {@code maxBackoff}.
+	 * <p>
+	 * Any error terminates the resulting {@link Flux} immediately. Emits an
+	 * {@link IllegalStateException} if {@code maxRepeat} is exceeded.
+	 *
+	 * @param maxRepeat the maximum number of repeats
+	 * @param firstBackoff the first delay to apply then grow exponentially.
+	 * @param maxBackoff the maximum delay to apply despite exponential growth and jitter.
+	 *
+	 * @return a {@link Flux} that resubscribes to this {@link Flux} with growing
+	 * delays as long as the previous subscription was empty
+	 */
+	public final Flux<T> repeatWhenEmpty(int maxRepeat, Duration firstBackoff, Duration maxBackoff) {
+		return repeatWhenEmpty(maxRepeat, firstBackoff, maxBackoff, 0.5d,
+				Duration.ofMillis(Long.MAX_VALUE), Schedulers.parallel());
+	}
+
+	/**
+	 * Repeatedly subscribe to this {@link Flux} as long as the current subscription
+	 * completes without emitting any value, up to {@code maxRepeat} times and as long as the total time spent since
+	 * the subscription stays within {@code maxElapsed}, using an exponential backoff
+	 * with jitter between subscriptions, as described in
+	 * {@link #retryBackoff(long, Duration, Duration, double, Scheduler)}.
+	 * <p>
+	 * Any error terminates the resulting {@link Flux} immediately. Emits an
+	 * {@link IllegalStateException} if {@code maxRepeat} or {@code maxElapsed} is
+	 * exceeded.
+	 *
+	 * @param maxRepeat the maximum number of repeats
+	 * @param firstBackoff the first delay to apply then grow exponentially.
+	 * @param maxBackoff the maximum delay to apply despite exponential growth and jitter.
+	 * @param jitterFactor the weight of the random part of the delays, between 0 and 1.
+	 * @param maxElapsed the maximum time between the subscription and the last repeat.
+	 * @param backoffScheduler the {@link Scheduler} on which repeats are scheduled.
+	 *
+	 * @return a {@link Flux} that resubscribes to this {@link Flux} with growing
+	 * delays as long as the previous subscription was empty
+	 */
+	public final Flux<T> repeatWhenEmpty(int maxRepeat, Duration firstBackoff, Duration maxBackoff,
+			double jitterFactor, Duration maxElapsed, Scheduler backoffScheduler) {
+		return onAssembly(new FluxRetryBackoff<>(this, new FluxRetryBackoff.Backoff(maxRepeat,
+				firstBackoff, maxBackoff, jitterFactor, maxElapsed, backoffScheduler, true)));
+	}
+
 	/**
 	 * Turn this {@link Flux} into a hot source and cache last emitted signals for further {@link Subscriber}. Will
 	 * retain an unbounded amount of onNext signals. Completion and Error will also be
@@ -5748,6 +6387,101 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxRetryWhen<>(this, whenFactory));
 	}
 
+	/**
+	 * In case of error, retry this {@link Flux} up to {@code numRetries} times using a
+	 * randomized exponential backoff strategy (jitter). The jitter factor is {@code 50%}
+	 * but the effective backoff delay cannot be less than {@code firstBackoff}.
+	 * <p>
+	 * Once retries are exhausted, an {@link IllegalStateException} is propagated, which
+	 * cause is the last error of this {@link Flux}.
+	 *
+	 * @param numRetries the maximum number of attempts before an {@link IllegalStateException}
+	 * is raised (having the original retry-triggering exception as cause).
+	 * @param firstBackoff the first backoff delay to apply then grow exponentially.
+	 *
+	 * @return a {@link Flux} that retries on onError with exponentially growing randomized delays between retries.
+	 */
+	public final Flux<T> retryBackoff(long numRetries, Duration firstBackoff) {
+		return retryBackoff(numRetries, firstBackoff, Duration.ofMillis(Long.MAX_VALUE), 0.5d,
+				Schedulers.parallel());
+	}
+
+	/**
+	 * In case of error, retry this {@link Flux} up to {@code numRetries} times using a
+	 * randomized exponential backoff strategy. The jitter factor is {@code 50%} but the
+	 * effective backoff delay stays between {@code firstBackoff} and {@code maxBackoff}.
+	 * <p>
+	 * Once retries are exhausted, an {@link IllegalStateException} is propagated, which
+	 * cause is the last error of this {@link Flux}.
+	 *
+	 * @param numRetries the maximum number of attempts before an {@link IllegalStateException}
+	 * is raised (having the original retry-triggering exception as cause).
+	 * @param firstBackoff the first backoff delay to apply then grow exponentially.
+	 * @param maxBackoff the maximum delay to apply despite exponential growth and jitter.
+	 *
+	 * @return a {@link Flux} that retries on onError with exponentially growing randomized delays between retries.
+	 */
+	public final Flux<T> retryBackoff(long numRetries, Duration firstBackoff, Duration maxBackoff) {
+		return retryBackoff(numRetries, firstBackoff, maxBackoff, 0.5d, Schedulers.parallel());
+	}
+
+	/**
+	 * In case of error, retry this {@link Flux} up to {@code numRetries} times using a
+	 * randomized exponential backoff strategy, on the given {@link Scheduler}.
+	 * <p>
+	 * Without jitter, the n-th retry is delayed by {@code firstBackoff * 2^n}, capped to
+	 * {@code maxBackoff}. The {@code jitterFactor} blends that delay with a
+	 * "decorrelated jitter" one, picked at random between {@code firstBackoff} and three
+	 * times the previous delay, so that clients failing at the same time don't retry in
+	 * lockstep. At {@code 0} the delays are deterministic, at {@code 1} they are fully
+	 * decorrelated.
+	 * <p>
+	 * Once retries are exhausted, an {@link IllegalStateException} is propagated, which
+	 * cause is the last error of this {@link Flux}.
+	 *
+	 * @param numRetries the maximum number of attempts before an {@link IllegalStateException}
+	 * is raised (having the original retry-triggering exception as cause).
+	 * @param firstBackoff the first backoff delay to apply then grow exponentially.
+	 * @param maxBackoff the maximum delay to apply despite exponential growth and jitter.
+	 * @param jitterFactor the weight of the random part of the delays, between 0 and 1.
+	 * @param backoffScheduler the {@link Scheduler} on which retries are scheduled.
+	 *
+	 * @return a {@link Flux} that retries on onError with exponentially growing randomized delays between retries.
+	 */
+	public final Flux<T> retryBackoff(long numRetries, Duration firstBackoff, Duration maxBackoff,
+			double jitterFactor, Scheduler backoffScheduler) {
+		return retryBackoff(numRetries, firstBackoff, maxBackoff, jitterFactor,
+				Duration.ofMillis(Long.MAX_VALUE), backoffScheduler);
+	}
+
+	/**
+	 * In case of error, retry this {@link Flux} up to {@code numRetries} times using a
+	 * randomized exponential backoff strategy, on the given {@link Scheduler}, as long as
+	 * the total time spent since the subscription stays within {@code maxElapsed}.
+	 * <p>
+	 * The delays are computed as described in
+	 * {@link #retryBackoff(long, Duration, Duration, double, Scheduler)}.
+	 * <p>
+	 * Once retries are exhausted, or if the next retry would happen past
+	 * {@code maxElapsed}, an {@link IllegalStateException} is propagated, which cause is
+	 * the last error of this {@link Flux}.
+	 *
+	 * @param numRetries the maximum number of attempts before an {@link IllegalStateException}
+	 * is raised (having the original retry-triggering exception as cause).
+	 * @param firstBackoff the first backoff delay to apply then grow exponentially.
+	 * @param maxBackoff the maximum delay to apply despite exponential growth and jitter.
+	 * @param jitterFactor the weight of the random part of the delays, between 0 and 1.
+	 * @param maxElapsed the maximum time between the subscription and the last retry.
+	 * @param backoffScheduler the {@link Scheduler} on which retries are scheduled.
+	 *
+	 * @return a {@link Flux} that retries on onError with exponentially growing randomized delays between retries.
+	 */
+	public final Flux<T> retryBackoff(long numRetries, Duration firstBackoff, Duration maxBackoff,
+			double jitterFactor, Duration maxElapsed, Scheduler backoffScheduler) {
+		return onAssembly(new FluxRetryBackoff<>(this, new FluxRetryBackoff.Backoff(numRetries,
+				firstBackoff, maxBackoff, jitterFactor, maxElapsed, backoffScheduler, false)));
+	}
+
 	/**
 	 * Sample this {@link Flux} by periodically emitting an item corresponding to that
 	 * {@link Flux} latest emitted value within the periodical time window.
@@ -6515,6 +7249,22 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxSwitchMap<>(this, fn, QueueSupplier.unbounded(prefetch), prefetch));
 	}
 
+	/**
+	 * Tag this Flux with a key/value pair. These can be retrieved as a {@link Set} of
+	 * all tags throughout the publisher chain by using
+	 * {@link reactor.core.Scannable#tags()} (as traversed by
+	 * {@link reactor.core.Scannable#parents()}). They are used by {@link #metrics()}
+	 * to label the recorded measurements.
+	 *
+	 * @param key a tag key
+	 * @param value a tag value
+	 *
+	 * @return the same sequence, but bearing tags
+	 */
+	public final Flux<T> tag(String key, String value) {
+		return FluxName.createOrAppend(this, key, value);
+	}
+
 	/**
 	 * Take only the first N values from this {@link Flux}, if available.
 	 * <p>
@@ -7391,6 +8141,22 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxWithLatestFrom<>(this, other, resultSelector));
 	}
 
+	/**
+	 * Delay the subscription to this {@link Flux} until a permit has been taken from the
+	 * given {@link Bulkhead}, holding it until the sequence terminates or is cancelled.
+	 * The {@link Bulkhead} can be shared between any number of sequences to bound how
+	 * many of them are active at once. Waiting subscriptions are started in arrival
+	 * order, without blocking.
+	 *
+	 * @param bulkhead the {@link Bulkhead} to take a permit from
+	 *
+	 * @return a {@link Flux} subscribed to under a permit of the {@link Bulkhead}
+	 * @see #flatMap(Function, Bulkhead)
+	 */
+	public final Flux<T> withPermit(Bulkhead bulkhead) {
+		return onAssembly(new FluxWithPermit<>(this, bulkhead));
+	}
+
 	/**
 	 * Zip this {@link Flux} with another {@link Publisher} source, that is to say wait
 	 * for both to emit one element and combine these elements once into a {@link Tuple2}.
@@ -41,8 +41,12 @@ final class FluxCallableOnAssembly<T> extends FluxOperator<T, T>
 	final AssemblySnapshotException stacktrace;
 
 	FluxCallableOnAssembly(Flux<? extends T> source) {
+		this(source, new AssemblySnapshotException());
+	}
+
+	FluxCallableOnAssembly(Flux<? extends T> source, AssemblySnapshotException stacktrace) {
 		super(source);
-		this.stacktrace = new AssemblySnapshotException();
+		this.stacktrace = stacktrace;
 	}
 
 	@Override
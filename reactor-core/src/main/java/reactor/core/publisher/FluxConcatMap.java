@@ -53,6 +53,9 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 
 	final ErrorMode errorMode;
 
+	@Nullable
+	final AdaptivePrefetch adaptivePrefetch;
+
 	/**
 	 * Indicates when an error from the main source should be reported.
 	 */
@@ -73,21 +76,32 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 			Function<? super T, ? extends Publisher<? extends R>> mapper,
 			Supplier<? extends Queue<T>> queueSupplier,
 			int prefetch, ErrorMode errorMode) {
+		return subscriber(s, mapper, queueSupplier, prefetch, errorMode, null);
+	}
+
+	static <T, R> CoreSubscriber<T> subscriber(CoreSubscriber<? super R> s,
+			Function<? super T, ? extends Publisher<? extends R>> mapper,
+			Supplier<? extends Queue<T>> queueSupplier,
+			int prefetch, ErrorMode errorMode,
+			@Nullable AdaptivePrefetch adaptivePrefetch) {
 		switch (errorMode) {
 			case BOUNDARY:
 				return new ConcatMapDelayed<>(s,
 						mapper,
 						queueSupplier,
 						prefetch,
-						false);
+						false,
+						adaptivePrefetch);
 			case END:
 				return new ConcatMapDelayed<>(s,
 						mapper,
 						queueSupplier,
 						prefetch,
-						true);
+						true,
+						adaptivePrefetch);
 			default:
-				return new ConcatMapImmediate<>(s, mapper, queueSupplier, prefetch);
+				return new ConcatMapImmediate<>(s, mapper, queueSupplier, prefetch,
+						adaptivePrefetch);
 		}
 	}
 
@@ -96,6 +110,19 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 			Supplier<? extends Queue<T>> queueSupplier,
 			int prefetch,
 			ErrorMode errorMode) {
+		this(source, mapper, queueSupplier, prefetch, errorMode, null);
+	}
+
+	/**
+	 * @param adaptivePrefetch an optional {@link AdaptivePrefetch} resizing the request
+	 * window between its bounds, in which case prefetch is its maximum
+	 */
+	FluxConcatMap(Flux<? extends T> source,
+			Function<? super T, ? extends Publisher<? extends R>> mapper,
+			Supplier<? extends Queue<T>> queueSupplier,
+			int prefetch,
+			ErrorMode errorMode,
+			@Nullable AdaptivePrefetch adaptivePrefetch) {
 		super(source);
 		if (prefetch <= 0) {
 			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
@@ -104,6 +131,7 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 		this.queueSupplier = Objects.requireNonNull(queueSupplier, "queueSupplier");
 		this.prefetch = prefetch;
 		this.errorMode = Objects.requireNonNull(errorMode, "errorMode");
+		this.adaptivePrefetch = adaptivePrefetch;
 	}
 
 	@Override
@@ -118,7 +146,8 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 			return;
 		}
 
-		source.subscribe(subscriber(s, mapper, queueSupplier, prefetch, errorMode));
+		source.subscribe(subscriber(s, mapper, queueSupplier, prefetch, errorMode,
+				adaptivePrefetch));
 	}
 
 	static final class ConcatMapImmediate<T, R>
@@ -134,7 +163,10 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 
 		final int prefetch;
 
-		final int limit;
+		@Nullable
+		final AdaptivePrefetch.Window window;
+
+		int limit;
 
 		Subscription s;
 
@@ -170,11 +202,25 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 		ConcatMapImmediate(CoreSubscriber<? super R> actual,
 				Function<? super T, ? extends Publisher<? extends R>> mapper,
 				Supplier<? extends Queue<T>> queueSupplier, int prefetch) {
+			this(actual, mapper, queueSupplier, prefetch, null);
+		}
+
+		ConcatMapImmediate(CoreSubscriber<? super R> actual,
+				Function<? super T, ? extends Publisher<? extends R>> mapper,
+				Supplier<? extends Queue<T>> queueSupplier, int prefetch,
+				@Nullable AdaptivePrefetch adaptivePrefetch) {
 			this.actual = actual;
 			this.mapper = mapper;
 			this.queueSupplier = queueSupplier;
 			this.prefetch = prefetch;
-			this.limit = prefetch - (prefetch >> 2);
+			if (adaptivePrefetch != null) {
+				this.window = adaptivePrefetch.window();
+				this.limit = window.limit;
+			}
+			else {
+				this.window = null;
+				this.limit = prefetch - (prefetch >> 2);
+			}
 			this.inner = new ConcatMapInner<>(this);
 		}
 
@@ -224,8 +270,27 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 
 				actual.onSubscribe(this);
 
-				s.request(prefetch == Integer.MAX_VALUE ? Long.MAX_VALUE : prefetch);
+				if (window != null) {
+					s.request(window.prefetch);
+				}
+				else {
+					s.request(prefetch == Integer.MAX_VALUE ? Long.MAX_VALUE : prefetch);
+				}
+			}
+		}
+
+		/**
+		 * Compute the amount to request upstream after consuming {@link #limit} values,
+		 * resizing the request window if adaptive.
+		 */
+		long replenish(int consumed) {
+			AdaptivePrefetch.Window w = window;
+			if (w == null) {
+				return consumed;
 			}
+			long n = w.replenish(consumed, queue.size());
+			limit = w.limit;
+			return n;
 		}
 
 		@Override
@@ -364,7 +429,7 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 								int c = consumed + 1;
 								if (c == limit) {
 									consumed = 0;
-									s.request(c);
+									s.request(replenish(c));
 								}
 								else {
 									consumed = c;
@@ -463,7 +528,10 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 
 		final int prefetch;
 
-		final int limit;
+		@Nullable
+		final AdaptivePrefetch.Window window;
+
+		int limit;
 
 		final boolean veryEnd;
 
@@ -497,11 +565,26 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 				Function<? super T, ? extends Publisher<? extends R>> mapper,
 				Supplier<? extends Queue<T>> queueSupplier,
 				int prefetch, boolean veryEnd) {
+			this(actual, mapper, queueSupplier, prefetch, veryEnd, null);
+		}
+
+		ConcatMapDelayed(CoreSubscriber<? super R> actual,
+				Function<? super T, ? extends Publisher<? extends R>> mapper,
+				Supplier<? extends Queue<T>> queueSupplier,
+				int prefetch, boolean veryEnd,
+				@Nullable AdaptivePrefetch adaptivePrefetch) {
 			this.actual = actual;
 			this.mapper = mapper;
 			this.queueSupplier = queueSupplier;
 			this.prefetch = prefetch;
-			this.limit = prefetch - (prefetch >> 2);
+			if (adaptivePrefetch != null) {
+				this.window = adaptivePrefetch.window();
+				this.limit = window.limit;
+			}
+			else {
+				this.window = null;
+				this.limit = prefetch - (prefetch >> 2);
+			}
 			this.veryEnd = veryEnd;
 			this.inner = new ConcatMapInner<>(this);
 		}
@@ -560,8 +643,27 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 
 				actual.onSubscribe(this);
 
-				s.request(prefetch == Integer.MAX_VALUE ? Long.MAX_VALUE : prefetch);
+				if (window != null) {
+					s.request(window.prefetch);
+				}
+				else {
+					s.request(prefetch == Integer.MAX_VALUE ? Long.MAX_VALUE : prefetch);
+				}
+			}
+		}
+
+		/**
+		 * Compute the amount to request upstream after consuming {@link #limit} values,
+		 * resizing the request window if adaptive.
+		 */
+		long replenish(int consumed) {
+			AdaptivePrefetch.Window w = window;
+			if (w == null) {
+				return consumed;
 			}
+			long n = w.replenish(consumed, queue.size());
+			limit = w.limit;
+			return n;
 		}
 
 		@Override
@@ -697,7 +799,7 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 								int c = consumed + 1;
 								if (c == limit) {
 									consumed = 0;
-									s.request(c);
+									s.request(replenish(c));
 								}
 								else {
 									consumed = c;
@@ -121,7 +121,7 @@ final class FluxCreate<T> extends Flux<T> {
 
 		SerializedSink(BaseSink<T> sink) {
 			this.sink = sink;
-			this.queue = QueueSupplier.<T>unbounded(16).get();
+			this.queue = QueueSupplier.<T>mpscUnbounded(16).get();
 		}
 
 		@Override
@@ -140,10 +140,7 @@ final class FluxCreate<T> extends Flux<T> {
 				}
 			}
 			else {
-				Queue<T> q = queue;
-				synchronized (this) {
-					q.offer(t);
-				}
+				queue.offer(t);
 				if (WIP.getAndIncrement(this) != 0) {
 					return this;
 				}
@@ -58,6 +58,9 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 
 	final Supplier<? extends Queue<R>> innerQueueSupplier;
 
+	@Nullable
+	final AdaptivePrefetch innerAdaptivePrefetch;
+
 	FluxFlatMap(Flux<? extends T> source,
 			Function<? super T, ? extends Publisher<? extends R>> mapper,
 			boolean delayError,
@@ -65,6 +68,23 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 			Supplier<? extends Queue<R>> mainQueueSupplier,
 			int prefetch,
 			Supplier<? extends Queue<R>> innerQueueSupplier) {
+		this(source, mapper, delayError, maxConcurrency, mainQueueSupplier, prefetch,
+				innerQueueSupplier, null);
+	}
+
+	/**
+	 * @param innerAdaptivePrefetch an optional {@link AdaptivePrefetch} resizing the
+	 * request window of each inner between its bounds, in which case prefetch is its
+	 * maximum
+	 */
+	FluxFlatMap(Flux<? extends T> source,
+			Function<? super T, ? extends Publisher<? extends R>> mapper,
+			boolean delayError,
+			int maxConcurrency,
+			Supplier<? extends Queue<R>> mainQueueSupplier,
+			int prefetch,
+			Supplier<? extends Queue<R>> innerQueueSupplier,
+			@Nullable AdaptivePrefetch innerAdaptivePrefetch) {
 		super(source);
 		if (prefetch <= 0) {
 			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
@@ -80,6 +100,7 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 				Objects.requireNonNull(mainQueueSupplier, "mainQueueSupplier");
 		this.innerQueueSupplier =
 				Objects.requireNonNull(innerQueueSupplier, "innerQueueSupplier");
+		this.innerAdaptivePrefetch = innerAdaptivePrefetch;
 	}
 
 	@Override
@@ -99,7 +120,7 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 				delayError,
 				maxConcurrency,
 				mainQueueSupplier,
-				prefetch, innerQueueSupplier));
+				prefetch, innerQueueSupplier, innerAdaptivePrefetch));
 	}
 
 	/**
@@ -190,6 +211,8 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 		final Supplier<? extends Queue<R>>                          mainQueueSupplier;
 		final Supplier<? extends Queue<R>>                          innerQueueSupplier;
 		final CoreSubscriber<? super R>                             actual;
+		@Nullable
+		final AdaptivePrefetch                                      innerAdaptivePrefetch;
 
 		volatile Queue<R> scalarQueue;
 
@@ -234,6 +257,18 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 				Supplier<? extends Queue<R>> mainQueueSupplier,
 				int prefetch,
 				Supplier<? extends Queue<R>> innerQueueSupplier) {
+			this(actual, mapper, delayError, maxConcurrency, mainQueueSupplier, prefetch,
+					innerQueueSupplier, null);
+		}
+
+		FlatMapMain(CoreSubscriber<? super R> actual,
+				Function<? super T, ? extends Publisher<? extends R>> mapper,
+				boolean delayError,
+				int maxConcurrency,
+				Supplier<? extends Queue<R>> mainQueueSupplier,
+				int prefetch,
+				Supplier<? extends Queue<R>> innerQueueSupplier,
+				@Nullable AdaptivePrefetch innerAdaptivePrefetch) {
 			this.actual = actual;
 			this.mapper = mapper;
 			this.delayError = delayError;
@@ -241,6 +276,7 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 			this.mainQueueSupplier = mainQueueSupplier;
 			this.prefetch = prefetch;
 			this.innerQueueSupplier = innerQueueSupplier;
+			this.innerAdaptivePrefetch = innerAdaptivePrefetch;
 			this.limit = maxConcurrency - (maxConcurrency >> 2);
 		}
 
@@ -370,7 +406,7 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 				emitScalar(v);
 			}
 			else {
-				FlatMapInner<R> inner = new FlatMapInner<>(this, prefetch);
+				FlatMapInner<R> inner = new FlatMapInner<>(this, prefetch, innerAdaptivePrefetch);
 				if (add(inner)) {
 
 					p.subscribe(inner);
@@ -850,7 +886,10 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 
 		final int prefetch;
 
-		final int limit;
+		@Nullable
+		final AdaptivePrefetch.Window window;
+
+		int limit;
 
 		volatile Subscription s;
 		@SuppressWarnings("rawtypes")
@@ -873,9 +912,22 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 		int index;
 
 		FlatMapInner(FlatMapMain<?, R> parent, int prefetch) {
+			this(parent, prefetch, null);
+		}
+
+		FlatMapInner(FlatMapMain<?, R> parent,
+				int prefetch,
+				@Nullable AdaptivePrefetch adaptivePrefetch) {
 			this.parent = parent;
 			this.prefetch = prefetch;
-			this.limit = prefetch - (prefetch >> 2);
+			if (adaptivePrefetch != null) {
+				this.window = adaptivePrefetch.window();
+				this.limit = window.limit;
+			}
+			else {
+				this.window = null;
+				this.limit = prefetch - (prefetch >> 2);
+			}
 		}
 
 		@Override
@@ -898,7 +950,7 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 					}
 					// NONE is just fall-through as the queue will be created on demand
 				}
-				s.request(prefetch);
+				s.request(window != null ? window.prefetch : prefetch);
 			}
 		}
 
@@ -930,13 +982,28 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 			long p = produced + n;
 			if (p >= limit) {
 				produced = 0L;
-				s.request(p);
+				s.request(replenish(p));
 			}
 			else {
 				produced = p;
 			}
 		}
 
+		/**
+		 * Compute the amount to request after consuming at least {@link #limit} values,
+		 * resizing the request window if adaptive.
+		 */
+		long replenish(long consumed) {
+			AdaptivePrefetch.Window w = window;
+			if (w == null) {
+				return consumed;
+			}
+			Queue<R> q = queue;
+			long n = w.replenish(consumed, q == null ? 0 : q.size());
+			limit = w.limit;
+			return n;
+		}
+
 		@Override
 		public Context currentContext() {
 			return parent.currentContext();
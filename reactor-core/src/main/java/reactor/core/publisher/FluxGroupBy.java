@@ -16,13 +16,21 @@
 
 package reactor.core.publisher;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -31,13 +39,21 @@ import javax.annotation.Nullable;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
 import reactor.core.Exceptions;
 import reactor.core.Fuseable;
 import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.Logger;
+import reactor.util.Loggers;
 import reactor.util.context.Context;
 
 /**
  * Groups upstream items into their own Publisher sequence based on a key selector.
+ * <p>
+ * Groups can optionally be evicted, ie. completed and forgotten, once they have been
+ * idle for a given amount of time or when a maximum number of live groups is reached.
+ * A later value with the key of an evicted group opens a new group for that key.
  *
  * @param <T> the source value type
  * @param <K> the key value type
@@ -58,16 +74,58 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 
 	final int prefetch;
 
+	final long maxIdleMillis;
+
+	final int maxGroups;
+
+	final GroupEvictionPolicy evictionPolicy;
+
+	@Nullable
+	final Consumer<? super K> onGroupEviction;
+
+	@Nullable
+	final Scheduler scheduler;
+
 	FluxGroupBy(Flux<? extends T> source,
 			Function<? super T, ? extends K> keySelector,
 			Function<? super T, ? extends V> valueSelector,
 			Supplier<? extends Queue<GroupedFlux<K, V>>> mainQueueSupplier,
 			Supplier<? extends Queue<V>> groupQueueSupplier,
 			int prefetch) {
+		this(source, keySelector, valueSelector, mainQueueSupplier,
+				groupQueueSupplier, prefetch, 0L, Integer.MAX_VALUE,
+				GroupEvictionPolicy.LEAST_RECENTLY_USED, null, null);
+	}
+
+	FluxGroupBy(Flux<? extends T> source,
+			Function<? super T, ? extends K> keySelector,
+			Function<? super T, ? extends V> valueSelector,
+			Supplier<? extends Queue<GroupedFlux<K, V>>> mainQueueSupplier,
+			Supplier<? extends Queue<V>> groupQueueSupplier,
+			int prefetch,
+			long maxIdleMillis,
+			int maxGroups,
+			GroupEvictionPolicy evictionPolicy,
+			@Nullable Consumer<? super K> onGroupEviction,
+			@Nullable Scheduler scheduler) {
 		super(source);
 		if (prefetch <= 0) {
 			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
 		}
+		if (maxIdleMillis < 0L) {
+			throw new IllegalArgumentException("maxIdle >= 0 required but it was " + maxIdleMillis + "ms");
+		}
+		if (maxGroups <= 0) {
+			throw new IllegalArgumentException("maxGroups > 0 required but it was " + maxGroups);
+		}
+		if (maxIdleMillis > 0L && scheduler == null) {
+			throw new IllegalArgumentException("a Scheduler is required to evict idle groups");
+		}
+		this.maxIdleMillis = maxIdleMillis;
+		this.maxGroups = maxGroups;
+		this.evictionPolicy = Objects.requireNonNull(evictionPolicy, "evictionPolicy");
+		this.onGroupEviction = onGroupEviction;
+		this.scheduler = scheduler;
 		this.keySelector = Objects.requireNonNull(keySelector, "keySelector");
 		this.valueSelector = Objects.requireNonNull(valueSelector, "valueSelector");
 		this.mainQueueSupplier =
@@ -83,7 +141,8 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 				mainQueueSupplier.get(),
 				groupQueueSupplier,
 				prefetch,
-				keySelector, valueSelector));
+				keySelector, valueSelector,
+				maxIdleMillis, maxGroups, evictionPolicy, onGroupEviction, scheduler));
 	}
 
 	@Override
@@ -91,9 +150,11 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 		return prefetch;
 	}
 
+	static final Logger LOGGER = Loggers.getLogger(FluxGroupBy.class);
+
 	static final class GroupByMain<T, K, V>
 			implements QueueSubscription<GroupedFlux<K, V>>,
-			           InnerOperator<T, GroupedFlux<K, V>> {
+			           InnerOperator<T, GroupedFlux<K, V>>, Runnable {
 
 		final Function<? super T, ? extends K>          keySelector;
 		final Function<? super T, ? extends V>          valueSelector;
@@ -103,6 +164,26 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 		final Map<K, UnicastGroupedFlux<K, V>>          groupMap;
 		final CoreSubscriber<? super GroupedFlux<K, V>> actual;
 
+		/**
+		 * Whether groups are subject to eviction, in which case {@link #groupMap} is a
+		 * synchronized {@link LinkedHashMap} kept in eviction order, and its monitor
+		 * serializes routing values with evicting groups.
+		 */
+		final boolean                                   evicting;
+		final long                                      maxIdleMillis;
+		final int                                       maxGroups;
+		@Nullable
+		final Consumer<? super K>                       onGroupEviction;
+		@Nullable
+		final Scheduler                                 scheduler;
+
+		volatile Disposable idleTask;
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<GroupByMain, Disposable> IDLE_TASK =
+				AtomicReferenceFieldUpdater.newUpdater(GroupByMain.class,
+						Disposable.class,
+						"idleTask");
+
 		volatile int wip;
 
 		@SuppressWarnings("rawtypes")
@@ -142,13 +223,41 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 				int prefetch,
 				Function<? super T, ? extends K> keySelector,
 				Function<? super T, ? extends V> valueSelector) {
+			this(actual, queue, groupQueueSupplier, prefetch, keySelector,
+					valueSelector, 0L, Integer.MAX_VALUE,
+					GroupEvictionPolicy.LEAST_RECENTLY_USED, null, null);
+		}
+
+		GroupByMain(CoreSubscriber<? super GroupedFlux<K, V>> actual,
+				Queue<GroupedFlux<K, V>> queue,
+				Supplier<? extends Queue<V>> groupQueueSupplier,
+				int prefetch,
+				Function<? super T, ? extends K> keySelector,
+				Function<? super T, ? extends V> valueSelector,
+				long maxIdleMillis,
+				int maxGroups,
+				GroupEvictionPolicy evictionPolicy,
+				@Nullable Consumer<? super K> onGroupEviction,
+				@Nullable Scheduler scheduler) {
 			this.actual = actual;
 			this.queue = queue;
 			this.groupQueueSupplier = groupQueueSupplier;
 			this.prefetch = prefetch;
-			this.groupMap = new ConcurrentHashMap<>();
 			this.keySelector = keySelector;
 			this.valueSelector = valueSelector;
+			this.maxIdleMillis = maxIdleMillis;
+			this.maxGroups = maxGroups;
+			this.onGroupEviction = onGroupEviction;
+			this.scheduler = scheduler;
+			this.evicting = maxIdleMillis > 0L || maxGroups != Integer.MAX_VALUE;
+			if (evicting) {
+				this.groupMap = Collections.synchronizedMap(new LinkedHashMap<>(16,
+						0.75f,
+						evictionPolicy == GroupEvictionPolicy.LEAST_RECENTLY_USED));
+			}
+			else {
+				this.groupMap = new ConcurrentHashMap<>();
+			}
 			GROUP_COUNT.lazySet(this, 1);
 		}
 
@@ -162,6 +271,9 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 			if (Operators.validate(this.s, s)) {
 				this.s = s;
 				actual.onSubscribe(this);
+				if (maxIdleMillis > 0L && !scheduleIdleEviction()) {
+					return;
+				}
 				if (prefetch == Integer.MAX_VALUE) {
 					s.request(Long.MAX_VALUE);
 				}
@@ -171,6 +283,99 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 			}
 		}
 
+		boolean scheduleIdleEviction() {
+			long period = Math.max(1L, maxIdleMillis >> 1);
+			//noinspection ConstantConditions
+			Disposable d = scheduler.schedulePeriodically(this,
+					period,
+					period,
+					TimeUnit.MILLISECONDS);
+			if (d == Scheduler.REJECTED) {
+				onError(Operators.onRejectedExecution(s, null, null));
+				return false;
+			}
+			Disposables.setOnce(IDLE_TASK, this, d);
+			return true;
+		}
+
+		void disposeIdleTask() {
+			if (maxIdleMillis > 0L) {
+				Disposables.dispose(IDLE_TASK, this);
+			}
+		}
+
+		/**
+		 * Periodic idle check: evict every group that didn't receive a value during the
+		 * last {@link #maxIdleMillis}.
+		 */
+		@Override
+		public void run() {
+			//noinspection ConstantConditions
+			long deadline = scheduler.now(TimeUnit.MILLISECONDS) - maxIdleMillis;
+			List<UnicastGroupedFlux<K, V>> evicted = null;
+
+			synchronized (groupMap) {
+				Iterator<UnicastGroupedFlux<K, V>> it = groupMap.values().iterator();
+				while (it.hasNext()) {
+					UnicastGroupedFlux<K, V> g = it.next();
+					if (!g.routing && g.lastAccess <= deadline) {
+						it.remove();
+						if (evicted == null) {
+							evicted = new ArrayList<>();
+						}
+						evicted.add(g);
+					}
+				}
+			}
+
+			if (evicted != null) {
+				for (UnicastGroupedFlux<K, V> g : evicted) {
+					evict(g);
+				}
+			}
+		}
+
+		void evict(UnicastGroupedFlux<K, V> g) {
+			g.onComplete();
+			Consumer<? super K> callback = onGroupEviction;
+			if (callback != null) {
+				try {
+					callback.accept(g.key);
+				}
+				catch (Throwable ex) {
+					if (LOGGER.isDebugEnabled()) {
+						LOGGER.debug("group [{}] couldn't be evicted due to a callback error. This error will be dropped: {}", g.key, ex);
+					}
+					Operators.onErrorDropped(ex);
+				}
+			}
+		}
+
+		/**
+		 * Remove the first group in eviction order, ie. the least recently used or the
+		 * oldest one depending on the policy. Must be called while holding the
+		 * {@link #groupMap} monitor.
+		 *
+		 * @return the removed group, to be completed once the monitor is released
+		 */
+		@Nullable
+		UnicastGroupedFlux<K, V> removeEldest() {
+			Iterator<UnicastGroupedFlux<K, V>> it = groupMap.values().iterator();
+			if (it.hasNext()) {
+				UnicastGroupedFlux<K, V> g = it.next();
+				it.remove();
+				return g;
+			}
+			return null;
+		}
+
+		Collection<UnicastGroupedFlux<K, V>> groups() {
+			if (evicting) {
+				return new ArrayList<>(groupMap.values());
+			}
+			return groupMap.values();
+		}
+
 		@Override
 		public void onNext(T t) {
 			if(done){
@@ -190,6 +395,11 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 				return;
 			}
 
+			if (evicting) {
+				onNextEvicting(key, value);
+				return;
+			}
+
 			UnicastGroupedFlux<K, V> g = groupMap.get(key);
 
 			if (g == null) {
@@ -211,6 +421,53 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 			}
 		}
 
+		void onNextEvicting(K key, V value) {
+			UnicastGroupedFlux<K, V> g;
+			UnicastGroupedFlux<K, V> evicted = null;
+			boolean created = false;
+
+			//the lookup happens under the map monitor and marks the group as routing,
+			//so that an idle eviction can't complete it before the value is delivered,
+			//which happens outside of the monitor
+			synchronized (groupMap) {
+				g = groupMap.get(key);
+
+				if (g == null) {
+					// if the main is cancelled, don't create new groups
+					if (cancelled != 0) {
+						return;
+					}
+					if (groupMap.size() >= maxGroups) {
+						evicted = removeEldest();
+					}
+
+					Queue<V> q = groupQueueSupplier.get();
+
+					GROUP_COUNT.getAndIncrement(this);
+					g = new UnicastGroupedFlux<>(key, q, this, prefetch);
+					groupMap.put(key, g);
+					created = true;
+
+					queue.offer(g);
+				}
+
+				if (maxIdleMillis > 0L) {
+					//noinspection ConstantConditions
+					g.lastAccess = scheduler.now(TimeUnit.MILLISECONDS);
+					g.routing = true;
+				}
+			}
+
+			if (evicted != null) {
+				evict(evicted);
+			}
+			g.onNext(value);
+			g.routing = false;
+			if (created) {
+				drain();
+			}
+		}
+
 		@Override
 		public void onError(Throwable t) {
 			if (Exceptions.addThrowable(ERROR, this, t)) {
@@ -227,7 +484,8 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 			if(done){
 				return;
 			}
-			for (UnicastGroupedFlux<K, V> g : groupMap.values()) {
+			disposeIdleTask();
+			for (UnicastGroupedFlux<K, V> g : groups()) {
 				g.onComplete();
 			}
 			groupMap.clear();
@@ -252,7 +510,7 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 
 		@Override
 		public Stream<? extends Scannable> inners() {
-			return groupMap.values().stream();
+			return groups().stream();
 		}
 
 		void signalAsyncError() {
@@ -261,7 +519,8 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 				e = new IllegalStateException("FluxGroupBy.signalAsyncError called without error push");
 			}
 			groupCount = 0;
-			for (UnicastGroupedFlux<K, V> g : groupMap.values()) {
+			disposeIdleTask();
+			for (UnicastGroupedFlux<K, V> g : groups()) {
 				g.onError(e);
 			}
 			actual.onError(e);
@@ -280,6 +539,7 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 		public void cancel() {
 			if (CANCELLED.compareAndSet(this, 0, 1)) {
 				if (GROUP_COUNT.decrementAndGet(this) == 0) {
+					disposeIdleTask();
 					s.cancel();
 				}
 				else if (!enableAsyncFusion) {
@@ -300,12 +560,14 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 			}
 		}
 
-		void groupTerminated(K key) {
+		void groupTerminated(K key, UnicastGroupedFlux<K, V> group) {
 			if (groupCount == 0) {
 				return;
 			}
-			groupMap.remove(key);
+			//an evicted group may terminate after a new group took its key
+			groupMap.remove(key, group);
 			if (GROUP_COUNT.decrementAndGet(this) == 0) {
+				disposeIdleTask();
 				s.cancel();
 			}
 		}
@@ -515,6 +777,18 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 
 		int produced;
 
+		/**
+		 * Last time a value was routed to this group, as measured by the eviction
+		 * {@link Scheduler}, guarded by the parent's group map monitor.
+		 */
+		long lastAccess;
+
+		/**
+		 * Whether a value is being delivered to this group, which the idle eviction
+		 * must then skip. Set under the parent's group map monitor.
+		 */
+		volatile boolean routing;
+
 		UnicastGroupedFlux(K key,
 				Queue<V> queue,
 				GroupByMain<?, K, V> parent,
@@ -529,7 +803,7 @@ final class FluxGroupBy<T, K, V> extends FluxOperator<T, GroupedFlux<K, V>>
 		void doTerminate() {
 			GroupByMain<?, K, V> r = parent;
 			if (r != null && PARENT.compareAndSet(this, r, null)) {
-				r.groupTerminated(key);
+				r.groupTerminated(key, this);
 			}
 		}
 
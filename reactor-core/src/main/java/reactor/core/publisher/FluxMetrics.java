@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.util.function.Tuple2;
+
+/**
+ * Report the lifecycle of each subscription to the {@link SequenceMetricsRecorder}
+ * installed via {@link Hooks#onMetrics(SequenceMetricsRecorder)}, under the name and
+ * tags discovered up the {@link Scannable#parents()} chain at assembly time.
+ * <p>
+ * When no recorder is installed upon subscription, the subscriber is passed through.
+ *
+ * @param <T> the value type
+ */
+final class FluxMetrics<T> extends FluxOperator<T, T> {
+
+	/**
+	 * The name used when the instrumented sequence hasn't been named.
+	 */
+	static final String REACTOR_DEFAULT_NAME = "reactor";
+
+	final String                      name;
+	final Set<Tuple2<String, String>> tags;
+
+	FluxMetrics(Flux<? extends T> source) {
+		super(source);
+		this.name = resolveName(source);
+		this.tags = resolveTags(source);
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super T> actual) {
+		SequenceMetricsRecorder recorder = Hooks.onMetricsHook;
+		if (recorder == null) {
+			source.subscribe(actual);
+			return;
+		}
+		source.subscribe(new MetricsSubscriber<>(actual, recorder, name, tags));
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == StringAttr.NAME) return name;
+		if (key == GenericAttr.TAGS) return tags;
+
+		return super.scanUnsafe(key);
+	}
+
+	static String resolveName(Object source) {
+		String name = Scannable.from(source).name();
+		return name == null ? REACTOR_DEFAULT_NAME : name;
+	}
+
+	static Set<Tuple2<String, String>> resolveTags(Object source) {
+		Set<Tuple2<String, String>> tags = Scannable.from(source)
+		                                            .tags()
+		                                            .collect(Collectors.toSet());
+		return tags.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(tags);
+	}
+
+	static final class MetricsSubscriber<T> implements InnerOperator<T, T> {
+
+		final CoreSubscriber<? super T>   actual;
+		final SequenceMetricsRecorder     recorder;
+		final String                      name;
+		final Set<Tuple2<String, String>> tags;
+
+		Subscription s;
+
+		long subscribeNanos;
+
+		boolean firstReceived;
+
+		volatile int terminated;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<MetricsSubscriber> TERMINATED =
+				AtomicIntegerFieldUpdater.newUpdater(MetricsSubscriber.class, "terminated");
+
+		/**
+		 * Cancellation isn't a termination: signals still in flight after a cancel
+		 * are forwarded as if the operator wasn't there, they are just not recorded.
+		 */
+		volatile int cancelled;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<MetricsSubscriber> CANCELLED =
+				AtomicIntegerFieldUpdater.newUpdater(MetricsSubscriber.class, "cancelled");
+
+		MetricsSubscriber(CoreSubscriber<? super T> actual,
+				SequenceMetricsRecorder recorder,
+				String name,
+				Set<Tuple2<String, String>> tags) {
+			this.actual = actual;
+			this.recorder = recorder;
+			this.name = name;
+			this.tags = tags;
+		}
+
+		@Override
+		public CoreSubscriber<? super T> actual() {
+			return actual;
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				this.subscribeNanos = System.nanoTime();
+				recorder.recordSubscription(name, tags);
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (terminated != 0) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			if (cancelled == 0) {
+				if (!firstReceived) {
+					firstReceived = true;
+					recorder.recordFirstElement(name, tags, System.nanoTime() - subscribeNanos);
+				}
+				recorder.recordOnNext(name, tags);
+			}
+			actual.onNext(t);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (!TERMINATED.compareAndSet(this, 0, 1)) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			if (cancelled == 0) {
+				recorder.recordTermination(name, tags, SignalType.ON_ERROR,
+						System.nanoTime() - subscribeNanos);
+			}
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (!TERMINATED.compareAndSet(this, 0, 1)) {
+				return;
+			}
+			if (cancelled == 0) {
+				recorder.recordTermination(name, tags, SignalType.ON_COMPLETE,
+						System.nanoTime() - subscribeNanos);
+			}
+			actual.onComplete();
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				recorder.recordRequest(name, tags, n);
+			}
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			if (terminated == 0 && CANCELLED.compareAndSet(this, 0, 1)) {
+				recorder.recordTermination(name, tags, SignalType.CANCEL,
+						System.nanoTime() - subscribeNanos);
+			}
+			s.cancel();
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return s;
+			if (key == BooleanAttr.TERMINATED) return terminated != 0;
+			if (key == BooleanAttr.CANCELLED) return cancelled != 0;
+			if (key == StringAttr.NAME) return name;
+			if (key == GenericAttr.TAGS) return tags;
+
+			return InnerOperator.super.scanUnsafe(key);
+		}
+	}
+}
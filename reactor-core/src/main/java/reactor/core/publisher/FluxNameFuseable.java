@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.Set;
+import javax.annotation.Nullable;
+
+import reactor.core.CoreSubscriber;
+import reactor.core.Fuseable;
+import reactor.util.function.Tuple2;
+
+/**
+ * A {@link Fuseable} version of {@link FluxName}.
+ *
+ * @param <T> the value type
+ */
+final class FluxNameFuseable<T> extends FluxOperator<T, T> implements Fuseable {
+
+	@Nullable
+	final String name;
+
+	@Nullable
+	final Set<Tuple2<String, String>> tags;
+
+	FluxNameFuseable(Flux<? extends T> source,
+			@Nullable String name,
+			@Nullable Set<Tuple2<String, String>> tags) {
+		super(source);
+		this.name = name;
+		this.tags = tags;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super T> actual) {
+		source.subscribe(actual);
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == StringAttr.NAME) return name;
+		if (key == GenericAttr.TAGS) return tags;
+
+		return super.scanUnsafe(key);
+	}
+}
@@ -63,8 +63,15 @@ final class FluxOnAssembly<T> extends FluxOperator<T, T> implements Fuseable,
 	 * Create an assembly trace decorated as a {@link Flux}.
 	 */
 	FluxOnAssembly(Flux<? extends T> source) {
+		this(source, new AssemblySnapshotException());
+	}
+
+	/**
+	 * Create an assembly trace from a given snapshot, decorated as a {@link Flux}.
+	 */
+	FluxOnAssembly(Flux<? extends T> source, AssemblySnapshotException snapshotStack) {
 		super(source);
-		this.snapshotStack = new AssemblySnapshotException();
+		this.snapshotStack = snapshotStack;
 	}
 
 	/**
@@ -308,6 +315,49 @@ final class FluxOnAssembly<T> extends FluxOperator<T, T> implements Fuseable,
 		}
 	}
 
+	/**
+	 * An assembly snapshot that doesn't fill in a stack trace but only keeps the frames
+	 * of the operator and of its user code call site, as found by
+	 * {@link Traces#CALL_SITE_FRAMES}. Frames are only converted to
+	 * {@link StackTraceElement} if the trace is actually displayed.
+	 */
+	static final class AssemblyCallSiteSnapshotException extends AssemblySnapshotException {
+
+		@Nullable
+		final Object operatorFrame;
+		@Nullable
+		final Object callSiteFrame;
+
+		AssemblyCallSiteSnapshotException() {
+			super();
+			Object[] frames = Traces.CALL_SITE_FRAMES.get();
+			this.operatorFrame = frames[0];
+			this.callSiteFrame = frames[1];
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this; //intentionally NO-OP
+		}
+
+		@Override
+		public String toString() {
+			if (cached == null) {
+				StringBuilder sb = new StringBuilder();
+				StackTraceElement operator = Traces.TO_STACK_TRACE_ELEMENT.apply(operatorFrame);
+				StackTraceElement callSite = Traces.TO_STACK_TRACE_ELEMENT.apply(callSiteFrame);
+				if (operator != null) {
+					sb.append("\t").append(operator).append("\n");
+				}
+				if (callSite != null) {
+					sb.append("\t").append(callSite).append("\n");
+				}
+				cached = sb.toString();
+			}
+			return cached;
+		}
+	}
+
 	/**
 	 * The holder for the assembly stacktrace (as its message).
 	 */
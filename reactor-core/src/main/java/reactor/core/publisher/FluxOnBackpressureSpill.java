@@ -0,0 +1,574 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+
+/**
+ * Buffers overflowing values in a small heap queue and spills the rest, serialized,
+ * into segment files that are read back in order as demand arrives.
+ *
+ * @param <O> the value type
+ */
+final class FluxOnBackpressureSpill<O> extends FluxOperator<O, O> {
+
+	/**
+	 * Default size of a spill segment file, a single value larger than this gets a
+	 * segment of its own.
+	 */
+	static final int SEGMENT_SIZE = 1024 * 1024;
+
+	final Function<? super O, byte[]> serializer;
+	final Function<byte[], ? extends O> deserializer;
+	final Path                          directory;
+	final int                           maxHeapElements;
+	final long                          maxDiskBytes;
+
+	FluxOnBackpressureSpill(Flux<? extends O> source,
+			Function<? super O, byte[]> serializer,
+			Function<byte[], ? extends O> deserializer,
+			Path directory,
+			int maxHeapElements,
+			long maxDiskBytes) {
+		super(source);
+		if (maxHeapElements < 0) {
+			throw new IllegalArgumentException("maxHeapElements >= 0 required but it was " + maxHeapElements);
+		}
+		if (maxDiskBytes <= 0) {
+			throw new IllegalArgumentException("maxDiskBytes > 0 required but it was " + maxDiskBytes);
+		}
+		this.serializer = Objects.requireNonNull(serializer, "serializer");
+		this.deserializer = Objects.requireNonNull(deserializer, "deserializer");
+		this.directory = Objects.requireNonNull(directory, "directory");
+		this.maxHeapElements = maxHeapElements;
+		this.maxDiskBytes = maxDiskBytes;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super O> s) {
+		source.subscribe(new SpillSubscriber<>(s,
+				new SpillQueue<>(serializer,
+						deserializer,
+						directory,
+						maxHeapElements,
+						maxDiskBytes)));
+	}
+
+	@Override
+	public int getPrefetch() {
+		return Integer.MAX_VALUE;
+	}
+
+	static final class SpillSubscriber<T> implements InnerOperator<T, T> {
+
+		final CoreSubscriber<? super T> actual;
+		final SpillQueue<T>             queue;
+
+		Subscription s;
+
+		volatile boolean cancelled;
+
+		volatile boolean done;
+		Throwable error;
+
+		volatile int wip;
+		static final AtomicIntegerFieldUpdater<SpillSubscriber> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(SpillSubscriber.class, "wip");
+
+		volatile long requested;
+		static final AtomicLongFieldUpdater<SpillSubscriber> REQUESTED =
+				AtomicLongFieldUpdater.newUpdater(SpillSubscriber.class, "requested");
+
+		SpillSubscriber(CoreSubscriber<? super T> actual, SpillQueue<T> queue) {
+			this.actual = actual;
+			this.queue = queue;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return s;
+			if (key == LongAttr.REQUESTED_FROM_DOWNSTREAM) return requested;
+			if (key == BooleanAttr.TERMINATED) return done && queue.isEmpty();
+			if (key == BooleanAttr.CANCELLED) return cancelled;
+			if (key == IntAttr.BUFFERED) return queue.size();
+			if (key == ThrowableAttr.ERROR) return error;
+			if (key == IntAttr.PREFETCH) return Integer.MAX_VALUE;
+			if (key == BooleanAttr.DELAY_ERROR) return true;
+
+			return InnerOperator.super.scanUnsafe(key);
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				actual.onSubscribe(this);
+				s.request(Long.MAX_VALUE);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			if (cancelled) {
+				return;
+			}
+			//nothing parked and some demand: emit right away rather than through the queue
+			if (requested != 0L && !cancelled && WIP.compareAndSet(this, 0, 1)) {
+				if (queue.isEmpty()) {
+					actual.onNext(t);
+					if (requested != Long.MAX_VALUE) {
+						REQUESTED.decrementAndGet(this);
+					}
+					if (WIP.decrementAndGet(this) == 0) {
+						return;
+					}
+				}
+				else {
+					offer(t);
+				}
+				drainLoop();
+				return;
+			}
+			if (offer(t)) {
+				if (cancelled) {
+					//the drain loop may already be gone, don't wait for it to clear
+					queue.clear();
+					return;
+				}
+				drain();
+			}
+		}
+
+		boolean offer(T t) {
+			boolean accepted;
+			try {
+				accepted = queue.offer(t);
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, t));
+				return false;
+			}
+			if (!accepted) {
+				onError(Operators.onOperatorError(s, Exceptions.failWithOverflow(), t));
+				return false;
+			}
+			return true;
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			error = t;
+			done = true;
+			drain();
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			drain();
+		}
+
+		void drain() {
+			if (WIP.getAndIncrement(this) != 0) {
+				return;
+			}
+			drainLoop();
+		}
+
+		void drainLoop() {
+			int missed = 1;
+
+			final Subscriber<? super T> a = actual;
+			final SpillQueue<T> q = queue;
+
+			for (; ; ) {
+
+				long r = requested;
+				long e = 0L;
+
+				while (r != e) {
+					boolean d = done;
+
+					T t;
+					try {
+						t = q.poll();
+					}
+					catch (Throwable ex) {
+						s.cancel();
+						q.clear();
+						a.onError(Operators.onOperatorError(ex));
+						return;
+					}
+					boolean empty = t == null;
+
+					if (checkTerminated(d, empty, a)) {
+						return;
+					}
+
+					if (empty) {
+						break;
+					}
+
+					a.onNext(t);
+
+					e++;
+				}
+
+				if (r == e) {
+					if (checkTerminated(done, q.isEmpty(), a)) {
+						return;
+					}
+				}
+
+				if (e != 0 && r != Long.MAX_VALUE) {
+					REQUESTED.addAndGet(this, -e);
+				}
+
+				missed = WIP.addAndGet(this, -missed);
+				if (missed == 0) {
+					break;
+				}
+			}
+		}
+
+		boolean checkTerminated(boolean d, boolean empty, Subscriber<? super T> a) {
+			if (cancelled) {
+				s.cancel();
+				queue.clear();
+				return true;
+			}
+			if (d && empty) {
+				queue.clear();
+				Throwable e = error;
+				if (e != null) {
+					a.onError(e);
+				}
+				else {
+					a.onComplete();
+				}
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				Operators.getAndAddCap(REQUESTED, this, n);
+				drain();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if (!cancelled) {
+				cancelled = true;
+
+				s.cancel();
+
+				if (WIP.getAndIncrement(this) == 0) {
+					queue.clear();
+				}
+			}
+		}
+
+		@Override
+		public CoreSubscriber<? super T> actual() {
+			return actual;
+		}
+	}
+
+	/**
+	 * A FIFO that keeps up to {@code maxHeapElements} values on the heap and appends
+	 * any further value to segment files. Once something has been spilled, new values
+	 * keep going to disk until the disk part has been fully read back, so the heap part
+	 * always holds the oldest values.
+	 * <p>
+	 * Segments are written and read with positional {@link FileChannel} calls rather
+	 * than mapped, so their disk space is given back as soon as they are truncated or
+	 * deleted. Fully read segments are truncated and pooled for the next spill, and are
+	 * only deleted once the queue is cleared. The {@code maxDiskBytes} limit applies to
+	 * the length-prefixed records currently written, not to the segment capacity.
+	 * <p>
+	 * Every operation synchronizes on the queue: there is one producer and one
+	 * draining consumer.
+	 *
+	 * @param <T> the value type
+	 */
+	static final class SpillQueue<T> {
+
+		final Function<? super T, byte[]>   serializer;
+		final Function<byte[], ? extends T> deserializer;
+		final Path                          directory;
+		final int                           maxHeapElements;
+		final long                          maxDiskBytes;
+		final int                           segmentSize;
+
+		final ArrayDeque<T>       heap;
+		final ArrayDeque<Segment> segments;
+		/**
+		 * Truncated segments of {@link #segmentSize} ready to be written again.
+		 */
+		final ArrayDeque<Segment> free;
+
+		/**
+		 * Number of values currently stored on disk.
+		 */
+		long diskCount;
+		/**
+		 * Bytes of the records written to the segments being written or read.
+		 */
+		long diskBytes;
+		/**
+		 * Set by {@link #clear()}, after which offered values are discarded so that no
+		 * segment file can be created anymore.
+		 */
+		boolean closed;
+
+		SpillQueue(Function<? super T, byte[]> serializer,
+				Function<byte[], ? extends T> deserializer,
+				Path directory,
+				int maxHeapElements,
+				long maxDiskBytes) {
+			this.serializer = serializer;
+			this.deserializer = deserializer;
+			this.directory = directory;
+			this.maxHeapElements = maxHeapElements;
+			this.maxDiskBytes = maxDiskBytes;
+			this.segmentSize = (int) Math.min(SEGMENT_SIZE, maxDiskBytes);
+			this.heap = new ArrayDeque<>(Math.min(maxHeapElements, 256) + 1);
+			this.segments = new ArrayDeque<>();
+			this.free = new ArrayDeque<>();
+		}
+
+		/**
+		 * Append a value.
+		 *
+		 * @param t the value
+		 *
+		 * @return false if the value would not fit within {@code maxDiskBytes}
+		 *
+		 * @throws IOException if a segment file could not be created or written
+		 */
+		synchronized boolean offer(T t) throws IOException {
+			if (closed) {
+				return true;
+			}
+			if (diskCount == 0 && heap.size() < maxHeapElements) {
+				heap.offer(t);
+				return true;
+			}
+
+			byte[] data = Objects.requireNonNull(serializer.apply(t),
+					"The serializer returned a null byte array");
+			int recordSize = 4 + data.length;
+			if (diskBytes + recordSize > maxDiskBytes) {
+				return false;
+			}
+
+			Segment w = segments.peekLast();
+			if (w == null || w.capacity - w.writePosition < recordSize) {
+				int size = Math.max(segmentSize, recordSize);
+				w = size == segmentSize && !free.isEmpty() ? free.poll() :
+						new Segment(directory, size);
+				segments.offer(w);
+			}
+
+			w.write(data);
+			diskBytes += recordSize;
+			diskCount++;
+			return true;
+		}
+
+		@Nullable
+		synchronized T poll() throws IOException {
+			T t = heap.poll();
+			if (t != null || diskCount == 0) {
+				return t;
+			}
+
+			Segment r = segments.peekFirst();
+			while (r.read == r.written) {
+				recycle(segments.poll());
+				r = segments.peekFirst();
+			}
+
+			byte[] data = r.read();
+			diskCount--;
+
+			if (diskCount == 0) {
+				//the disk part is drained, give back every segment until the next spill
+				Segment s;
+				while ((s = segments.poll()) != null) {
+					recycle(s);
+				}
+			}
+
+			return Objects.requireNonNull(deserializer.apply(data),
+					"The deserializer returned a null value");
+		}
+
+		synchronized boolean isEmpty() {
+			return heap.isEmpty() && diskCount == 0;
+		}
+
+		synchronized int size() {
+			return (int) Math.min(Integer.MAX_VALUE, heap.size() + diskCount);
+		}
+
+		synchronized void clear() {
+			closed = true;
+			heap.clear();
+			Segment s;
+			while ((s = segments.poll()) != null) {
+				diskBytes -= s.writePosition;
+				s.delete();
+			}
+			while ((s = free.poll()) != null) {
+				s.delete();
+			}
+			diskCount = 0;
+		}
+
+		/**
+		 * Give back the disk space of a fully read segment, keeping it for reuse if it
+		 * has the default size.
+		 */
+		void recycle(Segment s) throws IOException {
+			diskBytes -= s.writePosition;
+			if (s.capacity == segmentSize) {
+				s.reset();
+				free.offer(s);
+			}
+			else {
+				s.delete();
+			}
+		}
+	}
+
+	/**
+	 * A spill file made of length-prefixed records, appended and read back through
+	 * positional {@link FileChannel} calls.
+	 */
+	static final class Segment {
+
+		final Path        file;
+		final FileChannel channel;
+		final int         capacity;
+		final ByteBuffer  header = ByteBuffer.allocate(4);
+
+		long writePosition;
+		long readPosition;
+
+		int written;
+		int read;
+
+		Segment(Path directory, int capacity) throws IOException {
+			this.file = Files.createTempFile(directory, "reactor-spill-", ".bin");
+			this.capacity = capacity;
+			try {
+				this.channel = FileChannel.open(file,
+						StandardOpenOption.READ,
+						StandardOpenOption.WRITE);
+			}
+			catch (IOException e) {
+				Files.deleteIfExists(file);
+				throw e;
+			}
+		}
+
+		void write(byte[] data) throws IOException {
+			ByteBuffer record = ByteBuffer.allocate(4 + data.length);
+			record.putInt(data.length)
+			      .put(data)
+			      .flip();
+			while (record.hasRemaining()) {
+				writePosition += channel.write(record, writePosition);
+			}
+			written++;
+		}
+
+		byte[] read() throws IOException {
+			header.clear();
+			readFully(header);
+			header.flip();
+			ByteBuffer data = ByteBuffer.allocate(header.getInt());
+			readFully(data);
+			read++;
+			return data.array();
+		}
+
+		void readFully(ByteBuffer b) throws IOException {
+			while (b.hasRemaining()) {
+				int n = channel.read(b, readPosition);
+				if (n < 0) {
+					throw new IOException("Truncated spill file " + file);
+				}
+				readPosition += n;
+			}
+		}
+
+		/**
+		 * Truncate the file to make it ready for another spill.
+		 */
+		void reset() throws IOException {
+			channel.truncate(0L);
+			writePosition = 0L;
+			readPosition = 0L;
+			written = 0;
+			read = 0;
+		}
+
+		void delete() {
+			try {
+				channel.close();
+				Files.deleteIfExists(file);
+			}
+			catch (IOException e) {
+				//the file is only left behind in the directory
+			}
+		}
+	}
+}
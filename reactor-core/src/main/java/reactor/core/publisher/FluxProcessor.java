@@ -157,7 +157,7 @@ public abstract class FluxProcessor<IN, OUT> extends Flux<OUT>
 	 * @return a serializing {@link FluxProcessor}
 	 */
 	public final FluxProcessor<IN, OUT> serialize() {
-		return new DelegateProcessor<>(this, Operators.serialize(this));
+		return new DelegateProcessor<>(this, new SerializedMpscSubscriber<>(this));
 	}
 
 	/**
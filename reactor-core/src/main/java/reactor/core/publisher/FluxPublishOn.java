@@ -49,11 +49,27 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 
 	final int prefetch;
 
+	@Nullable
+	final AdaptivePrefetch adaptivePrefetch;
+
 	FluxPublishOn(Flux<? extends T> source,
 			Scheduler scheduler,
 			boolean delayError,
 			int prefetch,
 			Supplier<? extends Queue<T>> queueSupplier) {
+		this(source, scheduler, delayError, prefetch, queueSupplier, null);
+	}
+
+	/**
+	 * @param adaptivePrefetch an optional {@link AdaptivePrefetch} resizing the request
+	 * window between its bounds, in which case prefetch is its maximum
+	 */
+	FluxPublishOn(Flux<? extends T> source,
+			Scheduler scheduler,
+			boolean delayError,
+			int prefetch,
+			Supplier<? extends Queue<T>> queueSupplier,
+			@Nullable AdaptivePrefetch adaptivePrefetch) {
 		super(source);
 		if (prefetch <= 0) {
 			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
@@ -62,6 +78,7 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 		this.delayError = delayError;
 		this.prefetch = prefetch;
 		this.queueSupplier = Objects.requireNonNull(queueSupplier, "queueSupplier");
+		this.adaptivePrefetch = adaptivePrefetch;
 	}
 
 	@Override
@@ -90,7 +107,8 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 					worker,
 					delayError,
 					prefetch,
-					queueSupplier));
+					queueSupplier,
+					adaptivePrefetch));
 			return;
 		}
 		source.subscribe(new PublishOnSubscriber<>(s,
@@ -98,7 +116,8 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 				worker,
 				delayError,
 				prefetch,
-				queueSupplier));
+				queueSupplier,
+				adaptivePrefetch));
 	}
 
 	static final class PublishOnSubscriber<T>
@@ -114,7 +133,10 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 
 		final int prefetch;
 
-		final int limit;
+		@Nullable
+		final AdaptivePrefetch.Window window;
+
+		int limit;
 
 		final Supplier<? extends Queue<T>> queueSupplier;
 
@@ -150,17 +172,34 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 				boolean delayError,
 				int prefetch,
 				Supplier<? extends Queue<T>> queueSupplier) {
+			this(actual, scheduler, worker, delayError, prefetch, queueSupplier, null);
+		}
+
+		PublishOnSubscriber(CoreSubscriber<? super T> actual,
+				Scheduler scheduler,
+				Worker worker,
+				boolean delayError,
+				int prefetch,
+				Supplier<? extends Queue<T>> queueSupplier,
+				@Nullable AdaptivePrefetch adaptivePrefetch) {
 			this.actual = actual;
 			this.worker = worker;
 			this.scheduler = scheduler;
 			this.delayError = delayError;
 			this.prefetch = prefetch;
 			this.queueSupplier = queueSupplier;
-			if (prefetch != Integer.MAX_VALUE) {
-				this.limit = prefetch - (prefetch >> 2);
+			if (adaptivePrefetch != null) {
+				this.window = adaptivePrefetch.window();
+				this.limit = window.limit;
 			}
 			else {
-				this.limit = Integer.MAX_VALUE;
+				this.window = null;
+				if (prefetch != Integer.MAX_VALUE) {
+					this.limit = prefetch - (prefetch >> 2);
+				}
+				else {
+					this.limit = Integer.MAX_VALUE;
+				}
 			}
 		}
 
@@ -204,7 +243,10 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 		}
 
 		void initialRequest() {
-			if (prefetch == Integer.MAX_VALUE) {
+			if (window != null) {
+				s.request(window.prefetch);
+			}
+			else if (prefetch == Integer.MAX_VALUE) {
 				s.request(Long.MAX_VALUE);
 			}
 			else {
@@ -212,6 +254,20 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 			}
 		}
 
+		/**
+		 * Compute the amount to request upstream after consuming {@link #limit} values,
+		 * resizing the request window if adaptive.
+		 */
+		long replenish(long consumed) {
+			AdaptivePrefetch.Window w = window;
+			if (w == null) {
+				return consumed;
+			}
+			long n = w.replenish(consumed, queue.size());
+			limit = w.limit;
+			return n;
+		}
+
 		@Override
 		public void onNext(T t) {
 			if (t == null) {//async fusion
@@ -398,7 +454,7 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 						if (r != Long.MAX_VALUE) {
 							r = REQUESTED.addAndGet(this, -e);
 						}
-						s.request(e);
+						s.request(replenish(e));
 						e = 0L;
 					}
 				}
@@ -556,7 +612,7 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 				long p = produced + 1;
 				if (p == limit) {
 					produced = 0;
-					s.request(p);
+					s.request(replenish(p));
 				}
 				else {
 					produced = p;
@@ -593,7 +649,10 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 
 		final int prefetch;
 
-		final int limit;
+		@Nullable
+		final AdaptivePrefetch.Window window;
+
+		int limit;
 
 		final Supplier<? extends Queue<T>> queueSupplier;
 
@@ -633,17 +692,34 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 				boolean delayError,
 				int prefetch,
 				Supplier<? extends Queue<T>> queueSupplier) {
+			this(actual, scheduler, worker, delayError, prefetch, queueSupplier, null);
+		}
+
+		PublishOnConditionalSubscriber(ConditionalSubscriber<? super T> actual,
+				Scheduler scheduler,
+				Worker worker,
+				boolean delayError,
+				int prefetch,
+				Supplier<? extends Queue<T>> queueSupplier,
+				@Nullable AdaptivePrefetch adaptivePrefetch) {
 			this.actual = actual;
 			this.worker = worker;
 			this.scheduler = scheduler;
 			this.delayError = delayError;
 			this.prefetch = prefetch;
 			this.queueSupplier = queueSupplier;
-			if (prefetch != Integer.MAX_VALUE) {
-				this.limit = prefetch - (prefetch >> 2);
+			if (adaptivePrefetch != null) {
+				this.window = adaptivePrefetch.window();
+				this.limit = window.limit;
 			}
 			else {
-				this.limit = Integer.MAX_VALUE;
+				this.window = null;
+				if (prefetch != Integer.MAX_VALUE) {
+					this.limit = prefetch - (prefetch >> 2);
+				}
+				else {
+					this.limit = Integer.MAX_VALUE;
+				}
 			}
 		}
 
@@ -687,7 +763,10 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 		}
 
 		void initialRequest() {
-			if (prefetch == Integer.MAX_VALUE) {
+			if (window != null) {
+				s.request(window.prefetch);
+			}
+			else if (prefetch == Integer.MAX_VALUE) {
 				s.request(Long.MAX_VALUE);
 			}
 			else {
@@ -695,6 +774,20 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 			}
 		}
 
+		/**
+		 * Compute the amount to request upstream after consuming {@link #limit} values,
+		 * resizing the request window if adaptive.
+		 */
+		long replenish(long consumed) {
+			AdaptivePrefetch.Window w = window;
+			if (w == null) {
+				return consumed;
+			}
+			long n = w.replenish(consumed, queue.size());
+			limit = w.limit;
+			return n;
+		}
+
 		@Override
 		public void onNext(T t) {
 			if (t == null) {//async fusion
@@ -877,7 +970,7 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 					polled++;
 
 					if (polled == limit) {
-						s.request(polled);
+						s.request(replenish(polled));
 						polled = 0L;
 					}
 				}
@@ -1037,7 +1130,7 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 				long p = consumed + 1;
 				if (p == limit) {
 					consumed = 0;
-					s.request(p);
+					s.request(replenish(p));
 				}
 				else {
 					consumed = p;
@@ -0,0 +1,541 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Fuseable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Scheduler.Worker;
+
+/**
+ * Emits events on a different thread specified by a scheduler callback, draining up to
+ * {@code maxBatch} queued values into a single {@link List} on each run of the worker.
+ * <p>
+ * Each downstream request unit is one batch, so a slow consumer receives bigger batches
+ * instead of paying one thread hand-off per value.
+ *
+ * @param <T> the value type
+ */
+final class FluxPublishOnBatched<T> extends FluxOperator<T, List<T>> {
+
+	final Scheduler scheduler;
+
+	final boolean delayError;
+
+	final Supplier<? extends Queue<T>> queueSupplier;
+
+	final int maxBatch;
+
+	final int prefetch;
+
+	FluxPublishOnBatched(Flux<? extends T> source,
+			Scheduler scheduler,
+			boolean delayError,
+			int maxBatch,
+			int prefetch,
+			Supplier<? extends Queue<T>> queueSupplier) {
+		super(source);
+		if (maxBatch <= 0) {
+			throw new IllegalArgumentException("maxBatch > 0 required but it was " + maxBatch);
+		}
+		if (prefetch <= 0) {
+			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+		}
+		this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+		this.delayError = delayError;
+		this.maxBatch = maxBatch;
+		this.prefetch = prefetch;
+		this.queueSupplier = Objects.requireNonNull(queueSupplier, "queueSupplier");
+	}
+
+	@Override
+	public int getPrefetch() {
+		return prefetch;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super List<T>> s) {
+		Worker worker;
+
+		try {
+			worker = Objects.requireNonNull(scheduler.createWorker(),
+					"The scheduler returned a null worker");
+		}
+		catch (Throwable e) {
+			Operators.error(s, Operators.onOperatorError(e));
+			return;
+		}
+
+		source.subscribe(new PublishOnBatchedSubscriber<>(s,
+				scheduler,
+				worker,
+				delayError,
+				maxBatch,
+				prefetch,
+				queueSupplier));
+	}
+
+	static final class PublishOnBatchedSubscriber<T>
+			implements Runnable, InnerOperator<T, List<T>> {
+
+		final CoreSubscriber<? super List<T>> actual;
+
+		final Scheduler scheduler;
+
+		final Worker worker;
+
+		final boolean delayError;
+
+		final int maxBatch;
+
+		final int prefetch;
+
+		final int limit;
+
+		final Supplier<? extends Queue<T>> queueSupplier;
+
+		Subscription s;
+
+		Queue<T> queue;
+
+		volatile boolean cancelled;
+
+		volatile boolean done;
+
+		Throwable error;
+
+		volatile int wip;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<PublishOnBatchedSubscriber> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(PublishOnBatchedSubscriber.class, "wip");
+
+		volatile long requested;
+		@SuppressWarnings("rawtypes")
+		static final AtomicLongFieldUpdater<PublishOnBatchedSubscriber> REQUESTED =
+				AtomicLongFieldUpdater.newUpdater(PublishOnBatchedSubscriber.class, "requested");
+
+		int sourceMode;
+
+		/**
+		 * The number of batches emitted, compared to the total requested amount
+		 */
+		long produced;
+
+		/**
+		 * The number of values consumed since the last replenishing request
+		 */
+		int consumed;
+
+		PublishOnBatchedSubscriber(CoreSubscriber<? super List<T>> actual,
+				Scheduler scheduler,
+				Worker worker,
+				boolean delayError,
+				int maxBatch,
+				int prefetch,
+				Supplier<? extends Queue<T>> queueSupplier) {
+			this.actual = actual;
+			this.worker = worker;
+			this.scheduler = scheduler;
+			this.delayError = delayError;
+			this.maxBatch = maxBatch;
+			this.prefetch = prefetch;
+			this.queueSupplier = queueSupplier;
+			if (prefetch != Integer.MAX_VALUE) {
+				this.limit = prefetch - (prefetch >> 2);
+			}
+			else {
+				this.limit = Integer.MAX_VALUE;
+			}
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+
+				if (s instanceof Fuseable.QueueSubscription) {
+					@SuppressWarnings("unchecked") Fuseable.QueueSubscription<T> f =
+							(Fuseable.QueueSubscription<T>) s;
+
+					int m = f.requestFusion(Fuseable.ANY | Fuseable.THREAD_BARRIER);
+
+					if (m == Fuseable.SYNC) {
+						sourceMode = Fuseable.SYNC;
+						queue = f;
+						done = true;
+
+						actual.onSubscribe(this);
+						return;
+					}
+					else if (m == Fuseable.ASYNC) {
+						sourceMode = Fuseable.ASYNC;
+						queue = f;
+
+						actual.onSubscribe(this);
+
+						initialRequest();
+
+						return;
+					}
+				}
+
+				queue = queueSupplier.get();
+
+				actual.onSubscribe(this);
+
+				initialRequest();
+			}
+		}
+
+		void initialRequest() {
+			if (prefetch == Integer.MAX_VALUE) {
+				s.request(Long.MAX_VALUE);
+			}
+			else {
+				s.request(prefetch);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (sourceMode == Fuseable.ASYNC) {
+				if (trySchedule() == Scheduler.REJECTED) {
+					throw Operators.onRejectedExecution(this, null, t);
+				}
+				return;
+			}
+
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			if (!queue.offer(t)) {
+				error = Operators.onOperatorError(s,
+						Exceptions.failWithOverflow(Exceptions.BACKPRESSURE_ERROR_QUEUE_FULL),
+						t);
+				done = true;
+			}
+			if (trySchedule() == Scheduler.REJECTED) {
+				throw Operators.onRejectedExecution(this, null, t);
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			error = t;
+			done = true;
+			if (trySchedule() == Scheduler.REJECTED) {
+				throw Operators.onRejectedExecution(null, t, null);
+			}
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			if (trySchedule() == Scheduler.REJECTED && !worker.isDisposed()) {
+				throw Operators.onRejectedExecution();
+			}
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				Operators.getAndAddCap(REQUESTED, this, n);
+				if (trySchedule() == Scheduler.REJECTED && (!worker.isDisposed() || scheduler.isDisposed())) {
+					throw Operators.onRejectedExecution(this, null, null);
+				}
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if (cancelled) {
+				return;
+			}
+
+			cancelled = true;
+			s.cancel();
+			worker.dispose();
+
+			if (WIP.getAndIncrement(this) == 0) {
+				queue.clear();
+			}
+		}
+
+		@Nullable
+		Disposable trySchedule() {
+			if (WIP.getAndIncrement(this) != 0) {
+				return null;
+			}
+
+			return worker.schedule(this);
+		}
+
+		/**
+		 * Poll up to {@link #maxBatch} values from the queue.
+		 *
+		 * @return the batch, or null if the queue was empty
+		 */
+		@Nullable
+		List<T> pollBatch(Queue<T> q) {
+			T v = q.poll();
+			if (v == null) {
+				return null;
+			}
+			List<T> batch = new ArrayList<>(Math.min(maxBatch, limit));
+			batch.add(v);
+			for (int i = 1; i < maxBatch; i++) {
+				v = q.poll();
+				if (v == null) {
+					break;
+				}
+				batch.add(v);
+			}
+			return batch;
+		}
+
+		void runSync() {
+			int missed = 1;
+
+			final Subscriber<? super List<T>> a = actual;
+			final Queue<T> q = queue;
+
+			long e = produced;
+
+			for (; ; ) {
+
+				long r = requested;
+
+				while (e != r) {
+					List<T> batch;
+
+					try {
+						batch = pollBatch(q);
+					}
+					catch (Throwable ex) {
+						doError(a, Operators.onOperatorError(s, ex));
+						return;
+					}
+
+					if (cancelled) {
+						return;
+					}
+					if (batch == null) {
+						doComplete(a);
+						return;
+					}
+
+					a.onNext(batch);
+
+					e++;
+				}
+
+				if (cancelled) {
+					return;
+				}
+
+				if (q.isEmpty()) {
+					doComplete(a);
+					return;
+				}
+
+				int w = wip;
+				if (missed == w) {
+					produced = e;
+					missed = WIP.addAndGet(this, -missed);
+					if (missed == 0) {
+						break;
+					}
+				}
+				else {
+					missed = w;
+				}
+			}
+		}
+
+		void runAsync() {
+			int missed = 1;
+
+			final Subscriber<? super List<T>> a = actual;
+			final Queue<T> q = queue;
+
+			long e = produced;
+			int c = consumed;
+
+			for (; ; ) {
+
+				long r = requested;
+
+				while (e != r) {
+					boolean d = done;
+					List<T> batch;
+
+					try {
+						batch = pollBatch(q);
+					}
+					catch (Throwable ex) {
+						Exceptions.throwIfFatal(ex);
+						s.cancel();
+						q.clear();
+
+						doError(a, Operators.onOperatorError(ex));
+						return;
+					}
+
+					boolean empty = batch == null;
+
+					if (checkTerminated(d, empty, a)) {
+						return;
+					}
+
+					if (empty) {
+						break;
+					}
+
+					a.onNext(batch);
+
+					e++;
+					c += batch.size();
+					if (c >= limit) {
+						s.request(c);
+						c = 0;
+					}
+				}
+
+				if (e == r && checkTerminated(done, q.isEmpty(), a)) {
+					return;
+				}
+
+				int w = wip;
+				if (missed == w) {
+					produced = e;
+					consumed = c;
+					missed = WIP.addAndGet(this, -missed);
+					if (missed == 0) {
+						break;
+					}
+				}
+				else {
+					missed = w;
+				}
+			}
+		}
+
+		void doComplete(Subscriber<?> a) {
+			try {
+				a.onComplete();
+			}
+			finally {
+				worker.dispose();
+			}
+		}
+
+		void doError(Subscriber<?> a, Throwable e) {
+			try {
+				a.onError(e);
+			}
+			finally {
+				worker.dispose();
+			}
+		}
+
+		@Override
+		public void run() {
+			if (sourceMode == Fuseable.SYNC) {
+				runSync();
+			}
+			else {
+				runAsync();
+			}
+		}
+
+		boolean checkTerminated(boolean d, boolean empty, Subscriber<?> a) {
+			if (cancelled) {
+				queue.clear();
+				return true;
+			}
+			if (d) {
+				if (delayError) {
+					if (empty) {
+						Throwable e = error;
+						if (e != null) {
+							doError(a, e);
+						}
+						else {
+							doComplete(a);
+						}
+						return true;
+					}
+				}
+				else {
+					Throwable e = error;
+					if (e != null) {
+						queue.clear();
+						doError(a, e);
+						return true;
+					}
+					else if (empty) {
+						doComplete(a);
+						return true;
+					}
+				}
+			}
+
+			return false;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == LongAttr.REQUESTED_FROM_DOWNSTREAM ) return requested;
+			if (key == ScannableAttr.PARENT ) return s;
+			if (key == BooleanAttr.CANCELLED) return cancelled;
+			if (key == BooleanAttr.TERMINATED) return done;
+			if (key == IntAttr.BUFFERED) return queue != null ? queue.size() : 0;
+			if (key == ThrowableAttr.ERROR) return error;
+			if (key == BooleanAttr.DELAY_ERROR) return delayError;
+			if (key == IntAttr.PREFETCH) return prefetch;
+			if (key == IntAttr.CAPACITY) return maxBatch;
+
+			return InnerOperator.super.scanUnsafe(key);
+		}
+
+		@Override
+		public CoreSubscriber<? super List<T>> actual() {
+			return actual;
+		}
+	}
+}
@@ -69,7 +69,7 @@ final class FluxRange extends Flux<Integer>
 	}
 
 	static final class RangeSubscription implements InnerProducer<Integer>,
-	                                                SynchronousSubscription<Integer> {
+	                                                SynchronousLongSubscription<Integer> {
 
 		final CoreSubscriber<? super Integer> actual;
 
@@ -198,6 +198,11 @@ final class FluxRange extends Flux<Integer>
 			return (int)i;
 		}
 
+		@Override
+		public long pollLong() {
+			return index++;
+		}
+
 		@Override
 		public boolean isEmpty() {
 			return index == end;
@@ -216,7 +221,7 @@ final class FluxRange extends Flux<Integer>
 	
 	static final class RangeSubscriptionConditional
 			implements InnerProducer<Integer>,
-			           SynchronousSubscription<Integer> {
+			           SynchronousLongSubscription<Integer> {
 
 		final ConditionalSubscriber<? super Integer> actual;
 
@@ -348,6 +353,11 @@ final class FluxRange extends Flux<Integer>
 			return (int)i;
 		}
 
+		@Override
+		public long pollLong() {
+			return index++;
+		}
+
 		@Override
 		public boolean isEmpty() {
 			return index == end;
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+
+/**
+ * Paces the requests made to the source with the permits of a {@link RateLimiter}:
+ * the downstream demand is only forwarded upstream as permits are acquired, one per
+ * element, so that the source never emits faster than the limiter allows.
+ *
+ * @param <T> the value type
+ */
+final class FluxRateLimit<T> extends FluxOperator<T, T> {
+
+	final Supplier<RateLimiter> limiterSupplier;
+
+	FluxRateLimit(Flux<? extends T> source, Supplier<RateLimiter> limiterSupplier) {
+		super(source);
+		this.limiterSupplier = Objects.requireNonNull(limiterSupplier, "limiterSupplier");
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super T> actual) {
+		RateLimiter limiter = Objects.requireNonNull(limiterSupplier.get(),
+				"The limiterSupplier returned a null RateLimiter");
+		source.subscribe(new RateLimitSubscriber<>(actual, limiter));
+	}
+
+	static final class RateLimitSubscriber<T> implements InnerOperator<T, T> {
+
+		final CoreSubscriber<? super T> actual;
+		final RateLimiter               limiter;
+
+		Subscription s;
+
+		/**
+		 * Whether this is queued in the limiter, guarded by the limiter.
+		 */
+		boolean waiting;
+
+		volatile boolean done;
+		volatile boolean cancelled;
+
+		/**
+		 * The downstream demand not yet forwarded upstream. Unlike usual demand
+		 * counters, it is also decremented when unbounded, since unbounded demand is
+		 * still paced.
+		 */
+		volatile long requested;
+		@SuppressWarnings("rawtypes")
+		static final AtomicLongFieldUpdater<RateLimitSubscriber> REQUESTED =
+				AtomicLongFieldUpdater.newUpdater(RateLimitSubscriber.class, "requested");
+
+		/**
+		 * The permits granted by the limiter when waking this up, not yet used.
+		 */
+		volatile long granted;
+		@SuppressWarnings("rawtypes")
+		static final AtomicLongFieldUpdater<RateLimitSubscriber> GRANTED =
+				AtomicLongFieldUpdater.newUpdater(RateLimitSubscriber.class, "granted");
+
+		volatile int wip;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<RateLimitSubscriber> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(RateLimitSubscriber.class, "wip");
+
+		/**
+		 * Serializes the upstream signals with the rejection coming from the limiter's
+		 * timer: whoever increments it from zero may signal, a rejection arriving during
+		 * an onNext being signalled by that onNext once it returns.
+		 */
+		volatile int emitting;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<RateLimitSubscriber> EMITTING =
+				AtomicIntegerFieldUpdater.newUpdater(RateLimitSubscriber.class, "emitting");
+
+		RateLimitSubscriber(CoreSubscriber<? super T> actual, RateLimiter limiter) {
+			this.actual = actual;
+			this.limiter = limiter;
+		}
+
+		@Override
+		public CoreSubscriber<? super T> actual() {
+			return actual;
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done || !EMITTING.compareAndSet(this, 0, 1)) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			actual.onNext(t);
+			if (EMITTING.decrementAndGet(this) != 0) {
+				signalRejected();
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done || EMITTING.getAndIncrement(this) != 0) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			done = true;
+			limiter.cancel(this);
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done || EMITTING.getAndIncrement(this) != 0) {
+				return;
+			}
+			done = true;
+			limiter.cancel(this);
+			actual.onComplete();
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				Operators.getAndAddCap(REQUESTED, this, n);
+				drain();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if (!cancelled) {
+				cancelled = true;
+				s.cancel();
+				limiter.cancel(this);
+			}
+		}
+
+		/**
+		 * Forward as much of the demand upstream as the limiter has permits for, then
+		 * wait for the next refill if some demand is left.
+		 */
+		void drain() {
+			if (WIP.getAndIncrement(this) != 0) {
+				return;
+			}
+			int missed = 1;
+			for (; ; ) {
+				if (cancelled || done) {
+					return;
+				}
+
+				long r = requested;
+				if (r != 0L) {
+					long acquired = granted != 0L ? Math.min(GRANTED.getAndSet(this, 0L), r) : 0L;
+					if (acquired != r) {
+						acquired += limiter.acquire(r - acquired);
+					}
+					if (acquired != 0L) {
+						REQUESTED.addAndGet(this, -acquired);
+						s.request(acquired);
+					}
+					if (acquired != r) {
+						limiter.await(this);
+					}
+				}
+
+				missed = WIP.addAndGet(this, -missed);
+				if (missed == 0) {
+					break;
+				}
+			}
+		}
+
+		/**
+		 * Add permits granted by the limiter, to be used by the next {@link #drain()}.
+		 *
+		 * @param n the number of granted permits
+		 */
+		void grant(long n) {
+			GRANTED.addAndGet(this, n);
+		}
+
+		/**
+		 * Terminate with an error as the limiter couldn't schedule its refill. The
+		 * error is signalled right away unless an upstream signal is being delivered,
+		 * in which case the in-flight onNext signals it when it returns.
+		 */
+		void reject() {
+			if (done || cancelled) {
+				return;
+			}
+			cancel();
+			if (EMITTING.getAndIncrement(this) == 0) {
+				signalRejected();
+			}
+		}
+
+		void signalRejected() {
+			done = true;
+			actual.onError(Operators.onRejectedExecution());
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return s;
+			if (key == BooleanAttr.TERMINATED) return done;
+			if (key == BooleanAttr.CANCELLED) return cancelled;
+			if (key == LongAttr.REQUESTED_FROM_DOWNSTREAM) return requested;
+
+			return InnerOperator.super.scanUnsafe(key);
+		}
+	}
+}
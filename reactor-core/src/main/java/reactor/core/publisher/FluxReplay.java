@@ -21,7 +21,6 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
@@ -109,27 +108,69 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 		int capacity();
 	}
 
-	static final class SizeAndTimeBoundReplayBuffer<T> implements ReplayBuffer<T> {
+	/**
+	 * A chunk of the bounded replay buffers storage, holding {@link #values} (and their
+	 * {@link #times} for the time-bound buffer) from the absolute position {@link #base}.
+	 * <p>
+	 * Segments are written once by the producer then only read, and are linked so
+	 * that a {@link ReplaySubscription} can use one as a cursor, together with an offset
+	 * in its {@link ReplaySubscription#tailIndex() tailIndex}. A segment is released
+	 * once both the buffer's head and all cursors moved past it, which keeps slow
+	 * subscribers reading values the buffer already evicted, as a linked list of nodes
+	 * would.
+	 */
+	static final class Segment {
+
+		final Object[] values;
+		@Nullable
+		final long[]   times;
+		final long     base;
 
-		static final class TimedNode<T> extends AtomicReference<TimedNode<T>> {
+		volatile Segment next;
 
-			final T    value;
-			final long time;
+		Segment(int size, long base, boolean timed) {
+			this.values = new Object[size];
+			this.times = timed ? new long[size] : null;
+			this.base = base;
+		}
 
-			TimedNode(@Nullable T value, long time) {
-				this.value = value;
-				this.time = time;
-			}
+		/**
+		 * Compute the segment size for a given history limit: small histories still use
+		 * a few slots per segment so that they don't allocate as often as a node per
+		 * value, which lets up to one segment worth of evicted values stay reachable.
+		 *
+		 * @param limit the history limit
+		 *
+		 * @return the number of values per segment
+		 */
+		static int sizeFor(int limit) {
+			return limit < 8 ? 8 : Math.min(limit, 64);
 		}
+	}
+
+	static final class SizeAndTimeBoundReplayBuffer<T> implements ReplayBuffer<T> {
 
 		final int            limit;
 		final long           maxAge;
 		final Scheduler scheduler;
-		int size;
+		final int            segmentSize;
+
+		/**
+		 * The segment holding {@link #headIndex}, or ending right before it.
+		 */
+		volatile Segment head;
+
+		/**
+		 * Absolute position of the oldest retained value.
+		 */
+		volatile long headIndex;
 
-		volatile TimedNode<T> head;
+		Segment tail;
 
-		TimedNode<T> tail;
+		/**
+		 * Absolute position of the next value to add, published after the value.
+		 */
+		volatile long tailIndex;
 
 		Throwable error;
 		volatile boolean done;
@@ -140,35 +181,56 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 			this.limit = limit;
 			this.maxAge = maxAge;
 			this.scheduler = scheduler;
-			TimedNode<T> h = new TimedNode<>(null, 0L);
-			this.tail = h;
-			this.head = h;
+			this.segmentSize = Segment.sizeFor(limit);
+			Segment s = new Segment(segmentSize, 0L, true);
+			this.tail = s;
+			this.head = s;
+		}
+
+		/**
+		 * Position a fresh cursor on the oldest retained value, or on the oldest value
+		 * that isn't older than maxAge if asked to skip stale entries.
+		 */
+		void initCursor(ReplaySubscription<T> rs, boolean skipStale) {
+			Segment s = head;
+			long index = headIndex;
+			int n = segmentSize;
+			while (index >= s.base + n && s.next != null) {
+				s = s.next;
+			}
+			int offset = (int) (index - s.base);
+			if (skipStale) {
+				long limit = scheduler.now(TimeUnit.MILLISECONDS) - maxAge;
+				long end = tailIndex;
+				while (s.base + offset != end) {
+					if (offset == n) {
+						s = s.next;
+						offset = 0;
+					}
+					//noinspection ConstantConditions
+					if (s.times[offset] > limit) {
+						break;
+					}
+					offset++;
+				}
+			}
+			rs.node(s);
+			rs.tailIndex(offset);
 		}
 
 		@SuppressWarnings("unchecked")
 		void replayNormal(ReplaySubscription<T> rs) {
 			int missed = 1;
 			final Subscriber<? super T> a = rs.actual();
+			final int n = segmentSize;
 
 			for (; ; ) {
-				@SuppressWarnings("unchecked") TimedNode<T> node =
-						(TimedNode<T>) rs.node();
-				if (node == null) {
-					node = head;
-					if (!done) {
-						// skip old entries
-						long limit = scheduler.now(TimeUnit.MILLISECONDS) - maxAge;
-						TimedNode<T> next = node;
-						while (next != null) {
-							long ts = next.time;
-							if (ts > limit) {
-								break;
-							}
-							node = next;
-							next = node.get();
-						}
-					}
+				if (rs.node() == null) {
+					// skip old entries
+					initCursor(rs, !done);
 				}
+				Segment node = (Segment) rs.node();
+				int offset = rs.tailIndex();
 
 				long r = rs.requested();
 				long e = 0L;
@@ -180,8 +242,8 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 					}
 
 					boolean d = done;
-					TimedNode<T> next = node.get();
-					boolean empty = next == null;
+					//noinspection ConstantConditions
+					boolean empty = node.base + offset == tailIndex;
 
 					if (d && empty) {
 						rs.node(null);
@@ -199,10 +261,15 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 						break;
 					}
 
-					a.onNext(next.value);
+					if (offset == n) {
+						node = node.next;
+						offset = 0;
+					}
+
+					a.onNext((T) node.values[offset]);
 
 					e++;
-					node = next;
+					offset++;
 				}
 
 				if (e == r) {
@@ -212,7 +279,7 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 					}
 
 					boolean d = done;
-					boolean empty = node.get() == null;
+					boolean empty = node.base + offset == tailIndex;
 
 					if (d && empty) {
 						rs.node(null);
@@ -234,6 +301,7 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 				}
 
 				rs.node(node);
+				rs.tailIndex(offset);
 
 				missed = rs.leave(missed);
 				if (missed == 0) {
@@ -298,43 +366,69 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 			return done;
 		}
 
-		@SuppressWarnings("unchecked")
-		TimedNode<T> latestHead(ReplaySubscription<T> rs) {
-			long now = scheduler.now(TimeUnit.MILLISECONDS) - maxAge;
-
-			TimedNode<T> h = (TimedNode<T>) rs.node();
-			if (h == null) {
-				h = head;
+		/**
+		 * Return the absolute position of the first value that isn't older than maxAge,
+		 * starting from the subscriber's cursor or from the head.
+		 */
+		long latestHead(ReplaySubscription<T> rs) {
+			Segment s = (Segment) rs.node();
+			int offset;
+			if (s == null) {
+				s = head;
+				long index = headIndex;
+				while (index >= s.base + segmentSize && s.next != null) {
+					s = s.next;
+				}
+				offset = (int) (index - s.base);
 			}
-			TimedNode<T> n;
-			while ((n = h.get()) != null) {
-				if (n.time > now) {
+			else {
+				offset = rs.tailIndex();
+			}
+			long limit = scheduler.now(TimeUnit.MILLISECONDS) - maxAge;
+			long end = tailIndex;
+			while (s.base + offset != end) {
+				if (offset == segmentSize) {
+					s = s.next;
+					offset = 0;
+				}
+				//noinspection ConstantConditions
+				if (s.times[offset] > limit) {
 					break;
 				}
-				h = n;
+				offset++;
 			}
-			return h;
+			return s.base + offset;
 		}
 
 		@Override
 		@Nullable
+		@SuppressWarnings("unchecked")
 		public T poll(ReplaySubscription<T> rs) {
-			TimedNode<T> node = latestHead(rs);
-			TimedNode<T> next;
-			long now = scheduler.now(TimeUnit.MILLISECONDS) - maxAge;
-			while ((next = node.get()) != null) {
-				if (next.time > now) {
-					node = next;
-					break;
-				}
-				node = next;
+			if (rs.node() == null) {
+				initCursor(rs, false);
 			}
-			if (next == null) {
-				return null;
+			Segment s = (Segment) rs.node();
+			int offset = rs.tailIndex();
+			final int n = segmentSize;
+			long limit = scheduler.now(TimeUnit.MILLISECONDS) - maxAge;
+			long end = tailIndex;
+			//noinspection ConstantConditions
+			while (s.base + offset != end) {
+				if (offset == n) {
+					s = s.next;
+					offset = 0;
+				}
+				//noinspection ConstantConditions
+				if (s.times[offset] > limit) {
+					rs.node(s);
+					rs.tailIndex(offset + 1);
+					return (T) s.values[offset];
+				}
+				offset++;
 			}
-			rs.node(next);
-
-			return node.value;
+			rs.node(s);
+			rs.tailIndex(offset);
+			return null;
 		}
 
 		@Override
@@ -343,38 +437,18 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 		}
 
 		@Override
-		@SuppressWarnings("unchecked")
 		public boolean isEmpty(ReplaySubscription<T> rs) {
-			TimedNode<T> node = latestHead(rs);
-			return node.get() == null;
+			return latestHead(rs) == tailIndex;
 		}
 
 		@Override
 		public int size(ReplaySubscription<T> rs) {
-			TimedNode<T> node = latestHead(rs);
-			int count = 0;
-
-			TimedNode<T> next;
-			while ((next = node.get()) != null && count != Integer.MAX_VALUE) {
-				count++;
-				node = next;
-			}
-
-			return count;
+			return (int) Math.min(Integer.MAX_VALUE, tailIndex - latestHead(rs));
 		}
 
 		@Override
 		public int size() {
-			TimedNode<T> node = head;
-			int count = 0;
-
-			TimedNode<T> next;
-			while ((next = node.get()) != null && count != Integer.MAX_VALUE) {
-				count++;
-				node = next;
-			}
-
-			return count;
+			return (int) Math.min(Integer.MAX_VALUE, tailIndex - headIndex);
 		}
 
 		@Override
@@ -384,42 +458,58 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 
 		@Override
 		public void add(T value) {
-			TimedNode<T> n = new TimedNode<>(value, scheduler.now(TimeUnit.MILLISECONDS));
-			tail.set(n);
-			tail = n;
-			int s = size;
-			if (s == limit) {
-				head = head.get();
-			}
-			else {
-				size = s + 1;
-			}
-			long limit = scheduler.now(TimeUnit.MILLISECONDS) - maxAge;
-
-			TimedNode<T> h = head;
-			TimedNode<T> next;
-			int removed = 0;
-			for (; ; ) {
-				next = h.get();
-				if (next == null) {
-					break;
+			final int n = segmentSize;
+			long now = scheduler.now(TimeUnit.MILLISECONDS);
+			long t = tailIndex;
+			Segment s = tail;
+			int offset = (int) (t - s.base);
+			if (offset == n) {
+				Segment next = new Segment(n, t, true);
+				s.next = next;
+				tail = next;
+				s = next;
+				offset = 0;
+			}
+			s.values[offset] = value;
+			//noinspection ConstantConditions
+			s.times[offset] = now;
+			long end = t + 1;
+			tailIndex = end;
+
+			long h = headIndex;
+			if (end - h > limit) {
+				h = end - limit;
+			}
+
+			// evict values older than maxAge
+			Segment hs = head;
+			while (h >= hs.base + n && hs.next != null) {
+				hs = hs.next;
+			}
+			long deadline = now - maxAge;
+			int ho = (int) (h - hs.base);
+			while (h != end) {
+				if (ho == n) {
+					hs = hs.next;
+					ho = 0;
 				}
-
-				if (next.time > limit) {
-					if (removed != 0) {
-						size = size - removed;
-						head = h;
-					}
+				//noinspection ConstantConditions
+				if (hs.times[ho] > deadline) {
 					break;
 				}
+				ho++;
+				h++;
+			}
 
-				h = next;
-				removed++;
+			if (h != headIndex) {
+				headIndex = h;
+				if (hs != head) {
+					head = hs;
+				}
 			}
 		}
 
 		@Override
-		@SuppressWarnings("unchecked")
 		public void replay(ReplaySubscription<T> rs) {
 			if (!rs.enter()) {
 				return;
@@ -694,12 +784,24 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 	static final class SizeBoundReplayBuffer<T> implements ReplayBuffer<T> {
 
 		final int limit;
+		final int segmentSize;
 
-		volatile Node<T> head;
+		/**
+		 * The segment holding {@link #headIndex}, or ending right before it.
+		 */
+		volatile Segment head;
 
-		Node<T> tail;
+		/**
+		 * Absolute position of the oldest retained value.
+		 */
+		volatile long headIndex;
 
-		int size;
+		Segment tail;
+
+		/**
+		 * Absolute position of the next value to add, published after the value.
+		 */
+		volatile long tailIndex;
 
 		volatile boolean done;
 		Throwable error;
@@ -709,9 +811,10 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 				throw new IllegalArgumentException("Limit cannot be negative");
 			}
 			this.limit = limit;
-			Node<T> n = new Node<>(null);
-			this.tail = n;
-			this.head = n;
+			this.segmentSize = Segment.sizeFor(limit);
+			Segment s = new Segment(segmentSize, 0L, false);
+			this.tail = s;
+			this.head = s;
 		}
 
 		@Override
@@ -721,15 +824,28 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 
 		@Override
 		public void add(T value) {
-			Node<T> n = new Node<>(value);
-			tail.set(n);
-			tail = n;
-			int s = size;
-			if (s == limit) {
-				head = head.get();
-			}
-			else {
-				size = s + 1;
+			final int n = segmentSize;
+			long t = tailIndex;
+			Segment s = tail;
+			int offset = (int) (t - s.base);
+			if (offset == n) {
+				Segment next = new Segment(n, t, false);
+				s.next = next;
+				tail = next;
+				s = next;
+				offset = 0;
+			}
+			s.values[offset] = value;
+			long end = t + 1;
+			tailIndex = end;
+
+			if (end - headIndex > limit) {
+				long h = end - limit;
+				headIndex = h;
+				Segment hs = head;
+				if (h >= hs.base + n && hs.next != null) {
+					head = hs.next;
+				}
 			}
 		}
 
@@ -744,8 +860,23 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 			done = true;
 		}
 
+		/**
+		 * Position a fresh cursor on the oldest retained value.
+		 */
+		void initCursor(ReplaySubscription<T> rs) {
+			Segment s = head;
+			long index = headIndex;
+			while (index >= s.base + segmentSize && s.next != null) {
+				s = s.next;
+			}
+			rs.node(s);
+			rs.tailIndex((int) (index - s.base));
+		}
+
+		@SuppressWarnings("unchecked")
 		void replayNormal(ReplaySubscription<T> rs) {
 			final Subscriber<? super T> a = rs.actual();
+			final int n = segmentSize;
 
 			int missed = 1;
 
@@ -754,10 +885,11 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 				long r = rs.requested();
 				long e = 0L;
 
-				@SuppressWarnings("unchecked") Node<T> node = (Node<T>) rs.node();
-				if (node == null) {
-					node = head;
+				if (rs.node() == null) {
+					initCursor(rs);
 				}
+				Segment node = (Segment) rs.node();
+				int offset = rs.tailIndex();
 
 				while (e != r) {
 					if (rs.isCancelled()) {
@@ -766,8 +898,8 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 					}
 
 					boolean d = done;
-					Node<T> next = node.get();
-					boolean empty = next == null;
+					//noinspection ConstantConditions
+					boolean empty = node.base + offset == tailIndex;
 
 					if (d && empty) {
 						rs.node(null);
@@ -785,10 +917,15 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 						break;
 					}
 
-					a.onNext(next.value);
+					if (offset == n) {
+						node = node.next;
+						offset = 0;
+					}
+
+					a.onNext((T) node.values[offset]);
 
 					e++;
-					node = next;
+					offset++;
 				}
 
 				if (e == r) {
@@ -798,7 +935,7 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 					}
 
 					boolean d = done;
-					boolean empty = node.get() == null;
+					boolean empty = node.base + offset == tailIndex;
 
 					if (d && empty) {
 						rs.node(null);
@@ -820,6 +957,7 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 				}
 
 				rs.node(node);
+				rs.tailIndex(offset);
 
 				missed = rs.leave(missed);
 				if (missed == 0) {
@@ -887,34 +1025,28 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 			return done;
 		}
 
-		static final class Node<T> extends AtomicReference<Node<T>> {
-
-			/** */
-			private static final long serialVersionUID = 3713592843205853725L;
-
-			final T value;
-
-			Node(@Nullable T value) {
-				this.value = value;
-			}
-		}
-
 		@Override
 		@Nullable
+		@SuppressWarnings("unchecked")
 		public T poll(ReplaySubscription<T> rs) {
-			@SuppressWarnings("unchecked") Node<T> node = (Node<T>) rs.node();
-			if (node == null) {
-				node = head;
-				rs.node(node);
+			if (rs.node() == null) {
+				initCursor(rs);
 			}
+			Segment node = (Segment) rs.node();
+			int offset = rs.tailIndex();
 
-			Node<T> next = node.get();
-			if (next == null) {
+			//noinspection ConstantConditions
+			if (node.base + offset == tailIndex) {
 				return null;
 			}
-			rs.node(next);
+			if (offset == segmentSize) {
+				node = node.next;
+				offset = 0;
+				rs.node(node);
+			}
+			rs.tailIndex(offset + 1);
 
-			return next.value;
+			return (T) node.values[offset];
 		}
 
 		@Override
@@ -924,43 +1056,24 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 
 		@Override
 		public boolean isEmpty(ReplaySubscription<T> rs) {
-			@SuppressWarnings("unchecked") Node<T> node = (Node<T>) rs.node();
-			if (node == null) {
-				node = head;
-				rs.node(node);
+			if (rs.node() == null) {
+				initCursor(rs);
 			}
-			return node.get() == null;
+			Segment node = (Segment) rs.node();
+			//noinspection ConstantConditions
+			return node.base + rs.tailIndex() == tailIndex;
 		}
 
 		@Override
 		public int size(ReplaySubscription<T> rs) {
-			@SuppressWarnings("unchecked") Node<T> node = (Node<T>) rs.node();
-			if (node == null) {
-				node = head;
-			}
-			int count = 0;
-
-			Node<T> next;
-			while ((next = node.get()) != null && count != Integer.MAX_VALUE) {
-				count++;
-				node = next;
-			}
-
-			return count;
+			Segment node = (Segment) rs.node();
+			long index = node == null ? headIndex : node.base + rs.tailIndex();
+			return (int) Math.min(Integer.MAX_VALUE, tailIndex - index);
 		}
 
 		@Override
 		public int size() {
-			Node<T> node = head;
-			int count = 0;
-
-			Node<T> next;
-			while ((next = node.get()) != null && count != Integer.MAX_VALUE) {
-				count++;
-				node = next;
-			}
-
-			return count;
+			return (int) Math.min(Integer.MAX_VALUE, tailIndex - headIndex);
 		}
 	}
 
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Publisher;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Re-subscribes to the source sequence after an exponentially growing, jittered delay
+ * when it signals an error, or when it completes without emitting any value in the
+ * repeat variant. Gives up once the maximum number of attempts or the total time budget
+ * is exhausted.
+ * <p>
+ * Unlike a {@code retryWhen(companion)} based backoff, the attempts are tracked by the
+ * subscriber itself and the re-subscriptions scheduled directly, without any companion
+ * pipeline.
+ *
+ * @param <T> the value type
+ */
+final class FluxRetryBackoff<T> extends FluxOperator<T, T> {
+
+	final Backoff backoff;
+
+	FluxRetryBackoff(Flux<? extends T> source, Backoff backoff) {
+		super(source);
+		this.backoff = backoff;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super T> s) {
+		BackoffSubscriber<T> parent = new BackoffSubscriber<>(source, s, backoff);
+
+		s.onSubscribe(parent);
+
+		if (!parent.isCancelled()) {
+			parent.resubscribe();
+		}
+	}
+
+	/**
+	 * The backoff policy: attempts, delays and time budget.
+	 * <p>
+	 * Without jitter, the n-th re-subscription (0-based) is delayed by
+	 * {@code firstBackoff * 2^n}, capped to {@code maxBackoff}. With a jitter factor, that
+	 * delay is blended with a "decorrelated jitter" one, drawn at random between
+	 * {@code firstBackoff} and three times the previous delay (and also capped), the
+	 * factor being the weight of the random part: at {@code 1} the delays are fully
+	 * decorrelated, which spreads the re-subscriptions of clients that failed at the
+	 * same time.
+	 */
+	static final class Backoff {
+
+		final long      maxAttempts;
+		final long      firstBackoff;
+		final long      maxBackoff;
+		final double    jitterFactor;
+		final long      maxElapsed;
+		final Scheduler scheduler;
+		final boolean   repeatWhenEmpty;
+
+		Backoff(long maxAttempts,
+				Duration firstBackoff,
+				Duration maxBackoff,
+				double jitterFactor,
+				Duration maxElapsed,
+				Scheduler scheduler,
+				boolean repeatWhenEmpty) {
+			if (maxAttempts < 0L) {
+				throw new IllegalArgumentException("maxAttempts >= 0 required but it was " + maxAttempts);
+			}
+			this.firstBackoff = Objects.requireNonNull(firstBackoff, "firstBackoff").toMillis();
+			this.maxBackoff = Objects.requireNonNull(maxBackoff, "maxBackoff").toMillis();
+			this.maxElapsed = Objects.requireNonNull(maxElapsed, "maxElapsed").toMillis();
+			if (this.firstBackoff < 0L) {
+				throw new IllegalArgumentException("firstBackoff >= 0 required but it was " + firstBackoff);
+			}
+			if (this.maxBackoff < this.firstBackoff) {
+				throw new IllegalArgumentException("maxBackoff >= firstBackoff required but it was " + maxBackoff);
+			}
+			if (jitterFactor < 0d || jitterFactor > 1d) {
+				throw new IllegalArgumentException("jitterFactor must be between 0 and 1 but it was " + jitterFactor);
+			}
+			this.maxAttempts = maxAttempts;
+			this.jitterFactor = jitterFactor;
+			this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+			this.repeatWhenEmpty = repeatWhenEmpty;
+		}
+
+		/**
+		 * Compute the delay of a re-subscription in milliseconds.
+		 *
+		 * @param attempt the 0-based index of the re-subscription
+		 * @param previous the delay of the previous re-subscription
+		 *
+		 * @return the delay before the re-subscription
+		 */
+		long delay(long attempt, long previous) {
+			if (firstBackoff == 0L) {
+				return 0L;
+			}
+			long exponential = firstBackoff;
+			for (long i = 0; i < attempt && exponential < maxBackoff; i++) {
+				exponential = exponential > maxBackoff >> 1 ? maxBackoff : exponential << 1;
+			}
+			if (jitterFactor == 0d) {
+				return exponential;
+			}
+
+			long upper = previous > maxBackoff / 3 ? maxBackoff : Math.max(previous * 3, firstBackoff);
+			long decorrelated = upper <= firstBackoff ? firstBackoff :
+					ThreadLocalRandom.current().nextLong(firstBackoff,
+							upper == Long.MAX_VALUE ? upper : upper + 1);
+			return Math.min(maxBackoff,
+					Math.round((1d - jitterFactor) * exponential + jitterFactor * decorrelated));
+		}
+	}
+
+	static final class BackoffSubscriber<T>
+			extends Operators.MultiSubscriptionSubscriber<T, T> implements Runnable {
+
+		final Publisher<? extends T> source;
+		final Backoff                backoff;
+		final long                   start;
+
+		long    attempts;
+		long    previousDelay;
+		boolean emitted;
+
+		volatile int wip;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<BackoffSubscriber> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(BackoffSubscriber.class, "wip");
+
+		volatile Disposable timer;
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<BackoffSubscriber, Disposable> TIMER =
+				AtomicReferenceFieldUpdater.newUpdater(BackoffSubscriber.class,
+						Disposable.class,
+						"timer");
+
+		long produced;
+
+		BackoffSubscriber(Publisher<? extends T> source,
+				CoreSubscriber<? super T> actual,
+				Backoff backoff) {
+			super(actual);
+			this.source = source;
+			this.backoff = backoff;
+			this.start = backoff.scheduler.now(TimeUnit.MILLISECONDS);
+			this.previousDelay = backoff.firstBackoff;
+		}
+
+		@Override
+		public void onNext(T t) {
+			produced++;
+			emitted = true;
+
+			actual.onNext(t);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (backoff.repeatWhenEmpty) {
+				actual.onError(t);
+				return;
+			}
+			retry(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (!backoff.repeatWhenEmpty || emitted) {
+				actual.onComplete();
+				return;
+			}
+			retry(null);
+		}
+
+		@Override
+		public void cancel() {
+			super.cancel();
+			Disposables.dispose(TIMER, this);
+		}
+
+		@Override
+		public void run() {
+			resubscribe();
+		}
+
+		void retry(@Nullable Throwable cause) {
+			long attempt = attempts;
+			if (attempt >= backoff.maxAttempts) {
+				actual.onError(exhausted(cause, backoff.repeatWhenEmpty ?
+						"Exceeded maximum number of repeats" :
+						"Retries exhausted: " + attempt + "/" + backoff.maxAttempts));
+				return;
+			}
+
+			long delay = backoff.delay(attempt, previousDelay);
+			long elapsed = backoff.scheduler.now(TimeUnit.MILLISECONDS) - start;
+			if (delay > backoff.maxElapsed - elapsed) {
+				actual.onError(exhausted(cause, (backoff.repeatWhenEmpty ?
+						"Exceeded maximum repeat time of " :
+						"Retries exhausted: exceeded maximum retry time of ") +
+						backoff.maxElapsed + "ms"));
+				return;
+			}
+
+			attempts = attempt + 1;
+			previousDelay = delay;
+			emitted = false;
+
+			if (delay == 0L) {
+				resubscribe();
+				return;
+			}
+
+			Disposable d = backoff.scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+			if (d == Scheduler.REJECTED) {
+				actual.onError(Operators.onRejectedExecution(this, cause, null));
+				return;
+			}
+			Disposables.replace(TIMER, this, d);
+		}
+
+		static IllegalStateException exhausted(@Nullable Throwable cause, String message) {
+			IllegalStateException e = new IllegalStateException(message);
+			if (cause != null) {
+				e.initCause(cause);
+			}
+			return e;
+		}
+
+		void resubscribe() {
+			if (WIP.getAndIncrement(this) == 0) {
+				do {
+					if (isCancelled()) {
+						return;
+					}
+
+					long c = produced;
+					if (c != 0L) {
+						produced = 0L;
+						produced(c);
+					}
+
+					source.subscribe(this);
+
+				} while (WIP.decrementAndGet(this) != 0);
+			}
+		}
+	}
+}
@@ -153,8 +153,12 @@ final class FluxSubscribeOnValue<T> extends Flux<T> implements Fuseable {
 			try {
 				if (fusionState == NO_VALUE) {
 					fusionState = HAS_VALUE;
+					//async fusion: signal availability, the value is polled
+					actual.onNext(null);
+				}
+				else {
+					actual.onNext(value);
 				}
-				actual.onNext(value);
 				actual.onComplete();
 			}
 			finally {
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+
+/**
+ * Subscribes to the source only once a permit of a {@link Bulkhead} has been taken,
+ * and gives the permit back when the source terminates or the subscription is
+ * cancelled.
+ *
+ * @param <T> the value type
+ */
+final class FluxWithPermit<T> extends FluxOperator<T, T> {
+
+	final Bulkhead bulkhead;
+
+	FluxWithPermit(Flux<? extends T> source, Bulkhead bulkhead) {
+		super(source);
+		this.bulkhead = Objects.requireNonNull(bulkhead, "bulkhead");
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super T> actual) {
+		PermitSubscriber<T> parent = new PermitSubscriber<>(actual, source, bulkhead);
+		actual.onSubscribe(parent);
+		bulkhead.acquire(parent);
+	}
+
+	static final class PermitSubscriber<T> extends Operators.DeferredSubscription
+			implements InnerOperator<T, T>, Runnable {
+
+		final CoreSubscriber<? super T> actual;
+		final Publisher<? extends T>    source;
+		final Bulkhead                  bulkhead;
+
+		volatile int state;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<PermitSubscriber> STATE =
+				AtomicIntegerFieldUpdater.newUpdater(PermitSubscriber.class, "state");
+
+		static final int WAITING = 0;
+		static final int ACTIVE  = 1;
+		static final int DONE    = 2;
+
+		PermitSubscriber(CoreSubscriber<? super T> actual,
+				Publisher<? extends T> source,
+				Bulkhead bulkhead) {
+			this.actual = actual;
+			this.source = source;
+			this.bulkhead = bulkhead;
+		}
+
+		@Override
+		public CoreSubscriber<? super T> actual() {
+			return actual;
+		}
+
+		/**
+		 * Called by the {@link Bulkhead} once a permit has been taken for this.
+		 */
+		@Override
+		public void run() {
+			if (!STATE.compareAndSet(this, WAITING, ACTIVE)) {
+				bulkhead.release();
+				return;
+			}
+			try {
+				source.subscribe(this);
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(this, e));
+			}
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			set(s);
+		}
+
+		@Override
+		public void onNext(T t) {
+			actual.onNext(t);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (release()) {
+				actual.onError(t);
+			}
+			else {
+				Operators.onErrorDropped(t);
+			}
+		}
+
+		@Override
+		public void onComplete() {
+			if (release()) {
+				actual.onComplete();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			super.cancel();
+			int previous = STATE.getAndSet(this, DONE);
+			if (previous == ACTIVE) {
+				bulkhead.release();
+			}
+			else if (previous == WAITING) {
+				//if no longer queued, the permit is taken and run() gives it back
+				bulkhead.remove(this);
+			}
+		}
+
+		/**
+		 * Give the permit back on termination.
+		 *
+		 * @return true if this was active, false if already terminated or cancelled
+		 */
+		boolean release() {
+			if (STATE.getAndSet(this, DONE) == ACTIVE) {
+				bulkhead.release();
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.ACTUAL) return actual;
+			if (key == BooleanAttr.TERMINATED) return state == DONE && !isCancelled();
+
+			return super.scanUnsafe(key);
+		}
+	}
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+/**
+ * Strategies to select the group to evict when
+ * {@link Flux#groupBy(java.util.function.Function, java.util.function.Function, java.time.Duration, int, GroupEvictionPolicy, java.util.function.Consumer, reactor.core.scheduler.Scheduler)
+ * groupBy with a maximum number of groups} needs room for a new key.
+ */
+public enum GroupEvictionPolicy {
+
+	/**
+	 * Evict the group that has gone the longest without receiving a value.
+	 */
+	LEAST_RECENTLY_USED,
+	/**
+	 * Evict the group that was created first, regardless of its activity.
+	 */
+	OLDEST
+}
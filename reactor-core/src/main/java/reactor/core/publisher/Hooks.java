@@ -85,6 +85,25 @@ public abstract class Hooks {
 		}
 	}
 
+	/**
+	 * Set the global {@link SequenceMetricsRecorder} that the sequences instrumented
+	 * with {@link Flux#metrics()} or {@link Mono#metrics()} report to, replacing any
+	 * previously set recorder. It applies to subscriptions made after the call.
+	 * <p>
+	 * Can be reset via {@link #resetOnMetrics()}
+	 *
+	 * @param recorder the {@link SequenceMetricsRecorder} to report to
+	 */
+	public static void onMetrics(SequenceMetricsRecorder recorder) {
+		Objects.requireNonNull(recorder, "onMetricsHook");
+		if(log.isDebugEnabled()) {
+			log.debug("Hooking new default : onMetrics");
+		}
+		synchronized(log) {
+			onMetricsHook = recorder;
+		}
+	}
+
 	/**
 	 * Configure a global chain of "assembly" hooks to intercept signals produced by the
 	 * passed {@link Publisher} ({@link Flux} or {@link Mono}). The passed function provides
@@ -195,6 +214,19 @@ public abstract class Hooks {
 		}
 	}
 
+	/**
+	 * Reset global metrics recording, {@link Flux#metrics()} and {@link Mono#metrics()}
+	 * become pass-through again.
+	 */
+	public static void resetOnMetrics() {
+		if(log.isDebugEnabled()) {
+			log.debug("Reset to factory defaults : onMetrics");
+		}
+		synchronized (log) {
+			onMetricsHook = null;
+		}
+	}
+
 	/**
 	 * Reset global "assembly" hook tracking
 	 */
@@ -289,29 +321,28 @@ public abstract class Hooks {
 					ConnectableFlux){
 				return this;
 			}
+			Publisher<T> p;
 			if (publisher instanceof Mono) {
 				if (publisher instanceof Fuseable) {
-					return new OperatorHook<>(new MonoLogFuseable<>((Mono)publisher, log),
-							traced, tracedCategory, tracedLevel, tracedSignals);
+					p = new MonoLogFuseable<>((Mono)publisher, log);
 				}
 				else {
-					return new OperatorHook<>(new MonoLog<>((Mono)publisher, log), traced
-							, tracedCategory, tracedLevel, tracedSignals);
+					p = new MonoLog<>((Mono)publisher, log);
 				}
 			}
 			else if (publisher instanceof ParallelFlux) {
-				return new OperatorHook<>(new ParallelLog<>((ParallelFlux<T>) publisher, log), traced
-						, tracedCategory, tracedLevel, tracedSignals);
+				p = new ParallelLog<>((ParallelFlux<T>) publisher, log);
 			}
 			else if (publisher instanceof Fuseable) {
-				return new OperatorHook<>(new FluxLogFuseable<>((Flux<T>)publisher, log), traced
-						, tracedCategory, tracedLevel,
-						tracedSignals);
+				p = new FluxLogFuseable<>((Flux<T>)publisher, log);
 			}
 			else {
-				return new OperatorHook<>(new FluxLog<>((Flux<T>)publisher,log), traced
-						, tracedCategory, tracedLevel, tracedSignals);
+				p = new FluxLog<>((Flux<T>)publisher,log);
 			}
+			OperatorHook<T> hook = new OperatorHook<>(p, traced, tracedCategory,
+					tracedLevel, tracedSignals);
+			hook.tracedCallSite = tracedCallSite;
+			return hook;
 		}
 
 		/**
@@ -533,6 +564,31 @@ public abstract class Hooks {
 		public OperatorHook<T> operatorStacktrace(){
 			if(this == IGNORE) return this;
 			traced = true;
+			tracedCallSite = false;
+			return this;
+		}
+
+		/**
+		 * Enable a low-overhead flavor of {@link #operatorStacktrace()} that only
+		 * captures the call site of each operator, that is the operator itself and the
+		 * first user code frame that instantiated it. No stack trace is filled in: on
+		 * JDK 9+ only the top frames are walked, and frames are only resolved to
+		 * {@link StackTraceElement} when an error is actually observed. When errors are
+		 * observed later on, they are enriched like with {@link #operatorStacktrace()},
+		 * minus the full assembly stacks.
+		 * <p>
+		 * {@link #operatorStacktrace()} takes precedence if both are enabled. Can also
+		 * be globally activated with the {@code reactor.trace.operatorCallSite} system
+		 * property.
+		 *
+		 * @return a operator call site capturing {@link OperatorHook}
+		 */
+		public OperatorHook<T> operatorCallSite(){
+			if(this == IGNORE) return this;
+			if (!traced) {
+				traced = true;
+				tracedCallSite = true;
+			}
 			return this;
 		}
 
@@ -555,6 +611,7 @@ public abstract class Hooks {
 		SignalType[] tracedSignals;
 
 		boolean traced;
+		boolean tracedCallSite;
 
 		OperatorHook(Publisher<T> p) {
 			this(p, false, null, null, null);
@@ -578,15 +635,23 @@ public abstract class Hooks {
 	static volatile Consumer<Object>                                                                        onNextDroppedHook;
 	static volatile BiFunction<? super Throwable, Object, ? extends Throwable>                              onOperatorErrorHook;
 	static volatile BiFunction<? super Publisher<?>, ? super CoreSubscriber<?>, ? extends CoreSubscriber<?>>onSubscriberHook;
+	static volatile SequenceMetricsRecorder                                                                 onMetricsHook;
 
 	static {
 		boolean globalTrace =
 				Boolean.parseBoolean(System.getProperty("reactor.trace.operatorStacktrace",
 						"false"));
 
+		boolean globalCallSiteTrace =
+				Boolean.parseBoolean(System.getProperty("reactor.trace.operatorCallSite",
+						"false"));
+
 		if (globalTrace) {
 			onOperatorHook = new OnOperatorHook<>(OperatorHook::operatorStacktrace);
 		}
+		else if (globalCallSiteTrace) {
+			onOperatorHook = new OnOperatorHook<>(OperatorHook::operatorCallSite);
+		}
 	}
 
 	Hooks() {
@@ -622,19 +687,23 @@ public abstract class Hooks {
 					boolean trace = hooks.traced;
 
 					if (trace){
+						FluxOnAssembly.AssemblySnapshotException snapshot =
+								hooks.tracedCallSite ?
+										new FluxOnAssembly.AssemblyCallSiteSnapshotException() :
+										new FluxOnAssembly.AssemblySnapshotException();
 						if (publisher instanceof Callable) {
 							if (publisher instanceof Mono) {
-								return new MonoCallableOnAssembly<>((Mono<T>)publisher);
+								return new MonoCallableOnAssembly<>((Mono<T>)publisher, snapshot);
 							}
-							return new FluxCallableOnAssembly<>((Flux<T>)publisher);
+							return new FluxCallableOnAssembly<>((Flux<T>)publisher, snapshot);
 						}
 						if (publisher instanceof Mono) {
-							return new MonoOnAssembly<>((Mono<T>)publisher);
+							return new MonoOnAssembly<>((Mono<T>)publisher, snapshot);
 						}
 						if (publisher instanceof ParallelFlux){
-							return new ParallelFluxOnAssembly<>((ParallelFlux<T>) publisher);
+							return new ParallelFluxOnAssembly<>((ParallelFlux<T>) publisher, snapshot);
 						}
-						return new FluxOnAssembly<>((Flux<T>)publisher);
+						return new FluxOnAssembly<>((Flux<T>)publisher, snapshot);
 					}
 					return publisher;
 				}
@@ -1349,6 +1349,71 @@ public abstract class Mono<T> implements Publisher<T> {
 		return onAssembly(new MonoProcessor<>(this));
 	}
 
+	/**
+	 * Turn this {@link Mono} into a hot source and cache last emitted signals for further
+	 * {@link Subscriber}, for the given duration. Completion and Error will also be
+	 * replayed. Once the cached signal expired, the next {@link Subscriber} re-subscribes
+	 * to this {@link Mono}, subscribers arriving in the meantime sharing that single
+	 * subscription.
+	 *
+	 * @param ttl time-to-live of the cached signal, a zero or negative duration disabling
+	 * the cache
+	 *
+	 * @return a replaying {@link Mono}
+	 */
+	public final Mono<T> cache(Duration ttl) {
+		return cache(ttl, ttl, ttl);
+	}
+
+	/**
+	 * Turn this {@link Mono} into a hot source and cache last emitted signals for further
+	 * {@link Subscriber}, for a duration depending on the kind of signal. Once the cached
+	 * signal expired, the next {@link Subscriber} re-subscribes to this {@link Mono},
+	 * subscribers arriving in the meantime sharing that single subscription.
+	 *
+	 * @param valueTtl time-to-live of a cached value
+	 * @param errorTtl time-to-live of a cached error, {@link Duration#ZERO} to retry on
+	 * the next subscription
+	 * @param emptyTtl time-to-live of a cached empty completion
+	 *
+	 * @return a replaying {@link Mono}
+	 */
+	public final Mono<T> cache(Duration valueTtl, Duration errorTtl, Duration emptyTtl) {
+		return onAssembly(new MonoCacheTime<>(this,
+				valueTtl,
+				Duration.ZERO,
+				errorTtl,
+				emptyTtl,
+				Schedulers.parallel()));
+	}
+
+	/**
+	 * Turn this {@link Mono} into a hot source and cache its last emitted value for
+	 * further {@link Subscriber}, refreshing it in the background once expired. For
+	 * {@code staleTtl} past the {@code ttl}, subscribers are immediately served the stale
+	 * value while a single re-subscription to this {@link Mono} refreshes it, so that a
+	 * frequently requested value never makes its subscribers wait on expiry. Past the
+	 * stale period, subscribers wait for a new subscription as with {@link #cache(Duration)}.
+	 * <p>
+	 * Errors and empty completions are not cached: a failed refresh keeps the stale value
+	 * until the next subscriber triggers another refresh, while a failed initial
+	 * subscription is propagated to the subscribers sharing it.
+	 *
+	 * @param ttl time during which the cached value is served without refresh
+	 * @param staleTtl additional time during which the expired value is still served
+	 * while it is being refreshed
+	 *
+	 * @return a replaying {@link Mono} refreshing its value in the background
+	 */
+	public final Mono<T> cacheRefreshAhead(Duration ttl, Duration staleTtl) {
+		return onAssembly(new MonoCacheTime<>(this,
+				ttl,
+				staleTtl,
+				Duration.ZERO,
+				Duration.ZERO,
+				Schedulers.parallel()));
+	}
+
 	/**
 	 * Prepare this {@link Mono} so that subscribers will cancel from it on a
 	 * specified
@@ -2363,6 +2428,35 @@ public abstract class Mono<T> implements Publisher<T> {
 		return Flux.merge(this, other);
 	}
 
+	/**
+	 * Activate metrics for this sequence, provided a {@link SequenceMetricsRecorder}
+	 * has been installed via {@link Hooks#onMetrics(SequenceMetricsRecorder)}: the
+	 * subscriptions, requests, elements, time to first element and time to termination
+	 * are reported to the recorder, under the name and tags given to this sequence by
+	 * upstream {@link #name(String)} and {@link #tag(String, String)} operators
+	 * (defaulting to "reactor" and no tags). Without a recorder, the operator is
+	 * pass-through.
+	 *
+	 * @return an instrumented {@link Mono}
+	 */
+	public final Mono<T> metrics() {
+		return onAssembly(new MonoMetrics<>(this));
+	}
+
+	/**
+	 * Give a name to this sequence, which can be retrieved using
+	 * {@link reactor.core.Scannable#name()} as long as this is the first reachable
+	 * {@link reactor.core.Scannable#parents()}. It is used by {@link #metrics()} to
+	 * label the recorded measurements.
+	 *
+	 * @param name a name for the sequence
+	 *
+	 * @return the same sequence, but bearing a name
+	 */
+	public final Mono<T> name(String name) {
+		return MonoName.createOrAppend(this, name);
+	}
+
 	/**
 	 * Transform any error emitted by this {@link Mono} by synchronously applying a function to it.
 	 * <p>
@@ -2657,6 +2751,54 @@ public abstract class Mono<T> implements Publisher<T> {
 		});
 	}
 
+	/**
+	 * Repeatedly subscribe to this {@link Mono} as long as the current subscription
+	 * completes empty, up to {@code maxRepeat} times, using an exponential backoff between
+	 * subscriptions. The jitter factor is {@code 50%} but the effective delay stays
+	 * between {@code firstBackoff} and {@code maxBackoff}.
+	 * <p>
+	 * Any error terminates the resulting {@link Mono} immediately. Emits an
+	 * {@link IllegalStateException} if {@code maxRepeat} is exceeded.
+	 *
+	 * @param maxRepeat the maximum number of repeats
+	 * @param firstBackoff the first delay to apply then grow exponentially.
+	 * @param maxBackoff the maximum delay to apply despite exponential growth and jitter.
+	 *
+	 * @return a {@link Mono} that resubscribes to this {@link Mono} with growing
+	 * delays as long as the previous subscription was empty
+	 */
+	public final Mono<T> repeatWhenEmpty(int maxRepeat, Duration firstBackoff, Duration maxBackoff) {
+		return repeatWhenEmpty(maxRepeat, firstBackoff, maxBackoff, 0.5d,
+				Duration.ofMillis(Long.MAX_VALUE), Schedulers.parallel());
+	}
+
+	/**
+	 * Repeatedly subscribe to this {@link Mono} as long as the current subscription
+	 * completes empty, up to {@code maxRepeat} times and as long as the total time spent since
+	 * the subscription stays within {@code maxElapsed}, using an exponential backoff
+	 * with jitter between subscriptions, as described in
+	 * {@link #retryBackoff(long, Duration, Duration, double, Scheduler)}.
+	 * <p>
+	 * Any error terminates the resulting {@link Mono} immediately. Emits an
+	 * {@link IllegalStateException} if {@code maxRepeat} or {@code maxElapsed} is
+	 * exceeded.
+	 *
+	 * @param maxRepeat the maximum number of repeats
+	 * @param firstBackoff the first delay to apply then grow exponentially.
+	 * @param maxBackoff the maximum delay to apply despite exponential growth and jitter.
+	 * @param jitterFactor the weight of the random part of the delays, between 0 and 1.
+	 * @param maxElapsed the maximum time between the subscription and the last repeat.
+	 * @param backoffScheduler the {@link Scheduler} on which repeats are scheduled.
+	 *
+	 * @return a {@link Mono} that resubscribes to this {@link Mono} with growing
+	 * delays as long as the previous subscription was empty
+	 */
+	public final Mono<T> repeatWhenEmpty(int maxRepeat, Duration firstBackoff, Duration maxBackoff,
+			double jitterFactor, Duration maxElapsed, Scheduler backoffScheduler) {
+		return onAssembly(new MonoRetryBackoff<>(this, new FluxRetryBackoff.Backoff(maxRepeat,
+				firstBackoff, maxBackoff, jitterFactor, maxElapsed, backoffScheduler, true)));
+	}
+
 
 	/**
 	 * Re-subscribes to this {@link Mono} sequence if it signals any error, indefinitely.
@@ -2738,6 +2880,101 @@ public abstract class Mono<T> implements Publisher<T> {
 		return onAssembly(new MonoRetryWhen<>(this, whenFactory));
 	}
 
+	/**
+	 * In case of error, retry this {@link Mono} up to {@code numRetries} times using a
+	 * randomized exponential backoff strategy (jitter). The jitter factor is {@code 50%}
+	 * but the effective backoff delay cannot be less than {@code firstBackoff}.
+	 * <p>
+	 * Once retries are exhausted, an {@link IllegalStateException} is propagated, which
+	 * cause is the last error of this {@link Mono}.
+	 *
+	 * @param numRetries the maximum number of attempts before an {@link IllegalStateException}
+	 * is raised (having the original retry-triggering exception as cause).
+	 * @param firstBackoff the first backoff delay to apply then grow exponentially.
+	 *
+	 * @return a {@link Mono} that retries on onError with exponentially growing randomized delays between retries.
+	 */
+	public final Mono<T> retryBackoff(long numRetries, Duration firstBackoff) {
+		return retryBackoff(numRetries, firstBackoff, Duration.ofMillis(Long.MAX_VALUE), 0.5d,
+				Schedulers.parallel());
+	}
+
+	/**
+	 * In case of error, retry this {@link Mono} up to {@code numRetries} times using a
+	 * randomized exponential backoff strategy. The jitter factor is {@code 50%} but the
+	 * effective backoff delay stays between {@code firstBackoff} and {@code maxBackoff}.
+	 * <p>
+	 * Once retries are exhausted, an {@link IllegalStateException} is propagated, which
+	 * cause is the last error of this {@link Mono}.
+	 *
+	 * @param numRetries the maximum number of attempts before an {@link IllegalStateException}
+	 * is raised (having the original retry-triggering exception as cause).
+	 * @param firstBackoff the first backoff delay to apply then grow exponentially.
+	 * @param maxBackoff the maximum delay to apply despite exponential growth and jitter.
+	 *
+	 * @return a {@link Mono} that retries on onError with exponentially growing randomized delays between retries.
+	 */
+	public final Mono<T> retryBackoff(long numRetries, Duration firstBackoff, Duration maxBackoff) {
+		return retryBackoff(numRetries, firstBackoff, maxBackoff, 0.5d, Schedulers.parallel());
+	}
+
+	/**
+	 * In case of error, retry this {@link Mono} up to {@code numRetries} times using a
+	 * randomized exponential backoff strategy, on the given {@link Scheduler}.
+	 * <p>
+	 * Without jitter, the n-th retry is delayed by {@code firstBackoff * 2^n}, capped to
+	 * {@code maxBackoff}. The {@code jitterFactor} blends that delay with a
+	 * "decorrelated jitter" one, picked at random between {@code firstBackoff} and three
+	 * times the previous delay, so that clients failing at the same time don't retry in
+	 * lockstep. At {@code 0} the delays are deterministic, at {@code 1} they are fully
+	 * decorrelated.
+	 * <p>
+	 * Once retries are exhausted, an {@link IllegalStateException} is propagated, which
+	 * cause is the last error of this {@link Mono}.
+	 *
+	 * @param numRetries the maximum number of attempts before an {@link IllegalStateException}
+	 * is raised (having the original retry-triggering exception as cause).
+	 * @param firstBackoff the first backoff delay to apply then grow exponentially.
+	 * @param maxBackoff the maximum delay to apply despite exponential growth and jitter.
+	 * @param jitterFactor the weight of the random part of the delays, between 0 and 1.
+	 * @param backoffScheduler the {@link Scheduler} on which retries are scheduled.
+	 *
+	 * @return a {@link Mono} that retries on onError with exponentially growing randomized delays between retries.
+	 */
+	public final Mono<T> retryBackoff(long numRetries, Duration firstBackoff, Duration maxBackoff,
+			double jitterFactor, Scheduler backoffScheduler) {
+		return retryBackoff(numRetries, firstBackoff, maxBackoff, jitterFactor,
+				Duration.ofMillis(Long.MAX_VALUE), backoffScheduler);
+	}
+
+	/**
+	 * In case of error, retry this {@link Mono} up to {@code numRetries} times using a
+	 * randomized exponential backoff strategy, on the given {@link Scheduler}, as long as
+	 * the total time spent since the subscription stays within {@code maxElapsed}.
+	 * <p>
+	 * The delays are computed as described in
+	 * {@link #retryBackoff(long, Duration, Duration, double, Scheduler)}.
+	 * <p>
+	 * Once retries are exhausted, or if the next retry would happen past
+	 * {@code maxElapsed}, an {@link IllegalStateException} is propagated, which cause is
+	 * the last error of this {@link Mono}.
+	 *
+	 * @param numRetries the maximum number of attempts before an {@link IllegalStateException}
+	 * is raised (having the original retry-triggering exception as cause).
+	 * @param firstBackoff the first backoff delay to apply then grow exponentially.
+	 * @param maxBackoff the maximum delay to apply despite exponential growth and jitter.
+	 * @param jitterFactor the weight of the random part of the delays, between 0 and 1.
+	 * @param maxElapsed the maximum time between the subscription and the last retry.
+	 * @param backoffScheduler the {@link Scheduler} on which retries are scheduled.
+	 *
+	 * @return a {@link Mono} that retries on onError with exponentially growing randomized delays between retries.
+	 */
+	public final Mono<T> retryBackoff(long numRetries, Duration firstBackoff, Duration maxBackoff,
+			double jitterFactor, Duration maxElapsed, Scheduler backoffScheduler) {
+		return onAssembly(new MonoRetryBackoff<>(this, new FluxRetryBackoff.Backoff(numRetries,
+				firstBackoff, maxBackoff, jitterFactor, maxElapsed, backoffScheduler, false)));
+	}
+
 	/**
 	 * Subscribe to this {@link Mono} and request unbounded demand.
 	 * <p>
@@ -3054,6 +3291,22 @@ public abstract class Mono<T> implements Publisher<T> {
 		return onAssembly(new MonoSwitchIfEmpty<>(this, alternate));
 	}
 
+	/**
+	 * Tag this Mono with a key/value pair. These can be retrieved as a {@link java.util.Set} of
+	 * all tags throughout the publisher chain by using
+	 * {@link reactor.core.Scannable#tags()} (as traversed by
+	 * {@link reactor.core.Scannable#parents()}). They are used by {@link #metrics()}
+	 * to label the recorded measurements.
+	 *
+	 * @param key a tag key
+	 * @param value a tag value
+	 *
+	 * @return the same sequence, but bearing tags
+	 */
+	public final Mono<T> tag(String key, String value) {
+		return MonoName.createOrAppend(this, key, value);
+	}
+
 	/**
 	 * Return a {@code Mono<Void>} which only replays complete and error signals
 	 * from this {@link Mono}.
@@ -3330,6 +3583,22 @@ public abstract class Mono<T> implements Publisher<T> {
 		return onAssembly(from(transformer.apply(this)));
 	}
 
+	/**
+	 * Delay the subscription to this {@link Mono} until a permit has been taken from the
+	 * given {@link Bulkhead}, holding it until the {@link Mono} terminates or is
+	 * cancelled. The {@link Bulkhead} can be shared between any number of sequences to
+	 * bound how many of them are active at once, eg. to cap the calls made to a shared
+	 * resource across all requests. Waiting subscriptions are started in arrival order,
+	 * without blocking.
+	 *
+	 * @param bulkhead the {@link Bulkhead} to take a permit from
+	 *
+	 * @return a {@link Mono} subscribed to under a permit of the {@link Bulkhead}
+	 */
+	public final Mono<T> withPermit(Bulkhead bulkhead) {
+		return onAssembly(new MonoWithPermit<>(this, bulkhead));
+	}
+
 	/**
 	 * To be used by custom operators: invokes assembly {@link Hooks} pointcut given a
 	 * {@link Mono}, potentially returning a new {@link Mono}. This is for example useful
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A keyed memoizer of {@link Mono} lookups, coalescing the concurrent subscriptions
+ * for a key onto a single subscription to its source (single-flight) then caching the
+ * resulting value for a time-to-live.
+ * <p>
+ * Each key maps to a {@link MonoProcessor} subscribed to the source returned by the
+ * loader. Subscribers arriving while it is in flight share it, and once it produced a
+ * value later subscribers are replayed that value until it expires. Errors and empty
+ * completions are relayed to the subscribers that shared the lookup but not cached,
+ * the next subscriber triggering a new lookup. The least recently used entries are
+ * evicted past {@link #maxEntries()} entries.
+ * <pre>
+ * {@code
+ * MonoCache<String, User> users = MonoCache.of(10_000, Duration.ofMinutes(5));
+ *
+ * Mono<User> user = users.lookup(id, userRepository::findById);
+ * }
+ * </pre>
+ * The lookup itself is lazy and happens anew for each {@link org.reactivestreams.Subscriber}
+ * of the returned {@link Mono}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class MonoCache<K, V> {
+
+	/**
+	 * Create a {@link MonoCache} holding at most {@code maxEntries} keys, which values
+	 * expire after {@code ttl}.
+	 *
+	 * @param maxEntries the maximum number of cached and in-flight keys, strictly
+	 * positive
+	 * @param ttl the time-to-live of cached values, {@link Duration#ZERO} to only
+	 * coalesce concurrent lookups
+	 * @param <K> the key type
+	 * @param <V> the value type
+	 *
+	 * @return a new {@link MonoCache}
+	 */
+	public static <K, V> MonoCache<K, V> of(int maxEntries, Duration ttl) {
+		return new MonoCache<>(maxEntries, ttl, Schedulers.parallel());
+	}
+
+	final int       maxEntries;
+	final long      ttl;
+	final Scheduler clock;
+
+	final LinkedHashMap<K, Entry<V>> entries;
+
+	final LongAdder hits      = new LongAdder();
+	final LongAdder misses    = new LongAdder();
+	final LongAdder coalesced = new LongAdder();
+
+	MonoCache(int maxEntries, Duration ttl, Scheduler clock) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("maxEntries > 0 required but it was " + maxEntries);
+		}
+		this.maxEntries = maxEntries;
+		this.ttl = Objects.requireNonNull(ttl, "ttl").toMillis();
+		this.clock = Objects.requireNonNull(clock, "clock");
+		this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+				return size() > MonoCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Return a {@link Mono} of the value of the given key: the cached one if any,
+	 * otherwise the one of the lookup in flight for that key, otherwise the one of a new
+	 * subscription to the {@link Mono} returned by the loader.
+	 *
+	 * @param key the key to look up
+	 * @param loader the function returning the source of the value of a key, only
+	 * invoked when neither a cached value nor an in-flight lookup exist for it
+	 *
+	 * @return a {@link Mono} of the value of the key
+	 */
+	public Mono<V> lookup(K key, Function<? super K, ? extends Mono<? extends V>> loader) {
+		Objects.requireNonNull(key, "key");
+		Objects.requireNonNull(loader, "loader");
+		return Mono.defer(() -> get(key, loader));
+	}
+
+	MonoProcessor<V> get(K key, Function<? super K, ? extends Mono<? extends V>> loader) {
+		Entry<V> e;
+		synchronized (entries) {
+			e = entries.get(key);
+			if (e != null) {
+				if (!e.done) {
+					coalesced.increment();
+					return e.processor;
+				}
+				if (clock.now(TimeUnit.MILLISECONDS) < e.expireAt) {
+					hits.increment();
+					return e.processor;
+				}
+			}
+			misses.increment();
+			e = new Entry<>();
+			entries.put(key, e);
+		}
+
+		Mono<? extends V> source;
+		try {
+			source = Objects.requireNonNull(loader.apply(key),
+					"The loader returned a null Mono");
+		}
+		catch (Throwable ex) {
+			source = Mono.error(Operators.onOperatorError(ex));
+		}
+
+		Entry<V> entry = e;
+		source.doOnTerminate((v, ex) -> terminated(key, entry, v != null))
+		      .subscribe(entry.processor);
+		return entry.processor;
+	}
+
+	void terminated(K key, Entry<V> e, boolean hasValue) {
+		synchronized (entries) {
+			if (hasValue && ttl > 0L) {
+				long now = clock.now(TimeUnit.MILLISECONDS);
+				e.expireAt = now + ttl < 0L ? Long.MAX_VALUE : now + ttl;
+				e.done = true;
+			}
+			else if (entries.get(key) == e) {
+				entries.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Remove the cached value or in-flight lookup of the given key, if any. Subscribers
+	 * of an in-flight lookup still receive its outcome.
+	 *
+	 * @param key the key to invalidate
+	 */
+	public void invalidate(K key) {
+		synchronized (entries) {
+			entries.remove(key);
+		}
+	}
+
+	/**
+	 * Remove all cached values and in-flight lookups.
+	 */
+	public void invalidateAll() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Return the number of cached and in-flight keys, including expired values not
+	 * looked up since.
+	 *
+	 * @return the number of cached and in-flight keys
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Return the maximum number of cached and in-flight keys.
+	 *
+	 * @return the maximum number of cached and in-flight keys
+	 */
+	public int maxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * Return the number of lookups served by a cached value.
+	 *
+	 * @return the number of cache hits
+	 */
+	public long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Return the number of lookups that subscribed to the source returned by the loader.
+	 *
+	 * @return the number of cache misses
+	 */
+	public long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Return the number of lookups that joined a lookup already in flight for their key.
+	 *
+	 * @return the number of coalesced lookups
+	 */
+	public long coalesced() {
+		return coalesced.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "MonoCache{size=" + size() + ", hits=" + hits() + ", misses=" + misses() +
+				", coalesced=" + coalesced() + "}";
+	}
+
+	static final class Entry<V> {
+
+		final MonoProcessor<V> processor = MonoProcessor.create();
+
+		/**
+		 * Whether a value was received, guarded by the cache's lock.
+		 */
+		boolean done;
+		long    expireAt;
+	}
+}
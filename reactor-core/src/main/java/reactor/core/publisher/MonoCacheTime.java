@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Caches the signal of the source {@link Mono} for a time depending on its kind, then
+ * re-subscribes to the source once it expired. Subscribers arriving while the source is
+ * being subscribed share that single subscription.
+ * <p>
+ * A value can additionally stay usable for a stale period after its expiry: a subscriber
+ * arriving during that period immediately receives the stale value and triggers a single
+ * background re-subscription, the outcome of which replaces the cached value if it is a
+ * value. Past the stale period, subscribers wait for a new subscription to the source.
+ *
+ * @param <T> the value type
+ */
+final class MonoCacheTime<T> extends MonoOperator<T, T> {
+
+	final long      valueTtl;
+	final long      staleTtl;
+	final long      errorTtl;
+	final long      emptyTtl;
+	final Scheduler clock;
+
+	/**
+	 * Either {@code null} (nothing cached), the {@link CacheCoordinator} of the ongoing
+	 * subscription or the {@link CachedSignal}.
+	 */
+	volatile Object state;
+	static final AtomicReferenceFieldUpdater<MonoCacheTime, Object> STATE =
+			AtomicReferenceFieldUpdater.newUpdater(MonoCacheTime.class, Object.class, "state");
+
+	volatile RefreshSubscriber<T> refreshing;
+	@SuppressWarnings("rawtypes")
+	static final AtomicReferenceFieldUpdater<MonoCacheTime, RefreshSubscriber> REFRESHING =
+			AtomicReferenceFieldUpdater.newUpdater(MonoCacheTime.class,
+					RefreshSubscriber.class,
+					"refreshing");
+
+	MonoCacheTime(Mono<? extends T> source,
+			Duration valueTtl,
+			Duration staleTtl,
+			Duration errorTtl,
+			Duration emptyTtl,
+			Scheduler clock) {
+		super(source);
+		this.valueTtl = Objects.requireNonNull(valueTtl, "valueTtl").toMillis();
+		this.staleTtl = Objects.requireNonNull(staleTtl, "staleTtl").toMillis();
+		this.errorTtl = Objects.requireNonNull(errorTtl, "errorTtl").toMillis();
+		this.emptyTtl = Objects.requireNonNull(emptyTtl, "emptyTtl").toMillis();
+		this.clock = Objects.requireNonNull(clock, "clock");
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void subscribe(CoreSubscriber<? super T> actual) {
+		CacheInner<T> inner = new CacheInner<>(actual);
+		for (; ; ) {
+			Object s = state;
+			if (s instanceof CacheCoordinator) {
+				CacheCoordinator<T> coordinator = (CacheCoordinator<T>) s;
+				actual.onSubscribe(inner);
+				if (!coordinator.add(inner)) {
+					//the coordinator terminated in the meantime, share its outcome
+					coordinator.replay(inner);
+				}
+				return;
+			}
+
+			if (s != null) {
+				CachedSignal<T> c = (CachedSignal<T>) s;
+				long now = clock.now(TimeUnit.MILLISECONDS);
+				if (now < c.expireAt) {
+					c.replay(actual);
+					return;
+				}
+				if (now < c.staleAt) {
+					//serve the stale value first, a synchronous source would otherwise
+					//make this subscriber wait for the whole refresh
+					c.replay(actual);
+					refresh(c);
+					return;
+				}
+			}
+
+			CacheCoordinator<T> coordinator = new CacheCoordinator<>(this);
+			if (STATE.compareAndSet(this, s, coordinator)) {
+				actual.onSubscribe(inner);
+				coordinator.add(inner);
+				source.subscribe(coordinator);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Start a background re-subscription to the source for a stale value, unless one is
+	 * already running.
+	 */
+	void refresh(CachedSignal<T> stale) {
+		if (refreshing == null) {
+			RefreshSubscriber<T> r = new RefreshSubscriber<>(this, stale);
+			if (REFRESHING.compareAndSet(this, null, r)) {
+				source.subscribe(r);
+			}
+		}
+	}
+
+	/**
+	 * Build the cache entry of a signal, or return null if this kind of signal isn't
+	 * cached.
+	 */
+	@Nullable
+	CachedSignal<T> cached(@Nullable T value, @Nullable Throwable error) {
+		long ttl;
+		long stale = 0L;
+		if (value != null) {
+			ttl = valueTtl;
+			stale = staleTtl;
+		}
+		else if (error != null) {
+			ttl = errorTtl;
+		}
+		else {
+			ttl = emptyTtl;
+		}
+		if (ttl <= 0L && stale <= 0L) {
+			return null;
+		}
+		long expireAt = addCap(clock.now(TimeUnit.MILLISECONDS), Math.max(ttl, 0L));
+		return new CachedSignal<>(value, error, expireAt, addCap(expireAt, stale));
+	}
+
+	static long addCap(long a, long b) {
+		long r = a + b;
+		if (r < 0L) {
+			return Long.MAX_VALUE;
+		}
+		return r;
+	}
+
+	/**
+	 * A cached outcome of the source and the times it expires and stops being usable.
+	 */
+	static final class CachedSignal<T> {
+
+		@Nullable
+		final T         value;
+		@Nullable
+		final Throwable error;
+		final long      expireAt;
+		final long      staleAt;
+
+		CachedSignal(@Nullable T value, @Nullable Throwable error, long expireAt, long staleAt) {
+			this.value = value;
+			this.error = error;
+			this.expireAt = expireAt;
+			this.staleAt = staleAt;
+		}
+
+		void replay(CoreSubscriber<? super T> actual) {
+			if (value != null) {
+				actual.onSubscribe(Operators.scalarSubscription(actual, value));
+			}
+			else if (error != null) {
+				Operators.error(actual, error);
+			}
+			else {
+				Operators.complete(actual);
+			}
+		}
+	}
+
+	/**
+	 * Subscribes to the source on behalf of the subscribers arriving while nothing
+	 * usable is cached, then caches the outcome and relays it to them.
+	 */
+	static final class CacheCoordinator<T> implements InnerConsumer<T> {
+
+		final MonoCacheTime<T> main;
+
+		volatile CacheInner<T>[] subscribers;
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<CacheCoordinator, CacheInner[]> SUBSCRIBERS =
+				AtomicReferenceFieldUpdater.newUpdater(CacheCoordinator.class,
+						CacheInner[].class,
+						"subscribers");
+
+		@SuppressWarnings("rawtypes")
+		static final CacheInner[] EMPTY      = new CacheInner[0];
+		@SuppressWarnings("rawtypes")
+		static final CacheInner[] TERMINATED = new CacheInner[0];
+
+		Subscription s;
+		boolean      done;
+		T            value;
+		Throwable    error;
+
+		@SuppressWarnings("unchecked")
+		CacheCoordinator(MonoCacheTime<T> main) {
+			this.main = main;
+			SUBSCRIBERS.lazySet(this, EMPTY);
+		}
+
+		boolean add(CacheInner<T> inner) {
+			for (; ; ) {
+				CacheInner<T>[] a = subscribers;
+				if (a == TERMINATED) {
+					return false;
+				}
+				int n = a.length;
+				@SuppressWarnings("unchecked")
+				CacheInner<T>[] b = new CacheInner[n + 1];
+				System.arraycopy(a, 0, b, 0, n);
+				b[n] = inner;
+				if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+					inner.parent = this;
+					return true;
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		void remove(CacheInner<T> inner) {
+			for (; ; ) {
+				CacheInner<T>[] a = subscribers;
+				int n = a.length;
+				if (n == 0) {
+					return;
+				}
+				int j = -1;
+				for (int i = 0; i < n; i++) {
+					if (a[i] == inner) {
+						j = i;
+						break;
+					}
+				}
+				if (j < 0) {
+					return;
+				}
+				CacheInner<T>[] b;
+				if (n == 1) {
+					b = EMPTY;
+				}
+				else {
+					b = new CacheInner[n - 1];
+					System.arraycopy(a, 0, b, 0, j);
+					System.arraycopy(a, j + 1, b, j, n - j - 1);
+				}
+				if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+					return;
+				}
+			}
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				s.request(Long.MAX_VALUE);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			done = true;
+			s.cancel();
+			signal(t, null);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			done = true;
+			signal(null, t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			signal(null, null);
+		}
+
+		@SuppressWarnings("unchecked")
+		void signal(@Nullable T value, @Nullable Throwable error) {
+			this.value = value;
+			this.error = error;
+			CachedSignal<T> c = main.cached(value, error);
+			STATE.compareAndSet(main, this, c);
+
+			for (CacheInner<T> inner : SUBSCRIBERS.getAndSet(this, TERMINATED)) {
+				replay(inner);
+			}
+		}
+
+		/**
+		 * Relay the outcome to a subscriber, only valid once {@link #subscribers} is
+		 * {@link #TERMINATED}.
+		 */
+		void replay(CacheInner<T> inner) {
+			if (inner.isCancelled()) {
+				return;
+			}
+			T v = value;
+			if (v != null) {
+				inner.complete(v);
+			}
+			else if (error != null) {
+				inner.onError(error);
+			}
+			else {
+				inner.onComplete();
+			}
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return s;
+			if (key == BooleanAttr.TERMINATED) return done;
+
+			return null;
+		}
+	}
+
+	static final class CacheInner<T> extends Operators.MonoSubscriber<T, T> {
+
+		volatile CacheCoordinator<T> parent;
+
+		CacheInner(CoreSubscriber<? super T> actual) {
+			super(actual);
+		}
+
+		@Override
+		public void cancel() {
+			super.cancel();
+			CacheCoordinator<T> p = parent;
+			if (p != null) {
+				p.remove(this);
+			}
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return parent;
+			return super.scanUnsafe(key);
+		}
+	}
+
+	/**
+	 * Re-subscribes to the source in the background while subscribers are served a stale
+	 * value. Only a value replaces the stale one, errors and empty completions leaving
+	 * it in place until a later subscriber triggers another refresh.
+	 */
+	static final class RefreshSubscriber<T> implements InnerConsumer<T> {
+
+		final MonoCacheTime<T> main;
+		final CachedSignal<T>  stale;
+
+		Subscription s;
+		boolean      done;
+
+		RefreshSubscriber(MonoCacheTime<T> main, CachedSignal<T> stale) {
+			this.main = main;
+			this.stale = stale;
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				s.request(Long.MAX_VALUE);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			done = true;
+			s.cancel();
+			CachedSignal<T> c = main.cached(t, null);
+			STATE.compareAndSet(main, stale, c);
+			REFRESHING.compareAndSet(main, this, null);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			done = true;
+			REFRESHING.compareAndSet(main, this, null);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			REFRESHING.compareAndSet(main, this, null);
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return s;
+			if (key == BooleanAttr.TERMINATED) return done;
+
+			return null;
+		}
+	}
+}
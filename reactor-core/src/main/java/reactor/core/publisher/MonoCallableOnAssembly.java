@@ -45,8 +45,12 @@ final class MonoCallableOnAssembly<T> extends MonoOperator<T, T>
 	final AssemblySnapshotException stacktrace;
 
 	MonoCallableOnAssembly(Mono<? extends T> source) {
+		this(source, new AssemblySnapshotException());
+	}
+
+	MonoCallableOnAssembly(Mono<? extends T> source, AssemblySnapshotException stacktrace) {
 		super(source);
-		this.stacktrace = new AssemblySnapshotException();
+		this.stacktrace = stacktrace;
 	}
 
 	@Override
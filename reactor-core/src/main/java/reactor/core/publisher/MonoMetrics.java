@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.Set;
+import javax.annotation.Nullable;
+
+import reactor.core.CoreSubscriber;
+import reactor.util.function.Tuple2;
+
+/**
+ * Report the lifecycle of each subscription to the {@link SequenceMetricsRecorder}
+ * installed via {@link Hooks#onMetrics(SequenceMetricsRecorder)}.
+ *
+ * @param <T> the value type
+ * @see FluxMetrics
+ */
+final class MonoMetrics<T> extends MonoOperator<T, T> {
+
+	final String                      name;
+	final Set<Tuple2<String, String>> tags;
+
+	MonoMetrics(Mono<? extends T> source) {
+		super(source);
+		this.name = FluxMetrics.resolveName(source);
+		this.tags = FluxMetrics.resolveTags(source);
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super T> actual) {
+		SequenceMetricsRecorder recorder = Hooks.onMetricsHook;
+		if (recorder == null) {
+			source.subscribe(actual);
+			return;
+		}
+		source.subscribe(new FluxMetrics.MetricsSubscriber<>(actual, recorder, name, tags));
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == StringAttr.NAME) return name;
+		if (key == GenericAttr.TAGS) return tags;
+
+		return super.scanUnsafe(key);
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+import reactor.core.CoreSubscriber;
+import reactor.core.Fuseable;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * An operator that gives a name and/or tags to the upstream sequence, which can be
+ * retrieved by walking up the {@link reactor.core.Scannable#parents()} chain from any
+ * downstream operator (see {@link reactor.core.Scannable#name()} and
+ * {@link reactor.core.Scannable#tags()}). Signals are passed through untouched: the
+ * downstream {@link CoreSubscriber} is directly subscribed to the source.
+ *
+ * @param <T> the value type
+ */
+final class MonoName<T> extends MonoOperator<T, T> {
+
+	/**
+	 * Name the source, keeping the tags if it is already a named sequence.
+	 */
+	static <T> Mono<T> createOrAppend(Mono<T> source, String name) {
+		Objects.requireNonNull(name, "name");
+
+		if (source instanceof MonoName) {
+			MonoName<T> s = (MonoName<T>) source;
+			return new MonoName<>(s.source, name, s.tags);
+		}
+		if (source instanceof MonoNameFuseable) {
+			MonoNameFuseable<T> s = (MonoNameFuseable<T>) source;
+			return new MonoNameFuseable<>(s.source, name, s.tags);
+		}
+		if (source instanceof Fuseable) {
+			return new MonoNameFuseable<>(source, name, null);
+		}
+		return new MonoName<>(source, name, null);
+	}
+
+	/**
+	 * Tag the source, adding to the existing tags if it is already a named sequence.
+	 */
+	static <T> Mono<T> createOrAppend(Mono<T> source, String tagName, String tagValue) {
+		Objects.requireNonNull(tagName, "tagName");
+		Objects.requireNonNull(tagValue, "tagValue");
+
+		Tuple2<String, String> tag = Tuples.of(tagName, tagValue);
+
+		if (source instanceof MonoName) {
+			MonoName<T> s = (MonoName<T>) source;
+			return new MonoName<>(s.source, s.name, FluxName.appendTag(s.tags, tag));
+		}
+		if (source instanceof MonoNameFuseable) {
+			MonoNameFuseable<T> s = (MonoNameFuseable<T>) source;
+			return new MonoNameFuseable<>(s.source, s.name, FluxName.appendTag(s.tags, tag));
+		}
+		if (source instanceof Fuseable) {
+			return new MonoNameFuseable<>(source, null, Collections.singleton(tag));
+		}
+		return new MonoName<>(source, null, Collections.singleton(tag));
+	}
+
+	@Nullable
+	final String name;
+
+	@Nullable
+	final Set<Tuple2<String, String>> tags;
+
+	MonoName(Mono<? extends T> source,
+			@Nullable String name,
+			@Nullable Set<Tuple2<String, String>> tags) {
+		super(source);
+		this.name = name;
+		this.tags = tags;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super T> actual) {
+		source.subscribe(actual);
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == StringAttr.NAME) return name;
+		if (key == GenericAttr.TAGS) return tags;
+
+		return super.scanUnsafe(key);
+	}
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Fuseable;
+
+/**
+ * Aggregates a sequence of {@link Number} into a primitive sum, minimum, maximum or
+ * average, emitted once the source completes.
+ * <p>
+ * The aggregation happens in primitive fields. If the source supports
+ * {@link Fuseable#SYNC} fusion, it is drained directly, and sources able to produce
+ * primitive values (like {@link FluxRange} and {@link FluxRangeLong}) are read without
+ * boxing any value.
+ *
+ * @param <T> the source {@link Number} type
+ * @param <R> the result value type
+ */
+final class MonoReduceNumber<T extends Number, R> extends MonoFromFluxOperator<T, R>
+		implements Fuseable {
+
+	static final int SUM_INT        = 0;
+	static final int SUM_LONG       = 1;
+	static final int SUM_DOUBLE     = 2;
+	static final int MIN_LONG       = 3;
+	static final int MAX_LONG       = 4;
+	static final int AVERAGE_DOUBLE = 5;
+
+	final int mode;
+
+	MonoReduceNumber(Flux<? extends T> source, int mode) {
+		super(source);
+		this.mode = mode;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super R> s) {
+		source.subscribe(new ReduceNumberSubscriber<>(s, mode));
+	}
+
+	static final class ReduceNumberSubscriber<T extends Number, R>
+			extends Operators.MonoSubscriber<T, R> {
+
+		final int mode;
+
+		Subscription s;
+
+		long longAccumulator;
+
+		double doubleAccumulator;
+
+		long count;
+
+		boolean done;
+
+		ReduceNumberSubscriber(CoreSubscriber<? super R> actual, int mode) {
+			super(actual);
+			this.mode = mode;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == BooleanAttr.TERMINATED) return done;
+			if (key == ScannableAttr.PARENT) return s;
+
+			return super.scanUnsafe(key);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				actual.onSubscribe(this);
+
+				if (s instanceof QueueSubscription) {
+					QueueSubscription<T> qs = (QueueSubscription<T>) s;
+					if (qs.requestFusion(Fuseable.SYNC) == Fuseable.SYNC) {
+						drainSync(qs);
+						return;
+					}
+				}
+				s.request(Long.MAX_VALUE);
+			}
+		}
+
+		void drainSync(QueueSubscription<T> qs) {
+			try {
+				if (qs instanceof SynchronousLongSubscription) {
+					SynchronousLongSubscription<T> ls = (SynchronousLongSubscription<T>) qs;
+					while (!ls.isEmpty()) {
+						if (isCancelled()) {
+							return;
+						}
+						accumulate(ls.pollLong());
+					}
+				}
+				else {
+					for (; ; ) {
+						if (isCancelled()) {
+							return;
+						}
+						T t = qs.poll();
+						if (t == null) {
+							break;
+						}
+						accumulate(t);
+					}
+				}
+			}
+			catch (Throwable ex) {
+				onError(Operators.onOperatorError(s, ex));
+				return;
+			}
+			onComplete();
+		}
+
+		void accumulate(long v) {
+			switch (mode) {
+				case SUM_INT:
+					longAccumulator += (int) v;
+					break;
+				case SUM_DOUBLE:
+				case AVERAGE_DOUBLE:
+					doubleAccumulator += v;
+					break;
+				case MIN_LONG:
+					longAccumulator = count == 0 ? v : Math.min(longAccumulator, v);
+					break;
+				case MAX_LONG:
+					longAccumulator = count == 0 ? v : Math.max(longAccumulator, v);
+					break;
+				default:
+					longAccumulator += v;
+			}
+			count++;
+		}
+
+		void accumulate(Number n) {
+			switch (mode) {
+				case SUM_INT:
+					longAccumulator += n.intValue();
+					count++;
+					break;
+				case SUM_DOUBLE:
+				case AVERAGE_DOUBLE:
+					doubleAccumulator += n.doubleValue();
+					count++;
+					break;
+				default:
+					accumulate(n.longValue());
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			accumulate(t);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			Object r;
+			switch (mode) {
+				case SUM_INT:
+					r = (int) longAccumulator;
+					break;
+				case SUM_LONG:
+					r = longAccumulator;
+					break;
+				case SUM_DOUBLE:
+					r = doubleAccumulator;
+					break;
+				case AVERAGE_DOUBLE:
+					r = count == 0 ? null : doubleAccumulator / count;
+					break;
+				default:
+					r = count == 0 ? null : longAccumulator;
+			}
+			if (r != null) {
+				complete((R) r);
+			}
+			else {
+				actual.onComplete();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			super.cancel();
+			s.cancel();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import reactor.core.CoreSubscriber;
+
+/**
+ * Re-subscribes to the source {@link Mono} after an exponentially growing, jittered
+ * delay when it signals an error, or when it completes empty in the repeat variant.
+ *
+ * @param <T> the value type
+ * @see FluxRetryBackoff
+ */
+final class MonoRetryBackoff<T> extends MonoOperator<T, T> {
+
+	final FluxRetryBackoff.Backoff backoff;
+
+	MonoRetryBackoff(Mono<? extends T> source, FluxRetryBackoff.Backoff backoff) {
+		super(source);
+		this.backoff = backoff;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super T> s) {
+		FluxRetryBackoff.BackoffSubscriber<T> parent =
+				new FluxRetryBackoff.BackoffSubscriber<>(source, s, backoff);
+
+		s.onSubscribe(parent);
+
+		if (!parent.isCancelled()) {
+			parent.resubscribe();
+		}
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+
+import reactor.core.CoreSubscriber;
+
+/**
+ * Subscribes to the source only once a permit of a {@link Bulkhead} has been taken,
+ * and gives the permit back when the source terminates or the subscription is
+ * cancelled.
+ *
+ * @param <T> the value type
+ */
+final class MonoWithPermit<T> extends MonoOperator<T, T> {
+
+	final Bulkhead bulkhead;
+
+	MonoWithPermit(Mono<? extends T> source, Bulkhead bulkhead) {
+		super(source);
+		this.bulkhead = Objects.requireNonNull(bulkhead, "bulkhead");
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super T> actual) {
+		FluxWithPermit.PermitSubscriber<T> parent =
+				new FluxWithPermit.PermitSubscriber<>(actual, source, bulkhead);
+		actual.onSubscribe(parent);
+		bulkhead.acquire(parent);
+	}
+}
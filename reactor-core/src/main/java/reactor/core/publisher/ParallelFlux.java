@@ -158,7 +158,7 @@ public abstract class ParallelFlux<T> implements Publisher<T> {
 	 * @return the assembly tracing {@link ParallelFlux}
 	 */
 	public final ParallelFlux<T> checkpoint() {
-		return new ParallelFluxOnAssembly<>(this, null);
+		return new ParallelFluxOnAssembly<>(this, (String) null);
 	}
 
 	/**
@@ -47,8 +47,15 @@ final class ParallelFluxOnAssembly<T> extends ParallelFlux<T>
 	 * Create an assembly trace wrapping a {@link ParallelFlux}.
 	 */
 	ParallelFluxOnAssembly(ParallelFlux<T> source) {
+		this(source, new AssemblySnapshotException());
+	}
+
+	/**
+	 * Create an assembly trace from a given snapshot, wrapping a {@link ParallelFlux}.
+	 */
+	ParallelFluxOnAssembly(ParallelFlux<T> source, AssemblySnapshotException stacktrace) {
 		this.source = source;
-		this.stacktrace = new AssemblySnapshotException();
+		this.stacktrace = stacktrace;
 	}
 
 	/**
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A token bucket shareable between several {@link Flux#rateLimit(RateLimiter)
+ * rate-limited} sequences, pacing the total of their requests to a number of permits
+ * per period.
+ * <p>
+ * The bucket starts full with {@code burst} permits and gains {@code permits} permits
+ * at the end of each period, never holding more than {@code burst}. Each element
+ * requested upstream by a rate-limited sequence consumes a permit. Permits are refilled
+ * lazily from the {@link Scheduler#now(TimeUnit) clock} of the {@link Scheduler} when
+ * acquired, and a single timer, armed only when some sequence is waiting for permits,
+ * wakes up the waiting sequences at the next refill. The refilled permits are then
+ * shared equally between the waiting sequences, so that a sequence with a large demand
+ * can't starve the others.
+ * <pre>
+ * {@code
+ * RateLimiter limiter = RateLimiter.create(100, Duration.ofSeconds(1));
+ *
+ * users.flatMap(u -> client.call(u)).rateLimit(limiter);
+ * orders.flatMap(o -> client.call(o)).rateLimit(limiter);
+ * }
+ * </pre>
+ */
+public final class RateLimiter {
+
+	/**
+	 * Create a {@link RateLimiter} allowing {@code permits} requested elements per
+	 * {@code period}, with a burst capacity of {@code permits}, timed on
+	 * {@link Schedulers#parallel()}.
+	 *
+	 * @param permits the number of permits gained at each period, strictly positive
+	 * @param period the refill period
+	 *
+	 * @return a new {@link RateLimiter}
+	 */
+	public static RateLimiter create(int permits, Duration period) {
+		return create(permits, period, permits, Schedulers.parallel());
+	}
+
+	/**
+	 * Create a {@link RateLimiter} allowing {@code permits} requested elements per
+	 * {@code period}, holding at most {@code burst} unused permits.
+	 *
+	 * @param permits the number of permits gained at each period, strictly positive
+	 * @param period the refill period
+	 * @param burst the capacity of the bucket, which is also its initial number of
+	 * permits, strictly positive
+	 * @param timer the {@link Scheduler} providing the clock and the refill timer
+	 *
+	 * @return a new {@link RateLimiter}
+	 */
+	public static RateLimiter create(int permits, Duration period, int burst, Scheduler timer) {
+		return new RateLimiter(permits, period, burst, timer);
+	}
+
+	final long      permits;
+	final long      period;
+	final long      burst;
+	final Scheduler timer;
+
+	/**
+	 * The sequences waiting for permits, guarded by this.
+	 */
+	final ArrayDeque<FluxRateLimit.RateLimitSubscriber<?>> waiting = new ArrayDeque<>();
+
+	/**
+	 * Guarded by this.
+	 */
+	long tokens;
+	/**
+	 * The time of the last refill, guarded by this.
+	 */
+	long lastRefill;
+	/**
+	 * Whether a wake up of the waiting sequences is scheduled, guarded by this.
+	 */
+	boolean wakeUpScheduled;
+	/**
+	 * Where to start handing out the permits that can't be shared equally, guarded by
+	 * this.
+	 */
+	int rotation;
+
+	RateLimiter(int permits, Duration period, int burst, Scheduler timer) {
+		this.period = checkPeriod(permits, period, burst);
+		this.permits = permits;
+		this.burst = burst;
+		this.timer = Objects.requireNonNull(timer, "timer");
+		this.tokens = burst;
+		this.lastRefill = timer.now(TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Validate the arguments of a {@link RateLimiter}.
+	 *
+	 * @return the period in milliseconds
+	 */
+	static long checkPeriod(int permits, Duration period, int burst) {
+		if (permits <= 0) {
+			throw new IllegalArgumentException("permits > 0 required but it was " + permits);
+		}
+		if (burst <= 0) {
+			throw new IllegalArgumentException("burst > 0 required but it was " + burst);
+		}
+		long p = Objects.requireNonNull(period, "period").toMillis();
+		if (p <= 0L) {
+			throw new IllegalArgumentException("period >= 1ms required but it was " + period);
+		}
+		return p;
+	}
+
+	/**
+	 * Return the number of permits currently available.
+	 *
+	 * @return the number of available permits
+	 */
+	public synchronized long availablePermits() {
+		refill();
+		return tokens;
+	}
+
+	/**
+	 * Acquire up to {@code n} permits. No permit is acquired while some sequences are
+	 * waiting, as they have priority over the refilled permits.
+	 *
+	 * @param n the number of wanted permits
+	 *
+	 * @return the number of acquired permits, possibly zero
+	 */
+	synchronized long acquire(long n) {
+		refill();
+		long t = tokens;
+		if (t == 0L || !waiting.isEmpty()) {
+			return 0L;
+		}
+		long acquired = Math.min(t, n);
+		tokens = t - acquired;
+		return acquired;
+	}
+
+	void refill() {
+		long now = timer.now(TimeUnit.MILLISECONDS);
+		long periods = (now - lastRefill) / period;
+		if (periods > 0L) {
+			lastRefill += periods * period;
+			tokens = periods >= burst ? burst :
+					Math.min(burst, tokens + Operators.multiplyCap(periods, permits));
+		}
+	}
+
+	/**
+	 * Register a sequence that ran out of permits, to be woken up at the next refill.
+	 *
+	 * @param s the waiting sequence
+	 */
+	void await(FluxRateLimit.RateLimitSubscriber<?> s) {
+		boolean rejected = false;
+		synchronized (this) {
+			if (!s.waiting) {
+				s.waiting = true;
+				waiting.offer(s);
+			}
+			if (!wakeUpScheduled) {
+				wakeUpScheduled = true;
+				long delay = lastRefill + period - timer.now(TimeUnit.MILLISECONDS);
+				if (timer.schedule(this::wakeUp, Math.max(delay, 0L), TimeUnit.MILLISECONDS)
+						== Scheduler.REJECTED) {
+					wakeUpScheduled = false;
+					rejected = true;
+				}
+			}
+		}
+		if (rejected) {
+			for (FluxRateLimit.RateLimitSubscriber<?> w : drainWaiting()) {
+				w.reject();
+			}
+		}
+	}
+
+	void cancel(FluxRateLimit.RateLimitSubscriber<?> s) {
+		synchronized (this) {
+			if (s.waiting) {
+				s.waiting = false;
+				waiting.remove(s);
+			}
+		}
+	}
+
+	void wakeUp() {
+		FluxRateLimit.RateLimitSubscriber<?>[] toWake;
+		synchronized (this) {
+			wakeUpScheduled = false;
+			refill();
+			toWake = drainWaiting();
+			share(toWake);
+		}
+		for (FluxRateLimit.RateLimitSubscriber<?> s : toWake) {
+			s.drain();
+		}
+	}
+
+	/**
+	 * Grant the available permits to the given sequences: each gets an equal share
+	 * capped to its demand, the part of a share that isn't needed is shared again
+	 * between the others, and the permits left once shares are below one are granted
+	 * one by one starting from a rotating position. Must be called while holding this.
+	 *
+	 * @param a the sequences to grant permits to
+	 */
+	void share(FluxRateLimit.RateLimitSubscriber<?>[] a) {
+		int n = a.length;
+		long[] wanted = new long[n];
+		int unsatisfied = 0;
+		for (int i = 0; i < n; i++) {
+			long w = a[i].requested - a[i].granted;
+			if (w > 0L) {
+				wanted[i] = w;
+				unsatisfied++;
+			}
+		}
+
+		while (tokens != 0L && unsatisfied != 0) {
+			long share = tokens / unsatisfied;
+			if (share == 0L) {
+				int start = (rotation++ & Integer.MAX_VALUE) % n;
+				for (int k = 0; k < n && tokens != 0L; k++) {
+					int i = (start + k) % n;
+					if (wanted[i] != 0L) {
+						a[i].grant(1L);
+						tokens--;
+					}
+				}
+				return;
+			}
+			for (int i = 0; i < n; i++) {
+				long w = wanted[i];
+				if (w != 0L) {
+					long g = Math.min(w, share);
+					a[i].grant(g);
+					tokens -= g;
+					wanted[i] = w - g;
+					if (w == g) {
+						unsatisfied--;
+					}
+				}
+			}
+		}
+	}
+
+	FluxRateLimit.RateLimitSubscriber<?>[] drainWaiting() {
+		synchronized (this) {
+			FluxRateLimit.RateLimitSubscriber<?>[] a =
+					waiting.toArray(new FluxRateLimit.RateLimitSubscriber<?>[0]);
+			waiting.clear();
+			for (FluxRateLimit.RateLimitSubscriber<?> s : a) {
+				s.waiting = false;
+			}
+			return a;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "RateLimiter{permits=" + permits + ", period=" + period + "ms, burst=" + burst + "}";
+	}
+}
@@ -21,6 +21,7 @@ import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.locks.LockSupport;
@@ -127,7 +128,9 @@ abstract class RingBuffer<E> implements LongSupplier {
 			return new UnsafeRingBuffer<>(factory, sequencer);
 		}
 		else {
-			throw new IllegalStateException("This JVM does not support sun.misc.Unsafe");
+			AtomicMultiProducerRingBuffer sequencer = new AtomicMultiProducerRingBuffer(bufferSize, waitStrategy, spinObserver);
+
+			return new NotFunRingBuffer<>(factory, sequencer);
 		}
 	}
 
@@ -360,6 +363,14 @@ abstract class RingBuffer<E> implements LongSupplier {
 	 * @param sequence the sequence to publish.
 	 */
 	abstract void publish(long sequence);
+
+	/**
+	 * Publish the specified inclusive range of sequences, typically claimed with a
+	 * single {@link #next(int)}, signalling waiting readers only once.
+	 * @param lo first sequence to publish
+	 * @param hi last sequence to publish
+	 */
+	abstract void publish(long lo, long hi);
 	/**
 	 * Remove the specified sequence from this ringBuffer.
 	 * @param sequence to be removed.
@@ -691,6 +702,15 @@ abstract class RingBufferProducer {
 	 */
 	abstract void publish(long sequence);
 
+	/**
+	 * Publishes an inclusive range of sequences. Call when all the events have been
+	 * filled.
+	 *
+	 * @param lo first sequence number to be published
+	 * @param hi last sequence number to be published
+	 */
+	abstract void publish(long lo, long hi);
+
 	/**
 	 *
 	 * @return the gating sequences array
@@ -802,14 +822,33 @@ final class SingleProducerSequencer extends SingleProducerSequencerFields {
 		waitStrategy.signalAllWhenBlocking();
 	}
 
+	/**
+	 * See {@code RingBufferProducer.publish(long, long)}.
+	 */
+	@Override
+	void publish(long lo, long hi) {
+		publish(hi);
+	}
+
 	@Override
 	long getHighestPublishedSequence(long lowerBound, long availableSequence) {
 		return availableSequence;
 	}
 }
 
-abstract class NotFunRingBufferFields<E> extends RingBuffer<E>
+abstract class NotFunRingBufferPad<E> extends RingBuffer<E>
+{
+	protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class NotFunRingBufferFields<E> extends NotFunRingBufferPad<E>
 {
+	/**
+	 * Unused slots on each side of the entries, covering 128 bytes with compressed
+	 * references so that neighbouring objects never share a cache line with them.
+	 */
+	static final int BUFFER_PAD = 32;
+
 	private final   long               indexMask;
 	private final   Object[]           entries;
 	final int                bufferSize;
@@ -821,7 +860,7 @@ abstract class NotFunRingBufferFields<E> extends RingBuffer<E>
 		this.sequenceProducer = sequenceProducer;
 		this.bufferSize = sequenceProducer.getBufferSize();
 		this.indexMask = bufferSize - 1;
-		this.entries   = new Object[sequenceProducer.getBufferSize()];
+		this.entries   = new Object[sequenceProducer.getBufferSize() + 2 * BUFFER_PAD];
 		fill(eventFactory);
 	}
 
@@ -829,14 +868,14 @@ abstract class NotFunRingBufferFields<E> extends RingBuffer<E>
 	{
 		for (int i = 0; i < bufferSize; i++)
 		{
-			entries[i] = eventFactory.get();
+			entries[BUFFER_PAD + i] = eventFactory.get();
 		}
 	}
 
 	@SuppressWarnings("unchecked")
 	final E elementAt(long sequence)
 	{
-		return (E) entries[(int) (sequence & indexMask)];
+		return (E) entries[BUFFER_PAD + (int) (sequence & indexMask)];
 	}
 }
 
@@ -848,6 +887,8 @@ abstract class NotFunRingBufferFields<E> extends RingBuffer<E>
  */
 final class NotFunRingBuffer<E> extends NotFunRingBufferFields<E>
 {
+	protected long p1, p2, p3, p4, p5, p6, p7;
+
 	/**
 	 * Construct a RingBuffer with the full option push.
 	 *
@@ -927,6 +968,12 @@ final class NotFunRingBuffer<E> extends NotFunRingBufferFields<E>
 		sequenceProducer.publish(sequence);
 	}
 
+	@Override
+	void publish(long lo, long hi)
+	{
+		sequenceProducer.publish(lo, hi);
+	}
+
 	@Override
 	int getPending() {
 		return (int)sequenceProducer.getPending();
@@ -1115,6 +1162,12 @@ final class UnsafeRingBuffer<E> extends RingBufferFields<E>
 		sequenceProducer.publish(sequence);
 	}
 
+	@Override
+	void publish(long lo, long hi)
+	{
+		sequenceProducer.publish(lo, hi);
+	}
+
 	@Override
 	int getPending() {
 		return (int)sequenceProducer.getPending();
@@ -1317,6 +1370,19 @@ final class MultiProducerRingBuffer extends RingBufferProducer
 		waitStrategy.signalAllWhenBlocking();
 	}
 
+	/**
+	 * See {@code RingBufferProducer.publish(long, long)}.
+	 */
+	@Override
+	void publish(long lo, long hi)
+	{
+		for (long l = lo; l <= hi; l++)
+		{
+			setAvailable(l);
+		}
+		waitStrategy.signalAllWhenBlocking();
+	}
+
 	/**
 	 * The below methods work on the availableBuffer flag.
 	 *
@@ -1381,4 +1447,163 @@ final class MultiProducerRingBuffer extends RingBufferProducer
 	{
 		return ((int) sequence) & indexMask;
 	}
-}
\ No newline at end of file
+}
+
+/**
+ * <p>Coordinator for claiming sequences for access to a data structure while tracking dependent {@link RingBuffer.Sequence}s.
+ * Suitable for use for sequencing across multiple publisher threads.</p>
+ * <p>
+ * Same algorithm as {@link MultiProducerRingBuffer}, with the slot availability flags
+ * held in an {@link AtomicIntegerArray} instead of being accessed through
+ * {@code sun.misc.Unsafe}: {@link AtomicIntegerArray#lazySet} and
+ * {@link AtomicIntegerArray#get} compile to the same ordered store and volatile load.
+ */
+final class AtomicMultiProducerRingBuffer extends RingBufferProducer
+{
+	private final RingBuffer.Sequence gatingSequenceCache = new AtomicSequence(RingBuffer.INITIAL_CURSOR_VALUE);
+
+	// availableBuffer tracks the state of each ringbuffer slot, see MultiProducerRingBuffer
+	private final AtomicIntegerArray availableBuffer;
+	private final int                indexMask;
+	private final int                indexShift;
+
+	/**
+	 * Construct a Sequencer with the selected wait strategy and buffer size.
+	 *
+	 * @param bufferSize the size of the buffer that this will sequence over.
+	 * @param waitStrategy for those waiting on sequences.
+	 * @param spinObserver the runnable to call on a spin-wait
+	 */
+	AtomicMultiProducerRingBuffer(int bufferSize, final WaitStrategy waitStrategy, @Nullable Runnable spinObserver) {
+		super(bufferSize, waitStrategy, spinObserver);
+		availableBuffer = new AtomicIntegerArray(bufferSize);
+		indexMask = bufferSize - 1;
+		indexShift = RingBuffer.log2(bufferSize);
+		for (int i = 0; i < bufferSize; i++)
+		{
+			availableBuffer.lazySet(i, -1);
+		}
+	}
+
+	/**
+	 * See {@code RingBufferProducer.next()}.
+	 */
+	@Override
+	long next()
+	{
+		return next(1);
+	}
+
+	/**
+	 * See {@code RingBufferProducer.next(int)}.
+	 */
+	@Override
+	long next(int n)
+	{
+		long current;
+		long next;
+
+		do
+		{
+			current = cursor.getAsLong();
+			next = current + n;
+
+			long wrapPoint = next - bufferSize;
+			long cachedGatingSequence = gatingSequenceCache.getAsLong();
+
+			if (wrapPoint > cachedGatingSequence || cachedGatingSequence > current)
+			{
+				long gatingSequence = RingBuffer.getMinimumSequence(gatingSequences, current);
+
+				if (wrapPoint > gatingSequence)
+				{
+					if(spinObserver != null) {
+						spinObserver.run();
+					}
+					LockSupport.parkNanos(1);
+					continue;
+				}
+
+				gatingSequenceCache.set(gatingSequence);
+			}
+			else if (cursor.compareAndSet(current, next))
+			{
+				break;
+			}
+		}
+		while (true);
+
+		return next;
+	}
+
+	/**
+	 * See {@code RingBufferProducer.producerCapacity()}.
+	 */
+	@Override
+	long getPending()
+	{
+		long consumed = RingBuffer.getMinimumSequence(gatingSequences, cursor.getAsLong());
+		long produced = cursor.getAsLong();
+		return produced - consumed;
+	}
+
+	/**
+	 * See {@code RingBufferProducer.publish(long)}.
+	 */
+	@Override
+	void publish(final long sequence)
+	{
+		setAvailable(sequence);
+		waitStrategy.signalAllWhenBlocking();
+	}
+
+	/**
+	 * See {@code RingBufferProducer.publish(long, long)}.
+	 */
+	@Override
+	void publish(long lo, long hi)
+	{
+		for (long l = lo; l <= hi; l++)
+		{
+			setAvailable(l);
+		}
+		waitStrategy.signalAllWhenBlocking();
+	}
+
+	private void setAvailable(final long sequence)
+	{
+		availableBuffer.lazySet(calculateIndex(sequence), calculateAvailabilityFlag(sequence));
+	}
+
+	/**
+	 * See {@code RingBufferProducer.isAvailable(long)}
+	 */
+	boolean isAvailable(long sequence)
+	{
+		return availableBuffer.get(calculateIndex(sequence)) == calculateAvailabilityFlag(sequence);
+	}
+
+	@Override
+	long getHighestPublishedSequence(long lowerBound, long availableSequence)
+	{
+		for (long sequence = lowerBound; sequence <= availableSequence; sequence++)
+		{
+			if (!isAvailable(sequence))
+			{
+				return sequence - 1;
+			}
+		}
+
+		return availableSequence;
+	}
+
+	private int calculateAvailabilityFlag(final long sequence)
+	{
+		return (int) (sequence >>> indexShift);
+	}
+
+	private int calculateIndex(final long sequence)
+	{
+		return ((int) sequence) & indexMask;
+	}
+}
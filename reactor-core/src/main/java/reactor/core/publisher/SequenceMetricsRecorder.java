@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.Set;
+
+import reactor.util.function.Tuple2;
+
+/**
+ * A pluggable recorder of the lifecycle of the sequences instrumented with
+ * {@link Flux#metrics()} or {@link Mono#metrics()}, installed with
+ * {@link Hooks#onMetrics(SequenceMetricsRecorder)}.
+ * <p>
+ * Each callback receives the name and tags of the instrumented sequence, as discovered
+ * from the upstream {@link Flux#name(String)} and {@link Flux#tag(String, String)}
+ * operators, defaulting to {@code "reactor"} and no tags. Callbacks are invoked from
+ * the threads signalling the sequences, possibly concurrently for distinct
+ * subscriptions: implementations should be thread-safe, never throw, and record into
+ * low-contention structures like {@link java.util.concurrent.atomic.LongAdder} or the
+ * histograms of a metrics library.
+ */
+public interface SequenceMetricsRecorder {
+
+	/**
+	 * A new {@link org.reactivestreams.Subscription} has been established.
+	 *
+	 * @param name the name of the sequence
+	 * @param tags the tags of the sequence
+	 */
+	default void recordSubscription(String name, Set<Tuple2<String, String>> tags) {
+	}
+
+	/**
+	 * Demand has been signalled by the subscriber.
+	 *
+	 * @param name the name of the sequence
+	 * @param tags the tags of the sequence
+	 * @param n the requested amount
+	 */
+	default void recordRequest(String name, Set<Tuple2<String, String>> tags, long n) {
+	}
+
+	/**
+	 * An element has been emitted, which is the basis for the onNext rate.
+	 *
+	 * @param name the name of the sequence
+	 * @param tags the tags of the sequence
+	 */
+	default void recordOnNext(String name, Set<Tuple2<String, String>> tags) {
+	}
+
+	/**
+	 * The first element of a subscription has been emitted.
+	 *
+	 * @param name the name of the sequence
+	 * @param tags the tags of the sequence
+	 * @param nanosSinceSubscription the time elapsed between the subscription and the
+	 * first element, in nanoseconds
+	 */
+	default void recordFirstElement(String name,
+			Set<Tuple2<String, String>> tags,
+			long nanosSinceSubscription) {
+	}
+
+	/**
+	 * A subscription has terminated, either with {@link SignalType#ON_COMPLETE},
+	 * {@link SignalType#ON_ERROR} or {@link SignalType#CANCEL}.
+	 *
+	 * @param name the name of the sequence
+	 * @param tags the tags of the sequence
+	 * @param signalType the terminating {@link SignalType}
+	 * @param nanosSinceSubscription the duration of the subscription, in nanoseconds
+	 */
+	default void recordTermination(String name,
+			Set<Tuple2<String, String>> tags,
+			SignalType signalType,
+			long nanosSinceSubscription) {
+	}
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.util.concurrent.QueueSupplier;
+
+/**
+ * Subscriber that makes sure signals are delivered sequentially in case the onNext,
+ * onError or onComplete methods are called concurrently.
+ * <p>
+ * Unlike {@link SerializedSubscriber}, producers never block each other: the first
+ * producer to win the work-in-progress counter emits directly, others offer into a
+ * lock-free multi-producer queue that the winner drains before leaving.
+ *
+ * @param <T> the value type
+ */
+final class SerializedMpscSubscriber<T> implements InnerOperator<T, T> {
+
+	static final int LINK_SIZE = 16;
+
+	final CoreSubscriber<? super T> actual;
+
+	final Queue<T> queue;
+
+	volatile int wip;
+	@SuppressWarnings("rawtypes")
+	static final AtomicIntegerFieldUpdater<SerializedMpscSubscriber> WIP =
+			AtomicIntegerFieldUpdater.newUpdater(SerializedMpscSubscriber.class, "wip");
+
+	volatile Throwable error;
+	@SuppressWarnings("rawtypes")
+	static final AtomicReferenceFieldUpdater<SerializedMpscSubscriber, Throwable> ERROR =
+			AtomicReferenceFieldUpdater.newUpdater(SerializedMpscSubscriber.class,
+					Throwable.class,
+					"error");
+
+	volatile boolean done;
+
+	volatile boolean cancelled;
+
+	Subscription s;
+
+	SerializedMpscSubscriber(CoreSubscriber<? super T> actual) {
+		this.actual = actual;
+		this.queue = QueueSupplier.<T>mpscUnbounded(LINK_SIZE).get();
+	}
+
+	@Override
+	public void onSubscribe(Subscription s) {
+		if (Operators.validate(this.s, s)) {
+			this.s = s;
+
+			actual.onSubscribe(this);
+		}
+	}
+
+	@Override
+	public void onNext(T t) {
+		if (cancelled || done) {
+			return;
+		}
+
+		if (wip == 0 && WIP.compareAndSet(this, 0, 1)) {
+			actual.onNext(t);
+			if (WIP.decrementAndGet(this) == 0) {
+				return;
+			}
+		}
+		else {
+			queue.offer(t);
+			if (WIP.getAndIncrement(this) != 0) {
+				return;
+			}
+		}
+		drainLoop();
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		if (cancelled || done) {
+			return;
+		}
+
+		if (ERROR.compareAndSet(this, null, t)) {
+			done = true;
+			drain();
+		}
+	}
+
+	@Override
+	public void onComplete() {
+		if (cancelled || done) {
+			return;
+		}
+
+		done = true;
+		drain();
+	}
+
+	@Override
+	public void request(long n) {
+		s.request(n);
+	}
+
+	@Override
+	public void cancel() {
+		cancelled = true;
+		s.cancel();
+		drain();
+	}
+
+	void drain() {
+		if (WIP.getAndIncrement(this) == 0) {
+			drainLoop();
+		}
+	}
+
+	void drainLoop() {
+		CoreSubscriber<? super T> a = actual;
+		Queue<T> q = queue;
+		int missed = 1;
+
+		for (; ; ) {
+
+			for (; ; ) {
+				if (cancelled) {
+					q.clear();
+					return;
+				}
+
+				boolean d = done;
+				T v = q.poll();
+				boolean empty = v == null;
+
+				if (d && empty) {
+					Throwable e = error;
+					if (e != null) {
+						a.onError(e);
+					}
+					else {
+						a.onComplete();
+					}
+					return;
+				}
+
+				if (empty) {
+					break;
+				}
+
+				a.onNext(v);
+			}
+
+			missed = WIP.addAndGet(this, -missed);
+			if (missed == 0) {
+				break;
+			}
+		}
+	}
+
+	@Override
+	public CoreSubscriber<? super T> actual() {
+		return actual;
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == ScannableAttr.PARENT) return s;
+		if (key == ThrowableAttr.ERROR) return error;
+		if (key == IntAttr.BUFFERED) return queue.size();
+		if (key == IntAttr.CAPACITY) return LINK_SIZE;
+		if (key == BooleanAttr.CANCELLED) return cancelled;
+		if (key == BooleanAttr.TERMINATED) return done;
+
+		return InnerOperator.super.scanUnsafe(key);
+	}
+}
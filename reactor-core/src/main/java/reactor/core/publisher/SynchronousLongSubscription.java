@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import reactor.core.Fuseable;
+
+/**
+ * A {@link Fuseable.SynchronousSubscription} over integral values that can also be
+ * polled as a primitive {@code long}, letting fused consumers that aggregate numbers
+ * skip the boxing of each value.
+ *
+ * @param <T> the boxed value type
+ */
+interface SynchronousLongSubscription<T> extends Fuseable.SynchronousSubscription<T> {
+
+	/**
+	 * Poll the next value as a primitive, which is only valid if {@link #isEmpty()}
+	 * returned false.
+	 *
+	 * @return the next value
+	 */
+	long pollLong();
+}
@@ -450,6 +450,9 @@ public final class TopicProcessor<E> extends EventLoopProcessor<E>  {
 
 		final CoreSubscriber<? super T> subscriber;
 
+		@Nullable
+		final BatchAwareSubscriber<? super T> batchAware;
+
 		final Runnable waiter = new Runnable() {
 			@Override
 			public void run() {
@@ -473,6 +476,8 @@ public final class TopicProcessor<E> extends EventLoopProcessor<E>  {
 			this.processor = processor;
 			this.pendingRequest = pendingRequest;
 			this.subscriber = subscriber;
+			this.batchAware = subscriber instanceof BatchAwareSubscriber ?
+					(BatchAwareSubscriber<? super T>) subscriber : null;
 		}
 
 		void halt() {
@@ -518,6 +523,7 @@ public final class TopicProcessor<E> extends EventLoopProcessor<E>  {
 					try {
 
 						final long availableSequence = processor.barrier.waitFor(nextSequence, waiter);
+						final long batchStart = nextSequence;
 						while (nextSequence <= availableSequence) {
 							event = processor.ringBuffer.get(nextSequence);
 
@@ -536,6 +542,9 @@ public final class TopicProcessor<E> extends EventLoopProcessor<E>  {
 								nextSequence++;
 
 						}
+						if (batchAware != null && nextSequence != batchStart) {
+							batchAware.onBatchEnd();
+						}
 						sequence.set(availableSequence);
 
 						if (Operators.emptySubscription() !=
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+import reactor.core.Exceptions;
+
+/**
+ * Utilities around the capture of the call site of an operator at assembly time, for
+ * the {@link Hooks.OperatorHook#operatorCallSite() call site} assembly tracing mode.
+ * <p>
+ * On JDK 9+, {@code java.lang.StackWalker} is used so that only the top frames up to
+ * the first user code frame are walked, and no full stack trace is ever filled in. On
+ * JDK 8 this falls back to capturing a {@link Throwable} stack trace.
+ */
+final class Traces {
+
+	/**
+	 * Find the two frames of interest for the current assembly: the last reactor
+	 * operator frame (eg. {@code Flux.map}), and the first user code frame that called it.
+	 */
+	static final Supplier<Object[]> CALL_SITE_FRAMES;
+
+	/**
+	 * Convert a frame returned by {@link #CALL_SITE_FRAMES} to a
+	 * {@link StackTraceElement}, deferred until the call site is actually displayed.
+	 */
+	static final Function<Object, StackTraceElement> TO_STACK_TRACE_ELEMENT;
+
+	static {
+		Supplier<Object[]> frames = callSiteFrames(Traces::isUserCode);
+
+		CALL_SITE_FRAMES = frames;
+		if (frames instanceof StackWalkerFrames) {
+			TO_STACK_TRACE_ELEMENT = ((StackWalkerFrames) frames)::toStackTraceElement;
+		}
+		else {
+			TO_STACK_TRACE_ELEMENT = o -> (StackTraceElement) o;
+		}
+	}
+
+	/**
+	 * Return true if the given class name isn't part of the reactor operators
+	 * implementation.
+	 *
+	 * @param className the class name of a frame
+	 * @return true if the frame is user code
+	 */
+	static boolean isUserCode(String className) {
+		return !className.startsWith("reactor.core.publisher.");
+	}
+
+	/**
+	 * Create a frames lookup stopping at the first frame matching the given filter,
+	 * using a {@code StackWalker} when available.
+	 *
+	 * @param userCode the filter recognizing user code frames from their class name
+	 * @return the frames lookup
+	 */
+	static Supplier<Object[]> callSiteFrames(Predicate<String> userCode) {
+		try {
+			return new StackWalkerFrames(userCode);
+		}
+		catch (Throwable e) {
+			return () -> throwableFrames(userCode);
+		}
+	}
+
+	static Object[] throwableFrames(Predicate<String> userCode) {
+		StackTraceElement last = null;
+		for (StackTraceElement e : new Throwable().getStackTrace()) {
+			if (userCode.test(e.getClassName())) {
+				return new Object[]{last, e};
+			}
+			last = e;
+		}
+		return new Object[]{last, null};
+	}
+
+	/**
+	 * A JDK 9+ {@code StackWalker} based frames lookup, resolved reflectively.
+	 */
+	static final class StackWalkerFrames implements Supplier<Object[]>,
+	                                                Function<Stream<?>, Object[]> {
+
+		final Predicate<String> userCode;
+		final Object            walker;
+		final MethodHandle      walk;
+		final MethodHandle      getClassName;
+		final MethodHandle      toStackTraceElement;
+
+		StackWalkerFrames(Predicate<String> userCode) throws Throwable {
+			this.userCode = userCode;
+			Class<?> walkerClass = Class.forName("java.lang.StackWalker");
+			Class<?> frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+			this.walker = lookup.findStatic(walkerClass, "getInstance",
+					MethodType.methodType(walkerClass))
+			                    .invoke();
+			this.walk = lookup.findVirtual(walkerClass, "walk",
+					MethodType.methodType(Object.class, Function.class))
+			                  .asType(MethodType.methodType(Object.class, Object.class, Function.class));
+			this.getClassName = lookup.findVirtual(frameClass, "getClassName",
+					MethodType.methodType(String.class))
+			                          .asType(MethodType.methodType(String.class, Object.class));
+			this.toStackTraceElement = lookup.findVirtual(frameClass, "toStackTraceElement",
+					MethodType.methodType(StackTraceElement.class))
+			                                 .asType(MethodType.methodType(StackTraceElement.class, Object.class));
+
+			//fail early if not usable
+			get();
+		}
+
+		@Override
+		public Object[] get() {
+			try {
+				return (Object[]) walk.invokeExact(walker, (Function) this);
+			}
+			catch (Throwable e) {
+				throw Exceptions.propagate(e);
+			}
+		}
+
+		@Override
+		public Object[] apply(Stream<?> frames) {
+			Object last = null;
+			Iterator<?> it = frames.iterator();
+			try {
+				while (it.hasNext()) {
+					Object frame = it.next();
+					if (userCode.test((String) getClassName.invokeExact(frame))) {
+						return new Object[]{last, frame};
+					}
+					last = frame;
+				}
+			}
+			catch (Throwable e) {
+				throw Exceptions.propagate(e);
+			}
+			return new Object[]{last, null};
+		}
+
+		@Nullable
+		StackTraceElement toStackTraceElement(@Nullable Object frame) {
+			if (frame == null) {
+				return null;
+			}
+			try {
+				return (StackTraceElement) toStackTraceElement.invokeExact(frame);
+			}
+			catch (Throwable e) {
+				throw Exceptions.propagate(e);
+			}
+		}
+	}
+
+	Traces() {
+	}
+}
@@ -452,6 +452,9 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 
 		final CoreSubscriber<? super T> subscriber;
 
+		@Nullable
+		final BatchAwareSubscriber<? super T> batchAware;
+
 		final Runnable waiter = new Runnable() {
 			@Override
 			public void run() {
@@ -472,6 +475,8 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 				WorkQueueProcessor<T> processor) {
 			this.processor = processor;
 			this.subscriber = subscriber;
+			this.batchAware = subscriber instanceof BatchAwareSubscriber ?
+					(BatchAwareSubscriber<? super T>) subscriber : null;
 
 			this.barrier = processor.ringBuffer.newReader();
 		}
@@ -494,6 +499,7 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 		public void run() {
 			long nextSequence;
 			boolean processedSequence = true;
+			boolean batchPending = false;
 
 			try {
 
@@ -568,10 +574,13 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 
 							processedSequence = true;
 							subscriber.onNext(event.value);
-
-
+							batchPending = batchAware != null;
 						}
 						else {
+							if (batchPending) {
+								batchPending = false;
+								batchAware.onBatchEnd();
+							}
 							processor.readWait.signalAllWhenBlocking();
 								cachedAvailableSequence =
 										barrier.waitFor(nextSequence, waiter);
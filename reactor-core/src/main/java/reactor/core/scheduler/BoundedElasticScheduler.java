@@ -0,0 +1,632 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.util.concurrent.OpenHashSet;
+
+import static reactor.core.scheduler.ExecutorServiceScheduler.CANCELLED;
+import static reactor.core.scheduler.ExecutorServiceScheduler.FINISHED;
+
+/**
+ * Dynamically creates ScheduledExecutorService-based Workers like {@link ElasticScheduler}
+ * and caches the idle thread pools for a time-to-live, but caps the number of
+ * thread pools that can be alive at the same time. This scheduler is time-capable (can
+ * schedule with delay / periodically).
+ * <p>
+ * Once {@code maxThreads} thread pools are busy, new Workers and direct tasks share the
+ * least used busy thread pool, queueing behind its current tasks. Each thread pool
+ * accepts at most {@code maxQueuedTasks} tasks that are pending execution, beyond which
+ * further tasks are rejected with {@link Scheduler#REJECTED}.
+ * <p>
+ * The default time-to-live for unused thread pools is 60 seconds, use the
+ * appropriate constructor to push a different value.
+ * <p>
+ * This scheduler is not restartable.
+ */
+final class BoundedElasticScheduler implements Scheduler, Scannable {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	static final ThreadFactory EVICTOR_FACTORY = r -> {
+		Thread t = new Thread(r, "boundedElastic-evictor-" + COUNTER.incrementAndGet());
+		t.setDaemon(true);
+		return t;
+	};
+
+	static final int DEFAULT_TTL_SECONDS = 60;
+
+	final int maxThreads;
+
+	final int maxQueuedTasks;
+
+	final ThreadFactory factory;
+
+	final int ttlSeconds;
+
+	/**
+	 * Thread pools currently used by at least a Worker or a direct task, guarded by
+	 * {@code this}.
+	 */
+	final List<BoundedState> busy;
+
+	/**
+	 * Thread pools not used by anybody, most recently released first, guarded by
+	 * {@code this}.
+	 */
+	final Deque<BoundedState> idle;
+
+	final ScheduledExecutorService evictor;
+
+	volatile boolean shutdown;
+
+	BoundedElasticScheduler(int maxThreads, int maxQueuedTasks, ThreadFactory factory,
+			int ttlSeconds) {
+		if (maxThreads <= 0) {
+			throw new IllegalArgumentException("maxThreads must be strictly positive, was: " + maxThreads);
+		}
+		if (maxQueuedTasks <= 0) {
+			throw new IllegalArgumentException("maxQueuedTasks must be strictly positive, was: " + maxQueuedTasks);
+		}
+		if (ttlSeconds < 0) {
+			throw new IllegalArgumentException("ttlSeconds must be positive, was: " + ttlSeconds);
+		}
+		this.maxThreads = maxThreads;
+		this.maxQueuedTasks = maxQueuedTasks;
+		this.factory = factory;
+		this.ttlSeconds = ttlSeconds;
+		this.busy = new ArrayList<>(maxThreads);
+		this.idle = new ArrayDeque<>(maxThreads);
+		this.evictor = Executors.newScheduledThreadPool(1, EVICTOR_FACTORY);
+		this.evictor.scheduleAtFixedRate(this::eviction,
+				ttlSeconds,
+				ttlSeconds,
+				TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Instantiates the default {@link ScheduledExecutorService} for the
+	 * BoundedElasticScheduler ({@code ScheduledThreadPoolExecutor} with a single thread
+	 * that removes cancelled tasks from its queue).
+	 */
+	ScheduledExecutorService createExecutor() {
+		ScheduledThreadPoolExecutor e = new ScheduledThreadPoolExecutor(1, factory);
+		e.setRemoveOnCancelPolicy(true);
+		return e;
+	}
+
+	@Override
+	public void start() {
+		throw new UnsupportedOperationException("Restarting not supported yet");
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return shutdown;
+	}
+
+	@Override
+	public Object scanUnsafe(Attr key) {
+		if (key == BooleanAttr.TERMINATED || key == BooleanAttr.CANCELLED) return isDisposed();
+		if (key == IntAttr.CAPACITY) return maxThreads;
+
+		List<ScheduledExecutorService> executors = new ArrayList<>();
+		synchronized (this) {
+			for (BoundedState state : busy) {
+				executors.add(state.executor);
+			}
+			for (BoundedState state : idle) {
+				executors.add(state.executor);
+			}
+		}
+		return InstrumentedExecutorService.scanExecutors(key, executors);
+	}
+
+	@Override
+	public void dispose() {
+		if (shutdown) {
+			return;
+		}
+		shutdown = true;
+
+		evictor.shutdownNow();
+
+		List<BoundedState> states;
+		synchronized (this) {
+			states = new ArrayList<>(busy);
+			states.addAll(idle);
+			busy.clear();
+			idle.clear();
+		}
+
+		for (BoundedState state : states) {
+			state.executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Pick the thread pool to run on: a cached idle one, a new one if less than
+	 * {@code maxThreads} are busy, or else the busy one currently used the least.
+	 *
+	 * @return the marked {@link BoundedState}, to be {@link #release(BoundedState)
+	 * released} once done with it
+	 */
+	BoundedState pick() {
+		if (shutdown) {
+			return BoundedState.SHUTDOWN;
+		}
+		synchronized (this) {
+			if (shutdown) {
+				return BoundedState.SHUTDOWN;
+			}
+			BoundedState state = idle.pollFirst();
+			if (state == null && busy.size() < maxThreads) {
+				state = new BoundedState(Schedulers.decorateScheduledExecutorService(
+						Schedulers.BOUNDED_ELASTIC,
+						Schedulers.schedulerName(Schedulers.BOUNDED_ELASTIC, factory),
+						this::createExecutor));
+			}
+			if (state != null) {
+				busy.add(state);
+			}
+			else {
+				for (BoundedState candidate : busy) {
+					if (state == null || candidate.markCount < state.markCount) {
+						state = candidate;
+					}
+				}
+			}
+			//noinspection ConstantConditions
+			state.markCount++;
+			return state;
+		}
+	}
+
+	void release(BoundedState state) {
+		if (state == BoundedState.SHUTDOWN) {
+			return;
+		}
+		synchronized (this) {
+			if (shutdown || --state.markCount != 0) {
+				return;
+			}
+			busy.remove(state);
+			state.idleSinceMillis = System.currentTimeMillis();
+			idle.offerFirst(state);
+		}
+	}
+
+	void eviction() {
+		long expired = System.currentTimeMillis() - ttlSeconds * 1000L;
+
+		List<BoundedState> evicted = null;
+		synchronized (this) {
+			Iterator<BoundedState> it = idle.descendingIterator();
+			while (it.hasNext()) {
+				BoundedState state = it.next();
+				if (state.idleSinceMillis >= expired) {
+					break;
+				}
+				it.remove();
+				if (evicted == null) {
+					evicted = new ArrayList<>();
+				}
+				evicted.add(state);
+			}
+		}
+
+		if (evicted != null) {
+			for (BoundedState state : evicted) {
+				state.executor.shutdownNow();
+			}
+		}
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		BoundedState state = pick();
+		DirectTask t = new DirectTask(task, state, this);
+		return t.submit(state.executor, 0L, 0L, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		BoundedState state = pick();
+		DirectTask t = new DirectTask(task, state, this);
+		return t.submit(state.executor, delay, 0L, unit);
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		BoundedState state = pick();
+		DirectTask t = new DirectTask(task, state, this);
+		return t.submit(state.executor, initialDelay, period, unit);
+	}
+
+	@Override
+	public Worker createWorker() {
+		return new BoundedWorker(pick(), this);
+	}
+
+	/**
+	 * A thread pool and its usage accounting: how many Workers and direct tasks are
+	 * marking it as busy (guarded by the parent scheduler) and how many tasks are
+	 * currently pending execution in its queue.
+	 */
+	static final class BoundedState {
+
+		static final BoundedState SHUTDOWN;
+
+		static {
+			ScheduledExecutorService s = Executors.newSingleThreadScheduledExecutor();
+			s.shutdownNow();
+			SHUTDOWN = new BoundedState(s);
+		}
+
+		final ScheduledExecutorService executor;
+
+		int  markCount;
+		long idleSinceMillis;
+
+		volatile int queued;
+		static final AtomicIntegerFieldUpdater<BoundedState> QUEUED =
+				AtomicIntegerFieldUpdater.newUpdater(BoundedState.class, "queued");
+
+		BoundedState(ScheduledExecutorService executor) {
+			this.executor = executor;
+		}
+
+		/**
+		 * Reserve a slot in the queue of pending tasks.
+		 *
+		 * @param maxQueuedTasks the capacity of the queue
+		 * @return false if the queue is full and the task should be rejected
+		 */
+		boolean tryEnqueue(int maxQueuedTasks) {
+			for (; ; ) {
+				int q = queued;
+				if (q >= maxQueuedTasks) {
+					return false;
+				}
+				if (QUEUED.compareAndSet(this, q, q + 1)) {
+					return true;
+				}
+			}
+		}
+
+		void dequeue() {
+			QUEUED.decrementAndGet(this);
+		}
+	}
+
+	/**
+	 * Base task holding a reserved queue slot until it either starts executing or is
+	 * disposed, whichever comes first.
+	 */
+	static abstract class BoundedTask extends AtomicReference<Future<?>>
+			implements Runnable, Disposable {
+
+		final Runnable    run;
+		final BoundedState state;
+
+		boolean periodic;
+
+		volatile int pending;
+		static final AtomicIntegerFieldUpdater<BoundedTask> PENDING =
+				AtomicIntegerFieldUpdater.newUpdater(BoundedTask.class, "pending");
+
+		BoundedTask(Runnable run, BoundedState state) {
+			this.run = run;
+			this.state = state;
+		}
+
+		/**
+		 * Reserve a queue slot and submit this task to the executor.
+		 *
+		 * @return this task as a {@link Disposable}, or {@link Scheduler#REJECTED}
+		 */
+		Disposable submit(ScheduledExecutorService executor,
+				long delay,
+				long period,
+				TimeUnit unit) {
+			if (!state.tryEnqueue(maxQueuedTasks())) {
+				onRejected();
+				return REJECTED;
+			}
+			pending = 1;
+			periodic = period > 0L;
+			Future<?> f;
+			try {
+				if (period > 0L) {
+					f = executor.scheduleAtFixedRate(this, delay, period, unit);
+				}
+				else if (delay > 0L) {
+					f = executor.schedule(this, delay, unit);
+				}
+				else {
+					f = executor.submit(this);
+				}
+			}
+			catch (RejectedExecutionException ex) {
+				dequeue();
+				onRejected();
+				return REJECTED;
+			}
+			setFuture(f);
+			return this;
+		}
+
+		abstract int maxQueuedTasks();
+
+		abstract void onRejected();
+
+		void dequeue() {
+			if (pending == 1 && PENDING.compareAndSet(this, 1, 0)) {
+				state.dequeue();
+			}
+		}
+
+		@Override
+		public void dispose() {
+			dequeue();
+			cancelFuture();
+		}
+
+		@Override
+		public boolean isDisposed() {
+			Future<?> f = get();
+			return f == CANCELLED || f == FINISHED;
+		}
+
+		void setFuture(Future<?> f) {
+			if (!compareAndSet(null, f)) {
+				if (get() != FINISHED) {
+					f.cancel(true);
+				}
+			}
+		}
+
+		void cancelFuture() {
+			Future<?> f = get();
+			if (f != CANCELLED && f != FINISHED) {
+				f = getAndSet(CANCELLED);
+				if (f != null && f != CANCELLED && f != FINISHED) {
+					f.cancel(true);
+				}
+			}
+		}
+	}
+
+	static final class DirectTask extends BoundedTask {
+
+		final BoundedElasticScheduler parent;
+
+		volatile int released;
+		static final AtomicIntegerFieldUpdater<DirectTask> RELEASED =
+				AtomicIntegerFieldUpdater.newUpdater(DirectTask.class, "released");
+
+		DirectTask(Runnable run, BoundedState state, BoundedElasticScheduler parent) {
+			super(run, state);
+			this.parent = parent;
+		}
+
+		@Override
+		int maxQueuedTasks() {
+			return parent.maxQueuedTasks;
+		}
+
+		@Override
+		void onRejected() {
+			releaseState();
+		}
+
+		@Override
+		public void run() {
+			dequeue();
+			try {
+				run.run();
+			}
+			catch (Throwable ex) {
+				Schedulers.handleError(ex);
+			}
+			finally {
+				//periodic tasks keep their thread pool busy until disposed
+				if (!periodic) {
+					lazySet(FINISHED);
+					releaseState();
+				}
+			}
+		}
+
+		@Override
+		public void dispose() {
+			super.dispose();
+			releaseState();
+		}
+
+		void releaseState() {
+			if (released == 0 && RELEASED.compareAndSet(this, 0, 1)) {
+				parent.release(state);
+			}
+		}
+	}
+
+	static final class BoundedWorker implements Worker {
+
+		final BoundedState state;
+
+		final BoundedElasticScheduler parent;
+
+		volatile boolean shutdown;
+
+		OpenHashSet<WorkerTask> tasks;
+
+		BoundedWorker(BoundedState state, BoundedElasticScheduler parent) {
+			this.state = state;
+			this.parent = parent;
+			this.tasks = new OpenHashSet<>();
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			return schedule(task, 0L, 0L, TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+			return schedule(task, delay, 0L, unit);
+		}
+
+		@Override
+		public Disposable schedulePeriodically(Runnable task,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			return schedule(task, initialDelay, period, unit);
+		}
+
+		Disposable schedule(Runnable task, long delay, long period, TimeUnit unit) {
+			if (shutdown) {
+				return REJECTED;
+			}
+
+			WorkerTask wt = new WorkerTask(task, this);
+
+			synchronized (this) {
+				if (shutdown) {
+					return REJECTED;
+				}
+				tasks.add(wt);
+			}
+
+			return wt.submit(state.executor, delay, period, unit);
+		}
+
+		@Override
+		public void dispose() {
+			if (shutdown) {
+				return;
+			}
+
+			OpenHashSet<WorkerTask> set;
+			synchronized (this) {
+				if (shutdown) {
+					return;
+				}
+				shutdown = true;
+				set = tasks;
+				tasks = null;
+			}
+
+			if (!set.isEmpty()) {
+				Object[] keys = set.keys();
+				for (Object o : keys) {
+					if (o != null) {
+						WorkerTask wt = (WorkerTask) o;
+						wt.dequeue();
+						wt.cancelFuture();
+					}
+				}
+			}
+
+			parent.release(state);
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return shutdown;
+		}
+
+		void remove(WorkerTask task) {
+			if (shutdown) {
+				return;
+			}
+
+			synchronized (this) {
+				if (shutdown) {
+					return;
+				}
+				tasks.remove(task);
+			}
+		}
+	}
+
+	static final class WorkerTask extends BoundedTask {
+
+		final BoundedWorker parent;
+
+		WorkerTask(Runnable run, BoundedWorker parent) {
+			super(run, parent.state);
+			this.parent = parent;
+		}
+
+		@Override
+		int maxQueuedTasks() {
+			return parent.parent.maxQueuedTasks;
+		}
+
+		@Override
+		void onRejected() {
+			parent.remove(this);
+		}
+
+		@Override
+		public void run() {
+			dequeue();
+			try {
+				if (!parent.shutdown && !isDisposed()) {
+					run.run();
+				}
+			}
+			catch (Throwable ex) {
+				Schedulers.handleError(ex);
+			}
+			finally {
+				if (!periodic) {
+					lazySet(FINISHED);
+					parent.remove(this);
+				}
+			}
+		}
+
+		@Override
+		public void dispose() {
+			super.dispose();
+			parent.remove(this);
+		}
+	}
+}
@@ -31,6 +31,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import reactor.core.Disposable;
+import reactor.core.Scannable;
 import reactor.util.concurrent.OpenHashSet;
 
 import static reactor.core.scheduler.ExecutorServiceScheduler.CANCELLED;
@@ -51,7 +52,8 @@ import static reactor.core.scheduler.ExecutorServiceScheduler.FINISHED;
  * @author Stephane Maldini
  * @author Simon Baslé
  */
-final class ElasticScheduler implements Scheduler, Supplier<ScheduledExecutorService> {
+final class ElasticScheduler implements Scheduler, Supplier<ScheduledExecutorService>,
+                                        Scannable {
 
 	static final AtomicLong COUNTER = new AtomicLong();
 
@@ -116,6 +118,14 @@ final class ElasticScheduler implements Scheduler, Supplier<ScheduledExecutorSer
 		return shutdown;
 	}
 
+	@Override
+	public Object scanUnsafe(Attr key) {
+		if (key == BooleanAttr.TERMINATED || key == BooleanAttr.CANCELLED) return isDisposed();
+		if (key == IntAttr.CAPACITY) return Integer.MAX_VALUE;
+
+		return InstrumentedExecutorService.scanExecutors(key, all);
+	}
+
 	@Override
 	public void dispose() {
 		if (shutdown) {
@@ -144,7 +154,9 @@ final class ElasticScheduler implements Scheduler, Supplier<ScheduledExecutorSer
 			return e.executor;
 		}
 
-		result = Schedulers.decorateScheduledExecutorService(Schedulers.ELASTIC, this);
+		result = Schedulers.decorateScheduledExecutorService(Schedulers.ELASTIC,
+				Schedulers.schedulerName(Schedulers.ELASTIC, factory),
+				this);
 		all.offer(result);
 		if (shutdown) {
 			all.remove(result);
@@ -27,6 +27,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import reactor.core.Disposable;
+import reactor.core.Scannable;
 import reactor.util.concurrent.OpenHashSet;
 
 /**
@@ -37,7 +38,7 @@ import reactor.util.concurrent.OpenHashSet;
  * @author Stephane Maldini
  * @author Simon Baslé
  */
-final class ExecutorServiceScheduler implements Scheduler {
+final class ExecutorServiceScheduler implements Scheduler, Scannable {
 
 	static final Runnable  EMPTY     = () -> {
 	};
@@ -47,15 +48,13 @@ final class ExecutorServiceScheduler implements Scheduler {
 	final ExecutorService executor;
 	final boolean         interruptOnCancel;
 
-	ExecutorServiceScheduler(ExecutorService executorService, boolean interruptOnCancel) {
-		if (executorService instanceof ScheduledExecutorService) {
-			this.executor = Schedulers.decorateScheduledExecutorService("ExecutorService",
-					() -> (ScheduledExecutorService) executorService);
-		}
-		else {
-			this.executor = Schedulers.decorateExecutorService("ExecutorService",
-					() -> executorService);
-		}
+	/**
+	 * @param executor the already decorated {@link ExecutorService}, see
+	 * {@link Schedulers#fromExecutorService(ExecutorService, boolean)}
+	 * @param interruptOnCancel whether to interrupt the running tasks on cancel
+	 */
+	ExecutorServiceScheduler(ExecutorService executor, boolean interruptOnCancel) {
+		this.executor = executor;
 		this.interruptOnCancel = interruptOnCancel;
 	}
 
@@ -115,6 +114,15 @@ final class ExecutorServiceScheduler implements Scheduler {
 		return executor.isShutdown();
 	}
 
+	@Override
+	public Object scanUnsafe(Attr key) {
+		if (key == BooleanAttr.TERMINATED || key == BooleanAttr.CANCELLED) return isDisposed();
+		if (executor instanceof InstrumentedExecutorService) {
+			return ((InstrumentedExecutorService) executor).scanUnsafe(key);
+		}
+		return null;
+	}
+
 	@Override
 	public void dispose() {
 		Schedulers.executorServiceShutdown(executor, "ExecutorService");
@@ -0,0 +1,444 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+
+import reactor.core.Scannable;
+
+/**
+ * An {@link ExecutorService} decorator that times every task it runs, reporting to a
+ * {@link SchedulerMetricsRecorder} and exposing its counters as {@link Scannable}
+ * attributes.
+ *
+ * @see Schedulers#enableMetrics(SchedulerMetricsRecorder)
+ */
+class InstrumentedExecutorService implements ExecutorService, Scannable {
+
+	final ExecutorService          delegate;
+	final String                   schedulerType;
+	final String                   schedulerName;
+	final SchedulerMetricsRecorder recorder;
+
+	final LongAdder submitted = new LongAdder();
+	final LongAdder completed = new LongAdder();
+
+	volatile int active;
+	static final AtomicIntegerFieldUpdater<InstrumentedExecutorService> ACTIVE =
+			AtomicIntegerFieldUpdater.newUpdater(InstrumentedExecutorService.class, "active");
+
+	InstrumentedExecutorService(ExecutorService delegate,
+			String schedulerType,
+			String schedulerName,
+			SchedulerMetricsRecorder recorder) {
+		this.delegate = delegate;
+		this.schedulerType = schedulerType;
+		this.schedulerName = schedulerName;
+		this.recorder = recorder;
+	}
+
+	/**
+	 * Decorate the given {@link ExecutorService}, keeping it a
+	 * {@link ScheduledExecutorService} if it was one.
+	 */
+	static ExecutorService instrument(ExecutorService delegate,
+			String schedulerType,
+			String schedulerName,
+			SchedulerMetricsRecorder recorder) {
+		if (delegate instanceof InstrumentedExecutorService) {
+			return delegate;
+		}
+		if (delegate instanceof ScheduledExecutorService) {
+			return new Scheduled((ScheduledExecutorService) delegate,
+					schedulerType,
+					schedulerName,
+					recorder);
+		}
+		return new InstrumentedExecutorService(delegate, schedulerType, schedulerName, recorder);
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == BooleanAttr.TERMINATED) return delegate.isTerminated();
+		if (key == BooleanAttr.CANCELLED) return delegate.isShutdown();
+		if (key == IntAttr.ACTIVE_TASKS) return active;
+		if (key == LongAttr.TASKS_SUBMITTED) return submitted.sum();
+		if (key == LongAttr.TASKS_COMPLETED) return completed.sum();
+		if (key == IntAttr.BUFFERED) {
+			if (delegate instanceof ThreadPoolExecutor) {
+				return ((ThreadPoolExecutor) delegate).getQueue().size();
+			}
+			if (delegate instanceof ForkJoinPool) {
+				return (int) Math.min(Integer.MAX_VALUE,
+						((ForkJoinPool) delegate).getQueuedSubmissionCount() +
+								((ForkJoinPool) delegate).getQueuedTaskCount());
+			}
+			return null;
+		}
+		if (key == IntAttr.CAPACITY) {
+			if (delegate instanceof ThreadPoolExecutor) {
+				return ((ThreadPoolExecutor) delegate).getMaximumPoolSize();
+			}
+			if (delegate instanceof ForkJoinPool) {
+				return ((ForkJoinPool) delegate).getParallelism();
+			}
+			return null;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Sum an int attribute over several executors, skipping the ones that aren't
+	 * instrumented.
+	 *
+	 * @return the sum, or null if none of the executors exposes the attribute
+	 */
+	@Nullable
+	static Integer sumInt(IntAttr key, Iterable<? extends ExecutorService> executors) {
+		Integer sum = null;
+		for (ExecutorService e : executors) {
+			if (e instanceof InstrumentedExecutorService) {
+				Object v = ((InstrumentedExecutorService) e).scanUnsafe(key);
+				if (v != null) {
+					sum = (sum == null ? 0 : sum) + (Integer) v;
+				}
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Sum a long attribute over several executors, skipping the ones that aren't
+	 * instrumented.
+	 *
+	 * @return the sum, or null if none of the executors exposes the attribute
+	 */
+	@Nullable
+	static Long sumLong(LongAttr key, Iterable<? extends ExecutorService> executors) {
+		Long sum = null;
+		for (ExecutorService e : executors) {
+			if (e instanceof InstrumentedExecutorService) {
+				Object v = ((InstrumentedExecutorService) e).scanUnsafe(key);
+				if (v != null) {
+					sum = (sum == null ? 0L : sum) + (Long) v;
+				}
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Scan the scheduler-level attributes that can be derived from the backing
+	 * executors.
+	 *
+	 * @return the value or null if not available from the executors
+	 */
+	@Nullable
+	static Object scanExecutors(Attr key, Iterable<? extends ExecutorService> executors) {
+		if (key == IntAttr.BUFFERED || key == IntAttr.ACTIVE_TASKS) {
+			return sumInt((IntAttr) key, executors);
+		}
+		if (key == LongAttr.TASKS_SUBMITTED || key == LongAttr.TASKS_COMPLETED) {
+			return sumLong((LongAttr) key, executors);
+		}
+		return null;
+	}
+
+	void onSubmit() {
+		submitted.increment();
+		recorder.taskSubmitted(schedulerType, schedulerName);
+	}
+
+	long onStart(long dueNanos) {
+		long start = System.nanoTime();
+		ACTIVE.incrementAndGet(this);
+		recorder.taskStarted(schedulerType, schedulerName, Math.max(0L, start - dueNanos));
+		return start;
+	}
+
+	void onComplete(long startNanos) {
+		long end = System.nanoTime();
+		ACTIVE.decrementAndGet(this);
+		completed.increment();
+		recorder.taskCompleted(schedulerType, schedulerName, end - startNanos);
+	}
+
+	<T> Callable<T> wrap(Callable<T> task) {
+		return new TimedCallable<>(task, this);
+	}
+
+	Runnable wrap(Runnable task) {
+		return new TimedRunnable(task, this, System.nanoTime(), 0L);
+	}
+
+	<T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> tasks) {
+		List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+		for (Callable<T> task : tasks) {
+			wrapped.add(wrap(task));
+		}
+		return wrapped;
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		delegate.execute(wrap(command));
+		onSubmit();
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		Future<?> f = delegate.submit(wrap(task));
+		onSubmit();
+		return f;
+	}
+
+	@Override
+	public <T> Future<T> submit(Runnable task, T result) {
+		Future<T> f = delegate.submit(wrap(task), result);
+		onSubmit();
+		return f;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		Future<T> f = delegate.submit(wrap(task));
+		onSubmit();
+		return f;
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks)
+			throws InterruptedException {
+		List<Callable<T>> wrapped = wrapAll(tasks);
+		submitted.add(wrapped.size());
+		return delegate.invokeAll(wrapped);
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks,
+			long timeout,
+			TimeUnit unit) throws InterruptedException {
+		List<Callable<T>> wrapped = wrapAll(tasks);
+		submitted.add(wrapped.size());
+		return delegate.invokeAll(wrapped, timeout, unit);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+			throws InterruptedException, ExecutionException {
+		List<Callable<T>> wrapped = wrapAll(tasks);
+		submitted.add(wrapped.size());
+		return delegate.invokeAny(wrapped);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks,
+			long timeout,
+			TimeUnit unit)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		List<Callable<T>> wrapped = wrapAll(tasks);
+		submitted.add(wrapped.size());
+		return delegate.invokeAny(wrapped, timeout, unit);
+	}
+
+	@Override
+	public void shutdown() {
+		delegate.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		return delegate.shutdownNow();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return delegate.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return delegate.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit)
+			throws InterruptedException {
+		return delegate.awaitTermination(timeout, unit);
+	}
+
+	@Override
+	public String toString() {
+		return "Instrumented[" + schedulerType + "](" + delegate + ")";
+	}
+
+	/**
+	 * A timed {@link Runnable}, which tracks when its next execution is due in order to
+	 * measure how long it waited in the queue, including when periodic.
+	 */
+	static final class TimedRunnable implements Runnable {
+
+		final Runnable                    task;
+		final InstrumentedExecutorService parent;
+		final long                        periodNanos;
+
+		long dueNanos;
+
+		TimedRunnable(Runnable task,
+				InstrumentedExecutorService parent,
+				long dueNanos,
+				long periodNanos) {
+			this.task = task;
+			this.parent = parent;
+			this.dueNanos = dueNanos;
+			this.periodNanos = periodNanos;
+		}
+
+		@Override
+		public void run() {
+			long start = parent.onStart(dueNanos);
+			try {
+				task.run();
+			}
+			finally {
+				parent.onComplete(start);
+				if (periodNanos > 0L) {
+					dueNanos += periodNanos;
+				}
+				else if (periodNanos < 0L) {
+					//fixed delay
+					dueNanos = System.nanoTime() - periodNanos;
+				}
+			}
+		}
+
+		@Override
+		public String toString() {
+			return task.toString();
+		}
+	}
+
+	static final class TimedCallable<T> implements Callable<T> {
+
+		final Callable<T>                 task;
+		final InstrumentedExecutorService parent;
+		final long                        dueNanos;
+
+		TimedCallable(Callable<T> task, InstrumentedExecutorService parent) {
+			this.task = task;
+			this.parent = parent;
+			this.dueNanos = System.nanoTime();
+		}
+
+		TimedCallable(Callable<T> task, InstrumentedExecutorService parent, long dueNanos) {
+			this.task = task;
+			this.parent = parent;
+			this.dueNanos = dueNanos;
+		}
+
+		@Override
+		public T call() throws Exception {
+			long start = parent.onStart(dueNanos);
+			try {
+				return task.call();
+			}
+			finally {
+				parent.onComplete(start);
+			}
+		}
+	}
+
+	/**
+	 * The {@link ScheduledExecutorService} flavor of the decorator.
+	 */
+	static final class Scheduled extends InstrumentedExecutorService
+			implements ScheduledExecutorService {
+
+		final ScheduledExecutorService scheduledDelegate;
+
+		Scheduled(ScheduledExecutorService delegate,
+				String schedulerType,
+				String schedulerName,
+				SchedulerMetricsRecorder recorder) {
+			super(delegate, schedulerType, schedulerName, recorder);
+			this.scheduledDelegate = delegate;
+		}
+
+		@Override
+		public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+			long due = System.nanoTime() + unit.toNanos(delay);
+			ScheduledFuture<?> f = scheduledDelegate.schedule(
+					new TimedRunnable(command, this, due, 0L), delay, unit);
+			onSubmit();
+			return f;
+		}
+
+		@Override
+		public <V> ScheduledFuture<V> schedule(Callable<V> callable,
+				long delay,
+				TimeUnit unit) {
+			long due = System.nanoTime() + unit.toNanos(delay);
+			ScheduledFuture<V> f = scheduledDelegate.schedule(
+					new TimedCallable<>(callable, this, due), delay, unit);
+			onSubmit();
+			return f;
+		}
+
+		@Override
+		public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			long due = System.nanoTime() + unit.toNanos(initialDelay);
+			ScheduledFuture<?> f = scheduledDelegate.scheduleAtFixedRate(
+					new TimedRunnable(command, this, due, Math.max(1L, unit.toNanos(period))),
+					initialDelay, period, unit);
+			onSubmit();
+			return f;
+		}
+
+		@Override
+		public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+				long initialDelay,
+				long delay,
+				TimeUnit unit) {
+			long due = System.nanoTime() + unit.toNanos(initialDelay);
+			ScheduledFuture<?> f = scheduledDelegate.scheduleWithFixedDelay(
+					new TimedRunnable(command, this, due, -Math.max(1L, unit.toNanos(delay))),
+					initialDelay, delay, unit);
+			onSubmit();
+			return f;
+		}
+	}
+}
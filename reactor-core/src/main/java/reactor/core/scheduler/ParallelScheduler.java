@@ -15,6 +15,7 @@
  */
 package reactor.core.scheduler;
 
+import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -27,6 +28,7 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Supplier;
 
 import reactor.core.Disposable;
+import reactor.core.Scannable;
 import reactor.util.concurrent.OpenHashSet;
 
 /**
@@ -37,7 +39,8 @@ import reactor.util.concurrent.OpenHashSet;
  * @author Stephane Maldini
  * @author Simon Baslé
  */
-final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorService> {
+final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorService>,
+                                         Scannable {
 
     static final AtomicLong COUNTER = new AtomicLong();
 
@@ -80,7 +83,8 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
     void init(int n) {
         ScheduledExecutorService[] a = new ScheduledExecutorService[n];
         for (int i = 0; i < n; i++) {
-            a[i] = Schedulers.decorateScheduledExecutorService(Schedulers.PARALLEL, this);
+            a[i] = Schedulers.decorateScheduledExecutorService(Schedulers.PARALLEL,
+                    Schedulers.schedulerName(Schedulers.PARALLEL, factory), this);
         }
         EXECUTORS.lazySet(this, a);
     }
@@ -107,7 +111,8 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
             if (b == null) {
                 b = new ScheduledExecutorService[n];
                 for (int i = 0; i < n; i++) {
-                    b[i] = Schedulers.decorateScheduledExecutorService(Schedulers.PARALLEL, this);
+                    b[i] = Schedulers.decorateScheduledExecutorService(Schedulers.PARALLEL,
+                            Schedulers.schedulerName(Schedulers.PARALLEL, factory), this);
                 }
             }
             
@@ -117,6 +122,14 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
         }
     }
 
+    @Override
+    public Object scanUnsafe(Attr key) {
+        if (key == BooleanAttr.TERMINATED || key == BooleanAttr.CANCELLED) return isDisposed();
+        if (key == IntAttr.CAPACITY) return n;
+
+        return InstrumentedExecutorService.scanExecutors(key, Arrays.asList(executors));
+    }
+
     @Override
     public void dispose() {
         ScheduledExecutorService[] a = executors;
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+/**
+ * A pluggable recorder of the tasks lifecycle in the {@link java.util.concurrent.ExecutorService}
+ * instances backing the {@link Scheduler Schedulers}, installed with
+ * {@link Schedulers#enableMetrics(SchedulerMetricsRecorder)}.
+ * <p>
+ * Implementations are called from the submitting and executing threads, concurrently,
+ * and should thus be thread-safe and fast, typically feeding histograms or counters of
+ * a metrics library. Each callback receives the {@code schedulerType} hinting at the
+ * flavor of Scheduler the task runs on (eg. "parallel", "elastic", "single"), and the
+ * {@code schedulerName} identifying the Scheduler instance itself: the name given to
+ * {@link Schedulers#newParallel(String, int)} and the like, or a name derived from the
+ * executor identity for {@link Schedulers#fromExecutorService(java.util.concurrent.ExecutorService)}.
+ */
+public interface SchedulerMetricsRecorder {
+
+	/**
+	 * A task has been accepted by an executor of the given Scheduler type.
+	 *
+	 * @param schedulerType a name hinting at the flavor of Scheduler
+	 * @param schedulerName the name of the Scheduler instance
+	 */
+	default void taskSubmitted(String schedulerType, String schedulerName) {
+	}
+
+	/**
+	 * A task starts executing, after having waited in the executor queue. For delayed
+	 * and periodic tasks, the wait is measured from the time the task was due.
+	 *
+	 * @param schedulerType a name hinting at the flavor of Scheduler
+	 * @param schedulerName the name of the Scheduler instance
+	 * @param queueWaitNanos the time the task waited before execution, in nanoseconds
+	 */
+	default void taskStarted(String schedulerType, String schedulerName, long queueWaitNanos) {
+	}
+
+	/**
+	 * A task has finished executing, either normally or by throwing.
+	 *
+	 * @param schedulerType a name hinting at the flavor of Scheduler
+	 * @param schedulerName the name of the Scheduler instance
+	 * @param executionNanos the time spent executing the task, in nanoseconds
+	 */
+	default void taskCompleted(String schedulerType, String schedulerName, long executionNanos) {
+	}
+}
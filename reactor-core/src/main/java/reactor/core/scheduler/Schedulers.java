@@ -16,9 +16,13 @@
 
 package reactor.core.scheduler;
 
+import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -29,6 +33,7 @@ import java.util.function.Supplier;
 
 import reactor.core.Disposable;
 import reactor.core.Exceptions;
+import reactor.core.Scannable;
 import reactor.util.Logger;
 import reactor.util.Loggers;
 
@@ -61,6 +66,8 @@ public abstract class Schedulers {
 
 	static volatile BiConsumer<Thread, ? super Throwable> onHandleErrorHook;
 
+	static volatile SchedulerMetricsRecorder metricsRecorder;
+
 	/**
 	 * Create a {@link Scheduler} which uses a backing {@link Executor} to schedule
 	 * Runnables for async operators.
@@ -105,6 +112,10 @@ public abstract class Schedulers {
 	/**
 	 * Create a {@link Scheduler} which uses a backing {@link ExecutorService} to schedule
 	 * Runnables for async operators.
+	 * <p>
+	 * The {@link ExecutorService} is decorated by the {@link Factory}, and instrumented
+	 * if the metrics are {@link #enableMetrics(SchedulerMetricsRecorder) enabled}, under a
+	 * {@code schedulerName} derived from its identity.
 	 *
 	 * @param executorService an {@link ExecutorService}
 	 * @param interruptOnCancel delegate to {@link java.util.concurrent.Future#cancel(boolean)
@@ -114,7 +125,17 @@ public abstract class Schedulers {
 	 */
 	public static Scheduler fromExecutorService(ExecutorService executorService,
 			boolean interruptOnCancel) {
-		return new ExecutorServiceScheduler(executorService, interruptOnCancel);
+		String name = EXECUTOR_SERVICE + "@" +
+				Integer.toHexString(System.identityHashCode(executorService));
+		ExecutorService executor;
+		if (executorService instanceof ScheduledExecutorService) {
+			executor = decorateScheduledExecutorService(EXECUTOR_SERVICE, name,
+					() -> (ScheduledExecutorService) executorService);
+		}
+		else {
+			executor = decorateExecutorService(EXECUTOR_SERVICE, name, () -> executorService);
+		}
+		return new ExecutorServiceScheduler(executor, interruptOnCancel);
 	}
 
 	/**
@@ -223,6 +244,107 @@ public abstract class Schedulers {
 		return factory.newElastic(ttlSeconds, threadFactory);
 	}
 
+	/**
+	 * {@link Scheduler} that dynamically creates a bounded number of ExecutorService-based
+	 * Workers, reusing them once the Workers have been shut down. The underlying
+	 * thread pools are single-threaded and at most {@code maxThreads} of them can be
+	 * alive at the same time, after which new Workers share the least used thread pool.
+	 * <p>
+	 * Each thread pool accepts at most {@code maxQueuedTasks} tasks pending execution,
+	 * further tasks are rejected until some of them have run.
+	 * <p>
+	 * The default time-to-live for unused thread pools is 60 seconds, use the appropriate
+	 * factory to push a different value.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param maxThreads maximum number of underlying threads to create
+	 * @param maxQueuedTasks maximum number of tasks waiting for execution on each thread
+	 * @param name Thread prefix
+	 *
+	 * @return a new {@link Scheduler} that dynamically creates a bounded number of
+	 * ExecutorService-based Workers and is suited for blocking work
+	 */
+	public static Scheduler newBoundedElastic(int maxThreads, int maxQueuedTasks, String name) {
+		return newBoundedElastic(maxThreads, maxQueuedTasks, name,
+				BoundedElasticScheduler.DEFAULT_TTL_SECONDS);
+	}
+
+	/**
+	 * {@link Scheduler} that dynamically creates a bounded number of ExecutorService-based
+	 * Workers, reusing them once the Workers have been shut down. The underlying
+	 * thread pools are single-threaded and at most {@code maxThreads} of them can be
+	 * alive at the same time, after which new Workers share the least used thread pool.
+	 * <p>
+	 * Each thread pool accepts at most {@code maxQueuedTasks} tasks pending execution,
+	 * further tasks are rejected until some of them have run.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param maxThreads maximum number of underlying threads to create
+	 * @param maxQueuedTasks maximum number of tasks waiting for execution on each thread
+	 * @param name Thread prefix
+	 * @param ttlSeconds Time-to-live for an idle {@link reactor.core.scheduler.Scheduler.Worker}
+	 *
+	 * @return a new {@link Scheduler} that dynamically creates a bounded number of
+	 * ExecutorService-based Workers and is suited for blocking work
+	 */
+	public static Scheduler newBoundedElastic(int maxThreads, int maxQueuedTasks,
+			String name, int ttlSeconds) {
+		return newBoundedElastic(maxThreads, maxQueuedTasks, name, ttlSeconds, false);
+	}
+
+	/**
+	 * {@link Scheduler} that dynamically creates a bounded number of ExecutorService-based
+	 * Workers, reusing them once the Workers have been shut down. The underlying
+	 * thread pools are single-threaded and at most {@code maxThreads} of them can be
+	 * alive at the same time, after which new Workers share the least used thread pool.
+	 * <p>
+	 * Each thread pool accepts at most {@code maxQueuedTasks} tasks pending execution,
+	 * further tasks are rejected until some of them have run.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param maxThreads maximum number of underlying threads to create
+	 * @param maxQueuedTasks maximum number of tasks waiting for execution on each thread
+	 * @param name Thread prefix
+	 * @param ttlSeconds Time-to-live for an idle {@link reactor.core.scheduler.Scheduler.Worker}
+	 * @param daemon false if the {@link Scheduler} requires an explicit {@link
+	 * Scheduler#dispose()} to exit the VM.
+	 *
+	 * @return a new {@link Scheduler} that dynamically creates a bounded number of
+	 * ExecutorService-based Workers and is suited for blocking work
+	 */
+	public static Scheduler newBoundedElastic(int maxThreads, int maxQueuedTasks,
+			String name, int ttlSeconds, boolean daemon) {
+		return newBoundedElastic(maxThreads, maxQueuedTasks, ttlSeconds,
+				new SchedulerThreadFactory(name, daemon, BoundedElasticScheduler.COUNTER));
+	}
+
+	/**
+	 * {@link Scheduler} that dynamically creates a bounded number of ExecutorService-based
+	 * Workers, reusing them once the Workers have been shut down. The underlying
+	 * thread pools are single-threaded and at most {@code maxThreads} of them can be
+	 * alive at the same time, after which new Workers share the least used thread pool.
+	 * <p>
+	 * Each thread pool accepts at most {@code maxQueuedTasks} tasks pending execution,
+	 * further tasks are rejected until some of them have run.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param maxThreads maximum number of underlying threads to create
+	 * @param maxQueuedTasks maximum number of tasks waiting for execution on each thread
+	 * @param ttlSeconds Time-to-live for an idle {@link reactor.core.scheduler.Scheduler.Worker}
+	 * @param threadFactory a {@link ThreadFactory} to use each thread initialization
+	 *
+	 * @return a new {@link Scheduler} that dynamically creates a bounded number of
+	 * ExecutorService-based Workers and is suited for blocking work
+	 */
+	public static Scheduler newBoundedElastic(int maxThreads, int maxQueuedTasks,
+			int ttlSeconds, ThreadFactory threadFactory) {
+		return factory.newBoundedElastic(maxThreads, maxQueuedTasks, ttlSeconds, threadFactory);
+	}
+
 	/**
 	 * {@link Scheduler} that hosts a fixed pool of single-threaded ExecutorService-based
 	 * workers and is suited for parallel work.
@@ -283,6 +405,141 @@ public abstract class Schedulers {
 		return factory.newParallel(parallelism, threadFactory);
 	}
 
+	/**
+	 * {@link Scheduler} that hosts a work-stealing {@link java.util.concurrent.ForkJoinPool}
+	 * sized to the number of available processors and is suited for parallel work with
+	 * uneven task durations. Each Worker runs its tasks serially but isn't pinned to a
+	 * thread, letting idle threads pick up workers stuck behind a long task.
+	 * <p>
+	 * This scheduler is not time-capable.
+	 *
+	 * @param name Thread prefix
+	 *
+	 * @return a new {@link Scheduler} that hosts a work-stealing pool of threads
+	 */
+	public static Scheduler newWorkStealing(String name) {
+		return newWorkStealing(name, Runtime.getRuntime()
+		                                    .availableProcessors());
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a work-stealing {@link java.util.concurrent.ForkJoinPool}
+	 * and is suited for parallel work with uneven task durations. Each Worker runs its
+	 * tasks serially but isn't pinned to a thread, letting idle threads pick up workers
+	 * stuck behind a long task.
+	 * <p>
+	 * This scheduler is not time-capable.
+	 *
+	 * @param name Thread prefix
+	 * @param parallelism Number of pooled threads.
+	 *
+	 * @return a new {@link Scheduler} that hosts a work-stealing pool of threads
+	 */
+	public static Scheduler newWorkStealing(String name, int parallelism) {
+		return newWorkStealing(name, parallelism, false);
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a work-stealing {@link java.util.concurrent.ForkJoinPool}
+	 * and is suited for parallel work with uneven task durations. Each Worker runs its
+	 * tasks serially but isn't pinned to a thread, letting idle threads pick up workers
+	 * stuck behind a long task.
+	 * <p>
+	 * This scheduler is not time-capable.
+	 *
+	 * @param name Thread prefix
+	 * @param parallelism Number of pooled threads.
+	 * @param daemon false if the {@link Scheduler} requires an explicit {@link
+	 * Scheduler#dispose()} to exit the VM.
+	 *
+	 * @return a new {@link Scheduler} that hosts a work-stealing pool of threads
+	 */
+	public static Scheduler newWorkStealing(String name, int parallelism, boolean daemon) {
+		return newWorkStealing(parallelism,
+				new SchedulerThreadFactory(name, daemon, WorkStealingScheduler.COUNTER));
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a work-stealing {@link java.util.concurrent.ForkJoinPool}
+	 * and is suited for parallel work with uneven task durations. Each Worker runs its
+	 * tasks serially but isn't pinned to a thread, letting idle threads pick up workers
+	 * stuck behind a long task.
+	 * <p>
+	 * This scheduler is not time-capable.
+	 *
+	 * @param parallelism Number of pooled threads.
+	 * @param threadFactory a {@link ThreadFactory} used as a template for the name,
+	 * daemon status and uncaught exception handler of the pool threads, or creating them
+	 * directly if it is also a {@link ForkJoinWorkerThreadFactory}
+	 *
+	 * @return a new {@link Scheduler} that hosts a work-stealing pool of threads
+	 */
+	public static Scheduler newWorkStealing(int parallelism, ThreadFactory threadFactory) {
+		return factory.newWorkStealing(parallelism, threadFactory);
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a hashed timer wheel advanced by a single daemon
+	 * thread and is suited for large amounts of delayed tasks that don't need a precise
+	 * firing time, like the timeouts of in-flight requests. Scheduling and cancelling a
+	 * task are O(1), a task firing on the first tick at or after its deadline.
+	 * <p>
+	 * Tasks run on the wheel thread and should be short and non-blocking. Operators like
+	 * {@link reactor.core.publisher.Flux#timeout(Duration, Scheduler)} or
+	 * {@link reactor.core.publisher.Flux#bufferTimeout(int, Duration, Scheduler)} can use
+	 * it as their timer.
+	 *
+	 * @param tickDuration the duration of a tick, ie. the precision of the timers
+	 * @param wheelSize number of buckets of the wheel, rounded up to a power of two.
+	 * Delays longer than {@code tickDuration * wheelSize} take several turns of the wheel
+	 *
+	 * @return a new {@link Scheduler} that hosts a hashed timer wheel
+	 */
+	public static Scheduler newTimerWheel(Duration tickDuration, int wheelSize) {
+		return newTimerWheel(TIMER_WHEEL, tickDuration, wheelSize, true);
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a hashed timer wheel advanced by a single thread and
+	 * is suited for large amounts of delayed tasks that don't need a precise firing time,
+	 * like the timeouts of in-flight requests. Scheduling and cancelling a task are O(1),
+	 * a task firing on the first tick at or after its deadline.
+	 * <p>
+	 * Tasks run on the wheel thread and should be short and non-blocking.
+	 *
+	 * @param name Thread name prefix
+	 * @param tickDuration the duration of a tick, ie. the precision of the timers
+	 * @param wheelSize number of buckets of the wheel, rounded up to a power of two
+	 * @param daemon false if the {@link Scheduler} requires an explicit {@link
+	 * Scheduler#dispose()} to exit the VM.
+	 *
+	 * @return a new {@link Scheduler} that hosts a hashed timer wheel
+	 */
+	public static Scheduler newTimerWheel(String name, Duration tickDuration,
+			int wheelSize, boolean daemon) {
+		return newTimerWheel(tickDuration, wheelSize,
+				new SchedulerThreadFactory(name, daemon, TimerWheelScheduler.COUNTER));
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a hashed timer wheel advanced by a single thread and
+	 * is suited for large amounts of delayed tasks that don't need a precise firing time,
+	 * like the timeouts of in-flight requests. Scheduling and cancelling a task are O(1),
+	 * a task firing on the first tick at or after its deadline.
+	 * <p>
+	 * Tasks run on the wheel thread and should be short and non-blocking.
+	 *
+	 * @param tickDuration the duration of a tick, ie. the precision of the timers
+	 * @param wheelSize number of buckets of the wheel, rounded up to a power of two
+	 * @param threadFactory a {@link ThreadFactory} to use for the wheel thread
+	 *
+	 * @return a new {@link Scheduler} that hosts a hashed timer wheel
+	 */
+	public static Scheduler newTimerWheel(Duration tickDuration, int wheelSize,
+			ThreadFactory threadFactory) {
+		return factory.newTimerWheel(tickDuration, wheelSize, threadFactory);
+	}
+
 	/**
 	 * {@link Scheduler} that hosts a single-threaded ExecutorService-based worker and is
 	 * suited for parallel work.
@@ -339,6 +596,39 @@ public abstract class Schedulers {
 		onHandleErrorHook = Objects.requireNonNull(c, "onHandleError");
 	}
 
+	/**
+	 * Instrument the {@link ExecutorService} instances backing the {@link Scheduler}
+	 * created from now on, on top of any {@link Factory} decoration. Each task
+	 * submission, queue wait and execution time is reported to the given
+	 * {@link SchedulerMetricsRecorder}, while the schedulers expose the submitted and
+	 * completed task counts, the number of active and pending tasks as {@link Scannable}
+	 * attributes ({@link Scannable.LongAttr#TASKS_SUBMITTED},
+	 * {@link Scannable.LongAttr#TASKS_COMPLETED}, {@link Scannable.IntAttr#ACTIVE_TASKS}
+	 * and {@link Scannable.IntAttr#BUFFERED}).
+	 * <p>
+	 * Like {@link #setFactory(Factory)}, this also shuts down the cached Schedulers so
+	 * that they get re-created instrumented upon next use.
+	 *
+	 * @param recorder the {@link SchedulerMetricsRecorder} to report to
+	 */
+	public static void enableMetrics(SchedulerMetricsRecorder recorder) {
+		Objects.requireNonNull(recorder, "recorder");
+		log.info("Hooking new default: enableMetrics");
+		shutdownNow();
+		metricsRecorder = recorder;
+	}
+
+	/**
+	 * Stop instrumenting the {@link ExecutorService} instances backing the
+	 * {@link Scheduler} created from now on, and shut down the cached Schedulers.
+	 * Already instrumented schedulers keep on reporting.
+	 */
+	public static void disableMetrics() {
+		log.info("Scheduler metrics disabled");
+		shutdownNow();
+		metricsRecorder = null;
+	}
+
 	/**
 	 * {@link Scheduler} that hosts a fixed pool of single-threaded ExecutorService-based
 	 * workers and is suited for parallel work.
@@ -367,10 +657,11 @@ public abstract class Schedulers {
 
 	/**
 	 * Replace {@link Schedulers} factories ({@link #newParallel(String) newParallel},
-	 * {@link #newSingle(String) newSingle} and {@link #newElastic(String) newElastic}). Also
-	 * shutdown Schedulers from the cached factories (like {@link #single()}) in order to
-	 * also use these replacements, re-creating the shared schedulers from the new factory
-	 * upon next use.
+	 * {@link #newSingle(String) newSingle}, {@link #newElastic(String) newElastic} and
+	 * {@link #newBoundedElastic(int, int, String) newBoundedElastic}). Also shutdown
+	 * Schedulers from the cached factories (like {@link #single()}) in order to also use
+	 * these replacements, re-creating the shared schedulers from the new factory upon
+	 * next use.
 	 * <p>
 	 * This method should be called safely and with caution, typically on app startup.
 	 *
@@ -487,6 +778,30 @@ public abstract class Schedulers {
 			return new ElasticScheduler(threadFactory, ttlSeconds);
 		}
 
+		/**
+		 * {@link Scheduler} that dynamically creates a bounded number of Workers
+		 * resources and caches eventually, reusing them once the Workers have been shut
+		 * down.
+		 * <p>
+		 * At most {@code maxThreads} workers resources are alive at the same time, each
+		 * one queueing at most {@code maxQueuedTasks} pending tasks.
+		 *
+		 * @param maxThreads maximum number of underlying threads to create
+		 * @param maxQueuedTasks maximum number of tasks waiting for execution on each
+		 * thread
+		 * @param ttlSeconds Time-to-live for an idle {@link reactor.core.scheduler.Scheduler.Worker}
+		 * @param threadFactory a {@link ThreadFactory} to use
+		 *
+		 * @return a new {@link Scheduler} that dynamically creates a bounded number of
+		 * Workers resources and caches eventually, reusing them once the Workers have
+		 * been shut down.
+		 */
+		default Scheduler newBoundedElastic(int maxThreads, int maxQueuedTasks,
+				int ttlSeconds, ThreadFactory threadFactory) {
+			return new BoundedElasticScheduler(maxThreads, maxQueuedTasks, threadFactory,
+					ttlSeconds);
+		}
+
 		/**
 		 * {@link Scheduler} that hosts a fixed pool of workers and is suited for parallel
 		 * work.
@@ -502,6 +817,35 @@ public abstract class Schedulers {
 			return new ParallelScheduler(parallelism, threadFactory);
 		}
 
+		/**
+		 * {@link Scheduler} that hosts a work-stealing pool of threads and is suited for
+		 * parallel work with uneven task durations.
+		 *
+		 * @param parallelism Number of pooled threads.
+		 * @param threadFactory a {@link ThreadFactory} used as a template for the pool
+		 * threads
+		 *
+		 * @return a new {@link Scheduler} that hosts a work-stealing pool of threads
+		 */
+		default Scheduler newWorkStealing(int parallelism, ThreadFactory threadFactory) {
+			return new WorkStealingScheduler(parallelism, threadFactory);
+		}
+
+		/**
+		 * {@link Scheduler} that hosts a hashed timer wheel and is suited for large
+		 * amounts of coarse-grained delayed tasks.
+		 *
+		 * @param tickDuration the duration of a tick, ie. the precision of the timers
+		 * @param wheelSize number of buckets of the wheel, rounded up to a power of two
+		 * @param threadFactory a {@link ThreadFactory} to use for the wheel thread
+		 *
+		 * @return a new {@link Scheduler} that hosts a hashed timer wheel
+		 */
+		default Scheduler newTimerWheel(Duration tickDuration, int wheelSize,
+				ThreadFactory threadFactory) {
+			return new TimerWheelScheduler(tickDuration.toNanos(), wheelSize, threadFactory);
+		}
+
 		/**
 		 * {@link Scheduler} that hosts a single worker and is suited for non-blocking
 		 * work.
@@ -518,9 +862,13 @@ public abstract class Schedulers {
 
 	// Internals
 	static final String ELASTIC  = "elastic"; // IO stuff
+	static final String BOUNDED_ELASTIC = "boundedElastic"; // IO stuff, capped
 	static final String PARALLEL = "parallel"; //scale up common tasks
+	static final String WORK_STEALING = "workStealing"; //scale up uneven tasks
 	static final String SINGLE   = "single"; //non blocking tasks
 	static final String TIMER    = "timer"; //timed tasks
+	static final String TIMER_WHEEL = "timerWheel"; //many coarse timed tasks
+	static final String EXECUTOR_SERVICE = "ExecutorService"; //user provided executors
 
 	// Cached schedulers in atomic references:
 	static AtomicReference<CachedScheduler> CACHED_ELASTIC  = new AtomicReference<>();
@@ -572,7 +920,8 @@ public abstract class Schedulers {
 	static final Logger log = Loggers.getLogger(Schedulers.class);
 
 	static final class SchedulerThreadFactory
-			implements ThreadFactory, Supplier<String>, Thread.UncaughtExceptionHandler {
+			implements ThreadFactory, ForkJoinWorkerThreadFactory, Supplier<String>,
+			           Thread.UncaughtExceptionHandler {
 
 		final String     name;
 		final boolean    daemon;
@@ -592,6 +941,15 @@ public abstract class Schedulers {
 			return t;
 		}
 
+		@Override
+		public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+			ForkJoinWorkerThread t = new WorkStealingScheduler.WorkStealingThread(pool);
+			t.setName(name + "-" + COUNTER.incrementAndGet());
+			t.setDaemon(daemon);
+			t.setUncaughtExceptionHandler(this);
+			return t;
+		}
+
 		@Override
 		public void uncaughtException(Thread t, Throwable e) {
 			log.error("Scheduler worker in group " + t.getThreadGroup().getName() +
@@ -690,12 +1048,57 @@ public abstract class Schedulers {
 
 	static ExecutorService decorateExecutorService(String schedulerType,
 			Supplier<? extends ExecutorService> actual) {
-		return factory.decorateExecutorService(schedulerType, actual);
+		return decorateExecutorService(schedulerType, schedulerType, actual);
+	}
+
+	static ExecutorService decorateExecutorService(String schedulerType,
+			String schedulerName,
+			Supplier<? extends ExecutorService> actual) {
+		return instrument(factory.decorateExecutorService(schedulerType, actual),
+				schedulerType,
+				schedulerName);
+	}
+
+	static ScheduledExecutorService decorateScheduledExecutorService(String schedulerType,
+			Supplier<? extends ScheduledExecutorService> actual) {
+		return decorateScheduledExecutorService(schedulerType, schedulerType, actual);
 	}
 
 	static ScheduledExecutorService decorateScheduledExecutorService(String schedulerType,
+			String schedulerName,
 			Supplier<? extends ScheduledExecutorService> actual) {
-		return factory.decorateScheduledExecutorService(schedulerType, actual);
+		return (ScheduledExecutorService) instrument(
+				factory.decorateScheduledExecutorService(schedulerType, actual),
+				schedulerType,
+				schedulerName);
+	}
+
+	/**
+	 * Instrument an {@link ExecutorService} if the metrics are enabled, keeping it a
+	 * {@link ScheduledExecutorService} if it was one.
+	 */
+	static ExecutorService instrument(ExecutorService executor,
+			String schedulerType,
+			String schedulerName) {
+		SchedulerMetricsRecorder recorder = metricsRecorder;
+		if (recorder != null) {
+			return InstrumentedExecutorService.instrument(executor,
+					schedulerType,
+					schedulerName,
+					recorder);
+		}
+		return executor;
+	}
+
+	/**
+	 * Name a {@link Scheduler} instance for the metrics after the name of its
+	 * {@link ThreadFactory}, or after the identity of the factory if it has no name.
+	 */
+	static String schedulerName(String schedulerType, ThreadFactory factory) {
+		if (factory instanceof Supplier) {
+			return String.valueOf(((Supplier<?>) factory).get());
+		}
+		return schedulerType + "@" + Integer.toHexString(System.identityHashCode(factory));
 	}
 
 }
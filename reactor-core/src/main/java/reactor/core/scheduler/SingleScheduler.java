@@ -16,6 +16,7 @@
 
 package reactor.core.scheduler;
 
+import java.util.Collections;
 import java.util.Objects;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -29,6 +30,7 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Supplier;
 
 import reactor.core.Disposable;
+import reactor.core.Scannable;
 import reactor.util.concurrent.OpenHashSet;
 
 /**
@@ -36,7 +38,8 @@ import reactor.util.concurrent.OpenHashSet;
  * same-thread work (like an event dispatch thread). This scheduler is time-capable (can
  * schedule with delay / periodically).
  */
-final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorService> {
+final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorService>,
+                                       Scannable {
 
 	static final AtomicLong COUNTER       = new AtomicLong();
 	static final AtomicLong TIMER_COUNTER = new AtomicLong();
@@ -74,7 +77,8 @@ final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorServ
 
 	private void init() {
 		EXECUTORS.lazySet(this,
-				Schedulers.decorateScheduledExecutorService(Schedulers.SINGLE, this));
+				Schedulers.decorateScheduledExecutorService(Schedulers.SINGLE,
+						Schedulers.schedulerName(Schedulers.SINGLE, factory), this));
 	}
 
 	@Override
@@ -96,7 +100,8 @@ final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorServ
 			}
 
 			if (b == null) {
-				b = Schedulers.decorateScheduledExecutorService(Schedulers.SINGLE, this);
+				b = Schedulers.decorateScheduledExecutorService(Schedulers.SINGLE,
+						Schedulers.schedulerName(Schedulers.SINGLE, factory), this);
 			}
 
 			if (EXECUTORS.compareAndSet(this, a, b)) {
@@ -105,6 +110,15 @@ final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorServ
 		}
 	}
 
+	@Override
+	public Object scanUnsafe(Attr key) {
+		if (key == BooleanAttr.TERMINATED || key == BooleanAttr.CANCELLED) return isDisposed();
+		if (key == IntAttr.CAPACITY) return 1;
+
+		return InstrumentedExecutorService.scanExecutors(key,
+				Collections.singletonList(executor));
+	}
+
 	@Override
 	public void dispose() {
 		ScheduledExecutorService a = executor;
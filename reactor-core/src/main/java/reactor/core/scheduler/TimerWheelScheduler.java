@@ -0,0 +1,559 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.util.concurrent.OpenHashSet;
+import reactor.util.concurrent.QueueSupplier;
+import javax.annotation.Nullable;
+
+/**
+ * Scheduler backed by a hashed timer wheel and suited for large amounts of coarse-grained
+ * delayed tasks, typically timeouts that are mostly cancelled before they fire.
+ * <p>
+ * A single thread advances the wheel one tick at a time. Delayed tasks are handed over
+ * through a lock-free queue then linked into the bucket of their tick, and cancelling
+ * one unlinks it from its bucket, so both operations are O(1) whatever the number of
+ * pending tasks. The price is precision: a task fires on the first tick boundary at or
+ * after its deadline, that is up to one tick late.
+ * <p>
+ * All tasks run on the wheel thread and should be short and non-blocking, otherwise
+ * they delay every other timer. This scheduler is time-capable (can schedule with
+ * delay / periodically).
+ */
+final class TimerWheelScheduler implements Scheduler, Scannable {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	final ThreadFactory factory;
+	final long          tickNanos;
+	final int           wheelSize;
+
+	volatile Wheel wheel;
+	static final AtomicReferenceFieldUpdater<TimerWheelScheduler, Wheel> WHEEL =
+			AtomicReferenceFieldUpdater.newUpdater(TimerWheelScheduler.class,
+					Wheel.class,
+					"wheel");
+
+	static final Wheel TERMINATED = new Wheel(1, 1);
+
+	static {
+		TERMINATED.shutdown = true;
+	}
+
+	TimerWheelScheduler(long tickNanos, int wheelSize, ThreadFactory factory) {
+		if (tickNanos <= 0) {
+			throw new IllegalArgumentException("tickDuration > 0 required but it was " + tickNanos + "ns");
+		}
+		if (wheelSize <= 0 || wheelSize > 1 << 30) {
+			throw new IllegalArgumentException("wheelSize must be between 1 and 2^30 but it was " + wheelSize);
+		}
+		this.tickNanos = tickNanos;
+		this.wheelSize = QueueSupplier.ceilingNextPowerOfTwo(wheelSize);
+		this.factory = factory;
+		Wheel w = new Wheel(this.tickNanos, this.wheelSize);
+		WHEEL.lazySet(this, w);
+		w.start(factory);
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return wheel == TERMINATED;
+	}
+
+	@Override
+	public void start() {
+		Wheel b = null;
+		for (; ; ) {
+			Wheel a = wheel;
+			if (a != TERMINATED) {
+				return;
+			}
+
+			if (b == null) {
+				b = new Wheel(tickNanos, wheelSize);
+			}
+
+			if (WHEEL.compareAndSet(this, a, b)) {
+				b.start(factory);
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void dispose() {
+		Wheel a = wheel;
+		if (a != TERMINATED) {
+			a = WHEEL.getAndSet(this, TERMINATED);
+			if (a != TERMINATED) {
+				a.shutdown();
+			}
+		}
+	}
+
+	@Override
+	public Object scanUnsafe(Attr key) {
+		if (key == BooleanAttr.TERMINATED || key == BooleanAttr.CANCELLED) return isDisposed();
+		if (key == IntAttr.CAPACITY) return wheelSize;
+
+		return null;
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		return schedule(task, 0L, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		Objects.requireNonNull(task, "task");
+		TimerTask t = new TimerTask(task, deadline(delay, unit), 0L, null);
+		if (!wheel.schedule(t)) {
+			return REJECTED;
+		}
+		return t;
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		Objects.requireNonNull(task, "task");
+		TimerTask t = new TimerTask(task,
+				deadline(initialDelay, unit),
+				Math.max(unit.toNanos(period), 1L),
+				null);
+		if (!wheel.schedule(t)) {
+			return REJECTED;
+		}
+		return t;
+	}
+
+	@Override
+	public Worker createWorker() {
+		return new TimerWheelWorker(this);
+	}
+
+	static long deadline(long delay, TimeUnit unit) {
+		return delay <= 0L ? 0L : System.nanoTime() + unit.toNanos(delay);
+	}
+
+	/**
+	 * The wheel proper and the state of its thread. A {@link TimerWheelScheduler} swaps
+	 * in a new instance when restarted after a dispose.
+	 */
+	static final class Wheel implements Runnable {
+
+		final long        tickNanos;
+		final int         mask;
+		final TimerTask[] heads;
+		final TimerTask[] tails;
+
+		/**
+		 * Delayed tasks waiting to be linked into their bucket by the wheel thread.
+		 */
+		final Queue<TimerTask> pending   = QueueSupplier.<TimerTask>mpscUnbounded().get();
+		/**
+		 * Tasks without delay, run as soon as the wheel thread wakes up.
+		 */
+		final Queue<TimerTask> immediate = QueueSupplier.<TimerTask>mpscUnbounded().get();
+		/**
+		 * Cancelled tasks waiting to be unlinked from their bucket by the wheel thread.
+		 */
+		final Queue<TimerTask> cancelled = QueueSupplier.<TimerTask>mpscUnbounded().get();
+
+		volatile boolean shutdown;
+
+		Thread thread;
+		long   startTime;
+		long   tick;
+
+		Wheel(long tickNanos, int wheelSize) {
+			this.tickNanos = tickNanos;
+			this.mask = wheelSize - 1;
+			this.heads = new TimerTask[wheelSize];
+			this.tails = new TimerTask[wheelSize];
+		}
+
+		void start(ThreadFactory factory) {
+			startTime = System.nanoTime();
+			Thread t = factory.newThread(this);
+			thread = t;
+			t.start();
+		}
+
+		void shutdown() {
+			shutdown = true;
+			thread.interrupt();
+		}
+
+		boolean schedule(TimerTask t) {
+			if (shutdown) {
+				return false;
+			}
+			t.wheel = this;
+			if (t.deadline == 0L) {
+				immediate.offer(t);
+				LockSupport.unpark(thread);
+			}
+			else {
+				pending.offer(t);
+			}
+			if (shutdown) {
+				t.dispose();
+				return false;
+			}
+			return true;
+		}
+
+		@Override
+		public void run() {
+			for (; ; ) {
+				long deadline = startTime + (tick + 1) * tickNanos;
+				for (; ; ) {
+					if (shutdown) {
+						clear();
+						return;
+					}
+					TimerTask t;
+					while ((t = immediate.poll()) != null) {
+						t.run();
+					}
+					long sleep = deadline - System.nanoTime();
+					if (sleep <= 0L) {
+						break;
+					}
+					LockSupport.parkNanos(this, sleep);
+				}
+
+				unlinkCancelled();
+				linkPending();
+				expire((int) tick & mask);
+				tick++;
+			}
+		}
+
+		void unlinkCancelled() {
+			TimerTask t;
+			while ((t = cancelled.poll()) != null) {
+				if (t.linked) {
+					unlink(t);
+				}
+			}
+		}
+
+		void linkPending() {
+			TimerTask t;
+			while ((t = pending.poll()) != null) {
+				if (t.isDisposed()) {
+					continue;
+				}
+				long ticks = (t.deadline - startTime) / tickNanos;
+				long current = tick;
+				t.remainingRounds = (ticks - current) >> Integer.numberOfTrailingZeros(mask + 1);
+				link(t, (int) Math.max(ticks, current) & mask);
+			}
+		}
+
+		void expire(int bucket) {
+			TimerTask t = heads[bucket];
+			while (t != null) {
+				TimerTask next = t.next;
+				if (t.isDisposed()) {
+					unlink(t);
+				}
+				else if (t.remainingRounds <= 0L) {
+					unlink(t);
+					t.run();
+				}
+				else {
+					t.remainingRounds--;
+				}
+				t = next;
+			}
+		}
+
+		void link(TimerTask t, int bucket) {
+			t.bucket = bucket;
+			t.linked = true;
+			TimerTask tail = tails[bucket];
+			if (tail == null) {
+				heads[bucket] = t;
+			}
+			else {
+				tail.next = t;
+				t.prev = tail;
+			}
+			tails[bucket] = t;
+		}
+
+		void unlink(TimerTask t) {
+			int bucket = t.bucket;
+			TimerTask prev = t.prev;
+			TimerTask next = t.next;
+			if (prev == null) {
+				heads[bucket] = next;
+			}
+			else {
+				prev.next = next;
+			}
+			if (next == null) {
+				tails[bucket] = prev;
+			}
+			else {
+				next.prev = prev;
+			}
+			t.prev = null;
+			t.next = null;
+			t.linked = false;
+		}
+
+		void clear() {
+			TimerTask t;
+			while ((t = immediate.poll()) != null) {
+				t.dispose();
+			}
+			while ((t = pending.poll()) != null) {
+				t.dispose();
+			}
+			for (int i = 0; i < heads.length; i++) {
+				t = heads[i];
+				while (t != null) {
+					TimerTask next = t.next;
+					t.prev = null;
+					t.next = null;
+					t.linked = false;
+					t.dispose();
+					t = next;
+				}
+				heads[i] = null;
+				tails[i] = null;
+			}
+			cancelled.clear();
+		}
+	}
+
+	/**
+	 * A task of the wheel, also a node of the doubly-linked list of its bucket. Only the
+	 * {@link #state} is shared, the links being confined to the wheel thread.
+	 */
+	static final class TimerTask implements Runnable, Disposable {
+
+		static final int WAITING   = 0;
+		static final int RUNNING   = 1;
+		static final int FINISHED  = 2;
+		static final int CANCELLED = 3;
+
+		final Runnable task;
+		final long     periodNanos;
+
+		@Nullable
+		final DisposableContainer<TimerTask> parent;
+
+		long deadline;
+
+		volatile Wheel wheel;
+
+		volatile int state;
+		static final AtomicIntegerFieldUpdater<TimerTask> STATE =
+				AtomicIntegerFieldUpdater.newUpdater(TimerTask.class, "state");
+
+		TimerTask prev;
+		TimerTask next;
+		int       bucket;
+		boolean   linked;
+		long      remainingRounds;
+
+		TimerTask(Runnable task,
+				long deadline,
+				long periodNanos,
+				@Nullable DisposableContainer<TimerTask> parent) {
+			this.task = task;
+			this.deadline = deadline;
+			this.periodNanos = periodNanos;
+			this.parent = parent;
+		}
+
+		@Override
+		public void run() {
+			if (!STATE.compareAndSet(this, WAITING, RUNNING)) {
+				return;
+			}
+			try {
+				task.run();
+			}
+			catch (Throwable ex) {
+				Schedulers.handleError(ex);
+			}
+			if (periodNanos != 0L) {
+				if (STATE.compareAndSet(this, RUNNING, WAITING)) {
+					//fixed rate, unless the first run had no delay
+					deadline = (deadline == 0L ? System.nanoTime() : deadline) + periodNanos;
+					wheel.pending.offer(this);
+				}
+			}
+			else if (STATE.compareAndSet(this, RUNNING, FINISHED) && parent != null) {
+				parent.remove(this);
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return state >= FINISHED;
+		}
+
+		@Override
+		public void dispose() {
+			for (; ; ) {
+				int s = state;
+				if (s >= FINISHED) {
+					return;
+				}
+				if (STATE.compareAndSet(this, s, CANCELLED)) {
+					Wheel w = wheel;
+					if (s == WAITING && w != null && !w.shutdown) {
+						w.cancelled.offer(this);
+					}
+					if (parent != null) {
+						parent.remove(this);
+					}
+					return;
+				}
+			}
+		}
+	}
+
+	static final class TimerWheelWorker implements Worker, DisposableContainer<TimerTask> {
+
+		final TimerWheelScheduler parent;
+
+		OpenHashSet<TimerTask> tasks;
+
+		volatile boolean shutdown;
+
+		TimerWheelWorker(TimerWheelScheduler parent) {
+			this.parent = parent;
+			this.tasks = new OpenHashSet<>();
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			return schedule(task, 0L, TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+			Objects.requireNonNull(task, "task");
+			return schedule(new TimerTask(task, deadline(delay, unit), 0L, this));
+		}
+
+		@Override
+		public Disposable schedulePeriodically(Runnable task,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			Objects.requireNonNull(task, "task");
+			return schedule(new TimerTask(task,
+					deadline(initialDelay, unit),
+					Math.max(unit.toNanos(period), 1L),
+					this));
+		}
+
+		Disposable schedule(TimerTask t) {
+			if (shutdown || !add(t)) {
+				return REJECTED;
+			}
+			if (!parent.wheel.schedule(t)) {
+				t.dispose();
+				return REJECTED;
+			}
+			return t;
+		}
+
+		@Override
+		public void dispose() {
+			if (shutdown) {
+				return;
+			}
+			OpenHashSet<TimerTask> set;
+			synchronized (this) {
+				if (shutdown) {
+					return;
+				}
+				shutdown = true;
+				set = tasks;
+				tasks = null;
+			}
+
+			if (set != null && !set.isEmpty()) {
+				Object[] a = set.keys();
+				for (Object o : a) {
+					if (o != null) {
+						((TimerTask) o).dispose();
+					}
+				}
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return shutdown;
+		}
+
+		@Override
+		public boolean add(TimerTask disposable) {
+			Objects.requireNonNull(disposable, "disposable is null");
+			if (!shutdown) {
+				synchronized (this) {
+					if (!shutdown) {
+						tasks.add(disposable);
+						return true;
+					}
+				}
+			}
+			disposable.dispose();
+			return false;
+		}
+
+		@Override
+		public boolean remove(TimerTask task) {
+			if (shutdown) {
+				return false;
+			}
+
+			synchronized (this) {
+				if (shutdown) {
+					return false;
+				}
+				tasks.remove(task);
+				return true;
+			}
+		}
+	}
+}
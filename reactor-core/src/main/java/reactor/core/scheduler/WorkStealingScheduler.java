@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Supplier;
+
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+
+/**
+ * Scheduler that hosts a work-stealing {@link ForkJoinPool} and is suited for parallel
+ * work with uneven task durations.
+ * <p>
+ * Each {@link reactor.core.scheduler.Scheduler.Worker} queues its tasks and drains them
+ * serially as a single task submitted to the pool, which preserves the per-worker
+ * ordering while letting any idle thread of the pool steal the drain loop of a worker
+ * that was stuck behind a long running task. Contrary to {@link ParallelScheduler}, a
+ * worker is thus not pinned to a thread.
+ * <p>
+ * This scheduler is NOT time-capable (can't schedule with delay / periodically).
+ */
+final class WorkStealingScheduler implements Scheduler, Supplier<ExecutorService>, Scannable {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	/**
+	 * Maximum number of tasks a worker drains in a row before giving its thread back to
+	 * the pool, rescheduling the remainder of its queue.
+	 */
+	static final int MAX_DRAIN = 128;
+
+	final int parallelism;
+
+	final ThreadFactory factory;
+
+	volatile ExecutorService executor;
+	static final AtomicReferenceFieldUpdater<WorkStealingScheduler, ExecutorService> EXECUTOR =
+			AtomicReferenceFieldUpdater.newUpdater(WorkStealingScheduler.class,
+					ExecutorService.class,
+					"executor");
+
+	static final ExecutorService TERMINATED;
+
+	static {
+		TERMINATED = new ForkJoinPool(1);
+		TERMINATED.shutdownNow();
+	}
+
+	WorkStealingScheduler(int parallelism, ThreadFactory factory) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("parallelism > 0 required but it was " + parallelism);
+		}
+		this.parallelism = parallelism;
+		this.factory = factory;
+		EXECUTOR.lazySet(this,
+				Schedulers.decorateExecutorService(Schedulers.WORK_STEALING,
+						Schedulers.schedulerName(Schedulers.WORK_STEALING, factory), this));
+	}
+
+	/**
+	 * Instantiates the default {@link ExecutorService} for the WorkStealingScheduler
+	 * ({@code ForkJoinPool} in async mode). A {@link ThreadFactory} that is also a
+	 * {@link ForkJoinWorkerThreadFactory} creates the worker threads directly, any other
+	 * one is used as a template for their name and configuration.
+	 */
+	@Override
+	public ExecutorService get() {
+		ForkJoinWorkerThreadFactory f;
+		if (factory instanceof ForkJoinWorkerThreadFactory) {
+			f = (ForkJoinWorkerThreadFactory) factory;
+		}
+		else {
+			f = pool -> {
+				ForkJoinWorkerThread t = new WorkStealingThread(pool);
+				Thread template = factory.newThread(() -> { });
+				t.setName(template.getName());
+				t.setDaemon(template.isDaemon());
+				t.setUncaughtExceptionHandler(template.getUncaughtExceptionHandler());
+				return t;
+			};
+		}
+		return new ForkJoinPool(parallelism, f, null, true);
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return executor == TERMINATED;
+	}
+
+	@Override
+	public void start() {
+		ExecutorService b = null;
+		for (; ; ) {
+			ExecutorService a = executor;
+			if (a != TERMINATED) {
+				if (b != null) {
+					b.shutdownNow();
+				}
+				return;
+			}
+
+			if (b == null) {
+				b = Schedulers.decorateExecutorService(Schedulers.WORK_STEALING,
+						Schedulers.schedulerName(Schedulers.WORK_STEALING, factory), this);
+			}
+
+			if (EXECUTOR.compareAndSet(this, a, b)) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public Object scanUnsafe(Attr key) {
+		if (key == BooleanAttr.TERMINATED || key == BooleanAttr.CANCELLED) return isDisposed();
+		if (key == IntAttr.CAPACITY) return parallelism;
+
+		return InstrumentedExecutorService.scanExecutors(key,
+				Collections.singletonList(executor));
+	}
+
+	@Override
+	public void dispose() {
+		ExecutorService a = executor;
+		if (a != TERMINATED) {
+			a = EXECUTOR.getAndSet(this, TERMINATED);
+			if (a != TERMINATED) {
+				Schedulers.executorServiceShutdown(a, Schedulers.WORK_STEALING);
+			}
+		}
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		Objects.requireNonNull(task, "task");
+		ExecutorScheduler.ExecutorPlainRunnable r =
+				new ExecutorScheduler.ExecutorPlainRunnable(task);
+		try {
+			executor.execute(r);
+		}
+		catch (RejectedExecutionException ex) {
+			return REJECTED;
+		}
+		return r;
+	}
+
+	@Override
+	public Worker createWorker() {
+		return new WorkStealingWorker(this);
+	}
+
+	/**
+	 * A trampolining worker that queues its tasks and submits a single drain loop at a
+	 * time to the pool, the drain loop being free to run on (or be stolen by) any thread.
+	 */
+	static final class WorkStealingWorker
+			implements Worker, ExecutorScheduler.WorkerDelete, Runnable {
+
+		final WorkStealingScheduler parent;
+
+		final Queue<ExecutorScheduler.ExecutorTrackedRunnable> queue;
+
+		volatile boolean terminated;
+
+		/**
+		 * The task currently run by the drain loop, if any, so that disposing the worker
+		 * also disposes it.
+		 */
+		volatile ExecutorScheduler.ExecutorTrackedRunnable current;
+
+		volatile int wip;
+		static final AtomicIntegerFieldUpdater<WorkStealingWorker> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(WorkStealingWorker.class, "wip");
+
+		WorkStealingWorker(WorkStealingScheduler parent) {
+			this.parent = parent;
+			this.queue = new ConcurrentLinkedQueue<>();
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			Objects.requireNonNull(task, "task");
+			if (terminated) {
+				return REJECTED;
+			}
+
+			ExecutorScheduler.ExecutorTrackedRunnable r =
+					new ExecutorScheduler.ExecutorTrackedRunnable(task, this, false);
+			queue.offer(r);
+
+			if (WIP.getAndIncrement(this) == 0) {
+				try {
+					parent.executor.execute(this);
+				}
+				catch (RejectedExecutionException ex) {
+					terminated = true;
+					disposeQueued();
+					return REJECTED;
+				}
+			}
+
+			return r;
+		}
+
+		@Override
+		public void dispose() {
+			if (terminated) {
+				return;
+			}
+			terminated = true;
+
+			ExecutorScheduler.ExecutorTrackedRunnable r = current;
+			if (r != null) {
+				r.dispose();
+			}
+			disposeQueued();
+		}
+
+		/**
+		 * Dispose the tasks that won't run anymore, so that their callers can see it.
+		 */
+		void disposeQueued() {
+			ExecutorScheduler.ExecutorTrackedRunnable r;
+			while ((r = queue.poll()) != null) {
+				r.dispose();
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return terminated;
+		}
+
+		@Override
+		public void delete(ExecutorScheduler.ExecutorTrackedRunnable r) {
+			// disposed tasks are skipped by the drain loop, avoiding a linear removal
+		}
+
+		@Override
+		public void run() {
+			final Queue<ExecutorScheduler.ExecutorTrackedRunnable> q = queue;
+			int drained = 0;
+
+			for (; ; ) {
+
+				int e = 0;
+				int r = wip;
+
+				while (e != r) {
+					if (terminated) {
+						q.clear();
+						return;
+					}
+					ExecutorScheduler.ExecutorTrackedRunnable task = q.poll();
+
+					if (task == null) {
+						break;
+					}
+
+					current = task;
+					if (terminated) {
+						task.dispose();
+						current = null;
+						q.clear();
+						return;
+					}
+					task.run();
+					current = null;
+
+					e++;
+				}
+
+				if (e == r && terminated) {
+					q.clear();
+					return;
+				}
+
+				if (WIP.addAndGet(this, -e) == 0) {
+					break;
+				}
+
+				drained += e;
+				if (drained >= MAX_DRAIN) {
+					//let other workers queued on this thread run, stealers may pick us up
+					try {
+						parent.executor.execute(this);
+					}
+					catch (RejectedExecutionException ex) {
+						terminated = true;
+						disposeQueued();
+					}
+					return;
+				}
+			}
+		}
+	}
+
+	static final class WorkStealingThread extends ForkJoinWorkerThread {
+
+		WorkStealingThread(ForkJoinPool pool) {
+			super(pool);
+		}
+	}
+}
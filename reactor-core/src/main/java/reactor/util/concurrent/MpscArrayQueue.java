@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.Nullable;
+
+/**
+ * A bounded, array backed, multi-producer single-consumer queue.
+ * <p>
+ * Producers claim a slot by CAS-ing the producer index, then publish the value into
+ * the claimed slot with an ordered store. The single consumer frees slots in order,
+ * which is what producers compare against to detect a full queue. A slot that was
+ * claimed but not yet written is seen as "in flight" and {@link #poll()} spins
+ * briefly for it rather than reporting the queue as empty.
+ * <p>
+ * Like the SPSC queues of this package, the class is not padded, trading false
+ * sharing under heavy contention for a small footprint in short lived pipelines.
+ *
+ * @param <T> the value type
+ */
+final class MpscArrayQueue<T> extends AbstractQueue<T> {
+
+	final AtomicReferenceArray<T> array;
+
+	final int mask;
+
+	final int capacity;
+
+	volatile long producerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscArrayQueue> PRODUCER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpscArrayQueue.class, "producerIndex");
+
+	volatile long consumerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscArrayQueue> CONSUMER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpscArrayQueue.class, "consumerIndex");
+
+	MpscArrayQueue(int capacity) {
+		int c = QueueSupplier.ceilingNextPowerOfTwo(Math.max(2, capacity));
+		this.array = new AtomicReferenceArray<>(c);
+		this.mask = c - 1;
+		this.capacity = c;
+	}
+
+	@Override
+	public boolean offer(T e) {
+		Objects.requireNonNull(e, "e");
+		final int c = capacity;
+		long pi;
+		for (; ; ) {
+			pi = producerIndex;
+			if (pi - consumerIndex >= c) {
+				return false;
+			}
+			if (PRODUCER_INDEX.compareAndSet(this, pi, pi + 1)) {
+				break;
+			}
+		}
+		array.lazySet((int) pi & mask, e);
+		return true;
+	}
+
+	@Override
+	@Nullable
+	public T poll() {
+		long ci = consumerIndex;
+		int offset = (int) ci & mask;
+		AtomicReferenceArray<T> a = array;
+
+		T v = a.get(offset);
+		if (v == null) {
+			if (ci == producerIndex) {
+				return null;
+			}
+			//a producer claimed the slot but has not written it yet
+			do {
+				v = a.get(offset);
+			}
+			while (v == null);
+		}
+		a.lazySet(offset, null);
+		CONSUMER_INDEX.lazySet(this, ci + 1);
+		return v;
+	}
+
+	@Override
+	@Nullable
+	public T peek() {
+		long ci = consumerIndex;
+		int offset = (int) ci & mask;
+		AtomicReferenceArray<T> a = array;
+
+		T v = a.get(offset);
+		if (v == null && ci != producerIndex) {
+			do {
+				v = a.get(offset);
+			}
+			while (v == null);
+		}
+		return v;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return producerIndex == consumerIndex;
+	}
+
+	@Override
+	public int size() {
+		long ci = consumerIndex;
+		for (; ; ) {
+			long pi = producerIndex;
+			long ci2 = consumerIndex;
+			if (ci == ci2) {
+				return (int) (pi - ci);
+			}
+			ci = ci2;
+		}
+	}
+
+	@Override
+	public void clear() {
+		while (poll() != null && !isEmpty()) {
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		throw new UnsupportedOperationException();
+	}
+}
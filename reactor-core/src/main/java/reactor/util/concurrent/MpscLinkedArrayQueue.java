@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.Nullable;
+
+/**
+ * An unbounded, array-backed multi-producer single-consumer queue with a fixed link
+ * size.
+ * <p>
+ * The producer index counts in steps of two so that its lowest bit can act as a
+ * "link in progress" marker: producers claim a slot of the current link with a single
+ * CAS, while the producer claiming the first slot of a new link sets the marker,
+ * allocates and publishes the new link, then releases the marker. The consumer
+ * follows links in order and spins briefly on slots that were claimed but not yet
+ * written. This is in the spirit of JCTools' {@code MpscUnboundedArrayQueue}, without
+ * padding and without {@code Unsafe}.
+ *
+ * @param <T> the value type
+ */
+final class MpscLinkedArrayQueue<T> extends AbstractQueue<T> {
+
+	final int mask;
+
+	volatile long producerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscLinkedArrayQueue> PRODUCER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpscLinkedArrayQueue.class,
+					"producerIndex");
+	volatile AtomicReferenceArray<Object> producerArray;
+
+	volatile long consumerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscLinkedArrayQueue> CONSUMER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpscLinkedArrayQueue.class,
+					"consumerIndex");
+	AtomicReferenceArray<Object> consumerArray;
+
+	MpscLinkedArrayQueue(int linkSize) {
+		int c = QueueSupplier.ceilingNextPowerOfTwo(Math.max(8, linkSize));
+		this.producerArray = this.consumerArray = new AtomicReferenceArray<>(c + 1);
+		this.mask = c - 1;
+	}
+
+	@Override
+	public boolean offer(T e) {
+		Objects.requireNonNull(e, "e");
+		final int m = mask;
+		for (; ; ) {
+			long pi = producerIndex;
+			if ((pi & 1L) != 0L) {
+				//another producer is linking a new array
+				continue;
+			}
+			AtomicReferenceArray<Object> a = producerArray;
+			long index = pi >> 1;
+			int offset = (int) index & m;
+
+			if (offset != 0 || index == 0L) {
+				if (PRODUCER_INDEX.compareAndSet(this, pi, pi + 2)) {
+					a.lazySet(offset, e);
+					return true;
+				}
+			}
+			else if (PRODUCER_INDEX.compareAndSet(this, pi, pi + 1)) {
+				AtomicReferenceArray<Object> b = new AtomicReferenceArray<>(m + 2);
+				b.lazySet(0, e);
+				producerArray = b;
+				a.lazySet(m + 1, b);
+				PRODUCER_INDEX.lazySet(this, pi + 2);
+				return true;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public T poll() {
+		long ci = consumerIndex;
+		AtomicReferenceArray<Object> a = consumerArray;
+		int m = mask;
+		int offset = (int) ci & m;
+
+		if (offset == 0 && ci != 0L) {
+			if (ci == producerIndex >> 1) {
+				return null;
+			}
+			Object next;
+			do {
+				next = a.get(m + 1);
+			}
+			while (next == null);
+			a.lazySet(m + 1, null);
+			a = (AtomicReferenceArray<Object>) next;
+			consumerArray = a;
+		}
+
+		Object o = a.get(offset);
+		if (o == null) {
+			if (ci == producerIndex >> 1) {
+				return null;
+			}
+			//a producer claimed the slot but has not written it yet
+			do {
+				o = a.get(offset);
+			}
+			while (o == null);
+		}
+		a.lazySet(offset, null);
+		CONSUMER_INDEX.lazySet(this, ci + 1);
+		return (T) o;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public T peek() {
+		long ci = consumerIndex;
+		AtomicReferenceArray<Object> a = consumerArray;
+		int m = mask;
+		int offset = (int) ci & m;
+
+		if (ci == producerIndex >> 1) {
+			return null;
+		}
+		if (offset == 0 && ci != 0L) {
+			Object next;
+			do {
+				next = a.get(m + 1);
+			}
+			while (next == null);
+			a = (AtomicReferenceArray<Object>) next;
+		}
+		Object o;
+		do {
+			o = a.get(offset);
+		}
+		while (o == null);
+		return (T) o;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return producerIndex >> 1 == consumerIndex;
+	}
+
+	@Override
+	public int size() {
+		long ci = consumerIndex;
+		for (; ; ) {
+			long pi = producerIndex >> 1;
+			long ci2 = consumerIndex;
+			if (ci == ci2) {
+				return (int) (pi - ci);
+			}
+			ci = ci2;
+		}
+	}
+
+	@Override
+	public void clear() {
+		while (poll() != null && !isEmpty()) {
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -88,6 +88,52 @@ public final class QueueSupplier<T> implements Supplier<Queue<T>> {
 		return Integer.bitCount(x) == 1;
 	}
 
+	/**
+	 * Returns a bounded, array-based Queue that tolerates concurrent
+	 * {@link Queue#offer(Object)} from multiple threads, while {@link Queue#poll()}
+	 * is reserved to a single consumer at a time.
+	 *
+	 * @param capacity the queue capacity, rounded up to the next power of 2
+	 * @param <T> the reified {@link Queue} generic type
+	 * @return a bounded multi-producer {@link Queue} {@link Supplier}
+	 */
+	public static <T> Supplier<Queue<T>> mpsc(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity > 0 required but it was " + capacity);
+		}
+		return () -> new MpscArrayQueue<>(capacity);
+	}
+
+	/**
+	 * Returns an unbounded, linked-array-based Queue that tolerates concurrent
+	 * {@link Queue#offer(Object)} from multiple threads, while {@link Queue#poll()}
+	 * is reserved to a single consumer at a time.
+	 *
+	 * @param <T> the reified {@link Queue} generic type
+	 * @return an unbounded multi-producer {@link Queue} {@link Supplier}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Supplier<Queue<T>> mpscUnbounded() {
+		return MPSC_SMALL_UNBOUNDED;
+	}
+
+	/**
+	 * Returns an unbounded, linked-array-based Queue that tolerates concurrent
+	 * {@link Queue#offer(Object)} from multiple threads, while {@link Queue#poll()}
+	 * is reserved to a single consumer at a time. Integer.max sized link will
+	 * return the default {@link #SMALL_BUFFER_SIZE} size.
+	 *
+	 * @param linkSize the link size
+	 * @param <T> the reified {@link Queue} generic type
+	 * @return an unbounded multi-producer {@link Queue} {@link Supplier}
+	 */
+	public static <T> Supplier<Queue<T>> mpscUnbounded(int linkSize) {
+		if (linkSize == Integer.MAX_VALUE || linkSize == SMALL_BUFFER_SIZE) {
+			return mpscUnbounded();
+		}
+		return () -> new MpscLinkedArrayQueue<>(linkSize);
+	}
+
 	/**
 	 *
 	 * @param <T> the reified {@link Queue} generic type
@@ -318,4 +364,7 @@ public final class QueueSupplier<T> implements Supplier<Queue<T>> {
 			() -> new SpscLinkedArrayQueue<>(SMALL_BUFFER_SIZE);
 	@SuppressWarnings("rawtypes")
 	static final Supplier XS_UNBOUNDED = () -> new SpscLinkedArrayQueue<>(XS_BUFFER_SIZE);
+	@SuppressWarnings("rawtypes")
+	static final Supplier MPSC_SMALL_UNBOUNDED =
+			() -> new MpscLinkedArrayQueue<>(SMALL_BUFFER_SIZE);
 }
@@ -17,12 +17,15 @@ package reactor.util.concurrent;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
 
+import reactor.core.Scannable;
 
 /**
  * Strategy employed to wait for specific {@link LongSupplier} values with various spinning strategies.
@@ -30,6 +33,39 @@ import java.util.function.LongSupplier;
 public abstract class WaitStrategy
 {
 
+    /**
+     * Adaptive strategy that picks how to wait from the recent waits it observed: it
+     * spins while waits are typically shorter than 10 microseconds, yields while they are
+     * shorter than 1 millisecond and otherwise blocks on a lock and condition variable
+     * like {@link #liteBlocking()}. A wait that takes longer than its phase allows falls
+     * back to the next phase, so the strategy follows traffic changes in either
+     * direction.
+     * <p>
+     * The returned strategy is {@link Scannable}: its current phase and counters are
+     * available through {@link Scannable.StringAttr#WAIT_PHASE} and the
+     * {@code WAIT*} {@link Scannable.LongAttr} attributes.
+     *
+     * @return the wait strategy
+     */
+    public static WaitStrategy adaptive() {
+        return adaptive(10, 1000, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Adaptive strategy that spins while recent waits are typically shorter than
+     * {@code spinThreshold}, yields while they are shorter than {@code parkThreshold}
+     * and otherwise blocks on a lock and condition variable.
+     *
+     * @param spinThreshold the average wait below which consumers spin
+     * @param parkThreshold the average wait above which consumers block straight away
+     * @param units the time unit
+     * @return the wait strategy
+     * @see #adaptive()
+     */
+    public static WaitStrategy adaptive(long spinThreshold, long parkThreshold, TimeUnit units) {
+        return new Adaptive(spinThreshold, parkThreshold, units);
+    }
+
     /**
      * Blocking strategy that uses a lock and condition variable for consumer waiting on a barrier.
      *
@@ -228,6 +264,166 @@ public abstract class WaitStrategy
 
     }
 
+    final static class Adaptive extends WaitStrategy implements Scannable {
+
+        static final int PHASE_SPIN  = 0;
+        static final int PHASE_YIELD = 1;
+        static final int PHASE_PARK  = 2;
+
+        /**
+         * Weight of the most recent wait in the moving average, as a right shift.
+         */
+        static final int AVERAGE_SHIFT = 3;
+
+        /**
+         * Number of spins between two clock reads.
+         */
+        static final int SPIN_TRIES = 256;
+
+        final long         spinThresholdNanos;
+        final long         parkThresholdNanos;
+        final LiteBlocking parkingStrategy = new LiteBlocking();
+        final LongSupplier clock;
+
+        final LongAdder waits     = new LongAdder();
+        final LongAdder spinHits  = new LongAdder();
+        final LongAdder yieldHits = new LongAdder();
+        final LongAdder parks     = new LongAdder();
+
+        /**
+         * Moving average of the recent waits, updated without synchronization: a lost
+         * update between concurrent consumers only delays the adaptation.
+         */
+        volatile long averageNanos;
+
+        Adaptive(long spinThreshold, long parkThreshold, TimeUnit units) {
+            this(spinThreshold, parkThreshold, units, System::nanoTime);
+        }
+
+        /**
+         * @param clock the source of the nanosecond timestamps the waits are measured
+         * with, {@link System#nanoTime()} outside of tests
+         */
+        Adaptive(long spinThreshold, long parkThreshold, TimeUnit units, LongSupplier clock) {
+            this.clock = clock;
+            this.spinThresholdNanos = units.toNanos(spinThreshold);
+            this.parkThresholdNanos = units.toNanos(parkThreshold);
+            if (spinThresholdNanos < 0 || parkThresholdNanos < spinThresholdNanos) {
+                throw new IllegalArgumentException("0 <= spinThreshold <= parkThreshold required");
+            }
+            this.averageNanos = spinThresholdNanos;
+        }
+
+        int phase() {
+            long average = averageNanos;
+            if (average < spinThresholdNanos) {
+                return PHASE_SPIN;
+            }
+            if (average < parkThresholdNanos) {
+                return PHASE_YIELD;
+            }
+            return PHASE_PARK;
+        }
+
+        @Override
+        public void signalAllWhenBlocking()
+        {
+            parkingStrategy.signalAllWhenBlocking();
+        }
+
+        @Override
+        public long waitFor(long sequence, LongSupplier cursor, Runnable barrier)
+                throws InterruptedException
+        {
+            long availableSequence;
+            if ((availableSequence = cursor.getAsLong()) >= sequence)
+            {
+                return availableSequence;
+            }
+
+            waits.increment();
+            long start = clock.getAsLong();
+            int phase = phase();
+
+            if (phase == PHASE_SPIN)
+            {
+                //spin for twice the threshold, so that waits slightly longer than
+                // usual don't immediately push the strategy out of spinning
+                long spinDeadline = start + (spinThresholdNanos << 1);
+                int counter = SPIN_TRIES;
+                while ((availableSequence = cursor.getAsLong()) < sequence)
+                {
+                    barrier.run();
+                    if (--counter == 0)
+                    {
+                        if (clock.getAsLong() - spinDeadline > 0)
+                        {
+                            break;
+                        }
+                        counter = SPIN_TRIES;
+                    }
+                }
+                if (availableSequence >= sequence)
+                {
+                    spinHits.increment();
+                    return record(start, availableSequence);
+                }
+                phase = PHASE_YIELD;
+            }
+
+            if (phase == PHASE_YIELD)
+            {
+                long yieldDeadline = start + parkThresholdNanos;
+                while ((availableSequence = cursor.getAsLong()) < sequence)
+                {
+                    barrier.run();
+                    if (clock.getAsLong() - yieldDeadline > 0)
+                    {
+                        break;
+                    }
+                    Thread.yield();
+                }
+                if (availableSequence >= sequence)
+                {
+                    yieldHits.increment();
+                    return record(start, availableSequence);
+                }
+            }
+
+            parks.increment();
+            return record(start, parkingStrategy.waitFor(sequence, cursor, barrier));
+        }
+
+        long record(long start, long availableSequence) {
+            long elapsed = clock.getAsLong() - start;
+            long average = averageNanos;
+            averageNanos = average + ((elapsed - average) >> AVERAGE_SHIFT);
+            return availableSequence;
+        }
+
+        @Override
+        @Nullable
+        public Object scanUnsafe(Attr key) {
+            if (key == StringAttr.WAIT_PHASE) {
+                switch (phase()) {
+                    case PHASE_SPIN:
+                        return "spin";
+                    case PHASE_YIELD:
+                        return "yield";
+                    default:
+                        return "park";
+                }
+            }
+            if (key == LongAttr.WAITS) return waits.sum();
+            if (key == LongAttr.WAIT_SPIN_HITS) return spinHits.sum();
+            if (key == LongAttr.WAIT_YIELD_HITS) return yieldHits.sum();
+            if (key == LongAttr.WAIT_PARKS) return parks.sum();
+            if (key == LongAttr.WAIT_AVERAGE_NANOS) return averageNanos;
+
+            return null;
+        }
+    }
+
     final static class Blocking extends WaitStrategy {
 
         private final Lock      lock                     = new ReentrantLock();
@@ -28,11 +28,10 @@ import javax.annotation.Nullable;
  * {@link Context} implementations are thread-safe {@link #put(Object, Object)} will
  * usually return a safe new {@link Context} object.
  * <p>
- * Note that contexts are optimized for single key/value storage, and a user might want
- * to represent his own context instead of using more costly {@link #put}.
- * Past one user key/value pair, the context will use a copy-on-write {@link Context}
- * backed by
- * a new {@link java.util.Map} on each {@link #put}.
+ * Note that contexts are optimized for small key/value storage: up to 5 user key/value
+ * pairs are held in dedicated fields. Past that, the context will use a persistent
+ * {@link Context} backed by a hash array mapped trie, which only copies the path to the
+ * updated key on each {@link #put} and shares the rest of its structure.
  *
  * @author Stephane Maldini
  */
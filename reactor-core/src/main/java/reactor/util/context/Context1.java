@@ -44,7 +44,7 @@ final class Context1 implements Context, Map.Entry<Object, Object> {
 			return this;
 		}
 
-		return new ContextN(this.key, this.value, key, value);
+		return new Context2(this.key, this.value, key, value);
 	}
 
 	@Override
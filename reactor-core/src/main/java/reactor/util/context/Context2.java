@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.util.context;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+final class Context2 implements Context {
+
+	final Object key1;
+	final Object value1;
+	final Object key2;
+	final Object value2;
+
+	Context2(Object key1, Object value1, Object key2, Object value2) {
+		this.key1 = key1;
+		this.value1 = value1;
+		this.key2 = key2;
+		this.value2 = value2;
+	}
+
+	@Override
+	public Context put(Object key, @Nullable Object value) {
+		Objects.requireNonNull(key, "key");
+
+		if (this.key1.equals(key)) {
+			if (value == null) {
+				return new Context1(this.key2, this.value2);
+			}
+			return new Context2(key, value, this.key2, this.value2);
+		}
+		if (this.key2.equals(key)) {
+			if (value == null) {
+				return new Context1(this.key1, this.value1);
+			}
+			return new Context2(this.key1, this.value1, key, value);
+		}
+		if (value == null) {
+			return this;
+		}
+
+		return new Context3(this.key1, this.value1, this.key2, this.value2, key, value);
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key) {
+		if (this.key1.equals(key)) {
+			return (T) this.value1;
+		}
+		if (this.key2.equals(key)) {
+			return (T) this.value2;
+		}
+		return null;
+	}
+
+	@Override
+	public Stream<Map.Entry<Object, Object>> stream() {
+		return Stream.of(new Context1(key1, value1),
+				new Context1(key2, value2));
+	}
+
+	@Override
+	public String toString() {
+		return "Context2{" + key1 + '=' + value1 + ", " + key2 + '=' + value2 + '}';
+	}
+}
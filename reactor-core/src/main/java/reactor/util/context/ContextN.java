@@ -15,63 +15,350 @@
  */
 package reactor.util.context;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.Function;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
 
-@SuppressWarnings("unchecked")
-final class ContextN extends HashMap<Object, Object>
-		implements Context, Function<Map.Entry<Object, Object>, Map.Entry<Object, Object>> {
+/**
+ * A persistent {@link Context} for more than 5 key/value pairs, backed by a
+ * hash array mapped trie: {@link #put(Object, Object)} only copies the nodes on the path
+ * to the updated key (at most 7 levels of 32-wide nodes) and shares the rest of the
+ * structure with the original {@link Context}.
+ */
+final class ContextN implements Context {
+
+	/**
+	 * Create a {@link ContextN} from key/value pairs with distinct keys.
+	 *
+	 * @param keyValues key1, value1, key2, value2... with non-null keys and values
+	 * @return a new {@link ContextN}
+	 */
+	static ContextN of(Object... keyValues) {
+		Node root = BitmapNode.EMPTY;
+		for (int i = 0; i < keyValues.length; i += 2) {
+			Object key = keyValues[i];
+			root = root.put(0, hash(key), key, keyValues[i + 1]);
+		}
+		return new ContextN(root, keyValues.length / 2);
+	}
 
-	ContextN(Object key1, Object value1, Object key2, Object value2) {
-		super(2, 1f);
-		super.put(key1, value1);
-		super.put(key2, value2);
+	static int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
 	}
 
-	ContextN(Map<Object, Object> map, Object key, @Nullable Object value) {
-		super(map.size() + 1, 1f);
-		putAll(map);
-		super.put(key, value);
+	final Node root;
+	final int  size;
+
+	ContextN(Node root, int size) {
+		this.root = root;
+		this.size = size;
 	}
 
 	@Override
 	public Context put(Object key, @Nullable Object value) {
 		Objects.requireNonNull(key, "key");
-		return new ContextN(this, key, value);
+		int hash = hash(key);
+
+		if (value == null) {
+			Node n = root.remove(0, hash, key);
+			if (n == root) {
+				return this;
+			}
+			if (size == 6) {
+				Context c = Context.empty();
+				for (Map.Entry<Object, Object> e : n.entries(new ArrayList<>(5))) {
+					c = c.put(e.getKey(), e.getValue());
+				}
+				return c;
+			}
+			return new ContextN(n, size - 1);
+		}
+
+		int newSize = root.get(0, hash, key) == null ? size + 1 : size;
+		Node n = root.put(0, hash, key, value);
+		if (n == root) {
+			return this;
+		}
+		return new ContextN(n, newSize);
 	}
 
 	@Override
 	@Nullable
-	public Object get(Object key) {
-		return super.get(key);
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key) {
+		return (T) root.get(0, hash(key), key);
 	}
 
 	@Override
-	@Nullable
-	public Object getOrDefault(Object key, @Nullable Object defaultValue) {
-		Object v = get(key);
-		if(v == null){
-			return defaultValue;
-		}
-		return v;
+	public Stream<Map.Entry<Object, Object>> stream() {
+		return root.entries(new ArrayList<>(size))
+		           .stream();
 	}
 
 	@Override
-	public Stream<Entry<Object, Object>> stream() {
-		return entrySet().stream().map(this);
+	public String toString() {
+		StringBuilder sb = new StringBuilder("ContextN{");
+		List<Map.Entry<Object, Object>> entries = root.entries(new ArrayList<>(size));
+		for (int i = 0; i < entries.size(); i++) {
+			Map.Entry<Object, Object> e = entries.get(i);
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(e.getKey())
+			  .append('=')
+			  .append(e.getValue());
+		}
+		return sb.append('}')
+		         .toString();
 	}
 
-	@Override
-	public Entry<Object, Object> apply(Entry<Object, Object> o) {
-		return new Context1(o.getKey(), o.getValue());
+	/**
+	 * An immutable trie node. Updates return a new node, or the same node if nothing
+	 * changed.
+	 */
+	static abstract class Node {
+
+		@Nullable
+		abstract Object get(int shift, int hash, Object key);
+
+		abstract Node put(int shift, int hash, Object key, Object value);
+
+		abstract Node remove(int shift, int hash, Object key);
+
+		abstract List<Map.Entry<Object, Object>> entries(List<Map.Entry<Object, Object>> list);
 	}
 
-	@Override
-	public String toString() {
-		return "ContextN"+super.toString();
+	/**
+	 * A node storing up to 32 entries or sub-nodes, indexed by 5 bits of the key hash.
+	 * The {@code array} holds pairs of either (key, value) or (null, sub-node), in the
+	 * order of the bits set in {@code bitmap}.
+	 */
+	static final class BitmapNode extends Node {
+
+		static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+		static int bit(int shift, int hash) {
+			return 1 << ((hash >>> shift) & 31);
+		}
+
+		static Node create(int shift, int hash1, Object key1, Object value1,
+				int hash2, Object key2, Object value2) {
+			if (hash1 == hash2) {
+				return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+			}
+			return EMPTY.put(shift, hash1, key1, value1)
+			            .put(shift, hash2, key2, value2);
+		}
+
+		final int      bitmap;
+		final Object[] array;
+
+		BitmapNode(int bitmap, Object[] array) {
+			this.bitmap = bitmap;
+			this.array = array;
+		}
+
+		int index(int bit) {
+			return 2 * Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		@Override
+		@Nullable
+		Object get(int shift, int hash, Object key) {
+			int bit = bit(shift, hash);
+			if ((bitmap & bit) == 0) {
+				return null;
+			}
+			int i = index(bit);
+			Object k = array[i];
+			if (k == null) {
+				return ((Node) array[i + 1]).get(shift + 5, hash, key);
+			}
+			return k.equals(key) ? array[i + 1] : null;
+		}
+
+		@Override
+		Node put(int shift, int hash, Object key, Object value) {
+			int bit = bit(shift, hash);
+			int i = index(bit);
+
+			if ((bitmap & bit) == 0) {
+				Object[] a = new Object[array.length + 2];
+				System.arraycopy(array, 0, a, 0, i);
+				a[i] = key;
+				a[i + 1] = value;
+				System.arraycopy(array, i, a, i + 2, array.length - i);
+				return new BitmapNode(bitmap | bit, a);
+			}
+
+			Object k = array[i];
+			Object v = array[i + 1];
+			if (k == null) {
+				Node sub = (Node) v;
+				Node n = sub.put(shift + 5, hash, key, value);
+				if (n == sub) {
+					return this;
+				}
+				return set(i, null, n);
+			}
+			if (k.equals(key)) {
+				if (v == value) {
+					return this;
+				}
+				return set(i, key, value);
+			}
+			return set(i, null, create(shift + 5, hash(k), k, v, hash, key, value));
+		}
+
+		@Override
+		Node remove(int shift, int hash, Object key) {
+			int bit = bit(shift, hash);
+			if ((bitmap & bit) == 0) {
+				return this;
+			}
+			int i = index(bit);
+			Object k = array[i];
+
+			if (k == null) {
+				Node sub = (Node) array[i + 1];
+				Node n = sub.remove(shift + 5, hash, key);
+				if (n == sub) {
+					return this;
+				}
+				//inline a sub-node left with a single entry
+				if (n instanceof BitmapNode) {
+					Object[] a = ((BitmapNode) n).array;
+					if (a.length == 2 && a[0] != null) {
+						return set(i, a[0], a[1]);
+					}
+				}
+				else {
+					Object[] a = ((CollisionNode) n).array;
+					if (a.length == 2) {
+						return set(i, a[0], a[1]);
+					}
+				}
+				return set(i, null, n);
+			}
+			if (!k.equals(key)) {
+				return this;
+			}
+			if (bitmap == bit) {
+				return EMPTY;
+			}
+			Object[] a = new Object[array.length - 2];
+			System.arraycopy(array, 0, a, 0, i);
+			System.arraycopy(array, i + 2, a, i, array.length - i - 2);
+			return new BitmapNode(bitmap ^ bit, a);
+		}
+
+		BitmapNode set(int i, @Nullable Object key, Object value) {
+			Object[] a = array.clone();
+			a[i] = key;
+			a[i + 1] = value;
+			return new BitmapNode(bitmap, a);
+		}
+
+		@Override
+		List<Map.Entry<Object, Object>> entries(List<Map.Entry<Object, Object>> list) {
+			for (int i = 0; i < array.length; i += 2) {
+				Object k = array[i];
+				if (k == null) {
+					((Node) array[i + 1]).entries(list);
+				}
+				else {
+					list.add(new Context1(k, array[i + 1]));
+				}
+			}
+			return list;
+		}
+	}
+
+	/**
+	 * A node storing the entries whose keys have the exact same hash, as key/value
+	 * pairs in {@code array}.
+	 */
+	static final class CollisionNode extends Node {
+
+		final int      hash;
+		final Object[] array;
+
+		CollisionNode(int hash, Object[] array) {
+			this.hash = hash;
+			this.array = array;
+		}
+
+		int indexOf(Object key) {
+			for (int i = 0; i < array.length; i += 2) {
+				if (array[i].equals(key)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		@Nullable
+		Object get(int shift, int hash, Object key) {
+			if (this.hash != hash) {
+				return null;
+			}
+			int i = indexOf(key);
+			return i < 0 ? null : array[i + 1];
+		}
+
+		@Override
+		Node put(int shift, int hash, Object key, Object value) {
+			if (this.hash != hash) {
+				return new BitmapNode(BitmapNode.bit(shift, this.hash),
+						new Object[]{null, this}).put(shift, hash, key, value);
+			}
+			int i = indexOf(key);
+			Object[] a;
+			if (i < 0) {
+				a = new Object[array.length + 2];
+				System.arraycopy(array, 0, a, 0, array.length);
+				a[array.length] = key;
+				a[array.length + 1] = value;
+			}
+			else {
+				if (array[i + 1] == value) {
+					return this;
+				}
+				a = array.clone();
+				a[i + 1] = value;
+			}
+			return new CollisionNode(hash, a);
+		}
+
+		@Override
+		Node remove(int shift, int hash, Object key) {
+			if (this.hash != hash) {
+				return this;
+			}
+			int i = indexOf(key);
+			if (i < 0) {
+				return this;
+			}
+			if (array.length == 2) {
+				return BitmapNode.EMPTY;
+			}
+			Object[] a = new Object[array.length - 2];
+			System.arraycopy(array, 0, a, 0, i);
+			System.arraycopy(array, i + 2, a, i, array.length - i - 2);
+			return new CollisionNode(hash, a);
+		}
+
+		@Override
+		List<Map.Entry<Object, Object>> entries(List<Map.Entry<Object, Object>> list) {
+			for (int i = 0; i < array.length; i += 2) {
+				list.add(new Context1(array[i], array[i + 1]));
+			}
+			return list;
+		}
 	}
 }
@@ -16,6 +16,8 @@
 
 package reactor;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -334,6 +336,64 @@ public class HooksTest {
 		throw new IllegalStateException();
 	}
 
+	@Test
+	public void testTraceCallSite() throws Exception {
+		Hooks.onOperator(hooks -> hooks.operatorCallSite());
+		try {
+			Flux.just(1)
+			    .map(d -> {
+				    throw new RuntimeException();
+			    })
+			    .share()
+			    .filter(d -> true)
+			    .doOnNext(d -> System.currentTimeMillis())
+			    .map(d -> d)
+			    .blockLast();
+		}
+		catch(Exception e){
+			String message = e.getSuppressed()[0].getMessage();
+			Assert.assertTrue(message.contains("\treactor.core.publisher.Flux.map(Flux.java:"));
+			Assert.assertTrue(message.contains("\treactor.HooksTest.testTraceCallSite(HooksTest.java:"));
+			Assert.assertTrue(message.contains("|_\tFlux.share(HooksTest.java:"));
+			Assert.assertTrue(message.contains("|_\tFlux.filter(HooksTest.java:"));
+			Assert.assertFalse(message.contains("org.junit"));
+			return;
+		}
+		finally {
+			Hooks.resetOnOperator();
+		}
+		throw new IllegalStateException();
+	}
+
+	@Test
+	public void testTraceCallSiteOnlyCapturesCallSite() {
+		StringWriter sw = new StringWriter();
+
+		Hooks.onOperator(Hooks.OperatorHook::operatorCallSite);
+
+		try {
+			Flux<Integer> tested = Flux.range(1, 10)
+			                           .map(i -> i < 3 ? i : null)
+			                           .filter(i -> i % 2 == 0)
+			                           .doOnError(t -> t.printStackTrace(new PrintWriter(
+					                           sw)));
+			StepVerifier.create(tested)
+			            .expectNext(2)
+			            .verifyError();
+
+			String debugStack = sw.toString();
+
+			Assert.assertTrue(debugStack.contains(
+					"Assembly trace from producer [reactor.core.publisher.FluxMapFuseable] :\n" +
+							"\treactor.core.publisher.Flux.map("));
+			Assert.assertTrue(debugStack.contains(
+					"\treactor.HooksTest.testTraceCallSiteOnlyCapturesCallSite(HooksTest.java:"));
+		}
+		finally {
+			Hooks.resetOnOperator();
+		}
+	}
+
 	@Test
 	public void testTrace3() throws Exception {
 		Hooks.onOperator(hooks -> hooks.operatorStacktrace());
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.subscriber.AssertSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptivePrefetchTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMin() {
+		AdaptivePrefetch.between(0, 10);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMax() {
+		AdaptivePrefetch.between(10, 9);
+	}
+
+	@Test
+	public void windowStartsAtMin() {
+		AdaptivePrefetch.Window w = AdaptivePrefetch.between(8, 128).window();
+
+		assertThat(w.prefetch).isEqualTo(8);
+		assertThat(w.limit).isEqualTo(6);
+	}
+
+	@Test
+	public void windowGrowsWhenDrainedUpToMax() {
+		AdaptivePrefetch.Window w = AdaptivePrefetch.between(8, 40).window();
+
+		assertThat(w.replenish(6, 0)).isEqualTo(6 + 8);
+		assertThat(w.prefetch).isEqualTo(16);
+		assertThat(w.limit).isEqualTo(12);
+
+		assertThat(w.replenish(12, 0)).isEqualTo(12 + 16);
+		assertThat(w.prefetch).isEqualTo(32);
+
+		assertThat(w.replenish(24, 0)).isEqualTo(24 + 8);
+		assertThat(w.prefetch).isEqualTo(40);
+
+		assertThat(w.replenish(30, 0)).isEqualTo(30);
+		assertThat(w.prefetch).isEqualTo(40);
+	}
+
+	@Test
+	public void windowShrinksWhenBacklogDownToMin() {
+		AdaptivePrefetch.Window w = AdaptivePrefetch.between(8, 64).window();
+		w.prefetch = 64;
+		w.limit = 48;
+
+		assertThat(w.replenish(48, 40)).isEqualTo(48 - 32);
+		assertThat(w.prefetch).isEqualTo(32);
+		assertThat(w.limit).isEqualTo(24);
+
+		w.replenish(24, 20);
+		assertThat(w.prefetch).isEqualTo(16);
+		w.replenish(12, 10);
+		assertThat(w.prefetch).isEqualTo(8);
+		assertThat(w.replenish(6, 6)).isEqualTo(6);
+		assertThat(w.prefetch).isEqualTo(8);
+	}
+
+	@Test
+	public void windowStableWithSmallBacklog() {
+		AdaptivePrefetch.Window w = AdaptivePrefetch.between(8, 64).window();
+		w.prefetch = 32;
+		w.limit = 24;
+
+		assertThat(w.replenish(24, 3)).isEqualTo(24);
+		assertThat(w.prefetch).isEqualTo(32);
+	}
+
+	@Test
+	public void windowAlwaysRequestsAtLeastOne() {
+		AdaptivePrefetch.Window w = AdaptivePrefetch.between(1, 4).window();
+		w.prefetch = 4;
+		w.limit = 1;
+
+		assertThat(w.replenish(1, 3)).isEqualTo(1);
+		assertThat(w.prefetch).isEqualTo(4);
+	}
+
+	@Test
+	public void limitRateGrowsRequests() {
+		List<Long> requests = new ArrayList<>();
+
+		StepVerifier.create(Flux.range(1, 1000)
+		                        .hide()
+		                        .doOnRequest(requests::add)
+		                        .limitRate(AdaptivePrefetch.between(4, 64)))
+		            .expectNextCount(1000)
+		            .verifyComplete();
+
+		//the window doubles from 4 to 64, then replenishes by 3/4 of the max window
+		assertThat(requests).startsWith(4L, 3L + 4L, 6L + 8L, 12L + 16L, 24L + 32L, 48L);
+		assertThat(requests.get(requests.size() - 1)).isEqualTo(48L);
+	}
+
+	@Test
+	public void publishOnAdaptive() {
+		TestPublisher<Integer> tp = TestPublisher.create();
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+		List<Long> requests = new ArrayList<>();
+
+		tp.flux()
+		  .doOnRequest(requests::add)
+		  .publishOn(Schedulers.immediate(), AdaptivePrefetch.between(2, 8))
+		  .subscribe(ts);
+
+		assertThat(requests).containsExactly(2L);
+
+		tp.next(1, 2);
+		//consumed the 2 values while the buffer is empty: window doubled
+		assertThat(requests).containsExactly(2L, 2L + 2L);
+
+		tp.next(3, 4, 5);
+		assertThat(requests).containsExactly(2L, 4L, 3L + 4L);
+
+		ts.assertValues(1, 2, 3, 4, 5);
+	}
+
+	@Test
+	public void publishOnAdaptiveAsync() {
+		StepVerifier.create(Flux.range(1, 10_000)
+		                        .hide()
+		                        .publishOn(Schedulers.single(), AdaptivePrefetch.between(1, 256)))
+		            .expectNextCount(10_000)
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void flatMapAdaptiveInners() {
+		List<Long> requests = new CopyOnWriteArrayList<>();
+
+		StepVerifier.create(Flux.range(0, 10)
+		                        .flatMap(i -> Flux.range(i * 100, 100)
+		                                          .hide()
+		                                          .doOnRequest(requests::add),
+				                        4, AdaptivePrefetch.between(2, 32)))
+		            .expectNextCount(1000)
+		            .verifyComplete();
+
+		//inners start at the min window, then replenish by 3/4 of the max window
+		assertThat(requests).contains(2L, 24L)
+		                    .allMatch(r -> r <= 24L + 16L);
+	}
+
+	@Test
+	public void concatMapAdaptive() {
+		List<Long> requests = new ArrayList<>();
+
+		StepVerifier.create(Flux.range(0, 100)
+		                        .hide()
+		                        .doOnRequest(requests::add)
+		                        .concatMap(Flux::just, AdaptivePrefetch.between(2, 16)))
+		            .expectNextCount(100)
+		            .verifyComplete();
+
+		assertThat(requests.get(0)).isEqualTo(2L);
+		assertThat(requests).contains(12L)
+		                    .allMatch(r -> r <= 12L + 8L);
+	}
+
+	@Test
+	public void scanPrefetchIsMax() {
+		Flux<Integer> f = Flux.range(1, 10)
+		                      .hide()
+		                      .publishOn(Schedulers.immediate(), AdaptivePrefetch.between(2, 8));
+
+		assertThat(f.getPrefetch()).isEqualTo(8);
+	}
+}
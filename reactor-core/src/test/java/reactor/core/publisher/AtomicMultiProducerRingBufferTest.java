@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import reactor.core.publisher.EventLoopProcessor.Slot;
+import reactor.util.concurrent.WaitStrategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AtomicMultiProducerRingBufferTest {
+
+	static RingBuffer<Slot<Long>> ringBuffer(int bufferSize) {
+		return new NotFunRingBuffer<>(Slot::new,
+				new AtomicMultiProducerRingBuffer(bufferSize, WaitStrategy.liteBlocking(), null));
+	}
+
+	@Test
+	public void publishedOutOfOrder() {
+		RingBuffer<Slot<Long>> rb = ringBuffer(8);
+		RingBufferProducer sequencer = rb.getSequencer();
+
+		long first = rb.next();
+		long second = rb.next();
+		assertThat(rb.getCursor()).isEqualTo(1L);
+
+		rb.publish(second);
+		assertThat(sequencer.getHighestPublishedSequence(0, 1)).isEqualTo(-1L);
+
+		rb.publish(first);
+		assertThat(sequencer.getHighestPublishedSequence(0, 1)).isEqualTo(1L);
+	}
+
+	@Test
+	public void publishRange() {
+		RingBuffer<Slot<Long>> rb = ringBuffer(8);
+		RingBufferProducer sequencer = rb.getSequencer();
+
+		long hi = rb.next(4);
+		assertThat(hi).isEqualTo(3L);
+		assertThat(sequencer.getHighestPublishedSequence(0, 3)).isEqualTo(-1L);
+
+		rb.publish(0, hi);
+		assertThat(sequencer.getHighestPublishedSequence(0, 3)).isEqualTo(3L);
+	}
+
+	@Test
+	public void wrapsAroundOnceConsumed() {
+		RingBuffer<Slot<Long>> rb = ringBuffer(4);
+		RingBuffer.Sequence consumer = RingBuffer.newSequence(RingBuffer.INITIAL_CURSOR_VALUE);
+		rb.addGatingSequence(consumer);
+
+		for (long i = 0; i < 20; i++) {
+			long seq = rb.next();
+			rb.get(seq).value = i;
+			rb.publish(seq);
+			assertThat(rb.getSequencer().getHighestPublishedSequence(seq, seq)).isEqualTo(seq);
+			assertThat(rb.get(seq).value).isEqualTo(i);
+			consumer.set(seq);
+		}
+		assertThat(rb.getPending()).isZero();
+	}
+
+	@Test
+	public void concurrentProducers() throws InterruptedException {
+		int producers = 4;
+		int perProducer = 10_000;
+		RingBuffer<Slot<Long>> rb = ringBuffer(64);
+		RingBuffer.Sequence consumed = RingBuffer.newSequence(RingBuffer.INITIAL_CURSOR_VALUE);
+		rb.addGatingSequence(consumed);
+		RingBuffer.Reader reader = rb.newReader();
+
+		CountDownLatch latch = new CountDownLatch(producers);
+		for (int p = 0; p < producers; p++) {
+			long base = p * (long) perProducer;
+			new Thread(() -> {
+				for (int i = 0; i < perProducer; i++) {
+					long seq = rb.next();
+					rb.get(seq).value = base + i;
+					rb.publish(seq);
+				}
+				latch.countDown();
+			}).start();
+		}
+
+		long[] lastSeen = new long[producers];
+		Arrays.fill(lastSeen, -1L);
+		long next = 0;
+		long total = producers * (long) perProducer;
+		while (next < total) {
+			long available = reader.waitFor(next, () -> {});
+			for (; next <= available; next++) {
+				long v = rb.get(next).value;
+				int producer = (int) (v / perProducer);
+				assertThat(v).isGreaterThan(lastSeen[producer]);
+				lastSeen[producer] = v;
+			}
+			consumed.set(available);
+		}
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		for (int p = 0; p < producers; p++) {
+			assertThat(lastSeen[p]).isEqualTo((p + 1L) * perProducer - 1);
+		}
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.scheduler.VirtualTimeScheduler;
+import reactor.test.subscriber.AssertSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BulkheadTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroMaxConcurrency() {
+		Bulkhead.create(0);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullBulkhead() {
+		Mono.never().withPermit(null);
+	}
+
+	@Test
+	public void boundsConcurrencyAcrossSequences() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		Bulkhead bulkhead = Bulkhead.create(3);
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+
+		Flux<Integer> calls = Flux.range(1, 10)
+		                          .flatMap(i -> Mono.delay(Duration.ofMillis(100), vts)
+		                                            .doOnSubscribe(s -> maxActive.accumulateAndGet(
+				                                            active.incrementAndGet(), Math::max))
+		                                            .doOnSuccess(v -> active.decrementAndGet())
+		                                            .map(d -> i),
+				                  bulkhead);
+
+		AssertSubscriber<Integer> ts1 = AssertSubscriber.create();
+		AssertSubscriber<Integer> ts2 = AssertSubscriber.create();
+		calls.subscribe(ts1);
+		calls.subscribe(ts2);
+
+		assertThat(bulkhead.activeCount()).isEqualTo(3);
+		assertThat(bulkhead.waitingCount()).isEqualTo(17);
+
+		vts.advanceTimeBy(Duration.ofMillis(700));
+
+		ts1.assertValueCount(10).assertComplete();
+		ts2.assertValueCount(10).assertComplete();
+		assertThat(maxActive.get()).isEqualTo(3);
+		assertThat(bulkhead.activeCount()).isZero();
+		assertThat(bulkhead.waitingCount()).isZero();
+	}
+
+	@Test
+	public void waitingSubscriptionsStartInArrivalOrder() {
+		Bulkhead bulkhead = Bulkhead.create(1);
+		List<Integer> started = new CopyOnWriteArrayList<>();
+		TestPublisher<Integer> first = TestPublisher.create();
+
+		first.mono().withPermit(bulkhead).subscribe();
+		for (int i = 0; i < 5; i++) {
+			int index = i;
+			Mono.fromRunnable(() -> started.add(index))
+			    .withPermit(bulkhead)
+			    .subscribe();
+		}
+		assertThat(started).isEmpty();
+		assertThat(bulkhead.waitingCount()).isEqualTo(5);
+
+		first.complete();
+
+		assertThat(started).containsExactly(0, 1, 2, 3, 4);
+		assertThat(bulkhead.activeCount()).isZero();
+	}
+
+	@Test
+	public void cancelWaitingLeavesQueue() {
+		Bulkhead bulkhead = Bulkhead.create(1);
+		TestPublisher<Integer> first = TestPublisher.create();
+		TestPublisher<Integer> second = TestPublisher.create();
+
+		first.flux().withPermit(bulkhead).subscribe();
+		Disposable waiting = second.flux().withPermit(bulkhead).subscribe();
+		assertThat(bulkhead.waitingCount()).isEqualTo(1);
+
+		waiting.dispose();
+		assertThat(bulkhead.waitingCount()).isZero();
+
+		first.complete();
+		second.assertNoSubscribers();
+		assertThat(bulkhead.activeCount()).isZero();
+	}
+
+	@Test
+	public void cancelActiveReleasesPermit() {
+		Bulkhead bulkhead = Bulkhead.create(1);
+		TestPublisher<Integer> first = TestPublisher.create();
+		TestPublisher<Integer> second = TestPublisher.create();
+
+		Disposable active = first.flux().withPermit(bulkhead).subscribe();
+		second.flux().withPermit(bulkhead).subscribe();
+
+		active.dispose();
+
+		first.assertCancelled();
+		second.assertSubscribers(1);
+		assertThat(bulkhead.activeCount()).isEqualTo(1);
+		assertThat(bulkhead.waitingCount()).isZero();
+	}
+
+	@Test
+	public void errorReleasesPermit() {
+		Bulkhead bulkhead = Bulkhead.create(1);
+
+		StepVerifier.create(Mono.error(new IllegalStateException("boom"))
+		                        .withPermit(bulkhead))
+		            .verifyErrorMessage("boom");
+
+		StepVerifier.create(Mono.just(1).withPermit(bulkhead))
+		            .expectNext(1)
+		            .verifyComplete();
+		assertThat(bulkhead.activeCount()).isZero();
+	}
+
+	@Test
+	public void requestBeforePermitIsDeferred() {
+		Bulkhead bulkhead = Bulkhead.create(1);
+		TestPublisher<Integer> first = TestPublisher.create();
+		AssertSubscriber<Integer> ts = AssertSubscriber.create(2);
+
+		first.flux().withPermit(bulkhead).subscribe();
+		Flux.range(1, 5).withPermit(bulkhead).subscribe(ts);
+		ts.assertNoValues();
+
+		first.complete();
+		ts.assertValues(1, 2)
+		  .assertNotComplete();
+
+		ts.request(3);
+		ts.assertValues(1, 2, 3, 4, 5)
+		  .assertComplete();
+	}
+
+	@Test
+	public void synchronousInnersDoNotRecurse() {
+		Bulkhead bulkhead = Bulkhead.create(1);
+
+		StepVerifier.create(Flux.range(1, 100_000)
+		                        .flatMap(Mono::just, bulkhead)
+		                        .count())
+		            .expectNext(100_000L)
+		            .verifyComplete();
+		assertThat(bulkhead.activeCount()).isZero();
+	}
+
+	@Test
+	public void scanSubscriber() {
+		Bulkhead bulkhead = Bulkhead.create(1);
+		AssertSubscriber<Integer> actual = AssertSubscriber.create();
+		FluxWithPermit.PermitSubscriber<Integer> test =
+				new FluxWithPermit.PermitSubscriber<>(actual, Flux.never(), bulkhead);
+
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isFalse();
+
+		bulkhead.acquire(test);
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isNotNull();
+
+		test.onComplete();
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
+		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isFalse();
+		assertThat(bulkhead.activeCount()).isZero();
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import org.junit.Test;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DistinctSetsTest {
+
+	@Test
+	public void lruForgetsLeastRecentlySeen() {
+		Collection<Integer> set = DistinctSets.<Integer>lru(2).get();
+
+		assertThat(set.add(1)).isTrue();
+		assertThat(set.add(2)).isTrue();
+		assertThat(set.add(1)).as("duplicate refreshes 1").isFalse();
+		assertThat(set.add(3)).as("evicts 2").isTrue();
+
+		assertThat(set).containsExactly(1, 3);
+		assertThat(set.add(2)).isTrue();
+		assertThat(set.add(3)).isFalse();
+		assertThat(set.add(1)).as("1 was evicted by 2").isTrue();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void lruRejectsZeroKeys() {
+		DistinctSets.lru(0);
+	}
+
+	@Test
+	public void timeWindowForgetsAfterWindow() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		Collection<String> set = DistinctSets.<String>timeWindow(Duration.ofMillis(100), vts).get();
+
+		assertThat(set.add("a")).isTrue();
+		vts.advanceTimeBy(Duration.ofMillis(60));
+		assertThat(set.add("a")).isFalse();
+		assertThat(set.add("b")).isTrue();
+
+		vts.advanceTimeBy(Duration.ofMillis(60));
+		assertThat(set.add("a")).as("still within 1.25 window").isFalse();
+		assertThat(set.size()).isEqualTo(2);
+
+		vts.advanceTimeBy(Duration.ofMillis(10));
+		assertThat(set.add("a")).as("forgotten after 1.25 window").isTrue();
+		assertThat(set.add("b")).isFalse();
+
+		vts.advanceTimeBy(Duration.ofSeconds(10));
+		assertThat(set.size()).isEqualTo(2);
+		assertThat(set.add("b")).isTrue();
+		assertThat(set.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void timeWindowIteratesOverBuckets() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		Collection<String> set = DistinctSets.<String>timeWindow(Duration.ofMillis(40), vts).get();
+
+		set.add("a");
+		vts.advanceTimeBy(Duration.ofMillis(10));
+		set.add("b");
+		set.add("c");
+
+		assertThat(set).containsExactly("a", "b", "c");
+		assertThat(set.toString()).isEqualTo("[a, b, c]");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void timeWindowRejectsSubMillisecond() {
+		DistinctSets.timeWindow(Duration.ofNanos(10), VirtualTimeScheduler.create());
+	}
+
+	@Test
+	public void bloomNeverEmitsDuplicateOfCurrentGeneration() {
+		Collection<Integer> set = DistinctSets.<Integer>bloom(1000, 0.01).get();
+
+		for (int i = 0; i < 999; i++) {
+			set.add(i);
+		}
+		for (int i = 0; i < 999; i++) {
+			assertThat(set.add(i)).isFalse();
+		}
+	}
+
+	@Test
+	public void bloomFalsePositiveRateIsBounded() {
+		Collection<Integer> set = DistinctSets.<Integer>bloom(10_000, 0.01).get();
+
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (!set.add(i)) {
+				falsePositives++;
+			}
+		}
+		for (int i = 10_000; i < 20_000; i++) {
+			if (set.contains(i)) {
+				falsePositives++;
+			}
+		}
+
+		assertThat(falsePositives).isLessThan(400);
+	}
+
+	@Test
+	public void bloomForgetsOlderGenerations() {
+		Collection<Integer> set = DistinctSets.<Integer>bloom(100, 0.001).get();
+
+		assertThat(set.add(-1)).isTrue();
+		for (int i = 0; i < 250; i++) {
+			set.add(i);
+		}
+
+		assertThat(set.contains(-1)).isFalse();
+		assertThat(set.contains(249)).isTrue();
+
+		set.clear();
+		assertThat(set.contains(249)).isFalse();
+		assertThat(set.size()).isZero();
+	}
+
+	@Test
+	public void bloomGenerationsShareTheFalsePositiveRate() {
+		Collection<Integer> set = DistinctSets.<Integer>bloom(10_000, 0.01).get();
+
+		//fill both generations, then probe keys never added
+		for (int i = 0; i < 19_999; i++) {
+			set.add(i);
+		}
+		int falsePositives = 0;
+		for (int i = 100_000; i < 200_000; i++) {
+			if (set.contains(i)) {
+				falsePositives++;
+			}
+		}
+
+		//about 2% if each generation was sized for the whole rate
+		assertThat(falsePositives).isLessThan(1_100);
+	}
+
+	@Test
+	public void bloomToString() {
+		Collection<Integer> set = DistinctSets.<Integer>bloom(100, 0.01).get();
+		set.add(1);
+
+		assertThat(set.toString()).startsWith("Bloom{expectedKeys=100, bits=")
+		                          .endsWith(", count=1}");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void bloomRejectsInvalidRate() {
+		DistinctSets.bloom(10, 1d);
+	}
+}
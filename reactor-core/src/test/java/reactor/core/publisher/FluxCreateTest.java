@@ -1083,6 +1083,44 @@ public class FluxCreateTest {
 		}
 	}
 
+	@Test(timeout = 10_000)
+	public void fluxCreateMultipleProducers() throws InterruptedException {
+		final int producers = 4;
+		final int count = 50_000;
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch end = new CountDownLatch(producers);
+		AtomicReference<FluxSink<Integer>> sinkRef = new AtomicReference<>();
+
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+		Flux.<Integer>create(sinkRef::set).subscribe(ts);
+		FluxSink<Integer> sink = sinkRef.get();
+		assertThat(sink).isInstanceOf(SerializedSink.class);
+
+		for (int p = 0; p < producers; p++) {
+			new Thread(() -> {
+				try {
+					start.await();
+					for (int i = 0; i < count; i++) {
+						sink.next(i);
+					}
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				finally {
+					end.countDown();
+				}
+			}).start();
+		}
+		start.countDown();
+		assertThat(end.await(5, TimeUnit.SECONDS)).isTrue();
+		sink.complete();
+
+		ts.assertValueCount(producers * count)
+		  .assertNoError()
+		  .assertComplete();
+	}
+
 	@Test
 	public void scanBaseSink() {
 		CoreSubscriber<String> actual = new LambdaSubscriber<>(null, e -> {}, null, null);
@@ -16,6 +16,7 @@
 
 package reactor.core.publisher;
 
+import java.time.Duration;
 import java.util.AbstractCollection;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -33,6 +34,8 @@ import reactor.core.Fuseable;
 import reactor.core.Scannable;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.FluxOperatorTest;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.scheduler.VirtualTimeScheduler;
 import reactor.test.subscriber.AssertSubscriber;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -74,6 +77,43 @@ public class FluxDistinctTest extends FluxOperatorTest<String, String> {
 		);
 	}
 
+	@Test
+	public void distinctLastKeys() {
+		StepVerifier.create(Flux.just(1, 2, 1, 3, 2, 1, 1)
+		                        .distinct(i -> i, 2))
+		            .expectNext(1, 2, 3, 2, 1)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void distinctTimeWindow() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		TestPublisher<String> source = TestPublisher.create();
+
+		StepVerifier.create(source.flux()
+		                          .distinct(s -> s, Duration.ofSeconds(4), vts))
+		            .then(() -> source.next("a", "b", "a"))
+		            .expectNext("a", "b")
+		            .then(() -> vts.advanceTimeBy(Duration.ofSeconds(3)))
+		            .then(() -> source.next("b", "c"))
+		            .expectNext("c")
+		            .then(() -> vts.advanceTimeBy(Duration.ofSeconds(3)))
+		            .then(() -> source.next("a", "c"))
+		            .expectNext("a")
+		            .then(source::complete)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void distinctBloom() {
+		StepVerifier.create(Flux.range(0, 1000)
+		                        .concatWith(Flux.range(0, 1000))
+		                        .distinct(i -> i, 10_000, 0.001)
+		                        .count())
+		            .assertNext(c -> assertThat(c).isBetween(990L, 1000L))
+		            .verifyComplete();
+	}
+
 	@Test(expected = NullPointerException.class)
 	public void sourceNull() {
 		new FluxDistinct<>(null, k -> k, HashSet::new);
@@ -17,20 +17,26 @@
 package reactor.core.publisher;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
 import reactor.core.Fuseable;
 import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.FluxOperatorTest;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.scheduler.VirtualTimeScheduler;
 import reactor.test.subscriber.AssertSubscriber;
 import reactor.util.concurrent.QueueSupplier;
 
@@ -835,6 +841,181 @@ public class FluxGroupByTest extends
 		assertThat(initialRequest.get()).isEqualTo(Long.MAX_VALUE);
 	}
 
+	@Test
+	public void maxGroupsEvictsLeastRecentlyUsed() {
+		List<Integer> evicted = new ArrayList<>();
+
+		StepVerifier.create(Flux.just(1, 2, 3, 1, 4)
+		                        .groupBy(i -> i, i -> i, Duration.ZERO, 2, evicted::add)
+		                        .concatMap(g -> g.map(v -> g.key() + ":" + v).collectList()))
+		            .expectNext(Arrays.asList("1:1"))
+		            .expectNext(Arrays.asList("2:2"))
+		            .expectNext(Arrays.asList("3:3"))
+		            .expectNext(Arrays.asList("1:1"))
+		            .expectNext(Arrays.asList("4:4"))
+		            .verifyComplete();
+
+		assertThat(evicted).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	public void maxGroupsLruKeepsActiveGroup() {
+		List<Integer> evicted = new ArrayList<>();
+
+		StepVerifier.create(Flux.just(1, 2, 1, 3, 1)
+		                        .groupBy(i -> i, i -> i, Duration.ZERO, 2,
+				                        GroupEvictionPolicy.LEAST_RECENTLY_USED,
+				                        evicted::add, Schedulers.parallel())
+		                        .flatMap(Flux::collectList)
+		                        .collectList())
+		            .assertNext(groups -> assertThat(groups).hasSize(3)
+		                                                    .contains(Arrays.asList(1, 1, 1)))
+		            .verifyComplete();
+
+		assertThat(evicted).containsExactly(2);
+	}
+
+	@Test
+	public void maxGroupsEvictsOldest() {
+		List<Integer> evicted = new ArrayList<>();
+
+		StepVerifier.create(Flux.just(1, 2, 1, 3, 1)
+		                        .groupBy(i -> i, i -> i, Duration.ZERO, 2,
+				                        GroupEvictionPolicy.OLDEST,
+				                        evicted::add, Schedulers.parallel())
+		                        .flatMap(Flux::collectList)
+		                        .collectList())
+		            .assertNext(groups -> assertThat(groups).hasSize(4)
+		                                                    .contains(Arrays.asList(1, 1), Arrays.asList(1)))
+		            .verifyComplete();
+
+		assertThat(evicted).containsExactly(1, 2);
+	}
+
+	@Test
+	public void maxGroupsBoundsHighCardinality() {
+		List<Integer> evicted = new ArrayList<>();
+
+		StepVerifier.create(Flux.range(0, 1000)
+		                        .groupBy(i -> i, i -> i, Duration.ZERO, 4, evicted::add)
+		                        .flatMap(Flux::count, 2)
+		                        .count())
+		            .expectNext(1000L)
+		            .verifyComplete();
+
+		assertThat(evicted).hasSize(996);
+	}
+
+	@Test
+	public void idleGroupsAreEvicted() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		TestPublisher<String> source = TestPublisher.create();
+		List<String> evicted = new ArrayList<>();
+		AssertSubscriber<List<String>> ts = AssertSubscriber.create();
+
+		source.flux()
+		      .groupBy(s -> s.substring(0, 1), s -> s, Duration.ofSeconds(2),
+				      Integer.MAX_VALUE, GroupEvictionPolicy.LEAST_RECENTLY_USED,
+				      evicted::add, vts)
+		      .flatMap(Flux::collectList)
+		      .subscribe(ts);
+
+		source.next("a1", "b1");
+		vts.advanceTimeBy(Duration.ofSeconds(1));
+		source.next("a2");
+		vts.advanceTimeBy(Duration.ofSeconds(1));
+
+		assertThat(evicted).containsExactly("b");
+		ts.assertValues(Arrays.asList("b1"));
+
+		source.next("b2");
+		vts.advanceTimeBy(Duration.ofSeconds(3));
+
+		assertThat(evicted).containsExactly("b", "a", "b");
+		ts.assertValueCount(3)
+		  .assertNotComplete();
+
+		source.complete();
+		ts.assertComplete();
+		assertThat(vts.isDisposed()).isFalse();
+	}
+
+	@Test
+	public void idleEvictionStopsOnCancel() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		TestPublisher<Integer> source = TestPublisher.create();
+		List<Integer> evicted = new ArrayList<>();
+
+		Disposable d = source.flux()
+		                     .groupBy(i -> i, i -> i, Duration.ofSeconds(1), 10,
+				                     GroupEvictionPolicy.LEAST_RECENTLY_USED,
+				                     evicted::add, vts)
+		                     .flatMap(Flux::collectList)
+		                     .subscribe();
+
+		source.next(1);
+		d.dispose();
+
+		vts.advanceTimeBy(Duration.ofSeconds(10));
+		assertThat(evicted).isEmpty();
+		source.assertCancelled();
+	}
+
+	@Test
+	public void idleEvictionRejectedByScheduler() {
+		Scheduler scheduler = Schedulers.newSingle("idleEvictionRejected");
+		scheduler.dispose();
+
+		StepVerifier.create(Flux.just(1, 2)
+		                        .groupBy(i -> i, i -> i, Duration.ofSeconds(1), 10,
+				                        GroupEvictionPolicy.LEAST_RECENTLY_USED,
+				                        k -> {}, scheduler))
+		            .verifyError(RejectedExecutionException.class);
+	}
+
+	@Test
+	public void idleEvictionRoutesValuesOutsideOfTheLock() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		List<Boolean> locked = new ArrayList<>();
+
+		StepVerifier.create(Flux.just(1, 2, 1)
+		                        .groupBy(i -> i, i -> i, Duration.ofSeconds(1), 10,
+				                        GroupEvictionPolicy.LEAST_RECENTLY_USED,
+				                        k -> {}, vts)
+		                        .flatMap(g -> g.doOnNext(v -> locked.add(Thread.holdsLock(
+				                        ((FluxGroupBy.UnicastGroupedFlux<?, ?>) g).parent.groupMap)))))
+		            .expectNextCount(3)
+		            .verifyComplete();
+
+		assertThat(locked).containsExactly(false, false, false);
+	}
+
+	@Test
+	public void evictionCallbackErrorIsDropped() {
+		List<Throwable> dropped = new ArrayList<>();
+		Hooks.onErrorDropped(dropped::add);
+		try {
+			StepVerifier.create(Flux.just(1, 2, 3)
+			                        .groupBy(i -> i, i -> i, Duration.ZERO, 1, k -> {
+				                        throw new IllegalStateException("boom");
+			                        })
+			                        .flatMap(Flux::collectList))
+			            .expectNextCount(3)
+			            .verifyComplete();
+
+			assertThat(dropped).hasSize(2)
+			                   .allMatch(e -> "boom".equals(e.getMessage()));
+		}
+		finally {
+			Hooks.resetOnErrorDropped();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void maxGroupsMustBePositive() {
+		Flux.just(1).groupBy(i -> i, i -> i, Duration.ZERO, 0, k -> {});
+	}
+
 	@Test
 	public void scanMain() {
 		CoreSubscriber<GroupedFlux<Integer, String>> actual = new LambdaSubscriber<>(null, e -> {}, null, null);
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.Scannable;
+import reactor.test.StepVerifier;
+import reactor.test.subscriber.AssertSubscriber;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FluxMetricsTest {
+
+	static final class TestRecorder implements SequenceMetricsRecorder {
+
+		final Queue<String> events    = new ConcurrentLinkedQueue<>();
+		final AtomicLong    requested = new AtomicLong();
+		final AtomicLong    onNext    = new AtomicLong();
+
+		@Override
+		public void recordSubscription(String name, Set<Tuple2<String, String>> tags) {
+			events.add("subscribe:" + name + tags);
+		}
+
+		@Override
+		public void recordRequest(String name, Set<Tuple2<String, String>> tags, long n) {
+			requested.addAndGet(n);
+		}
+
+		@Override
+		public void recordOnNext(String name, Set<Tuple2<String, String>> tags) {
+			onNext.incrementAndGet();
+		}
+
+		@Override
+		public void recordFirstElement(String name,
+				Set<Tuple2<String, String>> tags,
+				long nanosSinceSubscription) {
+			assertThat(nanosSinceSubscription).isGreaterThanOrEqualTo(0L);
+			events.add("first:" + name);
+		}
+
+		@Override
+		public void recordTermination(String name,
+				Set<Tuple2<String, String>> tags,
+				SignalType signalType,
+				long nanosSinceSubscription) {
+			assertThat(nanosSinceSubscription).isGreaterThanOrEqualTo(0L);
+			events.add(signalType + ":" + name);
+		}
+	}
+
+	@After
+	public void resetHooks() {
+		Hooks.resetOnMetrics();
+	}
+
+	@Test
+	public void passThroughWithoutRecorder() {
+		Flux<Integer> source = Flux.range(1, 3);
+		TestRecorder recorder = new TestRecorder();
+
+		StepVerifier.create(source.metrics())
+		            .expectNext(1, 2, 3)
+		            .verifyComplete();
+
+		assertThat(recorder.events).isEmpty();
+	}
+
+	@Test
+	public void recordsCompletion() {
+		TestRecorder recorder = new TestRecorder();
+		Hooks.onMetrics(recorder);
+
+		StepVerifier.create(Flux.range(1, 10)
+		                        .name("foo")
+		                        .tag("k", "v")
+		                        .metrics(), 3)
+		            .expectNext(1, 2, 3)
+		            .thenRequest(7)
+		            .expectNextCount(7)
+		            .verifyComplete();
+
+		assertThat(recorder.events).containsExactly("subscribe:foo[[k,v]]",
+				"first:foo",
+				"onComplete:foo");
+		assertThat(recorder.requested.get()).isEqualTo(10L);
+		assertThat(recorder.onNext.get()).isEqualTo(10L);
+	}
+
+	@Test
+	public void recordsErrorOnce() {
+		TestRecorder recorder = new TestRecorder();
+		Hooks.onMetrics(recorder);
+
+		StepVerifier.create(Flux.error(new IllegalStateException("boom"))
+		                        .metrics())
+		            .verifyErrorMessage("boom");
+
+		assertThat(recorder.events).containsExactly("subscribe:reactor[]",
+				"onError:reactor");
+	}
+
+	@Test
+	public void recordsCancellation() {
+		TestRecorder recorder = new TestRecorder();
+		Hooks.onMetrics(recorder);
+
+		StepVerifier.create(Flux.range(1, 10)
+		                        .name("foo")
+		                        .metrics()
+		                        .take(2))
+		            .expectNext(1, 2)
+		            .verifyComplete();
+
+		assertThat(recorder.events).containsExactly("subscribe:foo[]",
+				"first:foo",
+				"cancel:foo");
+	}
+
+	@Test
+	public void signalsAfterCancelArePassedThrough() {
+		TestRecorder recorder = new TestRecorder();
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+		FluxMetrics.MetricsSubscriber<Integer> test = new FluxMetrics.MetricsSubscriber<>(
+				ts, recorder, "foo", Collections.emptySet());
+		test.onSubscribe(Operators.emptySubscription());
+
+		ts.cancel();
+		test.onNext(1);
+		test.onError(new IllegalStateException("boom"));
+
+		ts.assertValues(1)
+		  .assertErrorMessage("boom");
+		assertThat(recorder.events).containsExactly("subscribe:foo[]", "cancel:foo");
+		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isTrue();
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
+	}
+
+	@Test
+	public void scanOperator() {
+		Flux<Integer> source = Flux.just(1).name("foo").tag("k", "v");
+		FluxMetrics<Integer> test = new FluxMetrics<>(source);
+
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(source);
+		assertThat(test.name()).isEqualTo("foo");
+		assertThat(test.scan(Scannable.GenericAttr.TAGS))
+				.containsExactly(Tuples.of("k", "v"));
+	}
+
+	@Test
+	public void scanSubscriber() {
+		FluxMetrics.MetricsSubscriber<Integer> test = new FluxMetrics.MetricsSubscriber<>(
+				new LambdaSubscriber<>(null, null, null, null), new TestRecorder(),
+				"foo", Collections.emptySet());
+		Operators.EmptySubscription parent = Operators.EmptySubscription.INSTANCE;
+		test.onSubscribe(parent);
+
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(parent);
+		assertThat(test.scan(Scannable.StringAttr.NAME)).isEqualTo("foo");
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isFalse();
+		test.onComplete();
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FluxNameTest {
+
+	@Test
+	public void scanOperator() {
+		Flux<Integer> named = Flux.range(1, 10)
+		                          .map(i -> i)
+		                          .name("foo")
+		                          .tag("k", "v");
+
+		Scannable scannable = Scannable.from(named);
+		assertThat(named).isInstanceOf(FluxNameFuseable.class);
+		assertThat(scannable.scan(Scannable.StringAttr.NAME)).isEqualTo("foo");
+		assertThat(scannable.scan(Scannable.GenericAttr.TAGS))
+				.containsExactlyElementsOf(Collections.singleton(Tuples.of("k", "v")));
+	}
+
+	@Test
+	public void nameAndTagsAreMergedIntoOneOperator() {
+		Flux<Integer> source = Flux.<Integer>never().hide();
+		Flux<Integer> named = source.name("foo")
+		                            .tag("k1", "v1")
+		                            .name("bar")
+		                            .tag("k2", "v2");
+
+		assertThat(named).isInstanceOf(FluxName.class);
+		assertThat(((FluxName<Integer>) named).source).isSameAs(source);
+		assertThat(Scannable.from(named).name()).isEqualTo("bar");
+		Set<Tuple2<String, String>> expectedTags = new HashSet<>();
+		expectedTags.add(Tuples.of("k1", "v1"));
+		expectedTags.add(Tuples.of("k2", "v2"));
+		assertThat(Scannable.from(named).tags())
+				.containsOnlyElementsOf(expectedTags);
+	}
+
+	@Test
+	public void nameAndTagsDiscoveredFromDownstream() {
+		Flux<String> flux = Flux.just(1, 2)
+		                        .name("foo")
+		                        .tag("k1", "v1")
+		                        .map(String::valueOf)
+		                        .tag("k2", "v2")
+		                        .filter(s -> true);
+
+		Scannable scannable = Scannable.from(flux);
+		assertThat(scannable.name()).isEqualTo("foo");
+		Set<Tuple2<String, String>> expectedTags = new HashSet<>();
+		expectedTags.add(Tuples.of("k1", "v1"));
+		expectedTags.add(Tuples.of("k2", "v2"));
+		assertThat(scannable.tags())
+				.containsOnlyElementsOf(expectedTags);
+	}
+
+	@Test
+	public void passThrough() {
+		StepVerifier.create(Flux.range(1, 5)
+		                        .name("foo"))
+		            .expectFusion(Fuseable.SYNC)
+		            .expectNext(1, 2, 3, 4, 5)
+		            .verifyComplete();
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullName() {
+		Flux.never().name(null);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullTagValue() {
+		Flux.never().tag("k", null);
+	}
+}
@@ -111,6 +111,42 @@ public class FluxOnAssemblyTest {
 		}
 	}
 
+	@Test
+	public void callSiteTraceDoesntFillInStackTrace() {
+		FluxOnAssembly.AssemblyCallSiteSnapshotException e =
+				new FluxOnAssembly.AssemblyCallSiteSnapshotException();
+
+		assertThat(e.getStackTrace()).isEmpty();
+		assertThat(e.isLight()).isFalse();
+		assertThat(e.checkpointed).isFalse();
+		assertThat(e.toString())
+				//this test being in the operators package, it is the last operator frame
+				.startsWith("\treactor.core.publisher.FluxOnAssemblyTest.callSiteTraceDoesntFillInStackTrace(");
+	}
+
+	@Test
+	public void fullStacktraceTakesPrecedenceOverCallSite() {
+		Hooks.onOperator(h -> h.operatorStacktrace().operatorCallSite());
+		try {
+			Flux<Integer> tested = Flux.just(1).map(i -> i);
+			assertThat(((FluxOnAssembly) tested).snapshotStack)
+					.isNotInstanceOf(FluxOnAssembly.AssemblyCallSiteSnapshotException.class);
+		}
+		finally {
+			Hooks.resetOnOperator();
+		}
+
+		Hooks.onOperator(h -> h.operatorCallSite().log("foo"));
+		try {
+			Flux<Integer> tested = Flux.just(1).hide().map(i -> i);
+			assertThat(((FluxOnAssembly) tested).snapshotStack)
+					.isInstanceOf(FluxOnAssembly.AssemblyCallSiteSnapshotException.class);
+		}
+		finally {
+			Hooks.resetOnOperator();
+		}
+	}
+
 	@Test
 	public void checkpointDescriptionAndForceStack() {
 		StringWriter sw = new StringWriter();
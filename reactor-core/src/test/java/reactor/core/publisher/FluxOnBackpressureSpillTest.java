@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.test.StepVerifier;
+import reactor.test.subscriber.AssertSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FluxOnBackpressureSpillTest {
+
+	static final Function<Integer, byte[]> SERIALIZER =
+			v -> ByteBuffer.allocate(4).putInt(v).array();
+
+	static final Function<byte[], Integer> DESERIALIZER =
+			b -> ByteBuffer.wrap(b).getInt();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	Path directory;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = folder.newFolder().toPath();
+	}
+
+	String[] spillFiles() {
+		String[] files = directory.toFile().list();
+		assertThat(files).isNotNull();
+		return files;
+	}
+
+	long diskUsage() {
+		long total = 0L;
+		for (String file : spillFiles()) {
+			total += directory.resolve(file).toFile().length();
+		}
+		return total;
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failNegativeHeapElements() {
+		Flux.<Integer>never().onBackpressureSpill(SERIALIZER, DESERIALIZER, directory, -1, 1024);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failNonPositiveDiskBytes() {
+		Flux.<Integer>never().onBackpressureSpill(SERIALIZER, DESERIALIZER, directory, 16, 0);
+	}
+
+	@Test
+	public void heapOnly() {
+		StepVerifier.create(Flux.range(1, 10)
+		                        .onBackpressureSpill(SERIALIZER, DESERIALIZER, directory, 16, 1024), 0)
+		            .then(() -> assertThat(spillFiles()).isEmpty())
+		            .thenRequest(3)
+		            .expectNext(1, 2, 3)
+		            .thenRequest(7)
+		            .expectNext(4, 5, 6, 7, 8, 9, 10)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void spillsAndReadsBackInOrder() {
+		StepVerifier.create(Flux.range(1, 300_000)
+		                        .onBackpressureSpill(SERIALIZER, DESERIALIZER, directory, 16, 16 * 1024 * 1024), 0)
+		            .then(() -> assertThat(spillFiles()).hasSize(3))
+		            .thenRequest(20)
+		            .expectNextSequence(Flux.range(1, 20).toIterable())
+		            .thenRequest(Long.MAX_VALUE)
+		            .expectNextSequence(Flux.range(21, 299_980).toIterable())
+		            .verifyComplete();
+
+		assertThat(spillFiles()).isEmpty();
+	}
+
+	@Test
+	public void spillsAgainAfterDiskDrained() {
+		DirectProcessor<Integer> up = DirectProcessor.create();
+		String[] spilled = new String[1];
+
+		StepVerifier.create(up.onBackpressureSpill(SERIALIZER, DESERIALIZER, directory, 2, 1024), 0)
+		            .then(() -> {
+			            up.onNext(1);
+			            up.onNext(2);
+			            up.onNext(3);
+			            assertThat(spillFiles()).hasSize(1);
+			            spilled[0] = spillFiles()[0];
+		            })
+		            .thenRequest(3)
+		            .expectNext(1, 2, 3)
+		            .then(() -> {
+			            //the drained segment is truncated and kept for the next spill
+			            assertThat(spillFiles()).containsExactly(spilled[0]);
+			            assertThat(diskUsage()).isZero();
+			            up.onNext(4);
+			            up.onNext(5);
+			            up.onNext(6);
+			            assertThat(spillFiles()).containsExactly(spilled[0]);
+			            assertThat(diskUsage()).isEqualTo(8);
+		            })
+		            .thenRequest(3)
+		            .expectNext(4, 5, 6)
+		            .then(up::onComplete)
+		            .verifyComplete();
+
+		assertThat(spillFiles()).isEmpty();
+	}
+
+	@Test
+	public void emitsDirectlyWhenDemandAndNothingParked() {
+		DirectProcessor<Integer> up = DirectProcessor.create();
+		AssertSubscriber<Integer> ts = AssertSubscriber.create(2);
+
+		up.onBackpressureSpill(SERIALIZER, DESERIALIZER, directory, 0, 1024)
+		  .subscribe(ts);
+
+		up.onNext(1);
+		up.onNext(2);
+		ts.assertValues(1, 2);
+		assertThat(spillFiles()).isEmpty();
+
+		up.onNext(3);
+		ts.assertValues(1, 2);
+		assertThat(spillFiles()).hasSize(1);
+
+		ts.request(2);
+		ts.assertValues(1, 2, 3);
+
+		up.onNext(4);
+		up.onComplete();
+		ts.assertValues(1, 2, 3, 4)
+		  .assertComplete();
+		assertThat(spillFiles()).isEmpty();
+	}
+
+	@Test
+	public void errorDelayedAfterSpilledValues() {
+		StepVerifier.create(Flux.range(1, 5)
+		                        .concatWith(Flux.error(new IllegalStateException("boom")))
+		                        .onBackpressureSpill(SERIALIZER, DESERIALIZER, directory, 2, 1024), 0)
+		            .thenRequest(5)
+		            .expectNext(1, 2, 3, 4, 5)
+		            .verifyErrorMessage("boom");
+
+		assertThat(spillFiles()).isEmpty();
+	}
+
+	@Test
+	public void overflowWhenDiskFull() {
+		DirectProcessor<Integer> up = DirectProcessor.create();
+
+		//each record takes 8 bytes: 2 values on the heap, 8 on disk
+		StepVerifier.create(up.onBackpressureSpill(SERIALIZER, DESERIALIZER, directory, 2, 64), 0)
+		            .then(() -> {
+			            for (int i = 1; i <= 11; i++) {
+				            up.onNext(i);
+			            }
+			            assertThat(up.hasDownstreams()).isFalse();
+		            })
+		            .thenRequest(10)
+		            .expectNext(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)
+		            .verifyErrorMatches(Exceptions::isOverflow);
+	}
+
+	@Test
+	public void oversizedValueGetsItsOwnSegment() {
+		Function<String, byte[]> ser = String::getBytes;
+		Function<byte[], String> deser = String::new;
+		String big = new String(new char[2 * FluxOnBackpressureSpill.SEGMENT_SIZE]).replace('\0', 'x');
+
+		StepVerifier.create(Flux.just("a", big, "b")
+		                        .onBackpressureSpill(ser, deser, directory, 0, 5 * FluxOnBackpressureSpill.SEGMENT_SIZE), 0)
+		            .then(() -> assertThat(spillFiles()).hasSize(3))
+		            .thenRequest(3)
+		            .expectNext("a", big, "b")
+		            .verifyComplete();
+	}
+
+	@Test
+	public void cancelDeletesSpillFiles() {
+		StepVerifier.create(Flux.range(1, 100)
+		                        .onBackpressureSpill(SERIALIZER, DESERIALIZER, directory, 0, 1024), 0)
+		            .then(() -> assertThat(spillFiles()).hasSize(1))
+		            .thenRequest(1)
+		            .expectNext(1)
+		            .thenCancel()
+		            .verify();
+
+		assertThat(spillFiles()).isEmpty();
+	}
+
+	@Test
+	public void valuesAfterCancelAreNotSpilled() {
+		AssertSubscriber<Integer> ts = AssertSubscriber.create(0);
+		FluxOnBackpressureSpill.SpillSubscriber<Integer> test =
+				new FluxOnBackpressureSpill.SpillSubscriber<>(ts,
+						new FluxOnBackpressureSpill.SpillQueue<>(SERIALIZER, DESERIALIZER,
+								directory, 0, 1024));
+		test.onSubscribe(Operators.emptySubscription());
+
+		test.onNext(1);
+		assertThat(spillFiles()).hasSize(1);
+
+		ts.cancel();
+		assertThat(spillFiles()).isEmpty();
+
+		test.onNext(2);
+		test.onNext(3);
+		assertThat(spillFiles()).isEmpty();
+	}
+
+	@Test
+	public void clearedQueueDiscardsOffers() throws IOException {
+		FluxOnBackpressureSpill.SpillQueue<Integer> queue =
+				new FluxOnBackpressureSpill.SpillQueue<>(SERIALIZER, DESERIALIZER,
+						directory, 0, 1024);
+		queue.clear();
+
+		assertThat(queue.offer(1)).isTrue();
+		assertThat(queue.isEmpty()).isTrue();
+		assertThat(spillFiles()).isEmpty();
+	}
+
+	@Test
+	public void diskLimitCountsWrittenRecords() throws IOException {
+		int segment = FluxOnBackpressureSpill.SEGMENT_SIZE;
+		FluxOnBackpressureSpill.SpillQueue<byte[]> queue =
+				new FluxOnBackpressureSpill.SpillQueue<>(Function.identity(),
+						Function.identity(), directory, 0, segment + 16);
+
+		//almost fills the first segment, so the next record rolls over to a second one
+		assertThat(queue.offer(new byte[segment - 8])).isTrue();
+		assertThat(queue.offer(new byte[4])).isTrue();
+		assertThat(spillFiles()).hasSize(2);
+		assertThat(queue.diskBytes).isEqualTo(segment + 4L);
+		assertThat(diskUsage()).isEqualTo(segment + 4L);
+
+		assertThat(queue.offer(new byte[12])).isFalse();
+
+		assertThat(queue.poll()).hasSize(segment - 8);
+		assertThat(queue.poll()).hasSize(4);
+		assertThat(queue.diskBytes).isZero();
+		queue.clear();
+	}
+
+	@Test
+	public void serializerFailure() {
+		DirectProcessor<Integer> up = DirectProcessor.create();
+
+		StepVerifier.create(up.onBackpressureSpill(v -> {
+			throw new IllegalStateException("boom");
+		}, DESERIALIZER, directory, 2, 1024), 0)
+		            .then(() -> {
+			            up.onNext(1);
+			            up.onNext(2);
+			            up.onNext(3);
+			            assertThat(up.hasDownstreams()).isFalse();
+		            })
+		            .thenRequest(3)
+		            .expectNext(1, 2)
+		            .verifyErrorMessage("boom");
+	}
+
+	@Test
+	public void deserializerFailure() {
+		DirectProcessor<Integer> up = DirectProcessor.create();
+
+		StepVerifier.create(up.onBackpressureSpill(SERIALIZER, b -> {
+			throw new IllegalStateException("boom");
+		}, directory, 2, 1024), 0)
+		            .then(() -> {
+			            for (int i = 1; i <= 5; i++) {
+				            up.onNext(i);
+			            }
+		            })
+		            .thenRequest(3)
+		            .expectNext(1, 2)
+		            .verifyErrorMessage("boom");
+
+		assertThat(up.hasDownstreams()).isFalse();
+		assertThat(spillFiles()).isEmpty();
+	}
+
+	@Test
+	public void scanSubscriber() {
+		CoreSubscriber<Integer> actual = new LambdaSubscriber<>(null, e -> {}, null, null);
+		FluxOnBackpressureSpill.SpillSubscriber<Integer> test =
+				new FluxOnBackpressureSpill.SpillSubscriber<>(actual,
+						new FluxOnBackpressureSpill.SpillQueue<>(SERIALIZER, DESERIALIZER, directory, 16, 1024));
+		Subscription parent = Operators.emptySubscription();
+		test.onSubscribe(parent);
+
+		assertThat(test.scan(Scannable.ScannableAttr.ACTUAL)).isSameAs(actual);
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(parent);
+		assertThat(test.scan(Scannable.BooleanAttr.DELAY_ERROR)).isTrue();
+		test.requested = 35;
+		assertThat(test.scan(Scannable.LongAttr.REQUESTED_FROM_DOWNSTREAM)).isEqualTo(35);
+		assertThat(test.scan(Scannable.IntAttr.PREFETCH)).isEqualTo(Integer.MAX_VALUE);
+		assertThat(test.scan(Scannable.IntAttr.BUFFERED)).isEqualTo(0);
+
+		assertThat(test.scan(Scannable.ThrowableAttr.ERROR)).isNull();
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isFalse();
+		test.onError(new IllegalStateException("boom"));
+		assertThat(test.scan(Scannable.ThrowableAttr.ERROR)).isSameAs(test.error);
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
+
+		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isFalse();
+		test.cancel();
+		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isTrue();
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.subscriber.AssertSubscriber;
+import reactor.util.concurrent.QueueSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FluxPublishOnBatchedTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMaxBatch() {
+		Flux.range(1, 10).publishOnBatched(Schedulers.immediate(), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failPrefetch() {
+		Flux.range(1, 10).publishOnBatched(Schedulers.immediate(), 10, 0);
+	}
+
+	@Test
+	public void allValuesInOrder() {
+		List<Integer> values = new ArrayList<>();
+		List<Integer> sizes = new ArrayList<>();
+
+		StepVerifier.create(Flux.range(1, 10_000)
+		                        .hide()
+		                        .publishOnBatched(Schedulers.single(), 64)
+		                        .doOnNext(b -> {
+			                        sizes.add(b.size());
+			                        values.addAll(b);
+		                        })
+		                        .then())
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+
+		assertThat(values).hasSize(10_000);
+		for (int i = 0; i < values.size(); i++) {
+			assertThat(values.get(i)).isEqualTo(i + 1);
+		}
+		assertThat(sizes).allMatch(s -> s > 0 && s <= 64);
+	}
+
+	@Test
+	public void syncFusedSourceFillsBatches() {
+		AssertSubscriber<List<Integer>> ts = AssertSubscriber.create(0);
+
+		Flux.range(1, 25)
+		    .publishOnBatched(Schedulers.immediate(), 10)
+		    .subscribe(ts);
+
+		ts.assertNoValues();
+
+		ts.request(2);
+		ts.assertValues(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10),
+				Arrays.asList(11, 12, 13, 14, 15, 16, 17, 18, 19, 20))
+		  .assertNotComplete();
+
+		ts.request(1);
+		ts.assertValueCount(3)
+		  .assertComplete();
+		assertThat(ts.values().get(2)).containsExactly(21, 22, 23, 24, 25);
+	}
+
+	@Test
+	public void queuedValuesAreBatchedOnRequest() {
+		TestPublisher<Integer> tp = TestPublisher.create();
+		AssertSubscriber<List<Integer>> ts = AssertSubscriber.create(0);
+
+		tp.flux()
+		  .publishOnBatched(Schedulers.immediate(), 4)
+		  .subscribe(ts);
+
+		tp.next(1, 2, 3, 4, 5, 6);
+		ts.assertNoValues();
+
+		ts.request(1);
+		ts.assertValues(Arrays.asList(1, 2, 3, 4));
+
+		ts.request(1);
+		ts.assertValues(Arrays.asList(1, 2, 3, 4), Arrays.asList(5, 6));
+
+		ts.request(1);
+		tp.next(7);
+		ts.assertValueCount(3);
+		assertThat(ts.values().get(2)).containsExactly(7);
+
+		tp.complete();
+		ts.assertComplete();
+	}
+
+	@Test
+	public void requestsUpstreamByValuesConsumed() {
+		TestPublisher<Integer> tp = TestPublisher.create();
+		AssertSubscriber<List<Integer>> ts = AssertSubscriber.create(0);
+
+		tp.flux()
+		  .publishOnBatched(Schedulers.immediate(), 8, 8)
+		  .subscribe(ts);
+
+		tp.assertMinRequested(8);
+		tp.next(1, 2, 3, 4, 5, 6, 7, 8);
+
+		ts.request(1);
+		ts.assertValueCount(1);
+		assertThat(ts.values().get(0)).hasSize(8);
+
+		//replenished after consuming the 6 values limit
+		tp.assertMinRequested(8);
+	}
+
+	@Test
+	public void errorDelayedAfterQueuedValues() {
+		TestPublisher<Integer> tp = TestPublisher.create();
+		AssertSubscriber<List<Integer>> ts = AssertSubscriber.create(0);
+
+		tp.flux()
+		  .publishOnBatched(Schedulers.immediate(), 4)
+		  .subscribe(ts);
+
+		tp.next(1, 2);
+		tp.error(new IllegalStateException("boom"));
+		ts.assertNoValues()
+		  .assertNoError();
+
+		ts.request(1);
+		ts.assertValues(Arrays.asList(1, 2))
+		  .assertErrorMessage("boom");
+	}
+
+	@Test
+	public void cancel() {
+		TestPublisher<Integer> tp = TestPublisher.create();
+
+		StepVerifier.create(tp.flux().publishOnBatched(Schedulers.immediate(), 4))
+		            .then(() -> tp.next(1))
+		            .expectNext(Arrays.asList(1))
+		            .thenCancel()
+		            .verify();
+
+		tp.assertCancelled();
+	}
+
+	@Test
+	public void scanSubscriber() {
+		AssertSubscriber<List<Integer>> actual = AssertSubscriber.create();
+		FluxPublishOnBatched.PublishOnBatchedSubscriber<Integer> test =
+				new FluxPublishOnBatched.PublishOnBatchedSubscriber<>(actual,
+						Schedulers.single(),
+						Schedulers.single().createWorker(),
+						true,
+						16,
+						123,
+						QueueSupplier.unbounded());
+		Subscription parent = Operators.emptySubscription();
+		test.onSubscribe(parent);
+
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(parent);
+		assertThat(test.actual()).isSameAs(actual);
+		assertThat(test.scan(Scannable.BooleanAttr.DELAY_ERROR)).isTrue();
+		assertThat(test.scan(Scannable.IntAttr.PREFETCH)).isEqualTo(123);
+		assertThat(test.scan(Scannable.IntAttr.CAPACITY)).isEqualTo(16);
+		assertThat(test.scan(Scannable.IntAttr.BUFFERED)).isEqualTo(0);
+		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isFalse();
+
+		test.cancel();
+		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isTrue();
+	}
+}
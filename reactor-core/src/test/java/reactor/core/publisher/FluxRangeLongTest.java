@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import org.junit.Test;
+import reactor.core.Fuseable;
+import reactor.test.StepVerifier;
+import reactor.test.subscriber.AssertSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FluxRangeLongTest {
+
+	@Test
+	public void normal() {
+		AssertSubscriber<Long> ts = AssertSubscriber.create();
+
+		Flux.rangeLong(1, 5).subscribe(ts);
+
+		ts.assertNoError()
+		  .assertValues(1L, 2L, 3L, 4L, 5L)
+		  .assertComplete();
+	}
+
+	@Test
+	public void normalBackpressured() {
+		AssertSubscriber<Long> ts = AssertSubscriber.create(0);
+
+		Flux.rangeLong(1, 5).subscribe(ts);
+
+		ts.assertNoValues()
+		  .assertNotComplete();
+
+		ts.request(3);
+
+		ts.assertValues(1L, 2L, 3L)
+		  .assertNotComplete();
+
+		ts.request(10);
+
+		ts.assertValues(1L, 2L, 3L, 4L, 5L)
+		  .assertComplete();
+	}
+
+	@Test
+	public void normalConditional() {
+		StepVerifier.create(Flux.rangeLong(1, 5).filter(v -> v % 2 == 1))
+		            .expectNext(1L, 3L, 5L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void beyondIntegerRange() {
+		StepVerifier.create(Flux.rangeLong(Integer.MAX_VALUE, 3))
+		            .expectNext((long) Integer.MAX_VALUE, Integer.MAX_VALUE + 1L, Integer.MAX_VALUE + 2L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void normalNearMaxValue() {
+		StepVerifier.create(Flux.rangeLong(Long.MAX_VALUE - 1, 2))
+		            .expectNext(Long.MAX_VALUE - 1, Long.MAX_VALUE)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void normalNearMaxValueFused() {
+		StepVerifier.create(Flux.rangeLong(Long.MAX_VALUE - 2, 3))
+		            .expectFusion(Fuseable.SYNC)
+		            .expectNext(Long.MAX_VALUE - 2, Long.MAX_VALUE - 1, Long.MAX_VALUE)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void negativeStart() {
+		StepVerifier.create(Flux.rangeLong(-10, 2))
+		            .expectNext(-10L, -9L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void emptyAndSingle() {
+		StepVerifier.create(Flux.rangeLong(42, 0))
+		            .verifyComplete();
+		StepVerifier.create(Flux.rangeLong(42, 1))
+		            .expectNext(42L)
+		            .verifyComplete();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void countIsNegative() {
+		Flux.rangeLong(1, -1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rangeOverflow() {
+		Flux.rangeLong(2, Long.MAX_VALUE);
+	}
+
+	@Test
+	public void pollLongDoesntBox() {
+		FluxRangeLong.RangeLongSubscription s =
+				new FluxRangeLong.RangeLongSubscription(AssertSubscriber.create(), 5, 8);
+
+		assertThat(s.size()).isEqualTo(3);
+		assertThat(s.pollLong()).isEqualTo(5L);
+		assertThat(s.poll()).isEqualTo(6L);
+		assertThat(s.pollLong()).isEqualTo(7L);
+		assertThat(s.isEmpty()).isTrue();
+		assertThat(s.poll()).isNull();
+	}
+}
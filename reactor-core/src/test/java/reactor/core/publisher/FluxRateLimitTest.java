@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.scheduler.VirtualTimeScheduler;
+import reactor.test.subscriber.AssertSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FluxRateLimitTest {
+
+	final VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroPermits() {
+		Flux.never().rateLimit(0, Duration.ofSeconds(1), vts);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroPeriod() {
+		Flux.never().rateLimit(1, Duration.ZERO, vts);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroBurst() {
+		RateLimiter.create(1, Duration.ofSeconds(1), 0, vts);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullLimiter() {
+		Flux.never().rateLimit(null);
+	}
+
+	@Test
+	public void burstThenPaced() {
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+
+		Flux.range(1, 10)
+		    .rateLimit(3, Duration.ofSeconds(1), vts)
+		    .subscribe(ts);
+
+		ts.assertValues(1, 2, 3)
+		  .assertNotComplete();
+
+		vts.advanceTimeBy(Duration.ofMillis(999));
+		ts.assertValueCount(3);
+
+		vts.advanceTimeBy(Duration.ofMillis(1));
+		ts.assertValues(1, 2, 3, 4, 5, 6);
+
+		vts.advanceTimeBy(Duration.ofSeconds(1));
+		ts.assertValueCount(9)
+		  .assertNotComplete();
+
+		vts.advanceTimeBy(Duration.ofSeconds(1));
+		ts.assertValueCount(10)
+		  .assertComplete();
+	}
+
+	@Test
+	public void unusedPermitsCappedToBurst() {
+		RateLimiter limiter = RateLimiter.create(2, Duration.ofSeconds(1), 5, vts);
+
+		assertThat(limiter.acquire(10)).isEqualTo(5);
+		assertThat(limiter.availablePermits()).isZero();
+
+		vts.advanceTimeBy(Duration.ofMillis(1500));
+		assertThat(limiter.availablePermits()).isEqualTo(2);
+
+		vts.advanceTimeBy(Duration.ofSeconds(10));
+		assertThat(limiter.availablePermits()).isEqualTo(5);
+	}
+
+	@Test
+	public void boundedDemandIsNotExceeded() {
+		AssertSubscriber<Integer> ts = AssertSubscriber.create(2);
+		List<Long> requests = new CopyOnWriteArrayList<>();
+
+		Flux.range(1, 10)
+		    .doOnRequest(requests::add)
+		    .rateLimit(5, Duration.ofSeconds(1), vts)
+		    .subscribe(ts);
+
+		ts.assertValues(1, 2);
+
+		ts.request(5);
+		ts.assertValues(1, 2, 3, 4, 5);
+
+		vts.advanceTimeBy(Duration.ofSeconds(1));
+		ts.assertValues(1, 2, 3, 4, 5, 6, 7);
+
+		assertThat(requests).containsExactly(2L, 3L, 2L);
+	}
+
+	@Test
+	public void unboundedDemandIsPaced() {
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+		List<Long> requests = new CopyOnWriteArrayList<>();
+
+		Flux.range(1, 10)
+		    .doOnRequest(requests::add)
+		    .rateLimit(4, Duration.ofSeconds(1), vts)
+		    .subscribe(ts);
+
+		vts.advanceTimeBy(Duration.ofSeconds(2));
+
+		ts.assertValueCount(10)
+		  .assertComplete();
+		assertThat(requests).containsExactly(4L, 4L, 4L);
+	}
+
+	@Test
+	public void sharedLimiter() {
+		RateLimiter limiter = RateLimiter.create(4, Duration.ofSeconds(1), 4, vts);
+		AssertSubscriber<Integer> ts1 = AssertSubscriber.create();
+		AssertSubscriber<Integer> ts2 = AssertSubscriber.create();
+
+		Flux.range(1, 100).rateLimit(limiter).subscribe(ts1);
+		Flux.range(1, 100).rateLimit(limiter).subscribe(ts2);
+
+		assertThat(ts1.values().size() + ts2.values().size()).isEqualTo(4);
+
+		vts.advanceTimeBy(Duration.ofSeconds(10));
+
+		assertThat(ts1.values().size() + ts2.values().size()).isEqualTo(44);
+		assertThat(limiter.availablePermits()).isZero();
+		//the initial burst went to the first subscriber, refills are shared equally
+		assertThat(ts1.values()).hasSize(24);
+		assertThat(ts2.values()).hasSize(20);
+	}
+
+	@Test
+	public void sharedLimiterDoesNotStarveWaiters() {
+		RateLimiter limiter = RateLimiter.create(10, Duration.ofSeconds(1), 10, vts);
+		AssertSubscriber<Integer> ts1 = AssertSubscriber.create();
+		AssertSubscriber<Integer> ts2 = AssertSubscriber.create();
+
+		Flux.range(1, 1000).rateLimit(limiter).subscribe(ts1);
+		Flux.range(1, 1000).rateLimit(limiter).subscribe(ts2);
+
+		vts.advanceTimeBy(Duration.ofSeconds(100));
+
+		assertThat(ts1.values()).hasSize(510);
+		assertThat(ts2.values()).hasSize(500);
+	}
+
+	@Test
+	public void unevenSharesRotate() {
+		RateLimiter limiter = RateLimiter.create(4, Duration.ofSeconds(1), 4, vts);
+		AssertSubscriber<Integer> ts1 = AssertSubscriber.create(0);
+		AssertSubscriber<Integer> ts2 = AssertSubscriber.create(0);
+		AssertSubscriber<Integer> ts3 = AssertSubscriber.create(0);
+
+		Flux.range(1, 1000).rateLimit(limiter).subscribe(ts1);
+		Flux.range(1, 1000).rateLimit(limiter).subscribe(ts2);
+		Flux.range(1, 1000).rateLimit(limiter).subscribe(ts3);
+		assertThat(limiter.acquire(4)).isEqualTo(4);
+
+		ts1.request(Long.MAX_VALUE);
+		ts2.request(Long.MAX_VALUE);
+		ts3.request(Long.MAX_VALUE);
+
+		//4 permits for 3 sequences: 1 each plus 1 going to each in turn
+		vts.advanceTimeBy(Duration.ofSeconds(3));
+
+		ts1.assertValueCount(4);
+		ts2.assertValueCount(4);
+		ts3.assertValueCount(4);
+	}
+
+	@Test
+	public void smallDemandLeavesPermitsToOthers() {
+		RateLimiter limiter = RateLimiter.create(10, Duration.ofSeconds(1), 10, vts);
+		AssertSubscriber<Integer> ts1 = AssertSubscriber.create(10);
+		AssertSubscriber<Integer> ts2 = AssertSubscriber.create();
+
+		Flux.range(1, 1000).rateLimit(limiter).subscribe(ts1);
+		ts1.request(1);
+		Flux.range(1, 1000).rateLimit(limiter).subscribe(ts2);
+
+		vts.advanceTimeBy(Duration.ofSeconds(1));
+
+		ts1.assertValueCount(11);
+		ts2.assertValueCount(9);
+	}
+
+	@Test
+	public void singleWakeUpForAllWaiters() {
+		RateLimiter limiter = RateLimiter.create(1, Duration.ofSeconds(1), 1, vts);
+
+		Flux.never().rateLimit(limiter).subscribe();
+		Flux.never().rateLimit(limiter).subscribe();
+		Flux.never().rateLimit(limiter).subscribe();
+
+		assertThat(limiter.waiting).hasSize(3);
+		assertThat(limiter.wakeUpScheduled).isTrue();
+
+		vts.advanceTimeBy(Duration.ofSeconds(1));
+
+		assertThat(limiter.waiting).hasSize(3);
+		assertThat(limiter.wakeUpScheduled).isTrue();
+	}
+
+	@Test
+	public void cancelRemovesWaiter() {
+		RateLimiter limiter = RateLimiter.create(1, Duration.ofSeconds(1), 1, vts);
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+
+		Flux.range(1, 10).rateLimit(limiter).subscribe(ts);
+		assertThat(limiter.waiting).hasSize(1);
+
+		ts.cancel();
+		assertThat(limiter.waiting).isEmpty();
+
+		vts.advanceTimeBy(Duration.ofSeconds(1));
+		ts.assertValues(1);
+		assertThat(limiter.availablePermits()).isEqualTo(1);
+	}
+
+	@Test
+	public void terminationRemovesWaiter() {
+		RateLimiter limiter = RateLimiter.create(1, Duration.ofSeconds(1), 1, vts);
+		TestPublisher<Integer> tp = TestPublisher.create();
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+
+		tp.flux().rateLimit(limiter).subscribe(ts);
+		assertThat(limiter.waiting).hasSize(1);
+
+		tp.next(1).complete();
+
+		ts.assertValues(1)
+		  .assertComplete();
+		assertThat(limiter.waiting).isEmpty();
+	}
+
+	@Test
+	public void rejectedTimerErrors() {
+		Scheduler timer = Schedulers.newSingle("rateLimitTimer");
+		timer.dispose();
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+
+		Flux.range(1, 10)
+		    .rateLimit(2, Duration.ofSeconds(1), timer)
+		    .subscribe(ts);
+
+		ts.assertValues(1, 2)
+		  .assertError(RejectedExecutionException.class);
+	}
+
+	@Test
+	public void rejectionDuringOnNextIsSignalledAfterIt() {
+		RateLimiter limiter = RateLimiter.create(1, Duration.ofSeconds(1), 1, vts);
+		List<String> signals = new CopyOnWriteArrayList<>();
+		AtomicReference<FluxRateLimit.RateLimitSubscriber<Integer>> test = new AtomicReference<>();
+		test.set(new FluxRateLimit.RateLimitSubscriber<>(new BaseSubscriber<Integer>() {
+			@Override
+			protected void hookOnNext(Integer value) {
+				test.get().reject();
+				signals.add("next " + value);
+			}
+
+			@Override
+			protected void hookOnError(Throwable throwable) {
+				signals.add("error");
+			}
+		}, limiter));
+		test.get().onSubscribe(Operators.emptySubscription());
+
+		test.get().onNext(1);
+		test.get().onComplete();
+
+		assertThat(signals).containsExactly("next 1", "error");
+	}
+
+	@Test
+	public void scanSubscriber() {
+		RateLimiter limiter = RateLimiter.create(1, Duration.ofSeconds(1), 1, vts);
+		AssertSubscriber<Integer> actual = AssertSubscriber.create(0);
+		FluxRateLimit.RateLimitSubscriber<Integer> test =
+				new FluxRateLimit.RateLimitSubscriber<>(actual, limiter);
+		Subscription parent = Operators.emptySubscription();
+		test.onSubscribe(parent);
+
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(parent);
+
+		test.request(5);
+		assertThat(test.scan(Scannable.LongAttr.REQUESTED_FROM_DOWNSTREAM)).isEqualTo(4L);
+
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isFalse();
+		test.onComplete();
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FluxRetryBackoffTest {
+
+	final List<Long> subscriptionTimes = new CopyOnWriteArrayList<>();
+
+	@After
+	public void tearDown() {
+		VirtualTimeScheduler.reset();
+	}
+
+	/**
+	 * A source failing its first {@code failures} subscriptions then emitting 1, 2, 3,
+	 * recording the virtual time of each subscription.
+	 */
+	Flux<Integer> failing(int failures) {
+		AtomicInteger subscriptions = new AtomicInteger();
+		return Flux.defer(() -> {
+			subscriptionTimes.add(VirtualTimeScheduler.get().now(TimeUnit.MILLISECONDS));
+			if (subscriptions.incrementAndGet() <= failures) {
+				return Flux.error(new IllegalArgumentException("failure " + subscriptions.get()));
+			}
+			return Flux.just(1, 2, 3);
+		});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeRetries() {
+		Flux.never().retryBackoff(-1, Duration.ofMillis(100));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void maxBackoffLowerThanFirstBackoff() {
+		Flux.never().retryBackoff(1, Duration.ofMillis(100), Duration.ofMillis(10));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void jitterFactorOutOfRange() {
+		Flux.never().retryBackoff(1, Duration.ofMillis(100), Duration.ofSeconds(1), 1.5d,
+				Schedulers.parallel());
+	}
+
+	@Test
+	public void exponentialDelaysWithoutJitter() {
+		StepVerifier.withVirtualTime(() -> failing(4)
+				.retryBackoff(4, Duration.ofMillis(100), Duration.ofMillis(500), 0d,
+						Schedulers.parallel()))
+		            .thenAwait(Duration.ofSeconds(10))
+		            .expectNext(1, 2, 3)
+		            .verifyComplete();
+
+		//delays of 100, 200, 400 then capped to 500
+		assertThat(subscriptionTimes).containsExactly(0L, 100L, 300L, 700L, 1200L);
+	}
+
+	@Test
+	public void noDelayBeforeBackoff() {
+		StepVerifier.withVirtualTime(() -> failing(1)
+				.retryBackoff(1, Duration.ofMillis(100), Duration.ofMillis(500), 0d,
+						Schedulers.parallel()))
+		            .expectSubscription()
+		            .expectNoEvent(Duration.ofMillis(99))
+		            .thenAwait(Duration.ofMillis(1))
+		            .expectNext(1, 2, 3)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void retriesExhausted() {
+		StepVerifier.withVirtualTime(() -> failing(3)
+				.retryBackoff(2, Duration.ofMillis(100)))
+		            .thenAwait(Duration.ofSeconds(10))
+		            .consumeErrorWith(e -> assertThat(e).isInstanceOf(IllegalStateException.class)
+		                                                .hasMessage("Retries exhausted: 2/2")
+		                                                .hasCauseInstanceOf(IllegalArgumentException.class))
+		            .verify();
+
+		assertThat(subscriptionTimes).hasSize(3);
+	}
+
+	@Test
+	public void maxElapsedBudget() {
+		StepVerifier.withVirtualTime(() -> failing(10)
+				.retryBackoff(10, Duration.ofMillis(100), Duration.ofSeconds(10), 0d,
+						Duration.ofMillis(500), Schedulers.parallel()))
+		            .thenAwait(Duration.ofSeconds(10))
+		            .consumeErrorWith(e -> assertThat(e).isInstanceOf(IllegalStateException.class)
+		                                                .hasMessage("Retries exhausted: exceeded maximum retry time of 500ms")
+		                                                .hasCauseInstanceOf(IllegalArgumentException.class))
+		            .verify();
+
+		//the third retry would happen at 700ms
+		assertThat(subscriptionTimes).containsExactly(0L, 100L, 300L);
+	}
+
+	@Test
+	public void cancelDuringBackoff() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.getOrSet();
+
+		failing(1).retryBackoff(1, Duration.ofMillis(100))
+		          .subscribe()
+		          .dispose();
+
+		vts.advanceTimeBy(Duration.ofSeconds(1));
+		assertThat(subscriptionTimes).hasSize(1);
+	}
+
+	@Test
+	public void jitteredDelaysStayInBounds() {
+		FluxRetryBackoff.Backoff backoff = new FluxRetryBackoff.Backoff(100,
+				Duration.ofMillis(100),
+				Duration.ofMillis(2000),
+				1d,
+				Duration.ofMillis(Long.MAX_VALUE),
+				Schedulers.immediate(),
+				false);
+
+		boolean varied = false;
+		long previous = 100L;
+		for (int i = 0; i < 1000; i++) {
+			long delay = backoff.delay(i % 20, previous);
+			assertThat(delay).isBetween(100L, 2000L)
+			                 .isLessThanOrEqualTo(Math.max(previous * 3, 100L));
+			varied |= delay != previous;
+			previous = delay;
+		}
+		assertThat(varied).isTrue();
+	}
+
+	@Test
+	public void halfJitterBlendsWithExponential() {
+		FluxRetryBackoff.Backoff backoff = new FluxRetryBackoff.Backoff(100,
+				Duration.ofMillis(100),
+				Duration.ofMillis(10_000),
+				0.5d,
+				Duration.ofMillis(Long.MAX_VALUE),
+				Schedulers.immediate(),
+				false);
+
+		for (int i = 0; i < 1000; i++) {
+			//exponential part is 800, decorrelated part is between 100 and 1200
+			assertThat(backoff.delay(3, 400L)).isBetween(450L, 1000L);
+		}
+	}
+
+	@Test
+	public void delayDoesNotOverflow() {
+		FluxRetryBackoff.Backoff backoff = new FluxRetryBackoff.Backoff(Long.MAX_VALUE,
+				Duration.ofMillis(100),
+				Duration.ofMillis(Long.MAX_VALUE),
+				0d,
+				Duration.ofMillis(Long.MAX_VALUE),
+				Schedulers.immediate(),
+				false);
+
+		assertThat(backoff.delay(Long.MAX_VALUE - 1, 100L)).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	public void repeatWhenEmpty() {
+		AtomicInteger subscriptions = new AtomicInteger();
+
+		StepVerifier.withVirtualTime(() -> Flux.defer(() -> subscriptions.incrementAndGet() < 3 ?
+				Flux.<Integer>empty() : Flux.just(1, 2))
+		                                       .repeatWhenEmpty(5, Duration.ofMillis(100), Duration.ofSeconds(1)))
+		            .thenAwait(Duration.ofSeconds(10))
+		            .expectNext(1, 2)
+		            .verifyComplete();
+
+		assertThat(subscriptions.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void repeatWhenEmptyExhausted() {
+		StepVerifier.withVirtualTime(() -> Flux.<Integer>empty()
+				.repeatWhenEmpty(2, Duration.ofMillis(100), Duration.ofSeconds(1)))
+		            .thenAwait(Duration.ofSeconds(10))
+		            .verifyErrorMessage("Exceeded maximum number of repeats");
+	}
+
+	@Test
+	public void repeatWhenEmptyPropagatesErrors() {
+		AtomicInteger subscriptions = new AtomicInteger();
+
+		StepVerifier.create(Flux.error(new IllegalArgumentException("boom"))
+		                        .doOnSubscribe(s -> subscriptions.incrementAndGet())
+		                        .repeatWhenEmpty(2, Duration.ofMillis(100), Duration.ofSeconds(1)))
+		            .verifyErrorMessage("boom");
+
+		assertThat(subscriptions.get()).isEqualTo(1);
+	}
+}
@@ -15,6 +15,7 @@
  */
 package reactor.core.publisher;
 
+import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -54,6 +55,16 @@ public class FluxSubscribeOnValueTest {
 
 	}
 
+	@Test
+	public void asyncFusedIntoPublishOn() {
+		StepVerifier.create(Flux.just(1)
+		                        .publishOn(Schedulers.single())
+		                        .publishOn(Schedulers.immediate()))
+		            .expectNext(1)
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+	}
+
 	int slow(int slow){
 		try {
 			execs.computeIfAbsent(Thread.currentThread()
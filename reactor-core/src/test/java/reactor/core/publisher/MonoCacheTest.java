@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MonoCacheTest {
+
+	VirtualTimeScheduler vts;
+
+	Map<String, AtomicInteger> loads;
+
+	@Before
+	public void setUp() {
+		vts = VirtualTimeScheduler.getOrSet();
+		loads = new ConcurrentHashMap<>();
+	}
+
+	@After
+	public void tearDown() {
+		VirtualTimeScheduler.reset();
+	}
+
+	Mono<String> load(String key) {
+		int n = loads.computeIfAbsent(key, k -> new AtomicInteger())
+		             .incrementAndGet();
+		return Mono.just(key + n);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroMaxEntries() {
+		MonoCache.of(0, Duration.ofSeconds(1));
+	}
+
+	@Test
+	public void lookupIsLazy() {
+		MonoCache<String, String> cache = MonoCache.of(10, Duration.ofSeconds(10));
+
+		Mono<String> lookup = cache.lookup("a", this::load);
+
+		assertThat(loads).isEmpty();
+		assertThat(cache.misses()).isZero();
+
+		StepVerifier.create(lookup)
+		            .expectNext("a1")
+		            .verifyComplete();
+	}
+
+	@Test
+	public void concurrentLookupsCoalesced() {
+		MonoCache<String, String> cache = MonoCache.of(10, Duration.ofSeconds(10));
+		MonoProcessor<String> source = MonoProcessor.create();
+		AtomicInteger subscriptions = new AtomicInteger();
+		List<String> values = new ArrayList<>();
+
+		for (int i = 0; i < 3; i++) {
+			cache.lookup("a", k -> source.doOnSubscribe(s -> subscriptions.incrementAndGet()))
+			     .subscribe(values::add);
+		}
+
+		assertThat(subscriptions.get()).isEqualTo(1);
+		assertThat(values).isEmpty();
+		assertThat(cache.misses()).isEqualTo(1);
+		assertThat(cache.coalesced()).isEqualTo(2);
+
+		source.onNext("value");
+
+		assertThat(values).containsExactly("value", "value", "value");
+
+		cache.lookup("a", k -> Mono.just("other"))
+		     .subscribe(values::add);
+
+		assertThat(values).containsExactly("value", "value", "value", "value");
+		assertThat(cache.hits()).isEqualTo(1);
+	}
+
+	@Test
+	public void valueExpiresAfterTtl() {
+		MonoCache<String, String> cache = MonoCache.of(10, Duration.ofSeconds(10));
+
+		assertThat(cache.lookup("a", this::load).block()).isEqualTo("a1");
+		vts.advanceTimeBy(Duration.ofSeconds(9));
+		assertThat(cache.lookup("a", this::load).block()).isEqualTo("a1");
+		vts.advanceTimeBy(Duration.ofSeconds(1));
+		assertThat(cache.lookup("a", this::load).block()).isEqualTo("a2");
+
+		assertThat(cache.misses()).isEqualTo(2);
+		assertThat(cache.hits()).isEqualTo(1);
+	}
+
+	@Test
+	public void zeroTtlOnlyCoalesces() {
+		MonoCache<String, String> cache = MonoCache.of(10, Duration.ZERO);
+
+		assertThat(cache.lookup("a", this::load).block()).isEqualTo("a1");
+		assertThat(cache.lookup("a", this::load).block()).isEqualTo("a2");
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void errorsAreNotCached() {
+		MonoCache<String, String> cache = MonoCache.of(10, Duration.ofSeconds(10));
+
+		StepVerifier.create(cache.lookup("a", k -> Mono.error(new IllegalStateException("boom"))))
+		            .verifyErrorMessage("boom");
+
+		assertThat(cache.size()).isZero();
+		assertThat(cache.lookup("a", this::load).block()).isEqualTo("a1");
+	}
+
+	@Test
+	public void emptyIsNotCached() {
+		MonoCache<String, String> cache = MonoCache.of(10, Duration.ofSeconds(10));
+
+		StepVerifier.create(cache.lookup("a", k -> Mono.empty()))
+		            .verifyComplete();
+
+		assertThat(cache.size()).isZero();
+		assertThat(cache.lookup("a", this::load).block()).isEqualTo("a1");
+	}
+
+	@Test
+	public void loaderFailureIsPropagated() {
+		MonoCache<String, String> cache = MonoCache.of(10, Duration.ofSeconds(10));
+
+		StepVerifier.create(cache.lookup("a", k -> {
+			throw new IllegalStateException("boom");
+		}))
+		            .verifyErrorMessage("boom");
+
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void leastRecentlyUsedEvicted() {
+		MonoCache<String, String> cache = MonoCache.of(2, Duration.ofSeconds(10));
+
+		cache.lookup("a", this::load).block();
+		cache.lookup("b", this::load).block();
+		cache.lookup("a", this::load).block();
+		cache.lookup("c", this::load).block();
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.lookup("a", this::load).block()).isEqualTo("a1");
+		assertThat(cache.lookup("b", this::load).block()).isEqualTo("b2");
+	}
+
+	@Test
+	public void invalidate() {
+		MonoCache<String, String> cache = MonoCache.of(10, Duration.ofSeconds(10));
+
+		cache.lookup("a", this::load).block();
+		cache.lookup("b", this::load).block();
+
+		cache.invalidate("a");
+		assertThat(cache.lookup("a", this::load).block()).isEqualTo("a2");
+		assertThat(cache.lookup("b", this::load).block()).isEqualTo("b1");
+
+		cache.invalidateAll();
+		assertThat(cache.size()).isZero();
+		assertThat(cache.lookup("b", this::load).block()).isEqualTo("b2");
+	}
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class MonoCacheTimeTest {
+
+	VirtualTimeScheduler vts;
+
+	/**
+	 * Sources created by the subscriptions to {@link #source}, in order.
+	 */
+	List<MonoProcessor<String>> sources;
+
+	Mono<String> source;
+
+	@Before
+	public void setUp() {
+		vts = VirtualTimeScheduler.getOrSet();
+		sources = new ArrayList<>();
+		source = Mono.defer(() -> {
+			MonoProcessor<String> p = MonoProcessor.create();
+			sources.add(p);
+			return p;
+		});
+	}
+
+	@After
+	public void tearDown() {
+		VirtualTimeScheduler.reset();
+	}
+
+	@Test
+	public void valueCachedForTtl() {
+		AtomicInteger count = new AtomicInteger();
+		Mono<Integer> cached = Mono.fromCallable(count::incrementAndGet)
+		                           .cache(Duration.ofSeconds(10));
+
+		assertThat(cached.block()).isEqualTo(1);
+		vts.advanceTimeBy(Duration.ofSeconds(9));
+		assertThat(cached.block()).isEqualTo(1);
+
+		vts.advanceTimeBy(Duration.ofSeconds(1));
+		assertThat(cached.block()).isEqualTo(2);
+		assertThat(cached.block()).isEqualTo(2);
+	}
+
+	@Test
+	public void zeroTtlDisablesCache() {
+		AtomicInteger count = new AtomicInteger();
+		Mono<Integer> cached = Mono.fromCallable(count::incrementAndGet)
+		                           .cache(Duration.ZERO);
+
+		assertThat(cached.block()).isEqualTo(1);
+		assertThat(cached.block()).isEqualTo(2);
+	}
+
+	@Test
+	public void errorAndEmptyTtls() {
+		AtomicInteger count = new AtomicInteger();
+		Mono<Integer> cached = Mono.defer(() -> {
+			int c = count.incrementAndGet();
+			if (c == 1) {
+				return Mono.<Integer>error(new IllegalStateException("boom"));
+			}
+			return c == 2 ? Mono.<Integer>empty() : Mono.just(c);
+		})
+		                           .cache(Duration.ofSeconds(10),
+				                           Duration.ZERO,
+				                           Duration.ofSeconds(5));
+
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(cached::block);
+		//errors are not cached
+		assertThat(cached.block()).isNull();
+		assertThat(cached.block()).isNull();
+		assertThat(count.get()).isEqualTo(2);
+
+		vts.advanceTimeBy(Duration.ofSeconds(5));
+		assertThat(cached.block()).isEqualTo(3);
+		vts.advanceTimeBy(Duration.ofSeconds(9));
+		assertThat(cached.block()).isEqualTo(3);
+	}
+
+	@Test
+	public void errorCachedForTtl() {
+		AtomicInteger count = new AtomicInteger();
+		Mono<Integer> cached = Mono.<Integer>fromCallable(() -> {
+			throw new IllegalStateException("boom" + count.incrementAndGet());
+		})
+				.cache(Duration.ofSeconds(10));
+
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(cached::block)
+		                                                      .withMessage("boom1");
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(cached::block)
+		                                                      .withMessage("boom1");
+		vts.advanceTimeBy(Duration.ofSeconds(10));
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(cached::block)
+		                                                      .withMessage("boom2");
+	}
+
+	@Test
+	public void concurrentSubscribersShareSubscription() {
+		Mono<String> cached = source.cache(Duration.ofSeconds(10));
+		List<String> values = new ArrayList<>();
+
+		cached.subscribe(values::add);
+		cached.subscribe(values::add);
+		assertThat(sources).hasSize(1);
+		assertThat(values).isEmpty();
+
+		sources.get(0).onNext("a");
+		cached.subscribe(values::add);
+
+		assertThat(values).containsExactly("a", "a", "a");
+		assertThat(sources).hasSize(1);
+	}
+
+	@Test
+	public void cancelledSubscriberDoesNotCancelSharedSubscription() {
+		Mono<String> cached = source.cache(Duration.ofSeconds(10));
+		List<String> values = new ArrayList<>();
+
+		Disposable d = cached.subscribe(v -> values.add("cancelled " + v));
+		cached.subscribe(values::add);
+		d.dispose();
+
+		sources.get(0).onNext("a");
+
+		assertThat(values).containsExactly("a");
+		assertThat(sources.get(0).isCancelled()).isFalse();
+	}
+
+	@Test
+	public void refreshAheadServesStaleValueWhileRefreshing() {
+		Mono<String> cached = source.cacheRefreshAhead(Duration.ofSeconds(10),
+				Duration.ofSeconds(10));
+		List<String> values = new ArrayList<>();
+
+		cached.subscribe(values::add);
+		sources.get(0).onNext("a");
+
+		vts.advanceTimeBy(Duration.ofSeconds(11));
+		cached.subscribe(values::add);
+		cached.subscribe(values::add);
+
+		assertThat(values).containsExactly("a", "a", "a");
+		assertThat(sources).as("single background refresh").hasSize(2);
+
+		sources.get(1).onNext("b");
+		cached.subscribe(values::add);
+
+		assertThat(values).containsExactly("a", "a", "a", "b");
+		assertThat(sources).hasSize(2);
+	}
+
+	@Test
+	public void refreshAheadServesStaleValueBeforeSynchronousRefresh() {
+		List<String> events = new ArrayList<>();
+		AtomicInteger calls = new AtomicInteger();
+		Mono<String> cached = Mono.fromCallable(() -> {
+			String v = "v" + calls.incrementAndGet();
+			events.add("source:" + v);
+			return v;
+		})
+		                          .cacheRefreshAhead(Duration.ofSeconds(10),
+				                          Duration.ofSeconds(10));
+
+		cached.subscribe(v -> events.add("received:" + v));
+		vts.advanceTimeBy(Duration.ofSeconds(11));
+		cached.subscribe(v -> events.add("received:" + v));
+		cached.subscribe(v -> events.add("received:" + v));
+
+		assertThat(events).containsExactly("source:v1", "received:v1",
+				"received:v1", "source:v2",
+				"received:v2");
+	}
+
+	@Test
+	public void refreshAheadFailedRefreshKeepsStaleValue() {
+		Mono<String> cached = source.cacheRefreshAhead(Duration.ofSeconds(10),
+				Duration.ofSeconds(10));
+		List<String> values = new ArrayList<>();
+
+		cached.subscribe(values::add);
+		sources.get(0).onNext("a");
+
+		vts.advanceTimeBy(Duration.ofSeconds(11));
+		cached.subscribe(values::add);
+		sources.get(1).onError(new IllegalStateException("boom"));
+
+		cached.subscribe(values::add);
+		assertThat(values).containsExactly("a", "a", "a");
+		assertThat(sources).as("refresh retried").hasSize(3);
+	}
+
+	@Test
+	public void refreshAheadPastStalePeriodWaitsForSource() {
+		Mono<String> cached = source.cacheRefreshAhead(Duration.ofSeconds(10),
+				Duration.ofSeconds(10));
+		List<String> values = new ArrayList<>();
+
+		cached.subscribe(values::add);
+		sources.get(0).onNext("a");
+
+		vts.advanceTimeBy(Duration.ofSeconds(20));
+		cached.subscribe(values::add);
+
+		assertThat(values).containsExactly("a");
+		assertThat(sources).hasSize(2);
+
+		sources.get(1).onNext("b");
+		assertThat(values).containsExactly("a", "b");
+	}
+
+	@Test
+	public void refreshAheadInitialErrorPropagatedAndNotCached() {
+		Mono<String> cached = source.cacheRefreshAhead(Duration.ofSeconds(10),
+				Duration.ofSeconds(10));
+		List<Throwable> errors = new ArrayList<>();
+
+		cached.subscribe(v -> { }, errors::add);
+		sources.get(0).onError(new IllegalStateException("boom"));
+		assertThat(errors).hasSize(1);
+
+		cached.subscribe(v -> { }, errors::add);
+		assertThat(sources).hasSize(2);
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.After;
+import org.junit.Test;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuple2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MonoMetricsTest {
+
+	@After
+	public void resetHooks() {
+		Hooks.resetOnMetrics();
+	}
+
+	@Test
+	public void recordsTimeToFirstElement() {
+		Queue<Long> firstElement = new ConcurrentLinkedQueue<>();
+		Queue<SignalType> termination = new ConcurrentLinkedQueue<>();
+		Hooks.onMetrics(new SequenceMetricsRecorder() {
+			@Override
+			public void recordFirstElement(String name,
+					Set<Tuple2<String, String>> tags,
+					long nanosSinceSubscription) {
+				assertThat(name).isEqualTo("delayed");
+				firstElement.add(nanosSinceSubscription);
+			}
+
+			@Override
+			public void recordTermination(String name,
+					Set<Tuple2<String, String>> tags,
+					SignalType signalType,
+					long nanosSinceSubscription) {
+				termination.add(signalType);
+			}
+		});
+
+		StepVerifier.create(Mono.delay(Duration.ofMillis(100))
+		                        .name("delayed")
+		                        .metrics())
+		            .expectNext(0L)
+		            .verifyComplete();
+
+		assertThat(firstElement).hasSize(1);
+		assertThat(firstElement.peek()).isGreaterThanOrEqualTo(Duration.ofMillis(100).toNanos());
+		assertThat(termination).containsExactly(SignalType.ON_COMPLETE);
+	}
+
+	@Test
+	public void passThroughWithoutRecorder() {
+		StepVerifier.create(Mono.just(1).metrics())
+		            .expectNext(1)
+		            .verifyComplete();
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import reactor.core.Scannable;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MonoNameTest {
+
+	@Test
+	public void scanOperator() {
+		Mono<Integer> named = Mono.just(1)
+		                          .name("foo")
+		                          .tag("k", "v");
+
+		assertThat(named).isInstanceOf(MonoNameFuseable.class);
+		assertThat(Scannable.from(named).name()).isEqualTo("foo");
+		assertThat(Scannable.from(named).tags())
+				.containsExactlyElementsOf(Collections.singleton(Tuples.of("k", "v")));
+	}
+
+	@Test
+	public void nameAndTagsDiscoveredFromDownstream() {
+		Mono<String> mono = Mono.<Integer>never()
+		                        .hide()
+		                        .tag("k1", "v1")
+		                        .name("foo")
+		                        .map(String::valueOf)
+		                        .tag("k2", "v2");
+
+		assertThat(Scannable.from(mono).name()).isEqualTo("foo");
+		Set<Tuple2<String, String>> expectedTags = new HashSet<>();
+		expectedTags.add(Tuples.of("k1", "v1"));
+		expectedTags.add(Tuples.of("k2", "v2"));
+		assertThat(Scannable.from(mono).tags())
+				.containsOnlyElementsOf(expectedTags);
+	}
+
+	@Test
+	public void passThrough() {
+		StepVerifier.create(Mono.just("foo").hide().name("bar"))
+		            .expectNext("foo")
+		            .verifyComplete();
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Scannable;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.subscriber.AssertSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MonoReduceNumberTest {
+
+	@Test
+	public void sums() {
+		StepVerifier.create(Flux.sumInt(Flux.range(1, 100)))
+		            .expectNext(5050)
+		            .verifyComplete();
+
+		StepVerifier.create(Flux.sumLong(Flux.rangeLong(1, 100)))
+		            .expectNext(5050L)
+		            .verifyComplete();
+
+		StepVerifier.create(Flux.sumDouble(Flux.just(0.5, 1.5, 2d)))
+		            .expectNext(4d)
+		            .verifyComplete();
+
+		StepVerifier.create(Flux.sumLong(Mono.just(3L)))
+		            .expectNext(3L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void sumsOfMixedNumbers() {
+		StepVerifier.create(Flux.sumInt(Flux.<Number>just(1, 2L, 3.7d, (short) 4)))
+		            .expectNext(10)
+		            .verifyComplete();
+
+		StepVerifier.create(Flux.sumDouble(Flux.<Number>just(1, 2L, 0.5f)))
+		            .expectNext(3.5d)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void sumIntOverflows() {
+		StepVerifier.create(Flux.sumInt(Flux.just(Integer.MAX_VALUE, 1)))
+		            .expectNext(Integer.MIN_VALUE)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void sumOfEmptyIsZero() {
+		StepVerifier.create(Flux.sumInt(Flux.<Integer>empty()))
+		            .expectNext(0)
+		            .verifyComplete();
+
+		StepVerifier.create(Flux.sumLong(Flux.<Long>empty()))
+		            .expectNext(0L)
+		            .verifyComplete();
+
+		StepVerifier.create(Flux.sumDouble(Flux.<Double>empty()))
+		            .expectNext(0d)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void minMax() {
+		StepVerifier.create(Flux.minLong(Flux.just(3L, -7L, 12L, 5L)))
+		            .expectNext(-7L)
+		            .verifyComplete();
+
+		StepVerifier.create(Flux.maxLong(Flux.just(3, -7, 12, 5).hide()))
+		            .expectNext(12L)
+		            .verifyComplete();
+
+		StepVerifier.create(Flux.minLong(Flux.rangeLong(-5, 10)))
+		            .expectNext(-5L)
+		            .verifyComplete();
+
+		StepVerifier.create(Flux.maxLong(Flux.range(-5, 10)))
+		            .expectNext(4L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void minMaxAverageOfEmptyIsEmpty() {
+		StepVerifier.create(Flux.minLong(Flux.<Long>empty()))
+		            .verifyComplete();
+
+		StepVerifier.create(Flux.maxLong(Flux.<Long>empty()))
+		            .verifyComplete();
+
+		StepVerifier.create(Flux.averageDouble(Flux.<Double>empty()))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void average() {
+		StepVerifier.create(Flux.averageDouble(Flux.range(1, 4)))
+		            .expectNext(2.5d)
+		            .verifyComplete();
+
+		StepVerifier.create(Flux.averageDouble(Flux.fromIterable(Arrays.asList(1d, 2d, 6d))))
+		            .expectNext(3d)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void sourceError() {
+		StepVerifier.create(Flux.sumInt(Flux.range(1, 3)
+		                                    .concatWith(Mono.error(new IllegalStateException("boom")))))
+		            .verifyErrorMessage("boom");
+	}
+
+	@Test
+	public void cancel() {
+		TestPublisher<Integer> ts = TestPublisher.create();
+
+		StepVerifier.create(Flux.sumInt(ts.flux()))
+		            .then(() -> ts.next(1, 2))
+		            .thenCancel()
+		            .verify();
+
+		ts.assertCancelled();
+	}
+
+	@Test
+	public void backpressured() {
+		AssertSubscriber<Long> ts = AssertSubscriber.create(0);
+
+		Flux.sumLong(Flux.rangeLong(1, 10)).subscribe(ts);
+
+		ts.assertNoValues()
+		  .assertNotComplete();
+
+		ts.request(1);
+
+		ts.assertValues(55L)
+		  .assertComplete();
+	}
+
+	@Test
+	public void fusedRangeDoesntBox() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+		long thread = Thread.currentThread().getId();
+
+		Mono<Long> sum = Flux.sumLong(Flux.rangeLong(1_000, 1_000_000));
+		sum.block();
+
+		long before = threads.getThreadAllocatedBytes(thread);
+		Long result = sum.block();
+		long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+		assertThat(result).isEqualTo(500_999_500_000L);
+		//boxing each value would allocate at least 16MB
+		assertThat(allocated).isLessThan(100_000L);
+	}
+
+	@Test
+	public void scanSubscriber() {
+		MonoReduceNumber.ReduceNumberSubscriber<Integer, Integer> test =
+				new MonoReduceNumber.ReduceNumberSubscriber<>(AssertSubscriber.create(),
+						MonoReduceNumber.SUM_INT);
+		Subscription parent = Operators.emptySubscription();
+		test.onSubscribe(parent);
+
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(parent);
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isFalse();
+
+		test.onComplete();
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MonoRetryBackoffTest {
+
+	@After
+	public void tearDown() {
+		VirtualTimeScheduler.reset();
+	}
+
+	@Test
+	public void retryBackoff() {
+		AtomicInteger subscriptions = new AtomicInteger();
+
+		StepVerifier.withVirtualTime(() -> Mono.defer(() -> subscriptions.incrementAndGet() < 3 ?
+				Mono.<String>error(new IllegalArgumentException("boom")) : Mono.just("foo"))
+		                                       .retryBackoff(3, Duration.ofMillis(100),
+				                                       Duration.ofSeconds(1), 0d, Schedulers.parallel()))
+		            .expectSubscription()
+		            .expectNoEvent(Duration.ofMillis(300))
+		            .expectNext("foo")
+		            .verifyComplete();
+
+		assertThat(subscriptions.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void retryBackoffExhausted() {
+		StepVerifier.withVirtualTime(() -> Mono.error(new IllegalArgumentException("boom"))
+		                                       .retryBackoff(3, Duration.ofMillis(100)))
+		            .thenAwait(Duration.ofSeconds(10))
+		            .consumeErrorWith(e -> assertThat(e).isInstanceOf(IllegalStateException.class)
+		                                                .hasMessage("Retries exhausted: 3/3")
+		                                                .hasCause(new IllegalArgumentException("boom")))
+		            .verify();
+	}
+
+	@Test
+	public void repeatWhenEmpty() {
+		AtomicInteger subscriptions = new AtomicInteger();
+
+		StepVerifier.withVirtualTime(() -> Mono.defer(() -> subscriptions.incrementAndGet() < 4 ?
+				Mono.<String>empty() : Mono.just("foo"))
+		                                       .repeatWhenEmpty(5, Duration.ofMillis(100),
+				                                       Duration.ofMillis(150), 0d,
+				                                       Duration.ofMillis(Long.MAX_VALUE),
+				                                       Schedulers.parallel()))
+		            .expectSubscription()
+		            //100 then capped to 150 twice
+		            .expectNoEvent(Duration.ofMillis(400))
+		            .expectNext("foo")
+		            .verifyComplete();
+
+		assertThat(subscriptions.get()).isEqualTo(4);
+	}
+
+	@Test
+	public void repeatWhenEmptyMaxElapsed() {
+		StepVerifier.withVirtualTime(() -> Mono.empty()
+		                                       .repeatWhenEmpty(100, Duration.ofMillis(100),
+				                                       Duration.ofMillis(100), 0d,
+				                                       Duration.ofMillis(250),
+				                                       Schedulers.parallel()))
+		            .thenAwait(Duration.ofSeconds(10))
+		            .verifyErrorMessage("Exceeded maximum repeat time of 250ms");
+	}
+}
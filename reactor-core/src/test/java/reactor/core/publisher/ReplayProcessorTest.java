@@ -16,6 +16,7 @@
 package reactor.core.publisher;
 
 import java.time.Duration;
+import java.util.stream.IntStream;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -633,6 +634,89 @@ public class ReplayProcessorTest {
 		assertThat(test.scan(Scannable.IntAttr.CAPACITY)).isEqualTo(Integer.MAX_VALUE);
 	}
 
+	@Test
+	public void boundedAcrossSegments() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.create(100, false);
+
+		for (int i = 0; i < 1000; i++) {
+			rp.onNext(i);
+		}
+		rp.onComplete();
+
+		assertThat(rp.buffer.size()).isEqualTo(100);
+		StepVerifier.create(rp.hide())
+		            .expectNextSequence(() -> IntStream.range(900, 1000).iterator())
+		            .verifyComplete();
+		StepVerifier.create(rp)
+		            .expectFusion(Fuseable.ASYNC)
+		            .expectNextSequence(() -> IntStream.range(900, 1000).iterator())
+		            .verifyComplete();
+	}
+
+	@Test
+	public void boundedSlowSubscriberReceivesEvictedValues() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.create(2, false);
+		AssertSubscriber<Integer> ts = AssertSubscriber.create(1);
+		rp.subscribe(ts);
+
+		for (int i = 0; i < 200; i++) {
+			rp.onNext(i);
+		}
+		rp.onComplete();
+
+		ts.assertValues(0);
+		ts.request(Long.MAX_VALUE);
+		ts.assertValueCount(200)
+		  .assertComplete();
+
+		StepVerifier.create(rp.hide())
+		            .expectNext(198, 199)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void boundedSizeOneLate() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.cacheLast();
+
+		for (int i = 0; i < 20; i++) {
+			rp.onNext(i);
+			StepVerifier.create(rp.take(1))
+			            .expectNext(i)
+			            .verifyComplete();
+		}
+	}
+
+	@Test
+	public void timedAcrossSegments() {
+		ReplayProcessor<Integer> rp =
+				ReplayProcessor.createTimeout(Duration.ofSeconds(1));
+
+		for (int i = 0; i < 500; i++) {
+			rp.onNext(i);
+			VirtualTimeScheduler.get().advanceTimeBy(Duration.ofMillis(10));
+		}
+
+		StepVerifier.create(rp.hide())
+		            .expectNextSequence(() -> IntStream.range(401, 500).iterator())
+		            .thenCancel()
+		            .verify();
+
+		StepVerifier.create(rp)
+		            .expectFusion(Fuseable.ASYNC)
+		            .expectNextSequence(() -> IntStream.range(401, 500).iterator())
+		            .thenCancel()
+		            .verify();
+
+		VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(2));
+		rp.onNext(500);
+
+		StepVerifier.create(rp.hide())
+		            .expectNext(500)
+		            .thenCancel()
+		            .verify();
+		assertThat(rp.buffer.size()).isEqualTo(1);
+	}
+
 	@Before
 	public void virtualTime(){
     	VirtualTimeScheduler.getOrSet();
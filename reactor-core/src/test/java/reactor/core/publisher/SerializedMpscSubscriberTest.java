@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Scannable;
+import reactor.test.subscriber.AssertSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SerializedMpscSubscriberTest {
+
+	@Test
+	public void scanSerializedMpscSubscriber() {
+		LambdaSubscriber<String> actual = new LambdaSubscriber<>(null, e -> { }, null, null);
+		SerializedMpscSubscriber<String> test = new SerializedMpscSubscriber<>(actual);
+		Subscription subscription = Operators.emptySubscription();
+		test.onSubscribe(subscription);
+
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(subscription);
+		assertThat(test.scan(Scannable.ScannableAttr.ACTUAL)).isSameAs(actual);
+
+		assertThat(test.scan(Scannable.IntAttr.BUFFERED)).isZero();
+		assertThat(test.scan(Scannable.IntAttr.CAPACITY)).isEqualTo(SerializedMpscSubscriber.LINK_SIZE);
+
+		assertThat(test.scan(Scannable.ThrowableAttr.ERROR)).isNull();
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isFalse();
+		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isFalse();
+
+		test.onError(new IllegalStateException("boom"));
+		assertThat(test.scan(Scannable.ThrowableAttr.ERROR)).hasMessage("boom");
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
+		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isFalse();
+
+		test.cancel();
+		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isTrue();
+	}
+
+	@Test
+	public void reentrantOnNextIsQueued() {
+		List<Integer> seen = new ArrayList<>();
+		@SuppressWarnings("unchecked")
+		SerializedMpscSubscriber<Integer>[] ref = new SerializedMpscSubscriber[1];
+		LambdaSubscriber<Integer> actual = new LambdaSubscriber<>(v -> {
+			seen.add(v);
+			if (v == 1) {
+				ref[0].onNext(2);
+				assertThat(seen).as("not delivered reentrantly").containsExactly(1);
+			}
+		}, null, () -> seen.add(-1), null);
+		ref[0] = new SerializedMpscSubscriber<>(actual);
+		ref[0].onSubscribe(Operators.emptySubscription());
+
+		ref[0].onNext(1);
+		ref[0].onComplete();
+
+		assertThat(seen).containsExactly(1, 2, -1);
+	}
+
+	@Test(timeout = 10_000)
+	public void concurrentProducersAreSerialized() throws InterruptedException {
+		final int producers = 4;
+		final int count = 50_000;
+		DirectProcessor<Integer> processor = DirectProcessor.create();
+		FluxProcessor<Integer, Integer> serialized = processor.serialize();
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+		serialized.subscribe(ts);
+
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch end = new CountDownLatch(producers);
+		for (int p = 0; p < producers; p++) {
+			new Thread(() -> {
+				try {
+					start.await();
+					for (int i = 0; i < count; i++) {
+						serialized.onNext(i);
+					}
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				finally {
+					end.countDown();
+				}
+			}).start();
+		}
+		start.countDown();
+		assertThat(end.await(5, TimeUnit.SECONDS)).isTrue();
+		serialized.onComplete();
+
+		ts.assertValueCount(producers * count)
+		  .assertNoError()
+		  .assertComplete();
+	}
+}
@@ -15,6 +15,9 @@
  */
 package reactor.core.publisher;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -809,6 +812,95 @@ public class TopicProcessorTest {
 		assertThat(test.scan(Scannable.LongAttr.LARGE_BUFFERED)).isEqualTo(Integer.MAX_VALUE + 3L);
 	}
 
+	@Test
+	public void onNextBatchLargerThanBuffer() throws InterruptedException {
+		TopicProcessor<Integer> processor = TopicProcessor.<Integer>builder().name("batch").bufferSize(8).build();
+		BatchRecorder subscriber = new BatchRecorder();
+		processor.subscribe(subscriber);
+
+		processor.onNextBatch(range(1, 100));
+		processor.onComplete();
+
+		assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+		assertThat(subscriber.values()).containsExactly(range(1, 100));
+		assertThat(subscriber.events.get(subscriber.events.size() - 1)).isEqualTo("|");
+	}
+
+	@Test
+	public void onNextBatchIterable() throws InterruptedException {
+		TopicProcessor<Integer> processor = TopicProcessor.<Integer>builder().name("batch").bufferSize(8).build();
+		BatchRecorder subscriber = new BatchRecorder();
+		processor.subscribe(subscriber);
+
+		processor.onNextBatch(Arrays.asList(range(1, 10)));
+		processor.onNextBatch(Flux.range(11, 10).toIterable());
+		processor.onComplete();
+
+		assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+		assertThat(subscriber.values()).containsExactly(range(1, 20));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void onNextBatchRejectsNullBeforeClaiming() {
+		TopicProcessor<Integer> processor = TopicProcessor.<Integer>builder().name("batch").bufferSize(8).build();
+		try {
+			processor.onNextBatch(new Integer[]{1, null, 3});
+		}
+		finally {
+			assertThat(processor.ringBuffer.getCursor()).isEqualTo(-1L);
+			processor.shutdown();
+		}
+	}
+
+	@Test
+	public void batchSinkEmitsOnSizeAndFlush() throws InterruptedException {
+		TopicProcessor<Integer> processor = TopicProcessor.<Integer>builder().name("batch").bufferSize(16).build();
+		BatchRecorder subscriber = new BatchRecorder();
+		processor.subscribe(subscriber);
+
+		BatchSink<Integer> sink = processor.batchSink(4);
+		for (int i = 1; i <= 10; i++) {
+			sink.next(i);
+		}
+		assertThat(processor.ringBuffer.getCursor()).isEqualTo(7L);
+		sink.flush();
+		assertThat(processor.ringBuffer.getCursor()).isEqualTo(9L);
+		sink.next(11).complete();
+
+		assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+		assertThat(subscriber.values()).containsExactly(range(1, 11));
+	}
+
+	@Test
+	public void sharedOnNextBatchIsContiguous() throws InterruptedException {
+		TopicProcessor<Integer> processor = TopicProcessor.<Integer>builder().name("batch").bufferSize(16).share(true).build();
+		BatchRecorder subscriber = new BatchRecorder();
+		processor.subscribe(subscriber);
+
+		Thread other = new Thread(() -> {
+			for (int i = 0; i < 100; i++) {
+				processor.onNextBatch(range(1000 + i * 8, 8));
+			}
+		});
+		other.start();
+		for (int i = 0; i < 100; i++) {
+			processor.onNextBatch(range(i * 8, 8));
+		}
+		other.join();
+		processor.onComplete();
+
+		assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+		List<Integer> values = subscriber.values();
+		assertThat(values).hasSize(1600);
+		for (int i = 0; i < values.size(); i += 8) {
+			int first = values.get(i);
+			assertThat(first % 8).isZero();
+			for (int j = 1; j < 8; j++) {
+				assertThat(values.get(i + j)).isEqualTo(first + j);
+			}
+		}
+	}
+
 	private void assertProcessor(TopicProcessor<Integer> processor,
 			boolean shared,
 			@Nullable String name,
@@ -822,7 +914,8 @@ public class TopicProcessorTest {
 		int expectedBufferSize = bufferSize != null ? bufferSize : QueueSupplier.SMALL_BUFFER_SIZE;
 		boolean expectedAutoCancel = autoCancel != null ? autoCancel : true;
 		WaitStrategy expectedWaitStrategy = waitStrategy != null ? waitStrategy : WaitStrategy.phasedOffLiteLock(200, 100, TimeUnit.MILLISECONDS);
-		Class<?> sequencerClass = shared ? MultiProducerRingBuffer.class : SingleProducerSequencer.class;
+		Class<?> multiProducerClass = RingBuffer.hasUnsafe() ? MultiProducerRingBuffer.class : AtomicMultiProducerRingBuffer.class;
+		Class<?> sequencerClass = shared ? multiProducerClass : SingleProducerSequencer.class;
 
 		assertEquals(expectedName, processor.name);
 		assertEquals(expectedBufferSize, processor.getBufferSize());
@@ -834,4 +927,54 @@ public class TopicProcessorTest {
 		if (requestTaskExecutor != null)
 			assertEquals(requestTaskExecutor, processor.requestTaskExecutor);
 	}
+
+	static final class BatchRecorder implements BatchAwareSubscriber<Integer> {
+
+		final List<String>   events = new ArrayList<>();
+		final CountDownLatch done   = new CountDownLatch(1);
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			s.request(Long.MAX_VALUE);
+		}
+
+		@Override
+		public void onNext(Integer v) {
+			events.add(String.valueOf(v));
+		}
+
+		@Override
+		public void onBatchEnd() {
+			events.add("|");
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			events.add(t.toString());
+			done.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			done.countDown();
+		}
+
+		List<Integer> values() {
+			List<Integer> values = new ArrayList<>();
+			for (String e : events) {
+				if (!"|".equals(e)) {
+					values.add(Integer.valueOf(e));
+				}
+			}
+			return values;
+		}
+	}
+
+	static Integer[] range(int start, int count) {
+		Integer[] values = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = start + i;
+		}
+		return values;
+	}
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.function.Predicate;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TracesTest {
+
+	//this test is in the operators package, so it has to be recognized explicitly
+	static final Predicate<String> USER_CODE =
+			className -> Traces.isUserCode(className) || className.equals(TracesTest.class.getName());
+
+	@Test
+	public void isUserCode() {
+		assertThat(Traces.isUserCode("reactor.core.publisher.Flux")).isFalse();
+		assertThat(Traces.isUserCode("reactor.core.publisher.Hooks$OnOperatorHook")).isFalse();
+		assertThat(Traces.isUserCode("reactor.core.publisher.FluxMapTest")).isFalse();
+		assertThat(Traces.isUserCode("reactor.core.scheduler.Schedulers")).isTrue();
+		assertThat(Traces.isUserCode("com.example.Service")).isTrue();
+	}
+
+	@Test
+	public void callSiteFramesFindFirstUserFrame() {
+		Object[] frames = Traces.callSiteFrames(USER_CODE).get();
+
+		StackTraceElement operator = Traces.TO_STACK_TRACE_ELEMENT.apply(frames[0]);
+		StackTraceElement callSite = Traces.TO_STACK_TRACE_ELEMENT.apply(frames[1]);
+
+		assertThat(operator).isNotNull();
+		assertThat(operator.getClassName()).startsWith("reactor.core.publisher.Traces");
+		assertThat(callSite).isNotNull();
+		assertThat(callSite.getClassName()).isEqualTo(TracesTest.class.getName());
+		assertThat(callSite.getMethodName()).isEqualTo("callSiteFramesFindFirstUserFrame");
+	}
+
+	@Test
+	public void throwableFramesFallback() {
+		Object[] frames = Traces.throwableFrames(USER_CODE);
+
+		assertThat(((StackTraceElement) frames[0]).getMethodName()).isEqualTo("throwableFrames");
+		assertThat(((StackTraceElement) frames[1]).getMethodName())
+				.isEqualTo("throwableFramesFallback");
+	}
+}
@@ -17,6 +17,7 @@
 package reactor.core.publisher;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
@@ -1402,6 +1403,41 @@ public class WorkQueueProcessorTest {
 		Assertions.assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isTrue();
 	}
 
+	@Test
+	public void onNextBatchLargerThanBuffer() throws InterruptedException {
+		WorkQueueProcessor<Integer> processor = WorkQueueProcessor.<Integer>builder().name("batch").bufferSize(8).build();
+		BatchRecorder subscriber = new BatchRecorder();
+		processor.subscribe(subscriber);
+
+		processor.onNextBatch(range(1, 100));
+		processor.onComplete();
+
+		assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+		Assertions.assertThat(subscriber.values()).containsExactly(range(1, 100));
+		Assertions.assertThat(subscriber.events).contains("|");
+	}
+
+	@Test
+	public void batchSinkSharedByWorkers() throws InterruptedException {
+		WorkQueueProcessor<Integer> processor = WorkQueueProcessor.<Integer>builder().name("batch").bufferSize(16).build();
+		BatchRecorder first = new BatchRecorder();
+		BatchRecorder second = new BatchRecorder();
+		processor.subscribe(first);
+		processor.subscribe(second);
+
+		BatchSink<Integer> sink = processor.batchSink(5);
+		for (int i = 1; i <= 100; i++) {
+			sink.next(i);
+		}
+		sink.complete();
+
+		assertTrue(first.done.await(5, TimeUnit.SECONDS));
+		assertTrue(second.done.await(5, TimeUnit.SECONDS));
+		List<Integer> all = new ArrayList<>(first.values());
+		all.addAll(second.values());
+		Assertions.assertThat(all).containsOnly(range(1, 100)).hasSize(100);
+	}
+
 	private void assertProcessor(WorkQueueProcessor<Integer> processor,
 			boolean shared,
 			@Nullable String name,
@@ -1415,7 +1451,8 @@ public class WorkQueueProcessorTest {
 		int expectedBufferSize = bufferSize != null ? bufferSize : QueueSupplier.SMALL_BUFFER_SIZE;
 		boolean expectedAutoCancel = autoCancel != null ? autoCancel : true;
 		WaitStrategy expectedWaitStrategy = waitStrategy != null ? waitStrategy : WaitStrategy.liteBlocking();
-		Class<?> sequencerClass = shared ? MultiProducerRingBuffer.class : SingleProducerSequencer.class;
+		Class<?> multiProducerClass = RingBuffer.hasUnsafe() ? MultiProducerRingBuffer.class : AtomicMultiProducerRingBuffer.class;
+		Class<?> sequencerClass = shared ? multiProducerClass : SingleProducerSequencer.class;
 
 		assertEquals(expectedName, processor.name);
 		assertEquals(expectedBufferSize, processor.getBufferSize());
@@ -1427,4 +1464,54 @@ public class WorkQueueProcessorTest {
 		if (requestTaskExecutor != null)
 			assertEquals(requestTaskExecutor, processor.requestTaskExecutor);
 	}
+
+	static final class BatchRecorder implements BatchAwareSubscriber<Integer> {
+
+		final List<String>   events = new ArrayList<>();
+		final CountDownLatch done   = new CountDownLatch(1);
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			s.request(Long.MAX_VALUE);
+		}
+
+		@Override
+		public void onNext(Integer v) {
+			events.add(String.valueOf(v));
+		}
+
+		@Override
+		public void onBatchEnd() {
+			events.add("|");
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			events.add(t.toString());
+			done.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			done.countDown();
+		}
+
+		List<Integer> values() {
+			List<Integer> values = new ArrayList<>();
+			for (String e : events) {
+				if (!"|".equals(e)) {
+					values.add(Integer.valueOf(e));
+				}
+			}
+			return values;
+		}
+	}
+
+	static Integer[] range(int start, int count) {
+		Integer[] values = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = start + i;
+		}
+		return values;
+	}
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoundedElasticSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newBoundedElastic(4, 100, "boundedElasticSchedulerTest");
+	}
+
+	@Override
+	protected boolean shouldCheckInterrupted() {
+		return true;
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void unsupportedStart() {
+		Scheduler s = scheduler();
+		try {
+			s.start();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeTime() {
+		Schedulers.newBoundedElastic(1, 1, "test", -1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroThreads() {
+		Schedulers.newBoundedElastic(0, 1, "test");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroQueuedTasks() {
+		Schedulers.newBoundedElastic(1, 0, "test");
+	}
+
+	@Test(timeout = 10000)
+	public void threadCountIsCapped() throws Exception {
+		Scheduler s = Schedulers.newBoundedElastic(2, 100, "test-capped");
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		CountDownLatch latch = new CountDownLatch(10);
+
+		try {
+			for (int i = 0; i < 10; i++) {
+				s.schedule(() -> {
+					threads.add(Thread.currentThread());
+					try {
+						Thread.sleep(50);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					latch.countDown();
+				});
+			}
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(threads).hasSize(2);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void rejectsOnceQueueIsFull() throws Exception {
+		Scheduler s = Schedulers.newBoundedElastic(1, 2, "test-rejected");
+		CountDownLatch blocker = new CountDownLatch(1);
+		CountDownLatch running = new CountDownLatch(1);
+
+		try {
+			Scheduler.Worker w = s.createWorker();
+			assertThat(w.schedule(() -> {
+				running.countDown();
+				try {
+					blocker.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			})).isNotSameAs(Scheduler.REJECTED);
+			assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+			assertThat(w.schedule(() -> {})).isNotSameAs(Scheduler.REJECTED);
+			Disposable queued = s.schedule(() -> {});
+			assertThat(queued).isNotSameAs(Scheduler.REJECTED);
+
+			assertThat(w.schedule(() -> {})).isSameAs(Scheduler.REJECTED);
+			assertThat(s.schedule(() -> {})).isSameAs(Scheduler.REJECTED);
+
+			queued.dispose();
+			assertThat(s.schedule(() -> {})).isNotSameAs(Scheduler.REJECTED);
+		}
+		finally {
+			blocker.countDown();
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void releasedThreadIsReused() throws Exception {
+		Scheduler s = Schedulers.newBoundedElastic(4, 100, "test-reuse");
+		BoundedElasticScheduler bounded = (BoundedElasticScheduler) s;
+
+		try {
+			Scheduler.Worker w1 = s.createWorker();
+			BoundedElasticScheduler.BoundedState state = ((BoundedElasticScheduler.BoundedWorker) w1).state;
+			w1.dispose();
+
+			assertThat(bounded.idle).containsExactly(state);
+
+			Scheduler.Worker w2 = s.createWorker();
+			assertThat(((BoundedElasticScheduler.BoundedWorker) w2).state).isSameAs(state);
+			assertThat(bounded.idle).isEmpty();
+			w2.dispose();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void eviction() throws Exception {
+		Scheduler s = Schedulers.newBoundedElastic(2, 10, "test-recycle", 1);
+		BoundedElasticScheduler bounded = (BoundedElasticScheduler) s;
+		bounded.evictor.shutdownNow();
+
+		try {
+			Disposable d = s.schedule(() -> {
+				try {
+					Thread.sleep(10000);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+
+			d.dispose();
+
+			while (!bounded.idle.isEmpty()) {
+				bounded.eviction();
+				Thread.sleep(100);
+			}
+		}
+		finally {
+			s.dispose();
+			s.dispose();//noop
+		}
+
+		assertThat(bounded.idle).isEmpty();
+		assertThat(bounded.busy).isEmpty();
+		assertThat(s.isDisposed()).isTrue();
+	}
+
+	@Test
+	public void smokeTestDelay() {
+		Scheduler s = scheduler();
+
+		try {
+			StepVerifier.create(Mono.delay(Duration.ofMillis(100), s))
+			            .expectSubscription()
+			            .expectNoEvent(Duration.ofMillis(90))
+			            .expectNext(0L)
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void smokeTestInterval() {
+		Scheduler s = scheduler();
+
+		try {
+			StepVerifier.create(Flux.interval(Duration.ofMillis(100), Duration.ofMillis(200), s))
+			            .expectSubscription()
+			            .expectNoEvent(Duration.ofMillis(100))
+			            .expectNext(0L)
+			            .expectNoEvent(Duration.ofMillis(200))
+			            .expectNext(1L)
+			            .expectNoEvent(Duration.ofMillis(200))
+			            .expectNext(2L)
+			            .thenCancel();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import reactor.core.Scannable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstrumentedExecutorServiceTest {
+
+	static final class RecordingRecorder implements SchedulerMetricsRecorder {
+
+		final List<Long> waits      = new CopyOnWriteArrayList<>();
+		final List<Long> executions = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void taskStarted(String schedulerType, String schedulerName, long queueWaitNanos) {
+			waits.add(queueWaitNanos);
+		}
+
+		@Override
+		public void taskCompleted(String schedulerType, String schedulerName, long executionNanos) {
+			executions.add(executionNanos);
+		}
+	}
+
+	@Test
+	public void keepsScheduledFlavor() {
+		ScheduledExecutorService ses = Executors.newSingleThreadScheduledExecutor();
+		ExecutorService es = Executors.newSingleThreadExecutor();
+		try {
+			ExecutorService instrumented = InstrumentedExecutorService.instrument(ses, "test", "test", new RecordingRecorder());
+
+			assertThat(instrumented).isInstanceOf(ScheduledExecutorService.class);
+			assertThat(InstrumentedExecutorService.instrument(instrumented, "test", "test",
+					new RecordingRecorder())).isSameAs(instrumented);
+			assertThat(InstrumentedExecutorService.instrument(es, "test", "test",
+					new RecordingRecorder())).isNotInstanceOf(ScheduledExecutorService.class);
+		}
+		finally {
+			ses.shutdownNow();
+			es.shutdownNow();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void queueWaitIncludesBlockedTime() throws Exception {
+		RecordingRecorder recorder = new RecordingRecorder();
+		InstrumentedExecutorService executor = (InstrumentedExecutorService)
+				InstrumentedExecutorService.instrument(Executors.newFixedThreadPool(1), "test", "test", recorder);
+		try {
+			CountDownLatch blocker = new CountDownLatch(1);
+			CountDownLatch done = new CountDownLatch(1);
+			executor.execute(() -> {
+				try {
+					blocker.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			executor.execute(done::countDown);
+
+			Thread.sleep(100);
+			assertThat(executor.scan(Scannable.IntAttr.ACTIVE_TASKS)).isEqualTo(1);
+			assertThat(executor.scan(Scannable.LongAttr.TASKS_SUBMITTED)).isEqualTo(2L);
+			assertThat(executor.scan(Scannable.IntAttr.BUFFERED)).isEqualTo(1);
+
+			blocker.countDown();
+			assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+			while (recorder.executions.size() < 2) {
+				Thread.sleep(10);
+			}
+
+			assertThat(recorder.waits.get(1)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+			assertThat(recorder.executions.get(0)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+			assertThat(executor.scan(Scannable.LongAttr.TASKS_COMPLETED)).isEqualTo(2L);
+			assertThat(executor.scan(Scannable.IntAttr.ACTIVE_TASKS)).isZero();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void delayedTaskWaitIsMeasuredFromDueTime() throws Exception {
+		RecordingRecorder recorder = new RecordingRecorder();
+		ScheduledExecutorService executor = (ScheduledExecutorService)
+				InstrumentedExecutorService.instrument(new ScheduledThreadPoolExecutor(1), "test", "test", recorder);
+		try {
+			executor.schedule(() -> { }, 200, TimeUnit.MILLISECONDS)
+			        .get(5, TimeUnit.SECONDS);
+
+			assertThat(recorder.waits).hasSize(1);
+			assertThat(recorder.waits.get(0)).isLessThan(TimeUnit.MILLISECONDS.toNanos(200));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void periodicTaskCountsEachRun() throws Exception {
+		RecordingRecorder recorder = new RecordingRecorder();
+		InstrumentedExecutorService executor = (InstrumentedExecutorService)
+				InstrumentedExecutorService.instrument(new ScheduledThreadPoolExecutor(1), "test", "test", recorder);
+		try {
+			CountDownLatch latch = new CountDownLatch(3);
+			ScheduledFuture<?> f = ((ScheduledExecutorService) executor).scheduleAtFixedRate(
+					latch::countDown, 0, 10, TimeUnit.MILLISECONDS);
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			f.cancel(false);
+
+			assertThat(executor.scan(Scannable.LongAttr.TASKS_SUBMITTED)).isEqualTo(1L);
+			assertThat(executor.scan(Scannable.LongAttr.TASKS_COMPLETED)).isGreaterThanOrEqualTo(2L);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void scanExecutorsSumsInstrumentedOnly() {
+		ExecutorService plain = Executors.newSingleThreadExecutor();
+		InstrumentedExecutorService a = (InstrumentedExecutorService)
+				InstrumentedExecutorService.instrument(Executors.newSingleThreadExecutor(), "test", "test", new RecordingRecorder());
+		InstrumentedExecutorService b = (InstrumentedExecutorService)
+				InstrumentedExecutorService.instrument(Executors.newSingleThreadExecutor(), "test", "test", new RecordingRecorder());
+		try {
+			a.submitted.add(3);
+			b.submitted.add(4);
+
+			assertThat(InstrumentedExecutorService.scanExecutors(
+					Scannable.LongAttr.TASKS_SUBMITTED, Arrays.asList(a, plain, b)))
+					.isEqualTo(7L);
+			assertThat(InstrumentedExecutorService.scanExecutors(
+					Scannable.LongAttr.TASKS_SUBMITTED, Arrays.asList(plain)))
+					.isNull();
+		}
+		finally {
+			plain.shutdownNow();
+			a.shutdownNow();
+			b.shutdownNow();
+		}
+	}
+}
@@ -16,22 +16,29 @@
 
 package reactor.core.scheduler;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 import reactor.core.Disposable;
 import reactor.core.Exceptions;
+import reactor.core.Scannable;
 import reactor.core.publisher.DirectProcessor;
 import reactor.core.publisher.Mono;
 
@@ -73,9 +80,171 @@ public class SchedulersTest {
 
 	@After
 	public void resetSchedulers() {
+		Schedulers.disableMetrics();
 		Schedulers.resetFactory();
 	}
 
+	@Test(timeout = 10000)
+	public void metricsAreRecordedOnceEnabled() throws InterruptedException {
+		AtomicInteger submitted = new AtomicInteger();
+		AtomicInteger started = new AtomicInteger();
+		AtomicInteger completed = new AtomicInteger();
+		SchedulerMetricsRecorder recorder = new SchedulerMetricsRecorder() {
+			@Override
+			public void taskSubmitted(String schedulerType, String schedulerName) {
+				assertThat(schedulerType).isEqualTo(Schedulers.PARALLEL);
+				assertThat(schedulerName).isEqualTo("metrics");
+				submitted.incrementAndGet();
+			}
+
+			@Override
+			public void taskStarted(String schedulerType, String schedulerName, long queueWaitNanos) {
+				assertThat(queueWaitNanos).isGreaterThanOrEqualTo(0L);
+				started.incrementAndGet();
+			}
+
+			@Override
+			public void taskCompleted(String schedulerType, String schedulerName, long executionNanos) {
+				assertThat(executionNanos).isGreaterThanOrEqualTo(0L);
+				completed.incrementAndGet();
+			}
+		};
+
+		Schedulers.enableMetrics(recorder);
+		Scheduler s = Schedulers.newParallel("metrics", 2);
+		try {
+			CountDownLatch latch = new CountDownLatch(10);
+			for (int i = 0; i < 10; i++) {
+				s.schedule(latch::countDown);
+			}
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+
+			while (completed.get() < 10) {
+				Thread.sleep(10);
+			}
+
+			Scannable scannable = Scannable.from(s);
+			assertThat(scannable.scan(Scannable.LongAttr.TASKS_SUBMITTED)).isEqualTo(10L);
+			assertThat(scannable.scan(Scannable.LongAttr.TASKS_COMPLETED)).isEqualTo(10L);
+			assertThat(scannable.scan(Scannable.IntAttr.ACTIVE_TASKS)).isZero();
+			assertThat(scannable.scan(Scannable.IntAttr.CAPACITY)).isEqualTo(2);
+			assertThat(submitted.get()).isEqualTo(10);
+			assertThat(started.get()).isEqualTo(10);
+			assertThat(completed.get()).isEqualTo(10);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void metricsAreReportedPerScheduler() throws InterruptedException {
+		Map<String, AtomicInteger> completedByName = new ConcurrentHashMap<>();
+		Schedulers.enableMetrics(new SchedulerMetricsRecorder() {
+			@Override
+			public void taskCompleted(String schedulerType, String schedulerName, long executionNanos) {
+				completedByName.computeIfAbsent(schedulerName, n -> new AtomicInteger())
+				               .incrementAndGet();
+			}
+		});
+		Scheduler first = Schedulers.newParallel("first", 2);
+		Scheduler second = Schedulers.newElastic("second");
+		try {
+			CountDownLatch latch = new CountDownLatch(5);
+			for (int i = 0; i < 3; i++) {
+				first.schedule(latch::countDown);
+			}
+			for (int i = 0; i < 2; i++) {
+				second.schedule(latch::countDown);
+			}
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+
+			while (completedByName.values().stream().mapToInt(AtomicInteger::get).sum() < 5) {
+				Thread.sleep(10);
+			}
+			assertThat(completedByName).containsOnlyKeys("first", "second");
+			assertThat(completedByName.get("first").get()).isEqualTo(3);
+			assertThat(completedByName.get("second").get()).isEqualTo(2);
+		}
+		finally {
+			first.dispose();
+			second.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void metricsForExecutorServiceScheduler() throws InterruptedException {
+		List<String> names = new CopyOnWriteArrayList<>();
+		Schedulers.enableMetrics(new SchedulerMetricsRecorder() {
+			@Override
+			public void taskSubmitted(String schedulerType, String schedulerName) {
+				assertThat(schedulerType).isEqualTo(Schedulers.EXECUTOR_SERVICE);
+				names.add(schedulerName);
+			}
+		});
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		Scheduler s = Schedulers.fromExecutorService(executorService);
+		try {
+			CountDownLatch latch = new CountDownLatch(2);
+			s.schedule(latch::countDown);
+			s.schedule(latch::countDown);
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+
+			Scannable scannable = Scannable.from(s);
+			while (scannable.scan(Scannable.LongAttr.TASKS_COMPLETED) < 2L) {
+				Thread.sleep(10);
+			}
+			assertThat(scannable.scan(Scannable.LongAttr.TASKS_SUBMITTED)).isEqualTo(2L);
+			assertThat(scannable.scan(Scannable.IntAttr.ACTIVE_TASKS)).isZero();
+			assertThat(names).hasSize(2)
+			                 .containsOnly(Schedulers.EXECUTOR_SERVICE + "@" +
+					                 Integer.toHexString(System.identityHashCode(executorService)));
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void metricsNotAvailableWhenDisabled() {
+		Scheduler s = Schedulers.newSingle("noMetrics");
+		try {
+			Scannable scannable = Scannable.from(s);
+			assertThat(scannable.isScanAvailable()).isTrue();
+			assertThat(scannable.scan(Scannable.LongAttr.TASKS_SUBMITTED)).isNull();
+			assertThat(scannable.scan(Scannable.IntAttr.ACTIVE_TASKS)).isNull();
+			assertThat(scannable.scan(Scannable.BooleanAttr.TERMINATED)).isFalse();
+		}
+		finally {
+			s.dispose();
+		}
+		assertThat(Scannable.from(s).scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
+	}
+
+	@Test
+	public void metricsApplyOnTopOfFactoryDecoration() {
+		AtomicInteger decorated = new AtomicInteger();
+		Schedulers.setFactory(new Schedulers.Factory() {
+			@Override
+			public ScheduledExecutorService decorateScheduledExecutorService(String schedulerType,
+					Supplier<? extends ScheduledExecutorService> actual) {
+				decorated.incrementAndGet();
+				return actual.get();
+			}
+		});
+		Schedulers.enableMetrics(new SchedulerMetricsRecorder() { });
+
+		Scheduler s = Schedulers.newSingle("decoratedMetrics");
+		try {
+			assertThat(decorated.get()).isEqualTo(1);
+			assertThat(((SingleScheduler) s).executor)
+					.isInstanceOf(InstrumentedExecutorService.class);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
 	@Test
 	public void testOverride() throws InterruptedException {
 
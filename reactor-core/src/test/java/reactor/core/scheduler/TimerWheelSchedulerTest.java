@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimerWheelSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newTimerWheel(Duration.ofMillis(1), 512);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroTickDuration() {
+		Schedulers.newTimerWheel(Duration.ZERO, 512);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroWheelSize() {
+		Schedulers.newTimerWheel(Duration.ofMillis(1), 0);
+	}
+
+	@Test
+	public void wheelSizeRoundedToPowerOfTwo() {
+		Scheduler s = Schedulers.newTimerWheel(Duration.ofMillis(1), 500);
+		try {
+			assertThat(Scannable.from(s).scan(Scannable.IntAttr.CAPACITY)).isEqualTo(512);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void delayedTaskNeverFiresEarly() throws InterruptedException {
+		Scheduler s = Schedulers.newTimerWheel(Duration.ofMillis(5), 8);
+		try {
+			CountDownLatch latch = new CountDownLatch(1);
+			long start = System.nanoTime();
+			long[] elapsed = new long[1];
+			//longer than a full turn of the wheel
+			s.schedule(() -> {
+				elapsed[0] = System.nanoTime() - start;
+				latch.countDown();
+			}, 100, TimeUnit.MILLISECONDS);
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(TimeUnit.NANOSECONDS.toMillis(elapsed[0])).isGreaterThanOrEqualTo(100L);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void tasksFireInDeadlineOrder() throws InterruptedException {
+		Scheduler s = Schedulers.newTimerWheel(Duration.ofMillis(1), 16);
+		try {
+			List<Integer> order = new CopyOnWriteArrayList<>();
+			CountDownLatch latch = new CountDownLatch(3);
+			s.schedule(() -> { order.add(3); latch.countDown(); }, 90, TimeUnit.MILLISECONDS);
+			s.schedule(() -> { order.add(1); latch.countDown(); }, 10, TimeUnit.MILLISECONDS);
+			s.schedule(() -> { order.add(2); latch.countDown(); }, 50, TimeUnit.MILLISECONDS);
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(order).containsExactly(1, 2, 3);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void massCancelledTimeoutsNeverFire() throws InterruptedException {
+		Scheduler s = Schedulers.newTimerWheel(Duration.ofMillis(1), 512);
+		try {
+			Scheduler.Worker w = s.createWorker();
+			AtomicInteger fired = new AtomicInteger();
+			for (int i = 0; i < 100_000; i++) {
+				Disposable d = w.schedule(fired::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+				d.dispose();
+				assertThat(d.isDisposed()).isTrue();
+			}
+
+			CountDownLatch latch = new CountDownLatch(1);
+			w.schedule(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(fired.get()).isZero();
+			w.dispose();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void workerDisposeCancelsDelayedTasks() throws InterruptedException {
+		Scheduler s = Schedulers.newTimerWheel(Duration.ofMillis(1), 64);
+		try {
+			Scheduler.Worker w = s.createWorker();
+			AtomicInteger fired = new AtomicInteger();
+			Disposable d = w.schedule(fired::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+			w.dispose();
+
+			assertThat(d.isDisposed()).isTrue();
+			Thread.sleep(100);
+			assertThat(fired.get()).isZero();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void restartAfterDispose() throws InterruptedException {
+		Scheduler s = Schedulers.newTimerWheel(Duration.ofMillis(1), 64);
+		try {
+			s.dispose();
+			assertThat(s.schedule(() -> { }, 1, TimeUnit.MILLISECONDS)).isSameAs(Scheduler.REJECTED);
+
+			s.start();
+			CountDownLatch latch = new CountDownLatch(1);
+			s.schedule(latch::countDown, 1, TimeUnit.MILLISECONDS);
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void fluxTimeout() {
+		Scheduler s = Schedulers.newTimerWheel(Duration.ofMillis(1), 512);
+		try {
+			StepVerifier.create(Flux.never()
+			                        .timeout(Duration.ofMillis(50), s))
+			            .expectError(TimeoutException.class)
+			            .verify(Duration.ofSeconds(5));
+
+			StepVerifier.create(Flux.range(1, 3)
+			                        .timeout(Duration.ofMillis(500), s))
+			            .expectNext(1, 2, 3)
+			            .expectComplete()
+			            .verify(Duration.ofSeconds(5));
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void monoTimeout() {
+		Scheduler s = Schedulers.newTimerWheel(Duration.ofMillis(1), 512);
+		try {
+			StepVerifier.create(Mono.never()
+			                        .timeout(Duration.ofMillis(50), s))
+			            .expectError(TimeoutException.class)
+			            .verify(Duration.ofSeconds(5));
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void bufferTimeout() {
+		Scheduler s = Schedulers.newTimerWheel(Duration.ofMillis(1), 512);
+		try {
+			DirectProcessor<Integer> source = DirectProcessor.create();
+
+			StepVerifier.create(source.bufferTimeout(10, Duration.ofMillis(50), s))
+			            .then(() -> {
+				            source.onNext(1);
+				            source.onNext(2);
+			            })
+			            .expectNext(Arrays.asList(1, 2))
+			            .then(source::onComplete)
+			            .expectComplete()
+			            .verify(Duration.ofSeconds(5));
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void interval() {
+		Scheduler s = Schedulers.newTimerWheel(Duration.ofMillis(1), 64);
+		try {
+			StepVerifier.create(Flux.interval(Duration.ofMillis(10), s)
+			                        .take(5))
+			            .expectNext(0L, 1L, 2L, 3L, 4L)
+			            .expectComplete()
+			            .verify(Duration.ofSeconds(5));
+		}
+		finally {
+			s.dispose();
+		}
+	}
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WorkStealingSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newWorkStealing("workStealingSchedulerTest", 4);
+	}
+
+	@Override
+	protected boolean shouldCheckDisposeTask() {
+		return false;
+	}
+
+	@Override
+	protected boolean shouldCheckDirectTimeScheduling() {
+		return false;
+	}
+
+	@Override
+	protected boolean shouldCheckWorkerTimeScheduling() {
+		return false;
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeParallelism() {
+		Schedulers.newWorkStealing("test", 0);
+	}
+
+	@Test
+	public void backedByForkJoinPool() {
+		WorkStealingScheduler s =
+				(WorkStealingScheduler) Schedulers.newWorkStealing("test-fjp", 3, true);
+		try {
+			assertThat(s.executor).isInstanceOf(ForkJoinPool.class);
+			assertThat(((ForkJoinPool) s.executor).getParallelism()).isEqualTo(3);
+		}
+		finally {
+			s.dispose();
+		}
+		assertThat(s.isDisposed()).isTrue();
+
+		s.start();
+		try {
+			assertThat(s.isDisposed()).isFalse();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void namedDaemonThreads() throws Exception {
+		Scheduler s = Schedulers.newWorkStealing("test-threads", 2, true);
+		AtomicReference<Thread> thread = new AtomicReference<>();
+		CountDownLatch latch = new CountDownLatch(1);
+
+		try {
+			s.schedule(() -> {
+				thread.set(Thread.currentThread());
+				latch.countDown();
+			});
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(thread.get()).isInstanceOf(WorkStealingScheduler.WorkStealingThread.class);
+			assertThat(thread.get().getName()).startsWith("test-threads-");
+			assertThat(thread.get().isDaemon()).isTrue();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	static final class ForkJoinThreadFactory implements ThreadFactory,
+	                                                    ForkJoinWorkerThreadFactory {
+
+		@Override
+		public Thread newThread(Runnable r) {
+			throw new AssertionError("not expected to be used as a template");
+		}
+
+		@Override
+		public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+			ForkJoinWorkerThread t = new WorkStealingScheduler.WorkStealingThread(pool);
+			t.setName("test-fj");
+			t.setDaemon(true);
+			return t;
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void forkJoinThreadFactoryCreatesThreadsDirectly() throws Exception {
+		Scheduler s = Schedulers.newWorkStealing(1, new ForkJoinThreadFactory());
+		AtomicReference<String> name = new AtomicReference<>();
+		CountDownLatch latch = new CountDownLatch(1);
+
+		try {
+			s.schedule(() -> {
+				name.set(Thread.currentThread().getName());
+				latch.countDown();
+			});
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(name.get()).isEqualTo("test-fj");
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void rejectedResubmitDisposesQueuedTasks() throws Exception {
+		Scheduler s = Schedulers.newWorkStealing("test-resubmit", 1);
+		Scheduler.Worker w = s.createWorker();
+		CountDownLatch first = new CountDownLatch(1);
+		CountDownLatch lastOfBatchRunning = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger ran = new AtomicInteger();
+
+		try {
+			w.schedule(() -> await(first));
+			//these only start once the first task is done, as a single batch
+			for (int i = 1; i < WorkStealingScheduler.MAX_DRAIN - 1; i++) {
+				w.schedule(ran::incrementAndGet);
+			}
+			w.schedule(() -> {
+				lastOfBatchRunning.countDown();
+				await(release);
+			});
+			first.countDown();
+			assertThat(lastOfBatchRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+			//queued while the batch runs, so the worker resubmits itself to run them
+			List<Disposable> pending = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				pending.add(w.schedule(ran::incrementAndGet));
+			}
+			s.dispose();
+			release.countDown();
+
+			while (!w.isDisposed()) {
+				Thread.sleep(10);
+			}
+			assertThat(pending).allMatch(Disposable::isDisposed);
+			assertThat(ran.get()).isEqualTo(WorkStealingScheduler.MAX_DRAIN - 2);
+		}
+		finally {
+			release.countDown();
+			s.dispose();
+		}
+	}
+
+	static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			//shutting down the pool interrupts the running task
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void workerPreservesOrdering() throws Exception {
+		Scheduler s = scheduler();
+		Scheduler.Worker w = s.createWorker();
+		List<Integer> values = new CopyOnWriteArrayList<>();
+		CountDownLatch latch = new CountDownLatch(1);
+
+		try {
+			for (int i = 0; i < 1000; i++) {
+				int v = i;
+				w.schedule(() -> values.add(v));
+			}
+			w.schedule(latch::countDown);
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(values).hasSize(1000)
+			                  .isSorted();
+		}
+		finally {
+			w.dispose();
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void workerNotPinnedBehindLongTask() throws Exception {
+		Scheduler s = Schedulers.newWorkStealing("test-steal", 2);
+		CountDownLatch blocker = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(10);
+
+		try {
+			Scheduler.Worker stuck = s.createWorker();
+			stuck.schedule(() -> {
+				try {
+					blocker.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+
+			//all other workers make progress on the remaining thread
+			for (int i = 0; i < 10; i++) {
+				s.createWorker()
+				 .schedule(done::countDown);
+			}
+
+			assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+		finally {
+			blocker.countDown();
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void parallelRunOn() {
+		Scheduler s = scheduler();
+		try {
+			StepVerifier.create(Flux.range(1, 10_000)
+			                        .parallel(4)
+			                        .runOn(s)
+			                        .map(i -> i * 2)
+			                        .sequential()
+			                        .count())
+			            .expectNext(10_000L)
+			            .expectComplete()
+			            .verify(Duration.ofSeconds(5));
+		}
+		finally {
+			s.dispose();
+		}
+	}
+}
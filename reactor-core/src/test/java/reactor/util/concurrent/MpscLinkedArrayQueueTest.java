@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class MpscLinkedArrayQueueTest {
+
+	@Test
+	public void offerPollInOrder() {
+		Queue<Integer> q = new MpscLinkedArrayQueue<>(8);
+
+		assertThat(q.isEmpty()).isTrue();
+		assertThat(q.poll()).isNull();
+		assertThat(q.peek()).isNull();
+
+		for (int i = 0; i < 20; i++) {
+			assertThat(q.offer(i)).isTrue();
+		}
+		assertThat(q.size()).isEqualTo(20);
+		assertThat(q.peek()).isEqualTo(0);
+
+		for (int i = 0; i < 20; i++) {
+			assertThat(q.poll()).isEqualTo(i);
+		}
+		assertThat(q.isEmpty()).isTrue();
+		assertThat(q.poll()).isNull();
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void offerNullRejected() {
+		new MpscLinkedArrayQueue<Integer>(8).offer(null);
+	}
+
+	@Test
+	public void clear() {
+		Queue<Integer> q = new MpscLinkedArrayQueue<>(8);
+		for (int i = 0; i < 10; i++) {
+			q.offer(i);
+		}
+		q.clear();
+
+		assertThat(q.isEmpty()).isTrue();
+		assertThat(q.size()).isZero();
+	}
+
+	@Test
+	public void offerAcrossLinks() {
+		Queue<Integer> q = new MpscLinkedArrayQueue<>(8);
+
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < 50; i++) {
+				q.offer(i);
+			}
+			for (int i = 0; i < 50; i++) {
+				assertThat(q.peek()).isEqualTo(i);
+				assertThat(q.poll()).isEqualTo(i);
+			}
+			assertThat(q.poll()).isNull();
+		}
+	}
+
+	@Test(timeout = 10_000)
+	public void multipleProducersKeepPerProducerOrder() throws InterruptedException {
+		final int producers = 4;
+		final int count = 100_000;
+		Queue<Integer> q = new MpscLinkedArrayQueue<>(8);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+
+		for (int p = 0; p < producers; p++) {
+			final int base = p * count;
+			Thread t = new Thread(() -> {
+				try {
+					start.await();
+				}
+				catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < count; i++) {
+					while (!q.offer(base + i)) {
+						Thread.yield();
+					}
+				}
+			});
+			t.start();
+			threads.add(t);
+		}
+		start.countDown();
+
+		int[] last = new int[producers];
+		for (int p = 0; p < producers; p++) {
+			last[p] = -1;
+		}
+		int received = 0;
+		while (received < producers * count) {
+			Integer v = q.poll();
+			if (v == null) {
+				Thread.yield();
+				continue;
+			}
+			int p = v / count;
+			int i = v % count;
+			if (i != last[p] + 1) {
+				fail("producer " + p + " expected " + (last[p] + 1) + " but got " + i);
+			}
+			last[p] = i;
+			received++;
+		}
+
+		for (Thread t : threads) {
+			t.join(TimeUnit.SECONDS.toMillis(5));
+		}
+		assertThat(q.isEmpty()).isTrue();
+	}
+}
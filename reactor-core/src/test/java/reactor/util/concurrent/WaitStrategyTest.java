@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.junit.Test;
+import reactor.core.Scannable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WaitStrategyTest {
+
+	static final Runnable NOOP = () -> {};
+
+	@Test(expected = IllegalArgumentException.class)
+	public void adaptiveRejectsInvertedThresholds() {
+		WaitStrategy.adaptive(10, 1, TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	public void adaptiveAvailableSequenceIsNotAWait() throws InterruptedException {
+		WaitStrategy strategy = WaitStrategy.adaptive();
+		Scannable scannable = Scannable.from(strategy);
+
+		assertThat(strategy.waitFor(3, () -> 5L, NOOP)).isEqualTo(5L);
+		assertThat(scannable.isScanAvailable()).isTrue();
+		assertThat(scannable.scan(Scannable.LongAttr.WAITS)).isZero();
+	}
+
+	@Test
+	public void adaptiveShortWaitsSwitchToSpinning() throws InterruptedException {
+		//each clock read is one microsecond later, so that a wait satisfied after a
+		//couple of yields is measured as a few microseconds whatever the machine load
+		AtomicLong now = new AtomicLong();
+		WaitStrategy strategy = new WaitStrategy.Adaptive(50, 10_000, TimeUnit.MICROSECONDS,
+				() -> now.addAndGet(1_000L));
+		Scannable scannable = Scannable.from(strategy);
+		assertThat(scannable.scan(Scannable.StringAttr.WAIT_PHASE)).isEqualTo("yield");
+
+		for (int i = 0; i < 100; i++) {
+			AtomicInteger polls = new AtomicInteger();
+			LongSupplier cursor = () -> polls.incrementAndGet() < 3 ? -1L : 0L;
+			assertThat(strategy.waitFor(0, cursor, NOOP)).isEqualTo(0L);
+		}
+
+		assertThat(scannable.scan(Scannable.StringAttr.WAIT_PHASE)).isEqualTo("spin");
+		assertThat(scannable.scan(Scannable.LongAttr.WAITS)).isEqualTo(100L);
+		assertThat(scannable.scan(Scannable.LongAttr.WAIT_SPIN_HITS)).isPositive();
+		assertThat(scannable.scan(Scannable.LongAttr.WAIT_YIELD_HITS)).isPositive();
+		assertThat(scannable.scan(Scannable.LongAttr.WAIT_PARKS)).isZero();
+		assertThat(scannable.scan(Scannable.LongAttr.WAIT_AVERAGE_NANOS)).isLessThan(50_000L);
+	}
+
+	@Test
+	public void adaptiveLongWaitsSwitchToParking() throws InterruptedException {
+		WaitStrategy strategy = WaitStrategy.adaptive(1, 100, TimeUnit.MICROSECONDS);
+		Scannable scannable = Scannable.from(strategy);
+		AtomicLong cursor = new AtomicLong(-1L);
+
+		for (int i = 0; i < 20; i++) {
+			long sequence = i;
+			Thread producer = new Thread(() -> {
+				try {
+					Thread.sleep(2);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				cursor.set(sequence);
+				strategy.signalAllWhenBlocking();
+			});
+			producer.start();
+			assertThat(strategy.waitFor(sequence, cursor::get, NOOP)).isEqualTo(sequence);
+			producer.join();
+		}
+
+		assertThat(scannable.scan(Scannable.StringAttr.WAIT_PHASE)).isEqualTo("park");
+		assertThat(scannable.scan(Scannable.LongAttr.WAITS)).isBetween(1L, 20L);
+		assertThat(scannable.scan(Scannable.LongAttr.WAIT_PARKS)).isPositive();
+		assertThat(scannable.scan(Scannable.LongAttr.WAIT_SPIN_HITS)).isZero();
+	}
+
+	@Test
+	public void adaptiveBarrierAlertInterruptsWait() {
+		WaitStrategy strategy = WaitStrategy.adaptive();
+		try {
+			strategy.waitFor(0, () -> -1L, WaitStrategy::alert);
+		}
+		catch (Throwable e) {
+			assertThat(WaitStrategy.isAlert(e)).isTrue();
+			return;
+		}
+		throw new AssertionError("expected an alert");
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.context;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ContextNTest {
+
+	static final class CollidingKey {
+
+		final int hash;
+		final String id;
+
+		CollidingKey(int hash, String id) {
+			this.hash = hash;
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof CollidingKey && ((CollidingKey) o).id.equals(id);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public String toString() {
+			return id;
+		}
+	}
+
+	static Context fill(int size) {
+		Context c = Context.empty();
+		for (int i = 0; i < size; i++) {
+			c = c.put("key" + i, i);
+		}
+		return c;
+	}
+
+	@Test
+	public void putAndGetLargeContext() {
+		Context c = fill(1000);
+
+		assertThat(c).isInstanceOf(ContextN.class);
+		assertThat(((ContextN) c).size).isEqualTo(1000);
+		for (int i = 0; i < 1000; i++) {
+			assertThat(c.<Integer>get("key" + i)).isEqualTo(i);
+		}
+		assertThat(c.stream().count()).isEqualTo(1000);
+	}
+
+	@Test
+	public void putIsPersistent() {
+		Context c1 = fill(20);
+		Context c2 = c1.put("key3", "updated")
+		               .put("new", "value");
+
+		assertThat(c1.<Integer>get("key3")).isEqualTo(3);
+		assertThat(c1.<String>get("new")).isNull();
+		assertThat(((ContextN) c1).size).isEqualTo(20);
+
+		assertThat(c2.<String>get("key3")).isEqualTo("updated");
+		assertThat(c2.<String>get("new")).isEqualTo("value");
+		assertThat(((ContextN) c2).size).isEqualTo(21);
+	}
+
+	@Test
+	public void putSameValueReturnsSameContext() {
+		Context c = fill(10);
+		assertThat(c.put("key4", c.get("key4"))).isSameAs(c);
+	}
+
+	@Test
+	public void removeShrinksBackToContext5() {
+		Context c = fill(6);
+
+		Context r = c.put("key2", null);
+		assertThat(r).isInstanceOf(Context5.class);
+		assertThat(r.<Integer>get("key2")).isNull();
+		assertThat(r.<Integer>get("key5")).isEqualTo(5);
+
+		assertThat(c.put("absent", null)).isSameAs(c);
+	}
+
+	@Test
+	public void removeAll() {
+		Context c = fill(300);
+		for (int i = 0; i < 300; i++) {
+			c = c.put("key" + i, null);
+			assertThat(c.<Integer>get("key" + i)).isNull();
+			assertThat(c.stream().count()).isEqualTo(299 - i);
+		}
+		assertThat(c.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void hashCollisions() {
+		Context c = fill(6);
+		for (int i = 0; i < 10; i++) {
+			c = c.put(new CollidingKey(42, "c" + i), i);
+		}
+		c = c.put(new CollidingKey(42 + (1 << 20), "other"), "other");
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(c.<Integer>get(new CollidingKey(42, "c" + i))).isEqualTo(i);
+		}
+		assertThat(c.<String>get(new CollidingKey(42 + (1 << 20), "other"))).isEqualTo("other");
+		assertThat(c.<String>get(new CollidingKey(42, "absent"))).isNull();
+
+		Context updated = c.put(new CollidingKey(42, "c3"), "updated");
+		assertThat(updated.<String>get(new CollidingKey(42, "c3"))).isEqualTo("updated");
+		assertThat(c.<Integer>get(new CollidingKey(42, "c3"))).isEqualTo(3);
+
+		for (int i = 0; i < 10; i++) {
+			c = c.put(new CollidingKey(42, "c" + i), null);
+			assertThat(c.<Integer>get(new CollidingKey(42, "c" + i))).isNull();
+			for (int j = i + 1; j < 10; j++) {
+				assertThat(c.<Integer>get(new CollidingKey(42, "c" + j))).isEqualTo(j);
+			}
+		}
+		assertThat(c.<String>get(new CollidingKey(42 + (1 << 20), "other"))).isEqualTo("other");
+		assertThat(c.stream().count()).isEqualTo(7);
+	}
+
+	@Test
+	public void randomOperationsMatchHashMap() {
+		Random random = new Random(0xCAFE);
+		Map<Object, Object> expected = new HashMap<>();
+		Context c = Context.empty();
+
+		for (int i = 0; i < 10_000; i++) {
+			Object key = new CollidingKey(random.nextInt(64), "k" + random.nextInt(200));
+			if (random.nextInt(3) == 0) {
+				expected.remove(key);
+				c = c.put(key, null);
+			}
+			else {
+				expected.put(key, i);
+				c = c.put(key, i);
+			}
+
+			assertThat(c.<Integer>get(key)).isEqualTo(expected.get(key));
+		}
+
+		assertThat(c.stream()
+		            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)))
+				.isEqualTo(expected);
+	}
+
+	@Test
+	public void toStringListsEntries() {
+		assertThat(fill(6).toString())
+				.startsWith("ContextN{")
+				.contains("key0=0", "key5=5")
+				.endsWith("}");
+	}
+}
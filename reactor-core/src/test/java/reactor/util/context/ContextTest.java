@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.context;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ContextTest {
+
+	@Test
+	public void putGrowsThroughSpecializations() {
+		Context c = Context.empty();
+		assertThat(c).isInstanceOf(Context0.class);
+
+		c = c.put(1, "A");
+		assertThat(c).isInstanceOf(Context1.class);
+		c = c.put(2, "B");
+		assertThat(c).isInstanceOf(Context2.class);
+		c = c.put(3, "C");
+		assertThat(c).isInstanceOf(Context3.class);
+		c = c.put(4, "D");
+		assertThat(c).isInstanceOf(Context4.class);
+		c = c.put(5, "E");
+		assertThat(c).isInstanceOf(Context5.class);
+		c = c.put(6, "F");
+		assertThat(c).isInstanceOf(ContextN.class);
+
+		assertThat(c.<String>get(1)).isEqualTo("A");
+		assertThat(c.<String>get(6)).isEqualTo("F");
+		assertThat(c.stream()
+		            .map(Map.Entry::getKey)
+		            .collect(Collectors.toList())).containsExactlyInAnyOrder(1, 2, 3, 4, 5, 6);
+	}
+
+	@Test
+	public void putExistingKeyReplacesValue() {
+		Context c = Context.empty();
+		for (int i = 1; i <= 5; i++) {
+			c = c.put(i, "v" + i);
+			for (int k = 1; k <= i; k++) {
+				Context r = c.put(k, "replaced");
+				assertThat(r.getClass()).isEqualTo(c.getClass());
+				assertThat(r.<String>get(k)).isEqualTo("replaced");
+				assertThat(c.<String>get(k)).isEqualTo("v" + k);
+				for (int o = 1; o <= i; o++) {
+					if (o != k) {
+						assertThat(r.<String>get(o)).isEqualTo("v" + o);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void putNullValueRemovesKey() {
+		Context c = Context.empty();
+		for (int i = 1; i <= 5; i++) {
+			c = c.put(i, "v" + i);
+			for (int k = 1; k <= i; k++) {
+				Context r = c.put(k, null);
+				assertThat(r.<String>get(k)).isNull();
+				assertThat(r.stream().count()).isEqualTo(i - 1);
+				for (int o = 1; o <= i; o++) {
+					if (o != k) {
+						assertThat(r.<String>get(o)).isEqualTo("v" + o);
+					}
+				}
+			}
+			assertThat(c.put("absent", null)).isSameAs(c);
+		}
+		assertThat(Context.empty().put(1, "A").put(1, null).isEmpty()).isTrue();
+	}
+
+	@Test
+	public void getMissingKey() {
+		Context c = Context.empty();
+		for (int i = 1; i <= 6; i++) {
+			c = c.put(i, "v" + i);
+			assertThat(c.<String>get("missing")).isNull();
+			assertThat(c.getOrDefault("missing", "foo")).isEqualTo("foo");
+		}
+	}
+
+	@Test
+	public void getByType() {
+		Context c = Context.empty()
+		                   .put(String.class, "A")
+		                   .put(Integer.class, "B");
+
+		assertThat(c.get(String.class)).isEqualTo("A");
+		assertThat(c.get(Integer.class)).isNull();
+	}
+
+	@Test
+	public void toStringListsEntries() {
+		assertThat(Context.empty().put(1, "A").put(2, "B").put(3, "C"))
+				.hasToString("Context3{1=A, 2=B, 3=C}");
+		assertThat(Context.empty().put(1, "A").put(2, "B").put(3, "C")
+		                  .put(4, "D").put(5, "E"))
+				.hasToString("Context5{1=A, 2=B, 3=C, 4=D, 5=E}");
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.test.scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Schedules {@code timers} tasks spread over {@code ticks} distinct virtual times,
+ * then advances the clock either in one step or one tick at a time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VirtualTimeSchedulerBenchmark {
+
+	@Param({"10000", "200000"})
+	public int timers;
+
+	@Param({"1", "1000"})
+	public int ticks;
+
+	VirtualTimeScheduler prepare(Blackhole bh) {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		Scheduler.Worker worker = vts.createWorker();
+		Runnable task = () -> bh.consume(vts);
+		for (int i = 0; i < timers; i++) {
+			worker.schedule(task, 1 + i % ticks, TimeUnit.MILLISECONDS);
+		}
+		return vts;
+	}
+
+	@Benchmark
+	public void advanceAll(Blackhole bh) {
+		VirtualTimeScheduler vts = prepare(bh);
+		vts.advanceTimeBy(Duration.ofMillis(ticks));
+		vts.dispose();
+	}
+
+	@Benchmark
+	public void advancePerTick(Blackhole bh) {
+		VirtualTimeScheduler vts = prepare(bh);
+		Duration tick = Duration.ofMillis(1);
+		for (int i = 0; i < ticks; i++) {
+			vts.advanceTimeBy(tick);
+		}
+		vts.dispose();
+	}
+
+	@Benchmark
+	public void interval(Blackhole bh) {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		Flux.interval(Duration.ofMillis(1), vts)
+		    .take(timers)
+		    .subscribe(bh::consume);
+		vts.advanceTimeBy(Duration.ofMillis(timers));
+		vts.dispose();
+	}
+}
@@ -18,11 +18,12 @@ package reactor.test.scheduler;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Map;
 import java.util.Queue;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.TreeMap;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
@@ -176,11 +177,34 @@ public class VirtualTimeScheduler implements Scheduler {
 		}
 	}
 
-	final Queue<TimedRunnable> queue =
-			new PriorityBlockingQueue<>(QueueSupplier.XS_BUFFER_SIZE);
+	/**
+	 * Tasks scheduled from any thread, waiting to be sorted into {@link #immediate} or
+	 * {@link #timers} by the thread advancing the clock.
+	 */
+	final Queue<TimedRunnable> incoming = QueueSupplier.<TimedRunnable>mpscUnbounded().get();
+
+	/**
+	 * Tasks scheduled without delay, which run before any timed task.
+	 */
+	final ArrayDeque<TimedRunnable> immediate = new ArrayDeque<>();
+
+	/**
+	 * Timed tasks, grouped into one run list per virtual time and run in scheduling
+	 * order within that list.
+	 */
+	final TreeMap<Long, ArrayDeque<TimedRunnable>> timers = new TreeMap<>();
+
+	/**
+	 * The run list of the virtual time currently being executed, if any.
+	 */
+	@Nullable
+	ArrayDeque<TimedRunnable> tick;
 
-	@SuppressWarnings("unused")
-	volatile long counter;
+	/**
+	 * A drained run list kept for the next virtual time that needs one.
+	 */
+	@Nullable
+	ArrayDeque<TimedRunnable> spareTick;
 
 	volatile long nanoTime;
 
@@ -257,7 +281,12 @@ public class VirtualTimeScheduler implements Scheduler {
 		if (shutdown) {
 			return;
 		}
-		queue.clear();
+		synchronized (this) {
+			incoming.clear();
+			immediate.clear();
+			timers.clear();
+			tick = null;
+		}
 		shutdown = true;
 		//TODO remove the below behavior?
 		VirtualTimeScheduler s = CURRENT.get();
@@ -283,48 +312,99 @@ public class VirtualTimeScheduler implements Scheduler {
 		return periodicTask;
 	}
 
+	/**
+	 * Run, in order, every task due at or before the target time then set the clock to
+	 * it. Scheduling is lock-free, tasks being sorted by virtual time here, by the
+	 * thread holding the scheduler's monitor. Each virtual time is taken out of the
+	 * timer map once and its run list executed as a whole, unless a task schedules an
+	 * immediate task, which runs first as it would have been due earlier.
+	 *
+	 * @param targetTimeInNanoseconds the virtual time to move the clock to
+	 */
 	final void advanceTime(long targetTimeInNanoseconds) {
-		while (!queue.isEmpty()) {
-			TimedRunnable current = queue.peek();
-			if (current.time > targetTimeInNanoseconds) {
-				break;
+		synchronized (this) {
+			for (; ; ) {
+				if (!incoming.isEmpty()) {
+					drainIncoming();
+				}
+
+				TimedRunnable current = immediate.poll();
+				if (current == null) {
+					ArrayDeque<TimedRunnable> t = tick;
+					if (t == null || t.isEmpty()) {
+						Map.Entry<Long, ArrayDeque<TimedRunnable>> next = timers.firstEntry();
+						if (next == null || next.getKey() > targetTimeInNanoseconds) {
+							if (t != null) {
+								tick = null;
+								spareTick = t;
+							}
+							break;
+						}
+						timers.pollFirstEntry();
+						if (t != null) {
+							spareTick = t;
+						}
+						t = next.getValue();
+						tick = t;
+						nanoTime = next.getKey();
+					}
+					current = t.poll();
+				}
+
+				// Only execute if not unsubscribed
+				if (!current.disposed && !current.scheduler.shutdown) {
+					current.run.run();
+				}
 			}
-			// if scheduled time is 0 (immediate) use current virtual time
-			nanoTime = current.time == 0 ? nanoTime : current.time;
-			queue.remove();
+			nanoTime = targetTimeInNanoseconds;
+		}
+	}
 
-			// Only execute if not unsubscribed
-			if (!current.scheduler.shutdown) {
-				current.run.run();
+	final void drainIncoming() {
+		TimedRunnable t;
+		while ((t = incoming.poll()) != null) {
+			if (t.time == IMMEDIATE) {
+				immediate.offer(t);
+			}
+			else {
+				ArrayDeque<TimedRunnable> runList = timers.get(t.time);
+				if (runList == null) {
+					runList = spareTick;
+					if (runList != null) {
+						spareTick = null;
+					}
+					else {
+						runList = new ArrayDeque<>();
+					}
+					timers.put(t.time, runList);
+				}
+				runList.offer(t);
 			}
 		}
-		nanoTime = targetTimeInNanoseconds;
 	}
 
-	static final class TimedRunnable implements Comparable<TimedRunnable> {
+	static final class TimedRunnable implements Disposable {
 
 		final long              time;
 		final Runnable          run;
 		final VirtualTimeWorker scheduler;
-		final long              count; // for differentiating tasks at same time
 
-		TimedRunnable(VirtualTimeWorker scheduler, long time, Runnable run, long count) {
+		volatile boolean disposed;
+
+		TimedRunnable(VirtualTimeWorker scheduler, long time, Runnable run) {
 			this.time = time;
 			this.run = run;
 			this.scheduler = scheduler;
-			this.count = count;
 		}
 
 		@Override
-		public int compareTo(TimedRunnable o) {
-			if (time == o.time) {
-				return compare(count, o.count);
-			}
-			return compare(time, o.time);
+		public void dispose() {
+			disposed = true;
 		}
 
-		static int compare(long a, long b){
-			return a < b ? -1 : (a > b ? 1 : 0);
+		@Override
+		public boolean isDisposed() {
+			return disposed;
 		}
 	}
 
@@ -361,12 +441,9 @@ public class VirtualTimeScheduler implements Scheduler {
 			if (shutdown) {
 				return REJECTED;
 			}
-			final TimedRunnable timedTask = new TimedRunnable(this,
-					0,
-					run,
-					COUNTER.getAndIncrement(VirtualTimeScheduler.this));
-			queue.add(timedTask);
-			return () -> queue.remove(timedTask);
+			final TimedRunnable timedTask = new TimedRunnable(this, IMMEDIATE, run);
+			incoming.offer(timedTask);
+			return timedTask;
 		}
 
 		@Override
@@ -376,11 +453,10 @@ public class VirtualTimeScheduler implements Scheduler {
 			}
 			final TimedRunnable timedTask = new TimedRunnable(this,
 					nanoTime + unit.toNanos(delayTime),
-					run,
-					COUNTER.getAndIncrement(VirtualTimeScheduler.this));
-			queue.add(timedTask);
+					run);
+			incoming.offer(timedTask);
 
-			return () -> queue.remove(timedTask);
+			return timedTask;
 		}
 
 		@Override
@@ -522,8 +598,10 @@ public class VirtualTimeScheduler implements Scheduler {
 
 	static final AtomicReference<VirtualTimeScheduler> CURRENT = new AtomicReference<>();
 
-	static final AtomicLongFieldUpdater<VirtualTimeScheduler> COUNTER =
-			AtomicLongFieldUpdater.newUpdater(VirtualTimeScheduler.class, "counter");
+	/**
+	 * {@link TimedRunnable#time} of tasks scheduled without delay.
+	 */
+	static final long IMMEDIATE = Long.MIN_VALUE;
 	static final long CLOCK_DRIFT_TOLERANCE_NANOSECONDS;
 
 	static {
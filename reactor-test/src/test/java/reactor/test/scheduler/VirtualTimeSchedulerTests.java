@@ -16,11 +16,17 @@
 
 package reactor.test.scheduler;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
@@ -107,6 +113,94 @@ public class VirtualTimeSchedulerTests {
 	}
 
 
+	@Test
+	public void tasksAtSameTimeRunInSchedulingOrder() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		Scheduler.Worker worker = vts.createWorker();
+		List<Integer> order = new ArrayList<>();
+
+		worker.schedule(() -> order.add(3), 20, TimeUnit.MILLISECONDS);
+		worker.schedule(() -> order.add(1), 10, TimeUnit.MILLISECONDS);
+		worker.schedule(() -> order.add(2), 10, TimeUnit.MILLISECONDS);
+		worker.schedule(() -> order.add(0));
+
+		vts.advanceTimeBy(Duration.ofMillis(15));
+		assertThat(order).containsExactly(0, 1, 2);
+
+		vts.advanceTimeBy(Duration.ofMillis(5));
+		assertThat(order).containsExactly(0, 1, 2, 3);
+	}
+
+	@Test
+	public void manyTimersRunInBulk() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		Scheduler.Worker worker = vts.createWorker();
+		AtomicInteger count = new AtomicInteger();
+
+		for (int i = 0; i < 100_000; i++) {
+			worker.schedule(count::incrementAndGet, 1 + i % 1000, TimeUnit.MILLISECONDS);
+		}
+
+		vts.advanceTimeBy(Duration.ofMillis(500));
+		assertThat(count.get()).isEqualTo(50_000);
+
+		vts.advanceTimeBy(Duration.ofMillis(500));
+		assertThat(count.get()).isEqualTo(100_000);
+		assertThat(vts.now(TimeUnit.MILLISECONDS)).isEqualTo(1000);
+	}
+
+	@Test
+	public void cancelledTimerDoesNotRun() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		Scheduler.Worker worker = vts.createWorker();
+		AtomicInteger count = new AtomicInteger();
+
+		Disposable first = worker.schedule(count::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+		worker.schedule(count::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+		first.dispose();
+
+		assertThat(first.isDisposed()).isTrue();
+
+		vts.advanceTimeBy(Duration.ofMillis(10));
+		assertThat(count.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void taskScheduledDuringTickRunsAtItsOwnTime() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		Scheduler.Worker worker = vts.createWorker();
+		List<String> order = new ArrayList<>();
+
+		worker.schedule(() -> {
+			order.add("a@" + vts.now(TimeUnit.MILLISECONDS));
+			worker.schedule(() -> order.add("now@" + vts.now(TimeUnit.MILLISECONDS)));
+			worker.schedule(() -> order.add("later@" + vts.now(TimeUnit.MILLISECONDS)),
+					5, TimeUnit.MILLISECONDS);
+		}, 10, TimeUnit.MILLISECONDS);
+		worker.schedule(() -> order.add("b@" + vts.now(TimeUnit.MILLISECONDS)),
+				10, TimeUnit.MILLISECONDS);
+		worker.schedule(() -> order.add("c@" + vts.now(TimeUnit.MILLISECONDS)),
+				12, TimeUnit.MILLISECONDS);
+
+		vts.advanceTimeBy(Duration.ofMillis(100));
+
+		assertThat(order).containsExactly("a@10", "now@10", "b@10", "c@12", "later@15");
+	}
+
+	@Test
+	public void disposedWorkerTasksAreSkipped() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		Scheduler.Worker worker = vts.createWorker();
+		AtomicInteger count = new AtomicInteger();
+
+		worker.schedule(count::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+		worker.dispose();
+
+		vts.advanceTimeBy(Duration.ofMillis(10));
+		assertThat(count.get()).isZero();
+	}
+
+
 	@SuppressWarnings("unchecked")
 	private static Scheduler uncache(Scheduler potentialCached) {
 		if (potentialCached instanceof Supplier) {